@@ -1,11 +1,18 @@
 package com.example.backend;
 
+import com.example.backend.events.TooManySubscribersException;
+import com.example.backend.integration.async.TransferQueueFullException;
+import com.example.backend.service.VersionMismatchException;
+import jakarta.persistence.OptimisticLockException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -23,6 +30,15 @@ public class RestExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
     }
 
+    // Falha do @Valid no corpo: o primeiro campo inválido, no formato 'campo: mensagem'.
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidBody(MethodArgumentNotValidException ex) {
+        FieldError field = ex.getBindingResult().getFieldError();
+        String message = field == null ? "Requisição inválida" : field.getField() + ": " + field.getDefaultMessage();
+        log.warn("Invalid request body: {}", message);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", message));
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<Map<String, String>> handleIllegalState(IllegalStateException ex) {
         log.warn("Business rule violation: {}", ex.getMessage());
@@ -35,7 +51,34 @@ public class RestExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", ex.getMessage()));
     }
 
-    @ExceptionHandler({ObjectOptimisticLockingFailureException.class, OptimisticLockingFailureException.class})
+    @ExceptionHandler(VersionMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleVersionMismatch(VersionMismatchException ex) {
+        log.warn("Stale If-Match: id={}", ex.getId());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of("error", ex.getMessage()));
+    }
+
+    // Fila de transferências assíncronas cheia: o cliente deve reenviar mais tarde.
+    @ExceptionHandler(TransferQueueFullException.class)
+    public ResponseEntity<Map<String, String>> handleQueueFull(TransferQueueFullException ex) {
+        log.warn("Async transfer rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    // Stream de mudanças lotado. Sem corpo: o cliente pediu text/event-stream; o EventSource reconecta.
+    @ExceptionHandler(TooManySubscribersException.class)
+    public ResponseEntity<Void> handleTooManySubscribers(TooManySubscribersException ex) {
+        log.warn("Event stream subscription rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
+    }
+
+    // OptimisticLockException: lançada pelo em.flush() dentro do método transacional,
+    // antes que o Spring possa traduzi-la.
+    @ExceptionHandler({ObjectOptimisticLockingFailureException.class, OptimisticLockingFailureException.class,
+            OptimisticLockException.class})
     public ResponseEntity<Map<String, String>> handleOptimisticConflict(RuntimeException ex) {
         log.warn("Optimistic locking conflict detected", ex);
         return ResponseEntity.status(HttpStatus.CONFLICT)
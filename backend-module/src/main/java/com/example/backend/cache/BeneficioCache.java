@@ -0,0 +1,203 @@
+package com.example.backend.cache;
+
+import com.example.backend.dto.BeneficioResponse;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.money.Money;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Cache em processo das leituras por ID (GET /api/v1/beneficios/{id}).
+ *
+ * Caffeine com limite de tamanho e validade. Cada entrada é uma cópia imutável da linha
+ * (Snapshot), carimbada com a VERSION lida, nunca a entidade gerenciada.
+ *
+ * Uma leitura iniciada depois de uma escrita confirmada nunca vê o valor antigo:
+ * - toda escrita (update, delete, transferência) invalida os IDs *depois do commit*,
+ *   removendo a entrada e avançando o contador de geração do ID;
+ * - uma leitura que não encontrou a entrada anota a geração antes de ir ao banco e só
+ *   instala o valor lido se a geração não mudou. Se uma escrita confirmou no meio tempo,
+ *   o valor lido (possivelmente anterior ao commit) é devolvido, mas não entra no cache.
+ * As duas checagens rodam dentro do 'compute' do mapa, que serializa operações na mesma chave.
+ *
+ * Cada invalidação também avança uma revisão da tabela inteira, usada como ETag da listagem.
+ */
+public class BeneficioCache {
+
+    // Contadores de geração por faixa de IDs; IDs da mesma faixa só causam invalidações a mais.
+    private static final int GENERATIONS = 1024;
+
+    private final boolean enabled;
+
+    private final Cache<Long, Snapshot> cache;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATIONS);
+
+    // Revisão da tabela: avança a cada escrita confirmada por esta instância.
+    private final AtomicLong revision = new AtomicLong();
+
+    // Distingue as revisões desta instância das de outra (ou de antes de um restart).
+    private final String instance = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    private final long revisionWindowMillis;
+
+    public BeneficioCache(BeneficioCacheProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.revisionWindowMillis = Math.max(1, properties.getExpireAfterWrite().toMillis());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Cópia imutável de um benefício, com o saldo total e a VERSION lidos.
+     */
+    public record Snapshot(Long id, String nome, String descricao, Money valor, Boolean ativo, Long version,
+                           boolean fracionado) {
+
+        /**
+         * Projeção do JPQL ('BeneficioRepository.findSnapshotById'): soma as faixas ao VALOR,
+         * sem carregar a entidade.
+         */
+        public Snapshot(Long id, String nome, String descricao, Money valor, Money valorSubsaldos, Boolean ativo,
+                        Long version, Integer subsaldos) {
+            this(id, nome, descricao, valor.plus(valorSubsaldos), ativo, version, subsaldos != null && subsaldos > 0);
+        }
+
+        public static Snapshot of(Beneficio b) {
+            return new Snapshot(b.getId(), b.getNome(), b.getDescricao(), b.getSaldo(), b.getAtivo(), b.getVersion(),
+                    b.isFracionado());
+        }
+
+        public String versionTag() {
+            return versionTag(version, fracionado, valor);
+        }
+
+        /**
+         * Identifica o estado de um benefício (ETag / If-Match): a VERSION e, nas contas
+         * fracionadas, também o saldo total, porque créditos nas faixas não avançam a VERSION.
+         */
+        public static String versionTag(Long version, boolean fracionado, Money saldo) {
+            String tag = String.valueOf(version);
+            return fracionado ? tag + "-" + saldo.cents() : tag;
+        }
+
+        /**
+         * A VERSION contida em uma tag, ou -1 se ela não veio de 'versionTag'.
+         */
+        public static long versionOf(String tag) {
+            int end = tag.indexOf('-');
+            try {
+                return Long.parseLong(end < 0 ? tag : tag.substring(0, end));
+            } catch (NumberFormatException ex) {
+                return -1;
+            }
+        }
+
+        public BeneficioResponse toResponse() {
+            return new BeneficioResponse(id, nome, descricao, valor, ativo, version);
+        }
+
+    }
+
+    /**
+     * Devolve o benefício do cache ou, na falta, do 'loader' (que deve lançar
+     * NoSuchElementException para IDs inexistentes; ausências não são guardadas).
+     */
+    public Snapshot get(Long id, Function<Long, Snapshot> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        Snapshot cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        int slot = slot(id);
+        long generation = generations.get(slot);
+        Snapshot loaded = loader.apply(id);
+        cache.asMap().compute(id, (key, current) -> {
+            if (generations.get(slot) != generation) {
+                return current; // uma escrita confirmou durante a leitura
+            }
+            if (current != null && current.version() != null && loaded.version() != null
+                    && current.version() > loaded.version()) {
+                return current;
+            }
+            return loaded;
+        });
+        return loaded;
+    }
+
+    /**
+     * O benefício em cache, sem ir ao banco; null na falta (ou com o cache desligado).
+     */
+    public Snapshot peek(Long id) {
+        return enabled ? cache.getIfPresent(id) : null;
+    }
+
+    /**
+     * Marcador de mudança da tabela inteira, sem consultar o banco.
+     *
+     * Muda a cada escrita confirmada por esta instância e, no mais tardar, a cada
+     * 'expire-after-write': escritas de outras instâncias (ou do módulo EJB) não passam
+     * por aqui e ficam visíveis no mesmo prazo que no cache por ID.
+     */
+    public String revisionTag() {
+        return instance + "-" + revision.get() + "-" + System.currentTimeMillis() / revisionWindowMillis;
+    }
+
+    /**
+     * Invalida os IDs agora.
+     */
+    public void invalidate(Collection<Long> ids) {
+        revision.incrementAndGet();
+        for (Long id : ids) {
+            if (id == null) {
+                continue;
+            }
+            cache.asMap().compute(id, (key, current) -> {
+                generations.incrementAndGet(slot(key));
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Invalida os IDs depois do commit da transação atual ou, sem transação, agora.
+     * Invalidar antes do commit deixaria uma leitura concorrente recolocar o valor antigo.
+     */
+    public void invalidateAfterCommit(Collection<Long> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(ids);
+            return;
+        }
+        List<Long> copy = ids.stream().filter(Objects::nonNull).toList();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(copy);
+            }
+        });
+    }
+
+    public Cache<Long, Snapshot> getNativeCache() {
+        return cache;
+    }
+
+    private static int slot(Long id) {
+        return (int) (id ^ (id >>> 32)) & (GENERATIONS - 1);
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.example.backend.cache;
+
+import com.example.backend.integration.BeneficioTransferPort;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(BeneficioCacheProperties.class)
+public class BeneficioCacheConfig {
+
+    @Bean
+    BeneficioCache beneficioCache(BeneficioCacheProperties properties) {
+        return new BeneficioCache(properties);
+    }
+
+    /**
+     * Acertos, faltas, descartes e tamanho em /actuator/metrics (cache.gets, cache.evictions,
+     * cache.size) com a tag cache=beneficios.
+     */
+    @Bean
+    MeterBinder beneficioCacheMetrics(BeneficioCache cache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, cache.getNativeCache(), "beneficios");
+    }
+
+    // 'static': BeanPostProcessors são criados antes dos demais beans desta configuração.
+    @Bean
+    static CacheInvalidationPostProcessor cacheInvalidationPostProcessor(ObjectProvider<BeneficioCache> cache) {
+        return new CacheInvalidationPostProcessor(cache);
+    }
+
+    /**
+     * Envolve todo bean BeneficioTransferPort com o CacheInvalidatingBeneficioTransferPort.
+     *
+     * Roda antes do post-processor de retentativa, resultando em
+     * Métricas → Retentativa → Invalidação do cache → @Transactional.
+     */
+    static class CacheInvalidationPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<BeneficioCache> cache;
+
+        CacheInvalidationPostProcessor(ObjectProvider<BeneficioCache> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof BeneficioTransferPort port) || bean instanceof CacheInvalidatingBeneficioTransferPort) {
+                return bean;
+            }
+            return new CacheInvalidatingBeneficioTransferPort(port, cache.getObject());
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+
+    }
+
+}
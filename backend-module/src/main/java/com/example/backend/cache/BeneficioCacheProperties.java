@@ -0,0 +1,115 @@
+package com.example.backend.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Cache em processo das leituras de um benefício por ID.
+ */
+@ConfigurationProperties(prefix = "beneficio.cache")
+public class BeneficioCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Quantidade máxima de benefícios em cache; acima disso o Caffeine descarta os menos
+     * prováveis de serem lidos de novo (W-TinyLFU).
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Validade de uma entrada. Escritas feitas por esta instância invalidam o cache na hora;
+     * o prazo só limita por quanto tempo escritas de fora (EJB, outras instâncias) ficam invisíveis.
+     */
+    private Duration expireAfterWrite = Duration.ofSeconds(30);
+
+    /**
+     * Cache de segundo nível do Hibernate (entidade Beneficio e consultas da listagem).
+     */
+    private final SecondLevel secondLevel = new SecondLevel();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    public SecondLevel getSecondLevel() {
+        return secondLevel;
+    }
+
+    public static class SecondLevel {
+
+        private boolean enabled = true;
+
+        /**
+         * Quantidade máxima de benefícios na região 'beneficio' (entidades lidas por ID).
+         */
+        private long entityMaximumSize = 10_000;
+
+        /**
+         * Quantidade máxima de resultados guardados na região 'beneficio-listagem' (uma entrada
+         * por combinação de filtros, cursor e tamanho de página).
+         */
+        private long queryMaximumSize = 1_000;
+
+        /**
+         * Validade das entradas das duas regiões. Como no cache por ID, escritas desta instância
+         * já invalidam as entradas; o prazo só limita a defasagem das escritas de fora.
+         */
+        private Duration expireAfterWrite = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getEntityMaximumSize() {
+            return entityMaximumSize;
+        }
+
+        public void setEntityMaximumSize(long entityMaximumSize) {
+            this.entityMaximumSize = entityMaximumSize;
+        }
+
+        public long getQueryMaximumSize() {
+            return queryMaximumSize;
+        }
+
+        public void setQueryMaximumSize(long queryMaximumSize) {
+            this.queryMaximumSize = queryMaximumSize;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+    }
+
+}
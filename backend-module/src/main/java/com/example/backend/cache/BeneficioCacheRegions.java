@@ -0,0 +1,78 @@
+package com.example.backend.cache;
+
+import com.example.backend.entity.Beneficio;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+/**
+ * Regiões do cache de segundo nível do Hibernate usadas pelos benefícios, e as escritas por
+ * SQL nativo nas tabelas da entidade.
+ *
+ * O Hibernate só conhece as escritas que passam pelas entidades. Para um UPDATE nativo sem
+ * espaços declarados, ele apaga todas as regiões do cache no commit, e as escritas em
+ * BENEFICIO_SUBSALDO (lidas pela @Formula 'valorSubsaldos') nem tocam a linha de BENEFICIO.
+ * Por isso todo UPDATE/INSERT/DELETE nativo em BENEFICIO ou BENEFICIO_SUBSALDO passa por
+ * 'nativeUpdate', que faz o mesmo que o Hibernate faz num UPDATE da entidade, só no ID alterado:
+ * - trava a entrada do ID na região 'beneficio' até o fim da transação. Enquanto travada,
+ *   leituras vão ao banco e não recolocam valores; depois, só leituras iniciadas após o
+ *   commit voltam a preenchê-la;
+ * - invalida as consultas em cache sobre BENEFICIO (região 'beneficio-listagem').
+ */
+public final class BeneficioCacheRegions {
+
+    /**
+     * Entidades Beneficio lidas por ID ('em.find', 'findById'), estratégia READ_WRITE.
+     */
+    public static final String ENTITY = "beneficio";
+
+    /**
+     * Resultados da listagem paginada ('BeneficioRepository.findPage').
+     */
+    public static final String LISTAGEM = "beneficio-listagem";
+
+    // Regiões padrão do Hibernate, criadas na inicialização com o cache de consultas ligado.
+    static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+
+    static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    // Espaço declarado nos SQL nativos: não é tabela de nenhuma entidade, então o Hibernate
+    // não apaga região nenhuma por causa deles. A invalidação é feita por 'nativeUpdate'.
+    static final String NATIVE_SPACE = "BENEFICIO_NATIVO";
+
+    private BeneficioCacheRegions() {
+    }
+
+    /**
+     * Cria um UPDATE/INSERT/DELETE nativo que altera o benefício 'id' (a linha ou as faixas),
+     * já invalidando o cache de segundo nível como descrito acima. Deve ser chamado dentro da
+     * transação que executa o comando.
+     */
+    public static Query nativeUpdate(EntityManager em, Long id, String sql) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(Beneficio.class);
+
+        if (persister.canWriteToCache()) {
+            EntityDataAccess access = persister.getCacheAccessStrategy();
+            Object key = access.generateCacheKey(id, persister, factory, session.getTenantIdentifier());
+            SoftLock lock = access.lockItem(session, key, null);
+            session.getActionQueue().registerProcess((success, s) -> access.unlockItem(s, key, lock));
+        }
+        if (factory.getSessionFactoryOptions().isQueryCacheEnabled()) {
+            String[] spaces = persister.getPropertySpaces();
+            TimestampsCache timestamps = factory.getCache().getTimestampsCache();
+            timestamps.preInvalidate(spaces, session);
+            session.getActionQueue().registerProcess((success, s) -> timestamps.invalidate(spaces, s));
+        }
+        return em.createNativeQuery(sql).setHint(HINT_NATIVE_SPACES, NATIVE_SPACE);
+    }
+
+}
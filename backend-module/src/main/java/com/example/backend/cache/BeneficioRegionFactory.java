@@ -0,0 +1,98 @@
+package com.example.backend.cache;
+
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * JCacheRegionFactory que protege a região 'beneficio' contra valores lidos antes da última
+ * escrita confirmada.
+ *
+ * Na estratégia READ_WRITE, uma leitura só grava no cache se a trava deixada pela última
+ * escrita tiver VERSION menor que a lida. Essa trava guarda a VERSION de quando foi criada:
+ * depois de um 'em.find' com lock, de um UPDATE nativo ou de duas escritas simultâneas, ela
+ * fica no cache com a VERSION de antes da escrita. Se outra transação travar a mesma entrada
+ * antes de uma leitura recolocar o valor, uma leitura feita entre os dois commits passa na
+ * comparação e grava o saldo que a segunda transferência acabou de substituir.
+ *
+ * A região guarda, por faixa de IDs, o horário da última gravação de uma trava (início ou fim
+ * de uma escrita). Um valor lido por uma transação iniciada antes desse horário não é gravado:
+ * a escrita pode ter confirmado depois da leitura. IDs da mesma faixa só causam faltas a mais.
+ */
+public class BeneficioRegionFactory extends JCacheRegionFactory {
+
+    private static final int SLOTS = 1024;
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        DomainDataStorageAccess storage = super.createDomainDataStorageAccess(regionConfig, buildingContext);
+        return BeneficioCacheRegions.ENTITY.equals(regionConfig.getRegionName()) ? new Guarded(storage) : storage;
+    }
+
+    private final class Guarded implements DomainDataStorageAccess {
+
+        private final DomainDataStorageAccess delegate;
+
+        private final AtomicLongArray lastLock = new AtomicLongArray(SLOTS);
+
+        Guarded(DomainDataStorageAccess delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            int slot = key.hashCode() & (SLOTS - 1);
+            if (value instanceof SoftLock) {
+                lastLock.accumulateAndGet(slot, nextTimestamp(), Math::max);
+            } else if (value instanceof AbstractReadWriteAccess.Item item && item.isReadable(lastLock.get(slot))) {
+                // 'isReadable(t)': o valor é de uma transação iniciada antes de 't'.
+                return;
+            }
+            delegate.putIntoCache(key, value, session);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return delegate.contains(key);
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return delegate.getFromCache(key, session);
+        }
+
+        @Override
+        public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+            delegate.removeFromCache(key, session);
+        }
+
+        @Override
+        public void clearCache(SharedSessionContractImplementor session) {
+            delegate.clearCache(session);
+        }
+
+        @Override
+        public void evictData() {
+            delegate.evictData();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            delegate.evictData(key);
+        }
+
+        @Override
+        public void release() {
+            delegate.release();
+        }
+
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.example.backend.cache;
+
+import com.example.backend.dto.TransferRequestDTO;
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.BeneficioTransferPortDecorator;
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.integration.TransferItemResult;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Invalida no BeneficioCache as contas tocadas por cada transferência, qualquer que seja
+ * o caminho até o port (controller, lote, chamadas diretas) e a implementação (local ou EJB).
+ *
+ * Fica por dentro da retentativa, logo acima do proxy @Transactional: quando a chamada
+ * volta, a transação da tentativa já terminou. Se houver uma transação externa ainda
+ * aberta, a invalidação espera o commit dela.
+ */
+public class CacheInvalidatingBeneficioTransferPort extends BeneficioTransferPortDecorator {
+
+    private final BeneficioCache cache;
+
+    public CacheInvalidatingBeneficioTransferPort(BeneficioTransferPort delegate, BeneficioCache cache) {
+        super(delegate);
+        this.cache = cache;
+    }
+
+    @Override
+    public void transfer(Long fromId, Long toId, BigDecimal amount) {
+        try {
+            delegate.transfer(fromId, toId, amount);
+        } finally {
+            // Também em caso de falha: o commit pode ter falhado depois de aplicado no banco remoto.
+            cache.invalidateAfterCommit(Arrays.asList(fromId, toId));
+        }
+    }
+
+    @Override
+    public List<TransferItemResult> transferBatch(List<TransferRequestDTO> transfers, TransferBatchMode mode) {
+        try {
+            return delegate.transferBatch(transfers, mode);
+        } finally {
+            if (transfers != null) {
+                Set<Long> ids = new HashSet<>();
+                for (TransferRequestDTO t : transfers) {
+                    if (t != null) {
+                        ids.add(t.fromId());
+                        ids.add(t.toId());
+                    }
+                }
+                cache.invalidateAfterCommit(ids);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.example.backend.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de segundo nível do Hibernate com o Caffeine como provedor JCache, em processo.
+ *
+ * O CacheManager é criado aqui, com todas as regiões limitadas em tamanho e validade
+ * ('beneficio.cache.second-level'), e entregue pronto ao Hibernate. Uma região sem
+ * configuração faz a inicialização falhar em vez de virar um cache sem limite. A fábrica
+ * de regiões é a do JCache, com a proteção da região 'beneficio' (BeneficioRegionFactory).
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    // Um CacheManager por contexto: o provedor reaproveita gerenciadores pela URI.
+    private static final AtomicLong MANAGERS = new AtomicLong();
+
+    @Bean(destroyMethod = "close")
+    CacheManager beneficioHibernateCacheManager(BeneficioCacheProperties properties) {
+        BeneficioCacheProperties.SecondLevel config = properties.getSecondLevel();
+        CaffeineCachingProvider provider = (CaffeineCachingProvider)
+                Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager manager = provider.getCacheManager(
+                URI.create("beneficio:second-level-" + MANAGERS.incrementAndGet()), provider.getDefaultClassLoader());
+        long expireNanos = config.getExpireAfterWrite().toNanos();
+
+        manager.createCache(BeneficioCacheRegions.ENTITY, region(config.getEntityMaximumSize(), expireNanos));
+        manager.createCache(BeneficioCacheRegions.LISTAGEM, region(config.getQueryMaximumSize(), expireNanos));
+        // Consultas marcadas como cacheáveis sem região própria; nenhuma hoje.
+        manager.createCache(BeneficioCacheRegions.DEFAULT_QUERY_RESULTS, region(config.getQueryMaximumSize(), expireNanos));
+        // Horário da última escrita em cada tabela, usado para descartar consultas antigas.
+        // Nunca expira nem descarta: sem a entrada, uma consulta em cache pareceria atual.
+        // Tem uma entrada por tabela, então o tamanho já é limitado.
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        manager.createCache(BeneficioCacheRegions.UPDATE_TIMESTAMPS, timestamps);
+        return manager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheCustomizer(BeneficioCacheProperties properties,
+                                                             CacheManager beneficioHibernateCacheManager) {
+        boolean enabled = properties.getSecondLevel().isEnabled();
+        return hibernate -> {
+            hibernate.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            hibernate.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            if (enabled) {
+                hibernate.put(AvailableSettings.CACHE_REGION_FACTORY, new BeneficioRegionFactory());
+                hibernate.put(ConfigSettings.CACHE_MANAGER, beneficioHibernateCacheManager);
+                hibernate.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            }
+        };
+    }
+
+    /**
+     * Acertos, faltas, inclusões e descartes de cada região em /actuator/metrics (cache.gets,
+     * cache.puts, cache.evictions, cache.removals), com a tag cache=&lt;região&gt;.
+     */
+    @Bean
+    MeterBinder secondLevelCacheMetrics(CacheManager beneficioHibernateCacheManager) {
+        return registry -> {
+            for (String region : List.of(BeneficioCacheRegions.ENTITY, BeneficioCacheRegions.LISTAGEM,
+                    BeneficioCacheRegions.DEFAULT_QUERY_RESULTS, BeneficioCacheRegions.UPDATE_TIMESTAMPS)) {
+                JCacheMetrics.monitor(registry, beneficioHibernateCacheManager.getCache(region));
+            }
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, long expireNanos) {
+        CaffeineConfiguration<Object, Object> region = new CaffeineConfiguration<>();
+        region.setMaximumSize(OptionalLong.of(maximumSize));
+        region.setExpireAfterWrite(OptionalLong.of(expireNanos));
+        region.setStatisticsEnabled(true);
+        return region;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.example.backend.codec;
+
+import com.example.backend.dto.BeneficioResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Formato binário de tamanho fixo da listagem e da exportação (application/x-beneficio-saldo),
+ * para consumidores em massa que só precisam do saldo de cada conta.
+ *
+ * Cada benefício ocupa RECORD_SIZE (24) bytes, sem cabeçalho nem separador, big-endian:
+ *
+ *   offset 0   int64  id
+ *   offset 8   int64  valor em centavos (saldo total, com as faixas)
+ *   offset 16  int64  version (-1 quando não foi lida)
+ *
+ * O corpo tem N x 24 bytes; nome, descrição e situação não fazem parte do formato.
+ *
+ * Os registros são escritos direto em um bloco de CHUNK_SIZE bytes, enviado ao OutputStream
+ * quando enche. Nenhum objeto é criado por registro, e os blocos voltam a um pool depois de
+ * cada resposta, em vez de um novo array por requisição.
+ */
+@Component
+public class BeneficioBinaryCodec {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType("application/x-beneficio-saldo");
+
+    public static final int RECORD_SIZE = 24;
+
+    // 341 registros por escrita no OutputStream.
+    static final int CHUNK_SIZE = 8184;
+
+    private static final int POOL_SIZE = 16;
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    // Blocos livres. Com o pool vazio (mais respostas simultâneas do que POOL_SIZE), um bloco
+    // novo é criado e descartado no fim se o pool estiver cheio.
+    private final ArrayBlockingQueue<byte[]> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    /**
+     * Escreve os benefícios no OutputStream, em blocos. Não fecha nem faz flush do stream.
+     *
+     * @param flushEvery Faz flush do stream a cada tantos registros (0 nunca), para streams longos.
+     * @return A quantidade de registros escritos.
+     */
+    public long write(Iterator<BeneficioResponse> rows, OutputStream out, int flushEvery) throws IOException {
+        byte[] chunk = acquire();
+        try {
+            long count = 0;
+            int pos = 0;
+            while (rows.hasNext()) {
+                BeneficioResponse b = rows.next();
+                LONG.set(chunk, pos, b.getId());
+                LONG.set(chunk, pos + 8, b.getValor().cents());
+                LONG.set(chunk, pos + 16, b.getVersion() == null ? -1L : b.getVersion());
+                pos += RECORD_SIZE;
+                count++;
+                boolean flush = flushEvery > 0 && count % flushEvery == 0;
+                if (pos == chunk.length || flush) {
+                    out.write(chunk, 0, pos);
+                    pos = 0;
+                }
+                if (flush) {
+                    out.flush();
+                }
+            }
+            out.write(chunk, 0, pos);
+            return count;
+        } finally {
+            pool.offer(chunk);
+        }
+    }
+
+    private byte[] acquire() {
+        byte[] chunk = pool.poll();
+        return chunk == null ? new byte[CHUNK_SIZE] : chunk;
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.example.backend.codec;
+
+import com.example.backend.dto.BeneficioResponse;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Escreve List&lt;BeneficioResponse&gt; no formato de BeneficioBinaryCodec quando o cliente pede
+ * 'Accept: application/x-beneficio-saldo'. Só escrita: o formato não tem os campos de cadastro.
+ */
+public class BeneficioBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<BeneficioResponse>> {
+
+    private final BeneficioBinaryCodec codec;
+
+    public BeneficioBinaryHttpMessageConverter(BeneficioBinaryCodec codec) {
+        super(BeneficioBinaryCodec.MEDIA_TYPE);
+        this.codec = codec;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (!canWrite(mediaType) || !List.class.isAssignableFrom(clazz)) {
+            return false;
+        }
+        // Sem o tipo genérico (ex: um List solto), não dá para saber se os itens são benefícios.
+        return type != null && BeneficioResponse.class.equals(ResolvableType.forType(type).asCollection().resolveGeneric());
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return false; // só pelo tipo genérico ('canWrite' acima)
+    }
+
+    // O padrão consulta 'supports', que não vê o tipo genérico; sem isto o tipo nunca seria
+    // oferecido na negociação pelo Accept (406).
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    protected Long getContentLength(List<BeneficioResponse> rows, @Nullable MediaType contentType) {
+        return (long) rows.size() * BeneficioBinaryCodec.RECORD_SIZE;
+    }
+
+    @Override
+    protected void writeInternal(List<BeneficioResponse> rows, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        codec.write(rows.iterator(), outputMessage.getBody(), 0);
+    }
+
+    @Override
+    public List<BeneficioResponse> read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Formato somente de saída: " + BeneficioBinaryCodec.MEDIA_TYPE,
+                inputMessage);
+    }
+
+    @Override
+    protected List<BeneficioResponse> readInternal(Class<? extends List<BeneficioResponse>> clazz,
+                                                   HttpInputMessage inputMessage) {
+        return read(clazz, null, inputMessage);
+    }
+
+}
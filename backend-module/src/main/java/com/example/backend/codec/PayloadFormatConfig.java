@@ -0,0 +1,51 @@
+package com.example.backend.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Formatos da listagem além do JSON, escolhidos pelo header Accept:
+ *
+ * - application/cbor: os mesmos campos do JSON em CBOR (RFC 8949), com o ObjectMapper do
+ *   Spring Boot (mesmos módulos e configurações 'spring.jackson.*').
+ * - application/x-beneficio-saldo: registros binários de tamanho fixo (BeneficioBinaryCodec).
+ *
+ * A compressão das respostas fica com o Tomcat ('server.compression.*').
+ */
+@Configuration
+public class PayloadFormatConfig implements WebMvcConfigurer {
+
+    private final BeneficioBinaryCodec codec;
+
+    public PayloadFormatConfig(BeneficioBinaryCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * O ObjectMapper da aplicação, com a fábrica do CBOR. Também usado pela exportação.
+     */
+    public static ObjectMapper cbor(ObjectMapper objectMapper) {
+        return objectMapper.copyWith(new CBORFactory());
+    }
+
+    // Substitui o conversor CBOR padrão do Spring MVC, que usaria um ObjectMapper próprio.
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(cbor(objectMapper));
+    }
+
+    // No fim da lista: com 'Accept: */*' (ou sem Accept), o primeiro conversor capaz vence, e
+    // a resposta continua sendo JSON. O binário só sai quando pedido explicitamente.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new BeneficioBinaryHttpMessageConverter(codec));
+    }
+
+}
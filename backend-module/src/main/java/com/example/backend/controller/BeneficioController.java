@@ -4,23 +4,61 @@ package com.example.backend.controller;
 
 // Importa as classes necessárias.
 // DTOs (Data Transfer Objects) são usados para transferir dados entre a API e o cliente.
+import com.example.backend.dto.BeneficioBulkResponse;
+import com.example.backend.dto.BeneficioFilter;
+import com.example.backend.dto.BeneficioPage;
 import com.example.backend.dto.BeneficioRequest;
 import com.example.backend.dto.BeneficioResponse;
+import com.example.backend.dto.BeneficioStatsResponse;
+import com.example.backend.dto.ImportJobResponse;
+import com.example.backend.dto.LedgerBalanceResponse;
+import com.example.backend.dto.LedgerEntryResponse;
+import com.example.backend.dto.LedgerPage;
+import com.example.backend.dto.TransferBatchRequest;
+import com.example.backend.dto.TransferBatchResponse;
 import com.example.backend.dto.TransferRequest;
+import com.example.backend.dto.TransferTicketResponse;
+import com.example.backend.cache.BeneficioCache;
 // A entidade JPA que representa a tabela do banco de dados.
 import com.example.backend.entity.Beneficio;
+import com.example.backend.events.BeneficioEventStream;
+import com.example.backend.importer.BeneficioCsvImporter;
+import com.example.backend.importer.ImportJob;
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.integration.TransferItemResult;
+import com.example.backend.integration.async.TransferTicket;
+import com.example.backend.money.Money;
 // A classe de serviço que contém a lógica de negócios.
+import com.example.backend.service.BeneficioBulkService;
+import com.example.backend.service.BeneficioExportService;
 import com.example.backend.service.BeneficioSpringService;
+import com.example.backend.service.ExportFormat;
+import com.example.backend.stats.BeneficioStats;
 // Importa a anotação @Valid para habilitar a validação de DTOs de entrada.
 import jakarta.validation.Valid;
 // Importa as classes de logging (SLF4J) para registrar eventos da aplicação.
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 // Importa anotações do Spring Framework para configuração da API REST.
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.NoSuchElementException;
 
 /**
  * @RestController é uma anotação de conveniência do Spring.
@@ -42,14 +80,35 @@ import java.util.stream.Collectors;
  * que é a porta padrão do Angular) possam fazer requisições para esta API.
  * Sem isso, o navegador bloquearia as requisições por padrão (Same-Origin Policy).
  */
-@CrossOrigin(origins = "http://localhost:4200")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = {BeneficioController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG})
 public class BeneficioController {
 
+    // Header com o cursor da próxima página da listagem.
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Tamanho da página quando o cliente manda só o cursor ('after').
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     // Declaração da dependência do serviço.
     // A camada de Controller *delega* a lógica de negócios para a camada de Serviço.
     // É 'final' para garantir que seja inicializada no construtor e não possa ser alterada (imutabilidade).
     private final BeneficioSpringService beneficioService;
 
+    // Serviço de exportação em streaming (tabela inteira, memória constante).
+    private final BeneficioExportService exportService;
+
+    // Cadastro/atualização em massa, lido em streaming e gravado em lotes JDBC.
+    private final BeneficioBulkService bulkService;
+
+    // Importação de CSV em segundo plano (leitura e gravação em paralelo, em blocos).
+    private final BeneficioCsvImporter csvImporter;
+
+    // Totais e maiores saldos mantidos em memória.
+    private final BeneficioStats stats;
+
+    // Stream SSE das mudanças confirmadas.
+    private final BeneficioEventStream eventStream;
+
     // Inicializa um logger estático para esta classe.
     // Usar 'LoggerFactory.getLogger(BeneficioController.class)' é a prática padrão
     // para obter uma instância de logger (via SLF4J) específica para esta classe.
@@ -62,30 +121,141 @@ public class BeneficioController {
      * quando cria uma instância de 'BeneficioController'.
      *
      * @param beneficioService A instância do serviço de benefício gerenciada pelo Spring.
+     * @param exportService O serviço de exportação em streaming.
+     * @param bulkService O serviço de cadastro/atualização em massa.
+     * @param csvImporter O importador de arquivos CSV.
+     * @param stats As estatísticas em memória.
+     * @param eventStream O stream de mudanças (SSE).
      */
-    public BeneficioController(BeneficioSpringService beneficioService) {
+    public BeneficioController(BeneficioSpringService beneficioService, BeneficioExportService exportService,
+                               BeneficioBulkService bulkService, BeneficioCsvImporter csvImporter,
+                               BeneficioStats stats, BeneficioEventStream eventStream) {
         this.beneficioService = beneficioService;
+        this.exportService = exportService;
+        this.bulkService = bulkService;
+        this.csvImporter = csvImporter;
+        this.stats = stats;
+        this.eventStream = eventStream;
     }
 
     /**
-     * Endpoint para LISTAR todos os benefícios.
+     * Endpoint para LISTAR os benefícios, uma página por vez.
      * @GetMapping sem argumentos mapeia requisições HTTP GET para a URL base do controller
      * (ou seja, GET /api/v1/beneficios).
      *
-     * @return Uma lista de BeneficioResponse (DTOs) serializada em JSON.
+     * A paginação é por cursor (keyset): a resposta traz no header 'X-Next-Cursor' o
+     * último ID da página, que deve ser enviado em '?after=' para buscar a próxima.
+     * Sem o header, não há mais páginas. Todos os filtros são opcionais.
+     *
+     * @param after    Cursor da página anterior (ausente na primeira página).
+     * @param limit    Tamanho da página (máximo 1000; padrão 100 quando só 'after' vem).
+     *                 Sem 'after' nem 'limit', a lista vem inteira, sem paginação, como
+     *                 antes do cursor: clientes antigos não sabem seguir o 'X-Next-Cursor'.
+     * @param ativo    Filtra pela situação do benefício.
+     * @param nome     Filtra pelo prefixo do nome.
+     * @param valorMin Valor mínimo (inclusive).
+     * @param valorMax Valor máximo (inclusive).
+     * @param request  A requisição, para responder 304 a um 'If-None-Match' ainda válido.
+     * @return Uma lista de BeneficioResponse (DTOs), em JSON, CBOR ('Accept: application/cbor') ou
+     *         registros binários ('Accept: application/x-beneficio-saldo').
+     *
+     * O ETag da listagem é um marcador de mudança da tabela inteira, mantido em memória:
+     * um 'If-None-Match' com o ETag atual recebe 304 sem nenhuma consulta ao banco.
      */
     @GetMapping
-    public List<BeneficioResponse> list() {
-        // 1. Chama o serviço para buscar todas as *entidades* 'Beneficio' do banco de dados.
-        // 2. .stream() converte a lista de entidades em um Java Stream para processamento funcional.
-        // 3. .map(BeneficioResponse::from) é um ponto crucial do padrão DTO.
-        //    Ele transforma (mapeia) cada entidade 'Beneficio' em um 'BeneficioResponse' (DTO).
-        //    'BeneficioResponse::from' é uma referência a um método estático 'from' na classe BeneficioResponse.
-        //    Isso evita expor a entidade de domínio 'Beneficio' diretamente na API.
-        // 4. .collect(Collectors.toList()) coleta os DTOs processados de volta em uma lista.
-        return beneficioService.listAll().stream()
-                .map(BeneficioResponse::from)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<BeneficioResponse>> list(@RequestParam(required = false) Long after,
+                                                        @RequestParam(required = false) Integer limit,
+                                                        @RequestParam(required = false) Boolean ativo,
+                                                        @RequestParam(required = false) String nome,
+                                                        @RequestParam(required = false) BigDecimal valorMin,
+                                                        @RequestParam(required = false) BigDecimal valorMax,
+                                                        WebRequest request) {
+        // 1. O marcador é lido antes da consulta: uma escrita concorrente pode deixar o ETag
+        //    mais antigo que os dados (o cliente só busca de novo), nunca o contrário.
+        //    A tag é fraca: a mesma versão da tabela tem vários corpos (formato do Accept, gzip),
+        //    e o Tomcat não comprime respostas com tag forte.
+        String etag = "W/" + etag("L" + beneficioService.listVersionTag());
+        if (request.checkNotModified(etag)) {
+            return null; // o Spring já preencheu o 304
+        }
+
+        // 2. O serviço busca só a página pedida, já projetada em DTOs (sem entidades gerenciadas).
+        //    Sem cursor nem tamanho, a resposta é a lista inteira, como no contrato original.
+        BeneficioFilter filter = new BeneficioFilter(ativo, nome, valorMin, valorMax);
+        BeneficioPage page = after == null && limit == null
+                ? new BeneficioPage(beneficioService.listAll(filter), null)
+                : beneficioService.listPage(filter, after, limit == null ? DEFAULT_PAGE_SIZE : limit);
+
+        // 3. Se houver próxima página, o cursor vai no header; o corpo é a lista, no formato
+        //    pedido no Accept (JSON, CBOR ou binário).
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()));
+        }
+        return response.body(page.items());
+    }
+
+    /**
+     * Endpoint para EXPORTAR todos os benefícios em streaming.
+     * @GetMapping("/export") mapeia GET /api/v1/beneficios/export?format=ndjson|csv|cbor|binary.
+     *
+     * O corpo é um StreamingResponseBody: o controller retorna imediatamente e as linhas
+     * são escritas direto no OutputStream da resposta, em blocos, enquanto o cursor do
+     * banco avança. Nenhuma lista é montada em memória.
+     *
+     * @param format 'ndjson' (um objeto JSON por linha), 'csv', 'cbor' (sequência CBOR) ou
+     *               'binary' (registros de 24 bytes). Sem ele, o formato vem do Accept
+     *               (padrão NDJSON).
+     * @param headers Os headers da requisição, para o Accept.
+     * @return O corpo em streaming com o Content-Type do formato escolhido.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String format,
+                                                        @RequestHeader HttpHeaders headers) {
+        ExportFormat exportFormat = ExportFormat.negotiate(format, headers.getAccept());
+        StreamingResponseBody body = out -> exportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .varyBy(HttpHeaders.ACCEPT)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=beneficios." + exportFormat.extension())
+                .body(body);
+    }
+
+    /**
+     * Endpoint de ESTATÍSTICAS: saldo total, contas ativas/inativas e as de maior saldo.
+     * @GetMapping("/stats") mapeia GET /api/v1/beneficios/stats?top=10.
+     *
+     * Servido da memória (BeneficioStats), sem consultar o banco: os totais são mantidos a
+     * cada mudança confirmada e conferidos com o banco periodicamente.
+     *
+     * @param top Quantidade de contas no ranking (1 a BeneficioStats.MAX_TOP).
+     */
+    @GetMapping("/stats")
+    public BeneficioStatsResponse stats(@RequestParam(defaultValue = "10") int top) {
+        return stats.snapshot(top);
+    }
+
+    /**
+     * Endpoint de EVENTOS: as mudanças de saldo, em Server-Sent Events.
+     * @GetMapping("/events") mapeia GET /api/v1/beneficios/events (use com o EventSource do navegador).
+     *
+     * Cada commit de criação, alteração, remoção ou transferência gera um evento 'change' por
+     * conta: {"id":1,"valor":1010.00,"version":3,"reason":"TRANSFER"}. Um evento 'resync' avisa
+     * que eventos foram perdidos (cliente lento ou reconexão) e a listagem deve ser recarregada.
+     * A conexão não ocupa uma thread do Tomcat enquanto espera.
+     *
+     * @param lastEventId Enviado pelo EventSource ao reconectar.
+     * @return O stream, que fica aberto até o cliente sair ou 'spring.mvc.async.request-timeout'.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> events(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .cacheControl(CacheControl.noStore())
+                // Desliga o buffer de proxies como o nginx, que seguraria os eventos.
+                .header("X-Accel-Buffering", "no")
+                .body(eventStream.subscribe(lastEventId));
     }
 
     /**
@@ -93,15 +263,24 @@ public class BeneficioController {
      * @GetMapping("/{id}") mapeia requisições HTTP GET para URLs com um ID variável
      * (ex: GET /api/v1/beneficios/123).
      *
+     * O ETag vem da coluna VERSION (e, nas contas fracionadas, do saldo total). Um
+     * 'If-None-Match' com o ETag atual recebe 304 sem corpo; com o cache quente, sem ir ao banco.
+     *
      * @param id O ID extraído da URL (path variable).
+     * @param request A requisição, para responder 304 a um 'If-None-Match' ainda válido.
      * @return O 'BeneficioResponse' (DTO) correspondente ao ID, serializado em JSON.
      */
     @GetMapping("/{id}")
-    public BeneficioResponse get(@PathVariable Long id) {
+    public ResponseEntity<BeneficioResponse> get(@PathVariable Long id, WebRequest request) {
         // @PathVariable "liga" a variável {id} da URL ao parâmetro 'id' do método.
-        // 1. Chama o serviço para buscar a entidade pelo ID.
-        // 2. Mapeia a entidade 'Beneficio' encontrada para um 'BeneficioResponse' (DTO).
-        return BeneficioResponse.from(beneficioService.getById(id));
+        // O serviço devolve a cópia direto do cache em memória quando possível;
+        // na falta, busca a entidade pelo ID e guarda uma cópia imutável dela.
+        BeneficioCache.Snapshot snapshot = beneficioService.getSnapshot(id);
+        String etag = etag(snapshot.versionTag());
+        if (request.checkNotModified(etag)) {
+            return null; // o Spring já preencheu o 304
+        }
+        return ResponseEntity.ok().eTag(etag).body(snapshot.toResponse());
         // Nota: Se o serviço não encontrar o ID, ele provavelmente lançará uma exceção
         // (ex: ResourceNotFoundException), que deve ser tratada por um @ControllerAdvice
         // para retornar um status 404 Not Found.
@@ -142,20 +321,173 @@ public class BeneficioController {
      * @PutMapping("/{id}") mapeia requisições HTTP PUT para
      * (ex: PUT /api/v1/beneficios/123). PUT é usado para substituição total do recurso.
      *
+     * Com 'If-Match' (o ETag de um GET anterior), a atualização só é aplicada se o benefício
+     * não mudou desde então; caso contrário, responde 412 sem escrever nada.
+     *
      * @param id O ID do benefício a ser atualizado (da URL).
+     * @param ifMatch O header 'If-Match' (opcional).
      * @param request O corpo da requisição (JSON) com os novos dados (DTO).
-     * @return O benefício atualizado, mapeado para 'BeneficioResponse' (DTO).
+     * @return O benefício atualizado, mapeado para 'BeneficioResponse' (DTO), com o novo ETag.
      */
     @PutMapping("/{id}")
-    public BeneficioResponse update(@PathVariable Long id, @Valid @RequestBody BeneficioRequest request) {
+    public ResponseEntity<BeneficioResponse> update(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                    @Valid @RequestBody BeneficioRequest request) {
         // Combina @PathVariable e @RequestBody: o ID vem da URL, os dados vêm do corpo.
         // @Valid também é usado aqui para garantir que os novos dados sejam válidos.
         // 1. request.toEntity() converte o DTO de entrada para a entidade.
         // 2. beneficioService.update(...) localiza o benefício pelo 'id' e atualiza
         //    seus dados com base na entidade passada.
-        Beneficio updated = beneficioService.update(id, request.toEntity());
+        Beneficio updated = beneficioService.update(id, request.toEntity(), parseIfMatch(ifMatch));
         // 3. Retorna a entidade atualizada, mapeada para um DTO de resposta.
-        return BeneficioResponse.from(updated);
+        return ResponseEntity.ok()
+                .eTag(etag(BeneficioCache.Snapshot.of(updated).versionTag()))
+                .body(BeneficioResponse.from(updated));
+    }
+
+    /**
+     * Endpoint para CRIAR benefícios em massa.
+     * @PostMapping("/bulk") mapeia POST /api/v1/beneficios/bulk.
+     *
+     * O corpo é um array JSON de 'BeneficioRequest', lido em streaming (o InputStream é o
+     * corpo cru, sem conversão prévia do Spring). Sempre retorna 200 com um resultado por
+     * linha (CREATED + ID, ou REJECTED + erros); linhas inválidas não impedem as outras.
+     *
+     * @param body O corpo da requisição.
+     * @return O resumo e os resultados individuais, na ordem das linhas.
+     */
+    @PostMapping("/bulk")
+    public BeneficioBulkResponse createBulk(InputStream body) throws IOException {
+        return bulkService.create(body);
+    }
+
+    /**
+     * Endpoint para ATUALIZAR benefícios em massa.
+     * @PutMapping("/bulk") mapeia PUT /api/v1/beneficios/bulk (tem precedência sobre "/{id}").
+     *
+     * Cada linha traz o 'id' e os mesmos campos do PUT /{id}. IDs inexistentes são rejeitados
+     * só na sua linha.
+     *
+     * @param body O corpo da requisição.
+     * @return O resumo e os resultados individuais, na ordem das linhas.
+     */
+    @PutMapping("/bulk")
+    public BeneficioBulkResponse updateBulk(InputStream body) throws IOException {
+        return bulkService.update(body);
+    }
+
+    /**
+     * Endpoint para IMPORTAR um arquivo CSV enviado como multipart (campo 'file').
+     * @PostMapping("/import") mapeia POST /api/v1/beneficios/import.
+     *
+     * O cabeçalho é conferido na hora (400 se inválido); as linhas são lidas e gravadas em
+     * segundo plano, em blocos com transação própria. Retorna 202 com o 'Location' do andamento.
+     *
+     * @param file O arquivo CSV, com cabeçalho (nome,descricao,valor,ativo; 'id' é ignorado).
+     * @return A importação recém-criada (QUEUED ou RUNNING).
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobResponse> importCsv(@RequestPart("file") MultipartFile file) throws IOException {
+        return importAccepted(csvImporter.submit(file));
+    }
+
+    /**
+     * O mesmo import, com o CSV direto no corpo (Content-Type: text/csv).
+     *
+     * @param body O corpo da requisição, copiado em streaming para um arquivo temporário.
+     * @return A importação recém-criada (QUEUED ou RUNNING).
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportJobResponse> importCsv(InputStream body) throws IOException {
+        return importAccepted(csvImporter.submit(body, null));
+    }
+
+    /**
+     * Endpoint para CONSULTAR o andamento de uma importação.
+     * @GetMapping("/import/{job}") mapeia GET /api/v1/beneficios/import/{job}.
+     *
+     * @param job O ID devolvido por POST /import.
+     * @return Linhas lidas, gravadas e rejeitadas até agora, e o status (COMPLETED ou FAILED no fim).
+     */
+    @GetMapping("/import/{job}")
+    public ImportJobResponse importStatus(@PathVariable String job) {
+        return ImportJobResponse.from(findImport(job));
+    }
+
+    /**
+     * Endpoint para listar as linhas REJEITADAS de uma importação (até 'max-rejects').
+     * @GetMapping("/import/{job}/rejects") mapeia GET /api/v1/beneficios/import/{job}/rejects.
+     *
+     * @param job O ID devolvido por POST /import.
+     * @return A linha do arquivo e os erros de cada registro rejeitado.
+     */
+    @GetMapping("/import/{job}/rejects")
+    public List<ImportJob.Reject> importRejects(@PathVariable String job) {
+        return findImport(job).getRejects();
+    }
+
+    private ImportJob findImport(String job) {
+        return csvImporter.find(job)
+                .orElseThrow(() -> new NoSuchElementException("Importação não encontrada: " + job));
+    }
+
+    private static ResponseEntity<ImportJobResponse> importAccepted(ImportJob job) {
+        log.info("CSV import accepted: job={} file={}", job.getId(), job.getFileName());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/beneficios/import/" + job.getId()))
+                .body(ImportJobResponse.from(job));
+    }
+
+    /**
+     * Endpoint para FRACIONAR o saldo de uma conta muito disputada.
+     * @PutMapping("/{id}/subsaldos") mapeia PUT /api/v1/beneficios/123/subsaldos?quantidade=8.
+     *
+     * Os créditos passam a ir para uma de 'quantidade' faixas em vez da linha da conta,
+     * e o 'valor' devolvido pela API continua sendo o saldo total. 'quantidade=0' desfaz.
+     *
+     * @param id O ID do benefício (da URL).
+     * @param quantidade Quantidade de faixas.
+     * @return O benefício atualizado, mapeado para 'BeneficioResponse' (DTO).
+     */
+    @PutMapping("/{id}/subsaldos")
+    public BeneficioResponse configureSubsaldos(@PathVariable Long id, @RequestParam int quantidade) {
+        return BeneficioResponse.from(beneficioService.configureSubsaldos(id, quantidade));
+    }
+
+    /**
+     * Endpoint do EXTRATO de uma conta (lançamentos do TRANSFER_LEDGER).
+     * @GetMapping("/{id}/ledger") mapeia GET /api/v1/beneficios/123/ledger?before=...&limit=...
+     *
+     * Do lançamento mais novo para o mais antigo, paginado por cursor como a listagem: o
+     * header 'X-Next-Cursor' traz o valor a enviar em '?before=' para a próxima página.
+     *
+     * @param id     O ID do benefício (da URL).
+     * @param before Cursor da página anterior (ausente na primeira página).
+     * @param limit  Tamanho da página (padrão 100, máximo 1000).
+     */
+    @GetMapping("/{id}/ledger")
+    public ResponseEntity<List<LedgerEntryResponse>> ledger(@PathVariable Long id,
+                                                            @RequestParam(required = false) Long before,
+                                                            @RequestParam(defaultValue = "100") int limit) {
+        LedgerPage page = beneficioService.ledgerPage(id, before, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()));
+        }
+        return response.body(page.items());
+    }
+
+    /**
+     * Endpoint do SALDO de uma conta em um instante passado.
+     * @GetMapping("/{id}/saldo") mapeia GET /api/v1/beneficios/123/saldo?em=2024-05-01T12:00:00Z.
+     *
+     * @param id O ID do benefício (da URL).
+     * @param em Instante ISO-8601 (padrão: agora).
+     * @return O saldo reconstruído, com o snapshot usado e a quantidade de lançamentos somados.
+     */
+    @GetMapping("/{id}/saldo")
+    public LedgerBalanceResponse balanceAt(@PathVariable Long id, @RequestParam(required = false) Instant em) {
+        return beneficioService.balanceAt(id, em != null ? em : Instant.now());
     }
 
     /**
@@ -190,12 +522,91 @@ public class BeneficioController {
     @PostMapping("/transfer")
     @ResponseStatus(HttpStatus.NO_CONTENT) // Retorna 204 se a transferência for aceita/processada.
     public void transfer(@RequestBody TransferRequest req) {
-        // Loga a requisição de transferência. Essencial para auditoria e debug.
-        log.info("Transfer requested: from={} to={} amount={}", req.getFromId(), req.getToId(), req.getAmount());
+        // Só em DEBUG: a auditoria de cada transferência vai para a trilha binária (TransferAuditLog),
+        // sem formatar texto nem escrever de forma síncrona na thread da requisição.
+        log.debug("Transfer requested: from={} to={} amount={}", req.getFromId(), req.getToId(), req.getAmount());
 
         // Delega a lógica de negócios complexa (que provavelmente é transacional)
         // para a camada de serviço.
-        beneficioService.transfer(req.getFromId(), req.getToId(), req.getAmount());
+        beneficioService.transfer(req.getFromId(), req.getToId(), Money.toBigDecimal(req.getAmount()));
+    }
+
+    /**
+     * Endpoint para SUBMETER uma transferência assíncrona.
+     * @PostMapping("/transfer/async") mapeia POST /api/v1/beneficios/transfer/async.
+     *
+     * Responde 202 Accepted assim que a transferência entra na fila da conta, sem esperar
+     * pelo banco. O header 'Location' aponta para o status (GET /transfer/{ticket}).
+     * Fila cheia responde 503 com 'Retry-After'; argumentos inválidos, 400 na hora.
+     *
+     * @param req Um DTO 'TransferRequest' contendo os IDs de origem, destino e o valor.
+     * @return O ticket da transferência, com status QUEUED (ou já concluída).
+     */
+    @PostMapping("/transfer/async")
+    public ResponseEntity<TransferTicketResponse> transferAsync(@RequestBody TransferRequest req) {
+        TransferTicket ticket = beneficioService.transferAsync(req.getFromId(), req.getToId(),
+                Money.toBigDecimal(req.getAmount()));
+        log.debug("Async transfer queued: ticket={} from={} to={} amount={}",
+                ticket.getId(), req.getFromId(), req.getToId(), req.getAmount());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/beneficios/transfer/" + ticket.getId()))
+                .body(TransferTicketResponse.from(ticket));
+    }
+
+    /**
+     * Endpoint para CONSULTAR uma transferência assíncrona.
+     * @GetMapping("/transfer/{ticket}") mapeia GET /api/v1/beneficios/transfer/{ticket}.
+     *
+     * @param ticket O ticket devolvido por POST /transfer/async.
+     * @return O status: QUEUED, RUNNING, APPLIED, REJECTED (com o motivo) ou FAILED.
+     */
+    @GetMapping("/transfer/{ticket}")
+    public TransferTicketResponse transferStatus(@PathVariable String ticket) {
+        return TransferTicketResponse.from(beneficioService.getTransferTicket(ticket));
+    }
+
+    /**
+     * Endpoint para aplicar um LOTE de transferências em uma única transação.
+     * @PostMapping("/transfer/batch") mapeia POST /api/v1/beneficios/transfer/batch.
+     *
+     * Sempre retorna 200 com um resultado por item (APPLIED ou REJECTED + motivo).
+     * No modo ALL_OR_NOTHING, um único item rejeitado faz com que nenhum seja aplicado.
+     *
+     * @param req O modo do lote e a lista ordenada de transferências.
+     * @return O resumo do lote e os resultados individuais.
+     */
+    @PostMapping("/transfer/batch")
+    public TransferBatchResponse transferBatch(@Valid @RequestBody TransferBatchRequest req) {
+        TransferBatchMode mode = req.getMode() == null ? TransferBatchMode.ALL_OR_NOTHING : req.getMode();
+        log.info("Transfer batch requested: items={} mode={}",
+                req.getTransfers() == null ? 0 : req.getTransfers().size(), mode);
+
+        List<TransferItemResult> results = beneficioService.transferBatch(req.toCommands(), mode);
+        return TransferBatchResponse.from(mode, results);
+    }
+
+    private static String etag(String tag) {
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * Extrai as tags fortes de um 'If-Match' ("*" é mantido; tags fracas, W/"...", nunca
+     * casam em uma escrita e são descartadas). Null quando o header não foi enviado.
+     */
+    static List<String> parseIfMatch(String header) {
+        if (header == null) {
+            return null;
+        }
+        List<String> tags = new ArrayList<>();
+        for (String part : header.split(",")) {
+            String tag = part.trim();
+            if (tag.equals("*")) {
+                tags.add(tag);
+            } else if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tags.add(tag.substring(1, tag.length() - 1));
+            }
+        }
+        return tags;
     }
 
-}
\ No newline at end of file
+}
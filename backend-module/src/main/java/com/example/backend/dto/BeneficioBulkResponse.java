@@ -0,0 +1,21 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+public record BeneficioBulkResponse(
+        int applied,
+        int rejected,
+        List<BeneficioBulkResult> results
+) {
+
+    public static BeneficioBulkResponse from(List<BeneficioBulkResult> results) {
+        int applied = 0;
+        for (BeneficioBulkResult result : results) {
+            if (result.isApplied()) {
+                applied++;
+            }
+        }
+        return new BeneficioBulkResponse(applied, results.size() - applied, results);
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+/**
+ * Resultado individual de uma linha do cadastro/atualização em massa.
+ *
+ * @param index  Posição da linha no array recebido (base 0).
+ * @param id     ID do benefício criado ou atualizado (o informado, nas linhas de atualização rejeitadas).
+ * @param status CREATED/UPDATED quando a linha foi gravada, REJECTED caso contrário.
+ * @param errors Erros da linha, no formato 'campo: mensagem' (vazio quando gravada).
+ */
+public record BeneficioBulkResult(
+        int index,
+        Long id,
+        Status status,
+        List<String> errors
+) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        REJECTED
+    }
+
+    public static BeneficioBulkResult created(int index, Long id) {
+        return new BeneficioBulkResult(index, id, Status.CREATED, List.of());
+    }
+
+    public static BeneficioBulkResult updated(int index, Long id) {
+        return new BeneficioBulkResult(index, id, Status.UPDATED, List.of());
+    }
+
+    public static BeneficioBulkResult rejected(int index, Long id, List<String> errors) {
+        return new BeneficioBulkResult(index, id, Status.REJECTED, errors);
+    }
+
+    public boolean isApplied() {
+        return status != Status.REJECTED;
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.example.backend.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Uma linha do PUT /api/v1/beneficios/bulk: os mesmos campos do PUT /{id}, com o ID no corpo.
+ */
+public class BeneficioBulkUpdateRequest extends BeneficioRequest {
+
+    @NotNull
+    private Long id;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+}
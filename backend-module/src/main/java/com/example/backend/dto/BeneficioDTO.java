@@ -1,14 +1,13 @@
 package com.example.backend.dto;
 
 import com.example.backend.entity.Beneficio;
-
-import java.math.BigDecimal;
+import com.example.backend.money.Money;
 
 public record BeneficioDTO(
         Long id,
         String nome,
         String descricao,
-        BigDecimal valor,
+        Money valor,
         Boolean ativo
         // Long version
 ) {
@@ -19,7 +18,7 @@ public record BeneficioDTO(
                 beneficio.getId(),
                 beneficio.getNome(),
                 beneficio.getDescricao(),
-                beneficio.getValor(),
+                beneficio.getSaldo(),
                 beneficio.getAtivo()
                 // beneficio.getVersion()
         );
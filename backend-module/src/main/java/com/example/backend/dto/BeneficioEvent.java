@@ -0,0 +1,19 @@
+package com.example.backend.dto;
+
+import com.example.backend.money.Money;
+
+/**
+ * Um evento 'change' do stream GET /events: o estado do benefício depois de um commit.
+ *
+ * @param valor   O saldo total (inclui as faixas das contas fracionadas); null se foi removido.
+ * @param version A coluna VERSION; null se foi removido. Nas contas fracionadas, créditos nas
+ *                faixas não a avançam: dois eventos podem ter a mesma VERSION e saldos diferentes.
+ * @param reason  A última mudança confirmada: CREATED, UPDATED, DELETED ou TRANSFER.
+ */
+public record BeneficioEvent(
+        long id,
+        Money valor,
+        Long version,
+        String reason
+) {
+}
@@ -0,0 +1,24 @@
+package com.example.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Filtros opcionais da listagem de benefícios. Campos nulos não filtram.
+ *
+ * @param ativo    Situação do benefício.
+ * @param nome     Prefixo do nome (case-sensitive, usa o índice de NOME).
+ * @param valorMin Valor mínimo (inclusive).
+ * @param valorMax Valor máximo (inclusive).
+ */
+public record BeneficioFilter(
+        Boolean ativo,
+        String nome,
+        BigDecimal valorMin,
+        BigDecimal valorMax
+) {
+
+    public static BeneficioFilter none() {
+        return new BeneficioFilter(null, null, null, null);
+    }
+
+}
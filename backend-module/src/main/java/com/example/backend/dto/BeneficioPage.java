@@ -0,0 +1,16 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+/**
+ * Uma página da listagem por cursor (keyset).
+ *
+ * @param items      Os benefícios da página, em ordem crescente de ID.
+ * @param nextCursor O valor a ser enviado em '?after=' para obter a próxima página,
+ *                   ou null quando esta é a última.
+ */
+public record BeneficioPage(
+        List<BeneficioResponse> items,
+        Long nextCursor
+) {
+}
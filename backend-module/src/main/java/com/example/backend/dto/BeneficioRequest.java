@@ -1,11 +1,10 @@
 package com.example.backend.dto;
 
 import com.example.backend.entity.Beneficio;
+import com.example.backend.money.Money;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
-import java.math.BigDecimal;
-
 public class BeneficioRequest {
 
     @NotBlank
@@ -14,7 +13,7 @@ public class BeneficioRequest {
     private String descricao;
 
     @NotNull
-    private BigDecimal valor;
+    private Money valor;
 
     private Boolean ativo;
 
@@ -34,11 +33,11 @@ public class BeneficioRequest {
         this.descricao = descricao;
     }
 
-    public BigDecimal getValor() {
+    public Money getValor() {
         return valor;
     }
 
-    public void setValor(BigDecimal valor) {
+    public void setValor(Money valor) {
         this.valor = valor;
     }
 
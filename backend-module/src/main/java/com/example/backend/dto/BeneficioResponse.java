@@ -1,21 +1,22 @@
 package com.example.backend.dto;
 
 import com.example.backend.entity.Beneficio;
-
-import java.math.BigDecimal;
+import com.example.backend.money.Money;
 
 public class BeneficioResponse {
 
     private Long id;
     private String nome;
     private String descricao;
-    private BigDecimal valor;
+    private Money valor;
     private Boolean ativo;
+    // A coluna VERSION, a mesma dos eventos de GET /events (null quando não foi lida).
+    private Long version;
 
     public BeneficioResponse() {
     }
 
-    public BeneficioResponse(Long id, String nome, String descricao, BigDecimal valor, Boolean ativo) {
+    public BeneficioResponse(Long id, String nome, String descricao, Money valor, Boolean ativo) {
         this.id = id;
         this.nome = nome;
         this.descricao = descricao;
@@ -23,6 +24,19 @@ public class BeneficioResponse {
         this.ativo = ativo;
     }
 
+    public BeneficioResponse(Long id, String nome, String descricao, Money valor, Boolean ativo, Long version) {
+        this(id, nome, descricao, valor, ativo);
+        this.version = version;
+    }
+
+    /**
+     * Projeção da listagem: o saldo é a soma de VALOR com as faixas do saldo fracionado.
+     */
+    public BeneficioResponse(Long id, String nome, String descricao, Money valor, Money valorSubsaldos, Boolean ativo,
+                             Long version) {
+        this(id, nome, descricao, valor.plus(valorSubsaldos), ativo, version);
+    }
+
     public Long getId() {
         return id;
     }
@@ -47,11 +61,11 @@ public class BeneficioResponse {
         this.descricao = descricao;
     }
 
-    public BigDecimal getValor() {
+    public Money getValor() {
         return valor;
     }
 
-    public void setValor(BigDecimal valor) {
+    public void setValor(Money valor) {
         this.valor = valor;
     }
 
@@ -63,13 +77,22 @@ public class BeneficioResponse {
         this.ativo = ativo;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public static BeneficioResponse from(Beneficio beneficio) {
         return new BeneficioResponse(
                 beneficio.getId(),
                 beneficio.getNome(),
                 beneficio.getDescricao(),
-                beneficio.getValor(),
-                beneficio.getAtivo()
+                beneficio.getSaldo(),
+                beneficio.getAtivo(),
+                beneficio.getVersion()
         );
     }
 
@@ -0,0 +1,27 @@
+package com.example.backend.dto;
+
+import com.example.backend.money.Money;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Totais dos benefícios (GET /stats), mantidos em memória.
+ *
+ * @param saldoTotal     Soma dos saldos de todas as contas, ativas ou não.
+ * @param maiores        As contas de maior saldo, da maior para a menor.
+ * @param reconciliadoEm Última conferência com o banco (a carga inicial conta como uma).
+ */
+public record BeneficioStatsResponse(
+        Money saldoTotal,
+        long quantidade,
+        long ativos,
+        long inativos,
+        List<Saldo> maiores,
+        Instant reconciliadoEm
+) {
+
+    public record Saldo(Long id, Money saldo) {
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.example.backend.dto;
+
+import com.example.backend.importer.ImportJob;
+
+import java.time.Instant;
+
+public record ImportJobResponse(
+        String id,
+        String fileName,
+        ImportJob.Status status,
+        long linesRead,
+        long written,
+        long rejected,
+        String error,
+        Instant submittedAt,
+        Instant completedAt
+) {
+
+    public static ImportJobResponse from(ImportJob job) {
+        // 'status' é lido primeiro: a importação publica os contadores e a data antes do status final.
+        ImportJob.Status status = job.getStatus();
+        return new ImportJobResponse(job.getId(), job.getFileName(), status, job.getLinesRead(), job.getWritten(),
+                job.getRejected(), job.getError(), job.getSubmittedAt(), job.getCompletedAt());
+    }
+
+}
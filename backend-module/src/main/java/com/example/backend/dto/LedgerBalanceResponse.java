@@ -0,0 +1,20 @@
+package com.example.backend.dto;
+
+import com.example.backend.money.Money;
+
+import java.time.Instant;
+
+/**
+ * Saldo de uma conta reconstruído a partir do ledger (GET /{id}/saldo?em=...).
+ *
+ * @param snapshotEm          O snapshot de partida, ou null se a conta ainda não tinha nenhum.
+ * @param lancamentosAplicados Lançamentos somados ao snapshot.
+ */
+public record LedgerBalanceResponse(
+        Long beneficioId,
+        Instant em,
+        Money saldo,
+        Instant snapshotEm,
+        long lancamentosAplicados
+) {
+}
@@ -0,0 +1,21 @@
+package com.example.backend.dto;
+
+import com.example.backend.entity.LedgerEntry;
+import com.example.backend.money.Money;
+
+import java.time.Instant;
+
+/**
+ * Um lançamento do extrato de uma conta (GET /{id}/ledger).
+ *
+ * @param valor Negativo nos débitos, positivo nos créditos.
+ */
+public record LedgerEntryResponse(
+        Long id,
+        Long beneficioId,
+        Long contraparteId,
+        Money valor,
+        LedgerEntry.Tipo tipo,
+        Instant criadoEm
+) {
+}
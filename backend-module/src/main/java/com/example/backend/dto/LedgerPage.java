@@ -0,0 +1,16 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+/**
+ * Uma página do extrato por cursor (keyset).
+ *
+ * @param items      Os lançamentos da página, do mais novo para o mais antigo.
+ * @param nextCursor O valor a ser enviado em '?before=' para obter a próxima página,
+ *                   ou null quando esta é a última.
+ */
+public record LedgerPage(
+        List<LedgerEntryResponse> items,
+        Long nextCursor
+) {
+}
@@ -0,0 +1,56 @@
+package com.example.backend.dto;
+
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.money.Money;
+import com.example.backend.service.BeneficioSpringService;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TransferBatchRequest {
+
+    private TransferBatchMode mode = TransferBatchMode.ALL_OR_NOTHING;
+
+    @NotEmpty
+    @Size(max = BeneficioSpringService.MAX_TRANSFER_BATCH_SIZE)
+    private List<TransferRequest> transfers = new ArrayList<>();
+
+    public TransferBatchRequest() {
+    }
+
+    public TransferBatchRequest(TransferBatchMode mode, List<TransferRequest> transfers) {
+        this.mode = mode;
+        this.transfers = transfers;
+    }
+
+    public TransferBatchMode getMode() {
+        return mode;
+    }
+
+    public void setMode(TransferBatchMode mode) {
+        this.mode = mode;
+    }
+
+    public List<TransferRequest> getTransfers() {
+        return transfers;
+    }
+
+    public void setTransfers(List<TransferRequest> transfers) {
+        this.transfers = transfers;
+    }
+
+    public List<TransferRequestDTO> toCommands() {
+        if (transfers == null) {
+            return List.of();
+        }
+        List<TransferRequestDTO> commands = new ArrayList<>(transfers.size());
+        for (TransferRequest t : transfers) {
+            commands.add(t == null ? null : new TransferRequestDTO(t.getFromId(), t.getToId(),
+                    Money.toBigDecimal(t.getAmount())));
+        }
+        return commands;
+    }
+
+}
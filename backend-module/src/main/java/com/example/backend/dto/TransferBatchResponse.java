@@ -0,0 +1,25 @@
+package com.example.backend.dto;
+
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.integration.TransferItemResult;
+
+import java.util.List;
+
+public record TransferBatchResponse(
+        TransferBatchMode mode,
+        int applied,
+        int rejected,
+        List<TransferItemResult> results
+) {
+
+    public static TransferBatchResponse from(TransferBatchMode mode, List<TransferItemResult> results) {
+        int applied = 0;
+        for (TransferItemResult result : results) {
+            if (result.isApplied()) {
+                applied++;
+            }
+        }
+        return new TransferBatchResponse(mode, applied, results.size() - applied, results);
+    }
+
+}
@@ -1,17 +1,17 @@
 package com.example.backend.dto;
 
-import java.math.BigDecimal;
+import com.example.backend.money.Money;
 
 public class TransferRequest {
 
     private Long fromId;
     private Long toId;
-    private BigDecimal amount;
+    private Money amount;
 
     public TransferRequest() {
     }
 
-    public TransferRequest(Long fromId, Long toId, BigDecimal amount) {
+    public TransferRequest(Long fromId, Long toId, Money amount) {
         this.fromId = fromId;
         this.toId = toId;
         this.amount = amount;
@@ -33,11 +33,11 @@ public class TransferRequest {
         this.toId = toId;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
@@ -0,0 +1,26 @@
+package com.example.backend.dto;
+
+import com.example.backend.integration.async.TransferTicket;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record TransferTicketResponse(
+        String ticket,
+        Long fromId,
+        Long toId,
+        BigDecimal amount,
+        TransferTicket.Status status,
+        String reason,
+        Instant submittedAt,
+        Instant completedAt
+) {
+
+    public static TransferTicketResponse from(TransferTicket ticket) {
+        // 'status' é lido primeiro: o ticket publica o motivo e a data antes do status final.
+        TransferTicket.Status status = ticket.getStatus();
+        return new TransferTicketResponse(ticket.getId(), ticket.getFromId(), ticket.getToId(), ticket.getAmount(),
+                status, ticket.getReason(), ticket.getSubmittedAt(), ticket.getCompletedAt());
+    }
+
+}
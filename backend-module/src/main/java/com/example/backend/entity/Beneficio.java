@@ -1,14 +1,28 @@
 package com.example.backend.entity;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
-
+import com.example.backend.cache.BeneficioCacheRegions;
+import com.example.backend.money.Money;
+import com.example.backend.money.MoneyConverter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Formula;
+
+// Cache de segundo nível READ_WRITE: a entrada fica travada enquanto uma transação altera a
+// linha e só é substituída por um estado de VERSION maior. As escritas por SQL nativo passam
+// por BeneficioCacheRegions.nativeUpdate.
 @Entity
 @Table(name = "BENEFICIO")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = BeneficioCacheRegions.ENTITY)
 public class Beneficio {
 
+    // Sequence com 'allocationSize' 50 (otimizador pooled): o ID é conhecido antes do INSERT,
+    // então os INSERTs de uma transação saem em lotes JDBC. Com IDENTITY, cada INSERT iria
+    // sozinho para o banco devolver o ID. INSERTs por SQL usam o DEFAULT da coluna (nextval).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beneficio_seq")
+    @SequenceGenerator(name = "beneficio_seq", sequenceName = "BENEFICIO_SEQ", initialValue = 51, allocationSize = 50)
     @Column(name = "ID")
     private Long id;
 
@@ -18,8 +32,10 @@ public class Beneficio {
     @Column(name = "DESCRICAO", length = 255)
     private String descricao;
 
+    // Em centavos (Money); o banco continua com DECIMAL(15,2).
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
-    private BigDecimal valor;
+    private Money valor;
 
     @Column(name = "ATIVO")
     private Boolean ativo = Boolean.TRUE;
@@ -28,6 +44,17 @@ public class Beneficio {
     @Column(name = "VERSION")
     private Long version;
 
+    // Quantidade de faixas do saldo fracionado (0 = saldo inteiro em VALOR).
+    // Alterada só pelo BeneficioSubsaldoStore, nunca pelo UPDATE da entidade.
+    @Column(name = "SUBSALDOS", insertable = false, updatable = false)
+    private Integer subsaldos = 0;
+
+    // Soma das faixas, lida junto com a linha. O CASE evita a subconsulta nas contas comuns.
+    @Formula("(CASE WHEN SUBSALDOS > 0 THEN (SELECT COALESCE(SUM(s.VALOR), 0) FROM BENEFICIO_SUBSALDO s " +
+            "WHERE s.BENEFICIO_ID = ID) ELSE 0 END)")
+    @Convert(converter = MoneyConverter.class)
+    private Money valorSubsaldos;
+
     public Long getId() {
         return id;
     }
@@ -52,11 +79,11 @@ public class Beneficio {
         this.descricao = descricao;
     }
 
-    public BigDecimal getValor() {
+    public Money getValor() {
         return valor;
     }
 
-    public void setValor(BigDecimal valor) {
+    public void setValor(Money valor) {
         this.valor = valor;
     }
 
@@ -75,4 +102,32 @@ public class Beneficio {
     public void setVersion(Long version) {
         this.version = version;
     }
+
+    public Integer getSubsaldos() {
+        return subsaldos;
+    }
+
+    public boolean isFracionado() {
+        return subsaldos != null && subsaldos > 0;
+    }
+
+    public Money getValorSubsaldos() {
+        return valorSubsaldos;
+    }
+
+    // Só atualiza a cópia em memória; o valor real vem das faixas.
+    public void setValorSubsaldos(Money valorSubsaldos) {
+        this.valorSubsaldos = valorSubsaldos;
+    }
+
+    /**
+     * Saldo total do benefício: VALOR mais a soma das faixas do saldo fracionado.
+     * É o valor exposto pela API; 'getValor' é só a parcela guardada na própria linha.
+     */
+    public Money getSaldo() {
+        if (valorSubsaldos == null || valorSubsaldos.signum() == 0) {
+            return valor;
+        }
+        return valor == null ? valorSubsaldos : valor.plus(valorSubsaldos);
+    }
 }
@@ -0,0 +1,87 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import com.example.backend.money.Money;
+import com.example.backend.money.MoneyConverter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * Lançamento do TRANSFER_LEDGER. Só é inserido, nunca alterado nem apagado.
+ *
+ * Uma transferência gera dois lançamentos, um por conta: o débito com valor negativo na
+ * origem e o crédito com valor positivo no destino. Criação e alteração manual do saldo
+ * geram um AJUSTE com a diferença.
+ *
+ * O ID vem de uma sequence com 'allocationSize' 50 (otimizador pooled): cada instância
+ * reserva 50 IDs por chamada à sequence, e como o Hibernate conhece o ID antes do INSERT,
+ * os lançamentos de uma transação são enviados em lotes JDBC ('hibernate.jdbc.batch_size').
+ * Com IDENTITY, cada INSERT seria enviado sozinho para o banco devolver o ID.
+ */
+@Entity
+@Immutable
+@Table(name = "TRANSFER_LEDGER")
+public class LedgerEntry {
+
+    public enum Tipo { TRANSFERENCIA, AJUSTE }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer_ledger_seq")
+    @SequenceGenerator(name = "transfer_ledger_seq", sequenceName = "TRANSFER_LEDGER_SEQ", allocationSize = 50)
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "BENEFICIO_ID", nullable = false)
+    private Long beneficioId;
+
+    // A outra conta da transferência; null nos ajustes.
+    @Column(name = "CONTRAPARTE_ID")
+    private Long contraparteId;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
+    private Money valor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "TIPO", nullable = false, length = 20)
+    private Tipo tipo;
+
+    @Column(name = "CRIADO_EM", nullable = false)
+    private Instant criadoEm;
+
+    protected LedgerEntry() {
+    }
+
+    public LedgerEntry(Long beneficioId, Long contraparteId, Money valor, Tipo tipo, Instant criadoEm) {
+        this.beneficioId = beneficioId;
+        this.contraparteId = contraparteId;
+        this.valor = valor;
+        this.tipo = tipo;
+        this.criadoEm = criadoEm;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getBeneficioId() {
+        return beneficioId;
+    }
+
+    public Long getContraparteId() {
+        return contraparteId;
+    }
+
+    public Money getValor() {
+        return valor;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Instant getCriadoEm() {
+        return criadoEm;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.backend.events;
+
+import com.example.backend.money.Money;
+
+/**
+ * Uma mudança confirmada em um benefício, publicada pelo BeneficioChangeFeed depois do commit.
+ *
+ * @param saldo         O saldo total depois da mudança; null na remoção ou quando o caminho da
+ *                      transferência não lê o saldo (ATOMIC_SQL e contas fracionadas).
+ * @param delta         Quanto o saldo total mudou (negativo na remoção e nos débitos).
+ * @param ativo         A situação depois da mudança; null quando não muda (TRANSFER, DELETED).
+ * @param ativoAnterior A situação antes da mudança; null quando a conta não existia (CREATED) ou
+ *                      não muda (TRANSFER).
+ */
+public record BeneficioChange(
+        long id,
+        Kind kind,
+        Money saldo,
+        Money delta,
+        Boolean ativo,
+        Boolean ativoAnterior
+) {
+
+    public enum Kind {
+        CREATED,
+        UPDATED,
+        DELETED,
+        TRANSFER
+    }
+
+    public static BeneficioChange created(long id, Money saldo, Boolean ativo) {
+        Money s = saldo == null ? Money.ZERO : saldo;
+        return new BeneficioChange(id, Kind.CREATED, s, s, ativo, null);
+    }
+
+    public static BeneficioChange updated(long id, Money saldoAnterior, Money saldo, Boolean ativoAnterior,
+                                          Boolean ativo) {
+        Money s = saldo == null ? Money.ZERO : saldo;
+        return new BeneficioChange(id, Kind.UPDATED, s, s.minus(saldoAnterior == null ? Money.ZERO : saldoAnterior),
+                ativo, ativoAnterior);
+    }
+
+    public static BeneficioChange deleted(long id, Money saldoAnterior, Boolean ativoAnterior) {
+        Money delta = saldoAnterior == null ? Money.ZERO : saldoAnterior.negate();
+        return new BeneficioChange(id, Kind.DELETED, null, delta, null, ativoAnterior);
+    }
+
+    /**
+     * Um lado de uma transferência (ou o efeito líquido de um lote na conta).
+     *
+     * @param saldo O novo saldo total, ou null se não for conhecido.
+     */
+    public static BeneficioChange transfer(long id, Money saldo, Money delta) {
+        return new BeneficioChange(id, Kind.TRANSFER, saldo, delta, null, null);
+    }
+
+}
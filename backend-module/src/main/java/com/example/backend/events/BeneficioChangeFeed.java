@@ -0,0 +1,85 @@
+package com.example.backend.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entrega aos BeneficioChangeListener as mudanças de saldo e de situação dos benefícios, só
+ * depois que a transação que as fez for confirmada. Uma transação desfeita não entrega nada.
+ *
+ * As mudanças de uma transação são acumuladas em uma única lista (uma sincronização por
+ * transação, não por mudança) e entregues juntas: um lote ou bloco de importação gera uma
+ * única chamada por listener. Fora de uma transação, a entrega é imediata.
+ */
+@Component
+public class BeneficioChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioChangeFeed.class);
+
+    private final List<BeneficioChangeListener> listeners;
+
+    public BeneficioChangeFeed(ObjectProvider<BeneficioChangeListener> listeners) {
+        this.listeners = listeners.orderedStream().toList();
+    }
+
+    public void publishAfterCommit(BeneficioChange change) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(List.of(change));
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(change);
+    }
+
+    private void dispatch(List<BeneficioChange> changes) {
+        for (BeneficioChangeListener listener : listeners) {
+            try {
+                listener.onCommit(changes);
+            } catch (RuntimeException ex) {
+                // A transação já foi confirmada: a falha de um listener não chega ao chamador.
+                log.warn("Beneficio change listener {} failed", listener.getClass().getSimpleName(), ex);
+            }
+        }
+    }
+
+    // As mudanças de uma transação; desvinculada da thread junto com ela (inclusive quando suspensa).
+    private final class Pending implements TransactionSynchronization {
+
+        private final List<BeneficioChange> changes = new ArrayList<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(BeneficioChangeFeed.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(BeneficioChangeFeed.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BeneficioChangeFeed.this);
+            if (status == STATUS_COMMITTED) {
+                dispatch(changes);
+            }
+        }
+
+    }
+
+}
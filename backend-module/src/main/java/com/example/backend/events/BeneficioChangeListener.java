@@ -0,0 +1,19 @@
+package com.example.backend.events;
+
+import java.util.List;
+
+/**
+ * Recebe as mudanças confirmadas publicadas pelo BeneficioChangeFeed. Todo bean que implementa
+ * esta interface é registrado automaticamente.
+ */
+@FunctionalInterface
+public interface BeneficioChangeListener {
+
+    /**
+     * Chamado depois do commit, na thread que confirmou a transação, com as mudanças dela na
+     * ordem em que foram publicadas. Roda no caminho da requisição: deve ser rápido e não
+     * pode bloquear esperando I/O.
+     */
+    void onCommit(List<BeneficioChange> changes);
+
+}
@@ -0,0 +1,9 @@
+package com.example.backend.events;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BeneficioEventProperties.class)
+public class BeneficioEventConfig {
+}
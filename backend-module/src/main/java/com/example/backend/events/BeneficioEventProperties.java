@@ -0,0 +1,81 @@
+package com.example.backend.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Stream de mudanças dos benefícios (GET /api/v1/beneficios/events).
+ */
+@ConfigurationProperties(prefix = "beneficio.events")
+public class BeneficioEventProperties {
+
+    /**
+     * Conexões abertas ao mesmo tempo; acima disso, a inscrição recebe 503.
+     */
+    private int maxSubscribers = 20_000;
+
+    /**
+     * Eventos guardados por inscrito esperando o envio. Quem fica para trás perde os
+     * guardados e recebe um único 'resync'.
+     */
+    private int bufferSize = 256;
+
+    /**
+     * Threads que escrevem nas conexões. Uma escrita só bloqueia quando o buffer TCP do
+     * cliente está cheio.
+     */
+    private int writers = 4;
+
+    /**
+     * Commits aguardando a leitura dos saldos. Com a fila cheia, todos os inscritos recebem 'resync'.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Intervalo dos comentários enviados a conexões sem eventos, para manter proxies abertos
+     * e descobrir clientes que já foram embora. 0 desliga.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    public int getMaxSubscribers() {
+        return maxSubscribers;
+    }
+
+    public void setMaxSubscribers(int maxSubscribers) {
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getWriters() {
+        return writers;
+    }
+
+    public void setWriters(int writers) {
+        this.writers = writers;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(Duration heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+}
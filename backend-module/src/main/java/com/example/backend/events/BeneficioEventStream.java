@@ -0,0 +1,432 @@
+package com.example.backend.events;
+
+import com.example.backend.dto.BeneficioEvent;
+import com.example.backend.money.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stream Server-Sent Events das mudanças confirmadas nos benefícios (GET /events).
+ *
+ * - Entrada: recebe do BeneficioChangeFeed as mudanças de cada commit e só as enfileira; a
+ *   thread que confirmou a transação não espera leitura nem escrita de rede. Sem inscritos,
+ *   nada é enfileirado.
+ * - Leitura: uma única thread ('beneficio-events') esvazia a fila, junta as mudanças do mesmo
+ *   ID e lê, em uma consulta por bloco de IDs, o saldo total e a VERSION atuais. Cada evento é
+ *   serializado uma vez, qualquer que seja a quantidade de inscritos.
+ * - Entrega: cada inscrito tem uma fila própria de até 'buffer-size' eventos, esvaziada por
+ *   um pool de 'writers' threads, no máximo uma por inscrito de cada vez. As conexões ociosas
+ *   não ocupam thread nenhuma (requisição assíncrona do Servlet).
+ *
+ * Um inscrito cuja fila enche perde os eventos guardados e recebe um único 'resync': o cliente
+ * deve recarregar a listagem. O mesmo vale para todos quando a fila de commits enche, quando
+ * a leitura dos saldos falha e para quem reconecta com um 'Last-Event-ID' antigo (não há
+ * histórico). Escritas feitas fora desta instância (EJB, outras instâncias) não aparecem.
+ */
+@Component
+public class BeneficioEventStream implements BeneficioChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioEventStream.class);
+
+    static final MediaType EVENT_STREAM = new MediaType(MediaType.TEXT_EVENT_STREAM, StandardCharsets.UTF_8);
+
+    // Commits tratados por vez pela thread de leitura.
+    private static final int DRAIN_BATCH = 1000;
+
+    // IDs por consulta.
+    private static final int QUERY_CHUNK = 500;
+
+    // Eventos por escrita em uma conexão, antes de devolver a thread ao pool.
+    private static final int WRITE_BATCH = 64;
+
+    // Mesma soma do @Formula de Beneficio.valorSubsaldos.
+    private static final String SALDO = "COALESCE(b.VALOR, 0) + CASE WHEN b.SUBSALDOS > 0 THEN "
+            + "(SELECT COALESCE(SUM(s.VALOR), 0) FROM BENEFICIO_SUBSALDO s WHERE s.BENEFICIO_ID = b.ID) ELSE 0 END";
+
+    // Intervalo de reconexão sugerido ao EventSource, enviado ao abrir a conexão.
+    private static final byte[] HELLO = "retry: 3000\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final int maxSubscribers;
+
+    private final int bufferSize;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final ArrayBlockingQueue<List<BeneficioChange>> inbox;
+
+    // Algum commit não coube na fila: todos os inscritos precisam recarregar.
+    private final AtomicBoolean inboxOverflow = new AtomicBoolean();
+
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+
+    // Leitura dos saldos e heartbeat, sempre na mesma thread.
+    private final ScheduledExecutorService dispatcher;
+
+    private final ExecutorService writers;
+
+    // 'id' do último evento enviado; só a thread de leitura o avança.
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Counter resyncs;
+
+    private volatile boolean closed;
+
+    @Autowired
+    public BeneficioEventStream(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                BeneficioEventProperties properties, ObjectProvider<MeterRegistry> registry) {
+        this(jdbcTemplate, objectMapper, properties, registry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    BeneficioEventStream(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, BeneficioEventProperties properties,
+                         MeterRegistry registry) {
+        if (properties.getMaxSubscribers() < 1 || properties.getBufferSize() < 1 || properties.getWriters() < 1
+                || properties.getQueueCapacity() < 1) {
+            throw new IllegalArgumentException("max-subscribers, buffer-size, writers e queue-capacity devem ser positivos");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.maxSubscribers = properties.getMaxSubscribers();
+        this.bufferSize = properties.getBufferSize();
+        this.inbox = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(threadFactory("beneficio-events"));
+        this.writers = Executors.newFixedThreadPool(properties.getWriters(), threadFactory("beneficio-events-writer-"));
+
+        long heartbeat = properties.getHeartbeatInterval().toMillis();
+        if (heartbeat > 0) {
+            dispatcher.scheduleWithFixedDelay(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+        }
+
+        Gauge.builder("beneficio.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Conexões abertas no stream de mudanças")
+                .register(registry);
+        this.resyncs = Counter.builder("beneficio.events.resyncs")
+                .description("Eventos 'resync' enviados (inscrito atrasado, fila cheia ou reconexão)")
+                .register(registry);
+    }
+
+    /**
+     * Abre uma inscrição. O emitter usa o timeout de 'spring.mvc.async.request-timeout'; ao
+     * expirar, a conexão é fechada e o EventSource reconecta com o 'Last-Event-ID'.
+     *
+     * @param lastEventId O header 'Last-Event-ID' de uma reconexão, ou null.
+     * @throws TooManySubscribersException se já houver 'max-subscribers' conexões.
+     */
+    public ResponseBodyEmitter subscribe(String lastEventId) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        register(emitter, lastEventId);
+        return emitter;
+    }
+
+    public int getSubscribers() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public void onCommit(List<BeneficioChange> changes) {
+        if (subscriberCount.get() == 0 || closed) {
+            return;
+        }
+        if (!inbox.offer(changes)) {
+            inboxOverflow.set(true);
+        }
+        if (dispatchScheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(this::dispatch);
+            } catch (RejectedExecutionException ex) {
+                dispatchScheduled.set(false); // encerrando
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        closed = true;
+        dispatcher.shutdownNow();
+        writers.shutdownNow();
+        for (Subscriber s : subscribers) {
+            s.close();
+            try {
+                s.emitter.complete();
+            } catch (RuntimeException ex) {
+                // Conexão já encerrada.
+            }
+        }
+    }
+
+    void register(ResponseBodyEmitter emitter, String lastEventId) {
+        if (closed) {
+            throw new TooManySubscribersException("Aplicação encerrando; o stream de mudanças não aceita conexões");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new TooManySubscribersException("Limite de " + maxSubscribers + " conexões no stream de mudanças");
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+        emitter.onTimeout(() -> {
+            subscriber.close();
+            emitter.complete();
+        });
+        // Reconexão depois de eventos que não foram guardados (ou de um reinício da aplicação).
+        if (lastEventId != null && !lastEventId.equals(Long.toString(sequence.get()))) {
+            subscriber.lagging = true;
+        }
+        subscriber.offer(List.of(HELLO));
+    }
+
+    private void dispatch() {
+        List<List<BeneficioChange>> batch = new ArrayList<>();
+        while (true) {
+            if (inboxOverflow.getAndSet(false)) {
+                // Os commits que ficaram de fora estão cobertos pela recarga do cliente.
+                inbox.clear();
+                log.warn("Beneficio event queue full: asking {} subscribers to resync", subscriberCount.get());
+                resyncAll();
+                continue;
+            }
+            inbox.drainTo(batch, DRAIN_BATCH);
+            if (batch.isEmpty()) {
+                dispatchScheduled.set(false);
+                if ((inbox.isEmpty() && !inboxOverflow.get()) || !dispatchScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                broadcast(render(batch));
+            } catch (RuntimeException ex) {
+                log.warn("Beneficio events not published: asking {} subscribers to resync", subscriberCount.get(), ex);
+                resyncAll();
+            }
+            batch.clear();
+        }
+    }
+
+    // Um evento por ID, com o estado atual lido do banco e o motivo da última mudança.
+    private List<byte[]> render(List<List<BeneficioChange>> batch) {
+        Map<Long, BeneficioChange.Kind> kinds = new LinkedHashMap<>();
+        for (List<BeneficioChange> changes : batch) {
+            for (BeneficioChange c : changes) {
+                kinds.remove(c.id()); // o ID vai para a posição da última mudança
+                kinds.put(c.id(), c.kind());
+            }
+        }
+        Map<Long, Row> rows = load(new ArrayList<>(kinds.keySet()));
+        List<byte[]> frames = new ArrayList<>(kinds.size());
+        kinds.forEach((id, kind) -> {
+            Row row = rows.get(id);
+            BeneficioEvent event = row == null
+                    ? new BeneficioEvent(id, null, null, BeneficioChange.Kind.DELETED.name())
+                    : new BeneficioEvent(id, row.valor(), row.version(), kind.name());
+            frames.add(frame(sequence.incrementAndGet(), "change", event));
+        });
+        return frames;
+    }
+
+    private Map<Long, Row> load(List<Long> ids) {
+        Map<Long, Row> rows = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += QUERY_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + QUERY_CHUNK, ids.size()));
+            String sql = "SELECT b.ID, " + SALDO + ", b.VERSION FROM BENEFICIO b WHERE b.ID IN ("
+                    + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+            jdbcTemplate.query(sql, rs -> {
+                BigDecimal valor = rs.getBigDecimal(2);
+                long version = rs.getLong(3);
+                rows.put(rs.getLong(1), new Row(valor == null ? Money.ZERO : Money.of(valor),
+                        rs.wasNull() ? null : version));
+            }, chunk.toArray());
+        }
+        return rows;
+    }
+
+    private byte[] frame(long id, String name, Object data) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+            out.writeBytes(("id: " + id + "\nevent: " + name + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(objectMapper.writeValueAsBytes(data));
+            out.writeBytes(new byte[]{'\n', '\n'});
+            return out.toByteArray();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Evento não serializável: " + data, ex);
+        }
+    }
+
+    private void broadcast(List<byte[]> frames) {
+        for (Subscriber s : subscribers) {
+            s.offer(frames);
+        }
+    }
+
+    private void resyncAll() {
+        for (Subscriber s : subscribers) {
+            s.lagging = true;
+            s.schedule();
+        }
+    }
+
+    // Só nas conexões sem nada para enviar: as demais já estão escrevendo.
+    private void heartbeat() {
+        List<byte[]> frames = List.of(HEARTBEAT);
+        for (Subscriber s : subscribers) {
+            if (s.pending.get() == 0) {
+                s.offer(frames);
+            }
+        }
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name.endsWith("-") ? name + counter.incrementAndGet() : name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Row(Money valor, Long version) {
+    }
+
+    /**
+     * Uma conexão. A fila é alimentada pela thread de leitura (e pelo heartbeat) e esvaziada
+     * por no máximo uma thread do pool de cada vez ('scheduled').
+     */
+    private final class Subscriber implements Runnable {
+
+        private final ResponseBodyEmitter emitter;
+
+        private final ConcurrentLinkedQueue<byte[]> queue = new ConcurrentLinkedQueue<>();
+
+        // Eventos na fila (pode contar por um instante um evento ainda não inserido).
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // A fila encheu (ou o estado do cliente é desconhecido): o próximo envio é um 'resync'.
+        private volatile boolean lagging;
+
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        Subscriber(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(List<byte[]> frames) {
+            if (done.get()) {
+                return;
+            }
+            if (pending.addAndGet(frames.size()) > bufferSize) {
+                pending.addAndGet(-frames.size());
+                lagging = true;
+            } else {
+                queue.addAll(frames);
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (!done.get() && scheduled.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this);
+                } catch (RejectedExecutionException ex) {
+                    scheduled.set(false); // encerrando
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                write();
+            } catch (IOException | RuntimeException ex) {
+                // Cliente desconectado ou conexão já encerrada pelo contêiner.
+                log.debug("Beneficio event subscriber dropped: {}", ex.toString());
+                close();
+                return;
+            }
+            scheduled.set(false);
+            if (lagging || !queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void write() throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            if (lagging) {
+                lagging = false;
+                for (byte[] dropped = queue.poll(); dropped != null; dropped = queue.poll()) {
+                    pending.decrementAndGet();
+                }
+                resyncs.increment();
+                out.writeBytes(frame(sequence.get(), "resync", Map.of()));
+            }
+            for (int i = 0; i < WRITE_BATCH; i++) {
+                byte[] frame = queue.poll();
+                if (frame == null) {
+                    break;
+                }
+                pending.decrementAndGet();
+                out.writeBytes(frame);
+            }
+            if (out.size() > 0) {
+                emitter.send(out.toByteArray(), EVENT_STREAM);
+            }
+        }
+
+        void close() {
+            if (done.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                subscriberCount.decrementAndGet();
+                queue.clear();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.example.backend.events;
+
+/**
+ * O stream de mudanças já tem 'beneficio.events.max-subscribers' conexões abertas.
+ *
+ * Mapeada para HTTP 503: o EventSource do navegador tenta de novo sozinho.
+ */
+public class TooManySubscribersException extends RuntimeException {
+
+    public TooManySubscribersException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.example.backend.idempotency;
+
+import com.example.backend.integration.BeneficioTransferProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@ConditionalOnProperty(prefix = "beneficio.transfer.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    IdempotencyStore idempotencyStore(JdbcTemplate jdbcTemplate, BeneficioTransferProperties properties) {
+        return new IdempotencyStore(jdbcTemplate, properties.getIdempotency());
+    }
+
+    /**
+     * Só os POSTs de transferência: /transfer, /transfer/batch e /transfer/async.
+     */
+    @Bean
+    FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper,
+                                                                BeneficioTransferProperties properties) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(store, objectMapper, properties.getIdempotency().getWaitTimeout()));
+        registration.addUrlPatterns("/api/v1/beneficios/transfer", "/api/v1/beneficios/transfer/*");
+        return registration;
+    }
+
+    /**
+     * Repetições atendidas da memória em /actuator/metrics/cache.gets, com a tag cache=idempotencia.
+     */
+    @Bean
+    MeterBinder idempotencyCacheMetrics(IdempotencyStore store) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, store.getNativeCache(), "idempotencia");
+    }
+
+}
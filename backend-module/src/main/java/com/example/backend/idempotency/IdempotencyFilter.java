@@ -0,0 +1,307 @@
+package com.example.backend.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key nos POSTs de transferência (simples, lote e assíncrona).
+ *
+ * A primeira requisição de uma chave executa normalmente e a resposta final (inclusive as
+ * de erro produzidas pelo RestExceptionHandler) é guardada no IdempotencyStore. Repetições
+ * recebem a mesma resposta, byte a byte, com o header 'Idempotency-Replayed: true', sem
+ * chegar ao controller nem ao BeneficioTransferPort.
+ *
+ * - Repetições simultâneas na mesma instância esperam a execução em andamento e reenviam a
+ *   resposta dela; em outra instância, recebem 409 até a resposta ser gravada.
+ * - Respostas de falhas transitórias (409 de conflito, 5xx) não são guardadas: a chave é
+ *   liberada e a próxima repetição executa de novo.
+ * - A mesma chave com outro corpo ou outro endpoint recebe 422.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotency-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    private final IdempotencyStore store;
+
+    private final ObjectMapper objectMapper;
+
+    private final long waitTimeoutMillis;
+
+    // Execuções em andamento nesta instância, para que repetições simultâneas esperem por elas.
+    private final Map<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper, Duration waitTimeout) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, HEADER + " deve ter de 1 a " + MAX_KEY_LENGTH + " caracteres");
+            return;
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        long fingerprint = fingerprint(request.getRequestURI(), body);
+
+        while (true) {
+            IdempotentResponse stored = store.find(key);
+            if (stored != null && !stored.isPending()) {
+                replay(stored, fingerprint, response);
+                return;
+            }
+
+            CompletableFuture<IdempotentResponse> mine = new CompletableFuture<>();
+            CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                IdempotentResponse result;
+                try {
+                    result = running.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException ex) {
+                    writeInProgress(response);
+                    return;
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    writeInProgress(response);
+                    return;
+                } catch (ExecutionException ex) {
+                    result = null;
+                }
+                if (result != null) {
+                    replay(result, fingerprint, response);
+                    return;
+                }
+                continue; // a execução não guardou resposta: tenta executar esta
+            }
+
+            try {
+                run(key, stored, fingerprint, new CachedBodyRequest(request, body), response, chain, mine);
+            } finally {
+                inFlight.remove(key, mine);
+                mine.complete(null); // sem efeito se 'run' já publicou a resposta
+            }
+            return;
+        }
+    }
+
+    private void run(String key, IdempotentResponse stored, long fingerprint, HttpServletRequest request,
+                     HttpServletResponse response, FilterChain chain, CompletableFuture<IdempotentResponse> mine)
+            throws ServletException, IOException {
+        if (stored != null || !store.claim(key, fingerprint)) {
+            // Reservada por outra instância (em andamento ou já respondida).
+            IdempotentResponse now = store.find(key);
+            if (now != null && !now.isPending()) {
+                mine.complete(now);
+                replay(now, fingerprint, response);
+            } else {
+                writeInProgress(response);
+            }
+            return;
+        }
+
+        // Só uma falha da própria execução libera a chave. Depois que a cadeia retornou, a
+        // transferência pode ter sido gravada: a resposta é guardada antes de ir para o cliente,
+        // e um cliente que desconectou no meio da escrita recebe a réplica ao repetir.
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+        } catch (IOException | ServletException | RuntimeException ex) {
+            release(key);
+            throw ex;
+        }
+        IdempotentResponse result = snapshot(wrapper, fingerprint);
+        try {
+            if (result != null) {
+                store.complete(key, result);
+            } else {
+                store.release(key);
+            }
+        } catch (RuntimeException ex) {
+            // A transferência já rodou: a chave fica reservada (409 até expirar), nunca liberada.
+            log.error("Could not store the response of idempotency key {}", key, ex);
+        }
+        mine.complete(result);
+        wrapper.copyBodyToResponse();
+    }
+
+    /**
+     * Cópia da resposta produzida pela cadeia. Null se ela não deve ser guardada.
+     */
+    private static IdempotentResponse snapshot(ContentCachingResponseWrapper wrapper, long fingerprint) {
+        int status = wrapper.getStatus();
+        return isFinal(status)
+                ? new IdempotentResponse(fingerprint, status, wrapper.getContentType(),
+                wrapper.getHeader(HttpHeaders.LOCATION), wrapper.getContentAsByteArray())
+                : null;
+    }
+
+    // 409 (conflito de lock), 429 e 5xx são transitórios: o cliente deve poder repetir de verdade.
+    private static boolean isFinal(int status) {
+        return status < 500 && status != HttpStatus.CONFLICT.value() && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private void replay(IdempotentResponse stored, long fingerprint, HttpServletResponse response) throws IOException {
+        if (stored.fingerprint() != fingerprint) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " já usada com outra requisição; use uma chave nova para cada transferência");
+            return;
+        }
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        if (stored.body() != null && stored.body().length > 0) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private void release(String key) {
+        try {
+            store.release(key);
+        } catch (RuntimeException ex) {
+            log.warn("Could not release idempotency key {}", key, ex);
+        }
+    }
+
+    private void writeInProgress(HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        writeError(response, HttpStatus.CONFLICT, "Requisição com esta " + HEADER + " ainda em processamento");
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", message));
+    }
+
+    // Primeiros 8 bytes do SHA-256 do caminho e do corpo.
+    static long fingerprint(String path, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(path.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            byte[] hash = digest.digest(body);
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = (value << 8) | (hash[i] & 0xFF);
+            }
+            return value;
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Requisição com o corpo já lido (para a impressão), reentregue ao controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // O corpo já está todo em memória: disponível e terminado de uma vez.
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException ex) {
+                        listener.onError(ex);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+
+    }
+
+}
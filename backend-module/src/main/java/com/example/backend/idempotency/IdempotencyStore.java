@@ -0,0 +1,132 @@
+package com.example.backend.idempotency;
+
+import com.example.backend.integration.BeneficioTransferProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Respostas das requisições com Idempotency-Key: em memória (Caffeine, limitado e com validade)
+ * e na tabela TRANSFER_IDEMPOTENCIA, que sobrevive a restarts e é compartilhada entre instâncias.
+ *
+ * A consulta de uma chave repetida é um 'getIfPresent' no cache; só vai ao banco quando a chave
+ * não está em memória (outra instância, restart ou entrada descartada pelo limite).
+ *
+ * Cada chave é reservada com um INSERT (a chave primária garante um único dono) antes da
+ * execução, e a resposta é gravada depois. Se a instância cair no meio, a linha fica sem
+ * resposta até expirar e as repetições recebem 409, nunca uma segunda execução.
+ */
+public class IdempotencyStore {
+
+    // A cada quantas reservas as linhas expiradas são apagadas.
+    private static final int PURGE_EVERY = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Cache<String, IdempotentResponse> cache;
+
+    private final Duration ttl;
+
+    private final AtomicInteger claims = new AtomicInteger();
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate, BeneficioTransferProperties.Idempotency properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = properties.getTtl();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * A resposta guardada da chave, uma resposta pendente (a requisição original ainda não
+     * terminou, nesta ou em outra instância) ou null se a chave é nova ou expirou.
+     */
+    public IdempotentResponse find(String key) {
+        IdempotentResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<IdempotentResponse> rows = jdbcTemplate.query(
+                "SELECT IMPRESSAO, STATUS, CONTENT_TYPE, LOCATION, CORPO FROM TRANSFER_IDEMPOTENCIA "
+                        + "WHERE CHAVE = ? AND CRIADO_EM >= ?",
+                (rs, i) -> new IdempotentResponse(rs.getLong(1), (Integer) rs.getObject(2), rs.getString(3),
+                        rs.getString(4), rs.getBytes(5)),
+                key, cutoff());
+        if (rows.isEmpty()) {
+            return null;
+        }
+        IdempotentResponse stored = rows.get(0);
+        if (!stored.isPending()) {
+            cache.put(key, stored);
+        }
+        return stored;
+    }
+
+    /**
+     * Reserva a chave para esta requisição.
+     *
+     * @return false se a chave já tem dono (com ou sem resposta) e ainda não expirou.
+     */
+    public boolean claim(String key, long fingerprint) {
+        if (claims.incrementAndGet() % PURGE_EVERY == 0) {
+            jdbcTemplate.update("DELETE FROM TRANSFER_IDEMPOTENCIA WHERE CRIADO_EM < ?", cutoff());
+        }
+        try {
+            insert(key, fingerprint);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            // Linha expirada ainda não apagada: a chave vale de novo.
+            if (jdbcTemplate.update("DELETE FROM TRANSFER_IDEMPOTENCIA WHERE CHAVE = ? AND CRIADO_EM < ?",
+                    key, cutoff()) == 0) {
+                return false;
+            }
+            try {
+                insert(key, fingerprint);
+                return true;
+            } catch (DuplicateKeyException lost) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Grava a resposta de uma chave reservada por 'claim'.
+     */
+    public void complete(String key, IdempotentResponse response) {
+        jdbcTemplate.update("UPDATE TRANSFER_IDEMPOTENCIA SET STATUS = ?, CONTENT_TYPE = ?, LOCATION = ?, CORPO = ? "
+                        + "WHERE CHAVE = ?",
+                response.status(), response.contentType(), response.location(), response.body(), key);
+        cache.put(key, response);
+    }
+
+    /**
+     * Libera uma chave reservada sem resposta guardada (falha transitória): a próxima
+     * repetição executa de novo.
+     */
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM TRANSFER_IDEMPOTENCIA WHERE CHAVE = ? AND STATUS IS NULL", key);
+    }
+
+    public Cache<String, IdempotentResponse> getNativeCache() {
+        return cache;
+    }
+
+    private void insert(String key, long fingerprint) {
+        jdbcTemplate.update("INSERT INTO TRANSFER_IDEMPOTENCIA (CHAVE, IMPRESSAO, CRIADO_EM) VALUES (?, ?, ?)",
+                key, fingerprint, Timestamp.from(Instant.now()));
+    }
+
+    private Timestamp cutoff() {
+        return Timestamp.from(Instant.now().minus(ttl));
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.example.backend.idempotency;
+
+/**
+ * Resposta guardada de uma requisição com Idempotency-Key, pronta para ser reenviada byte a byte.
+ *
+ * @param fingerprint Impressão da requisição original (caminho e corpo).
+ * @param status      Status HTTP; nulo enquanto a requisição original ainda não terminou.
+ * @param body        Corpo exato da resposta original (sem nova serialização).
+ */
+public record IdempotentResponse(long fingerprint, Integer status, String contentType, String location, byte[] body) {
+
+    public boolean isPending() {
+        return status == null;
+    }
+
+}
@@ -0,0 +1,380 @@
+package com.example.backend.importer;
+
+import com.example.backend.cache.BeneficioCache;
+import com.example.backend.dto.BeneficioRequest;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.events.BeneficioChange;
+import com.example.backend.events.BeneficioChangeFeed;
+import com.example.backend.ledger.TransferLedger;
+import com.example.backend.money.Money;
+import com.example.backend.repository.BeneficioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importa arquivos CSV de benefícios (POST /api/v1/beneficios/import) em segundo plano.
+ *
+ * O corpo é primeiro copiado para um arquivo temporário (o multipart já chega em disco), e a
+ * requisição responde 202 com o ID da importação. Cada importação usa duas threads:
+ *
+ *   leitura  - lê o arquivo registro a registro, valida cada linha com as mesmas regras do
+ *              BeneficioRequest e junta as válidas em blocos de 'chunk-size';
+ *   gravação - grava cada bloco em uma transação própria (BeneficioRepository.saveAll, em
+ *              lotes JDBC graças à sequence pooled) e registra o saldo inicial no ledger.
+ *
+ * As duas se comunicam por uma fila de no máximo 'queue-capacity' blocos: com o banco mais
+ * lento que a leitura, a fila enche e a leitura espera. A memória depende só do tamanho do
+ * bloco e da fila, nunca do tamanho do arquivo.
+ *
+ * Um bloco que falha no banco (ex: nome maior que a coluna) é refeito linha a linha, para
+ * que só as linhas com problema sejam rejeitadas. Os blocos já gravados não são desfeitos:
+ * reimportar o mesmo arquivo cria os benefícios de novo.
+ */
+@Component
+public class BeneficioCsvImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioCsvImporter.class);
+
+    private static final List<String> COLUMNS = List.of("id", "nome", "descricao", "valor", "ativo");
+
+    // Fim do arquivo para a thread de gravação.
+    private static final List<Row> END = List.of();
+
+    private final BeneficioRepository repository;
+
+    private final TransferLedger ledger;
+
+    private final BeneficioCache cache;
+
+    private final BeneficioChangeFeed changeFeed;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BeneficioImportProperties properties;
+
+    private final ExecutorService workers;
+
+    private final Cache<String, ImportJob> jobs;
+
+    public BeneficioCsvImporter(BeneficioRepository repository, TransferLedger ledger, BeneficioCache cache,
+                                BeneficioChangeFeed changeFeed, Validator validator,
+                                TransactionTemplate transactionTemplate,
+                                BeneficioImportProperties properties) {
+        if (properties.getChunkSize() < 1 || properties.getQueueCapacity() < 1 || properties.getMaxConcurrent() < 1) {
+            throw new IllegalArgumentException("chunk-size, queue-capacity e max-concurrent devem ser positivos");
+        }
+        this.repository = repository;
+        this.ledger = ledger;
+        this.cache = cache;
+        this.changeFeed = changeFeed;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        // Leitura e gravação de uma importação entram juntas na fila do pool, então uma nunca
+        // fica esperando pela outra atrás de uma importação seguinte.
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(2 * properties.getMaxConcurrent(), runnable -> {
+            Thread thread = new Thread(runnable, "beneficio-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getJobRetention())
+                .build();
+    }
+
+    /**
+     * Inicia a importação de um arquivo enviado como multipart.
+     *
+     * @throws IllegalArgumentException se o arquivo estiver vazio ou o cabeçalho for inválido.
+     */
+    public ImportJob submit(MultipartFile file) throws IOException {
+        Path spool = Files.createTempFile("beneficio-import-", ".csv");
+        try {
+            file.transferTo(spool);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(spool);
+            throw ex;
+        }
+        return start(spool, file.getOriginalFilename());
+    }
+
+    /**
+     * Inicia a importação de um corpo text/csv.
+     *
+     * @throws IllegalArgumentException se o arquivo estiver vazio ou o cabeçalho for inválido.
+     */
+    public ImportJob submit(InputStream body, String fileName) throws IOException {
+        Path spool = Files.createTempFile("beneficio-import-", ".csv");
+        try {
+            Files.copy(body, spool, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(spool);
+            throw ex;
+        }
+        return start(spool, fileName);
+    }
+
+    /**
+     * A importação, enquanto estiver retida ('job-retention').
+     */
+    public Optional<ImportJob> find(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id));
+    }
+
+    /**
+     * Interrompe as importações em andamento; os blocos já gravados continuam gravados.
+     */
+    @PreDestroy
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    private ImportJob start(Path spool, String fileName) throws IOException {
+        Header header;
+        try (CsvRecordReader reader = open(spool)) {
+            header = header(reader.next());
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(spool);
+            throw ex;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), fileName, properties.getMaxRejects());
+        jobs.put(job.getId(), job);
+        BlockingQueue<List<Row>> queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        workers.execute(() -> read(job, spool, header, queue));
+        workers.execute(() -> write(job, queue));
+        return job;
+    }
+
+    private CsvRecordReader open(Path file) throws IOException {
+        return new CsvRecordReader(Files.newBufferedReader(file, StandardCharsets.UTF_8),
+                properties.getMaxRecordLength());
+    }
+
+    // Posição de cada coluna conhecida; 'id' (presente nos arquivos da exportação) é ignorado.
+    private static Header header(List<String> names) {
+        if (names == null) {
+            throw new IllegalArgumentException("O arquivo está vazio");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT);
+            if (!COLUMNS.contains(name)) {
+                throw new IllegalArgumentException("Coluna desconhecida no cabeçalho: '" + names.get(i)
+                        + "' (esperadas: " + String.join(",", COLUMNS) + ")");
+            }
+            if (columns.put(name, i) != null) {
+                throw new IllegalArgumentException("Coluna repetida no cabeçalho: " + name);
+            }
+        }
+        if (!columns.containsKey("nome") || !columns.containsKey("valor")) {
+            throw new IllegalArgumentException("O cabeçalho deve ter as colunas 'nome' e 'valor'");
+        }
+        return new Header(columns, names.size());
+    }
+
+    private void read(ImportJob job, Path spool, Header header, BlockingQueue<List<Row>> queue) {
+        job.running();
+        try (CsvRecordReader reader = open(spool)) {
+            reader.next(); // cabeçalho, já validado
+            List<Row> chunk = new ArrayList<>(properties.getChunkSize());
+            for (List<String> record = reader.next(); record != null && !job.isFailing(); record = reader.next()) {
+                job.lineRead();
+                List<String> errors = new ArrayList<>();
+                BeneficioRequest request = null;
+                if (record.size() != header.size()) {
+                    errors.add("linha: esperadas " + header.size() + " colunas, encontradas " + record.size());
+                } else {
+                    request = convert(record, header, errors);
+                }
+                if (request != null) {
+                    for (ConstraintViolation<BeneficioRequest> violation : validator.validate(request)) {
+                        errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+                    }
+                }
+                if (!errors.isEmpty()) {
+                    errors.sort(null);
+                    job.reject(reader.getRecordLine(), errors);
+                    continue;
+                }
+                chunk.add(new Row(reader.getRecordLine(), request));
+                if (chunk.size() == properties.getChunkSize()) {
+                    queue.put(chunk);
+                    chunk = new ArrayList<>(properties.getChunkSize());
+                }
+            }
+            if (!chunk.isEmpty()) {
+                queue.put(chunk);
+            }
+        } catch (IOException | UncheckedIOException | IllegalArgumentException ex) {
+            job.fail(ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            job.fail("Importação interrompida");
+        } catch (RuntimeException ex) {
+            log.warn("CSV import {} failed while reading", job.getId(), ex);
+            job.fail(ex.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException ex) {
+                log.warn("Could not delete import spool file {}", spool, ex);
+            }
+            try {
+                queue.put(END);
+            } catch (InterruptedException ex) {
+                // Encerrando: a gravação também foi interrompida e não espera mais pelo fim.
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void write(ImportJob job, BlockingQueue<List<Row>> queue) {
+        try {
+            for (List<Row> chunk = queue.take(); chunk != END; chunk = queue.take()) {
+                // Depois de uma falha a fila continua sendo esvaziada, para a leitura não travar no 'put'.
+                if (!job.isFailing()) {
+                    writeChunk(job, chunk);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            job.fail("Importação interrompida");
+        } finally {
+            job.finish();
+            // Regravado para a retenção contar a partir do fim da importação.
+            jobs.put(job.getId(), job);
+            log.info("CSV import finished: job={} status={} lines={} written={} rejected={}",
+                    job.getId(), job.getStatus(), job.getLinesRead(), job.getWritten(), job.getRejected());
+        }
+    }
+
+    private void writeChunk(ImportJob job, List<Row> chunk) {
+        try {
+            commit(chunk);
+            job.written(chunk.size());
+            return;
+        } catch (RuntimeException ex) {
+            log.debug("CSV import {} chunk starting at line {} failed, retrying row by row",
+                    job.getId(), chunk.get(0).line(), ex);
+        }
+        // Só conta o que não é erro dos dados: um bloco de uma linha recusada não derruba a importação.
+        int databaseFailures = 0;
+        for (Row row : chunk) {
+            try {
+                commit(List.of(row));
+                job.written(1);
+            } catch (RuntimeException ex) {
+                job.reject(row.line(), List.of("linha: " + rootMessage(ex)));
+                if (!(ex instanceof DataIntegrityViolationException)) {
+                    databaseFailures++;
+                }
+            }
+        }
+        if (databaseFailures == chunk.size()) {
+            // Nenhuma linha passou e nenhuma foi recusada pelos dados: o problema é o banco.
+            job.fail("Falha ao gravar o bloco a partir da linha " + chunk.get(0).line());
+        }
+    }
+
+    private void commit(List<Row> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Beneficio> entities = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                // Entidade nova a cada tentativa: a de uma transação desfeita já tem ID.
+                Beneficio b = row.request().toEntity();
+                if (b.getAtivo() == null) {
+                    b.setAtivo(Boolean.TRUE);
+                }
+                entities.add(b);
+            }
+            for (Beneficio b : repository.saveAll(entities)) {
+                ledger.recordAdjustment(b.getId(), b.getValor());
+                changeFeed.publishAfterCommit(BeneficioChange.created(b.getId(), b.getValor(), b.getAtivo()));
+            }
+            // Nenhum ID em cache, mas a listagem mudou.
+            cache.invalidateAfterCommit(List.of());
+        });
+    }
+
+    private static BeneficioRequest convert(List<String> record, Header header, List<String> errors) {
+        BeneficioRequest request = new BeneficioRequest();
+        request.setNome(field(record, header, "nome"));
+        request.setDescricao(field(record, header, "descricao"));
+
+        String valor = field(record, header, "valor");
+        if (valor != null) {
+            try {
+                request.setValor(Money.parse(valor.trim()));
+            } catch (IllegalArgumentException ex) {
+                errors.add("valor: " + ex.getMessage());
+            }
+        }
+        String ativo = field(record, header, "ativo");
+        if (ativo != null) {
+            switch (ativo.trim().toLowerCase(Locale.ROOT)) {
+                case "true" -> request.setAtivo(Boolean.TRUE);
+                case "false" -> request.setAtivo(Boolean.FALSE);
+                default -> errors.add("ativo: deve ser true ou false");
+            }
+        }
+        return errors.isEmpty() ? request : null;
+    }
+
+    // Campo vazio vira null, como a exportação escreve os valores nulos.
+    private static String field(List<String> record, Header header, String column) {
+        Integer index = header.columns().get(column);
+        if (index == null) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String rootMessage(Throwable ex) {
+        Throwable root = ex;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private record Header(Map<String, Integer> columns, int size) {
+    }
+
+    private record Row(long line, BeneficioRequest request) {
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.example.backend.importer;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BeneficioImportProperties.class)
+public class BeneficioImportConfig {
+}
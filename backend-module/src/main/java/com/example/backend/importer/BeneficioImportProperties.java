@@ -0,0 +1,94 @@
+package com.example.backend.importer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Importação de arquivos CSV (POST /api/v1/beneficios/import).
+ */
+@ConfigurationProperties(prefix = "beneficio.import")
+public class BeneficioImportProperties {
+
+    /**
+     * Linhas gravadas por transação; múltiplo de 'hibernate.jdbc.batch_size'.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Blocos já validados aguardando gravação. Com a fila cheia, a leitura do arquivo espera o
+     * banco: a memória fica em 'chunk-size' x ('queue-capacity' + 2) linhas por importação.
+     */
+    private int queueCapacity = 4;
+
+    /**
+     * Importações rodando ao mesmo tempo (duas threads cada: leitura e gravação); as outras
+     * ficam QUEUED.
+     */
+    private int maxConcurrent = 1;
+
+    /**
+     * Linhas rejeitadas guardadas por importação, com os seus erros; as seguintes só são contadas.
+     */
+    private int maxRejects = 1000;
+
+    /**
+     * Tamanho máximo de um registro CSV, em caracteres. Evita que um arquivo com aspas sem
+     * fechamento seja lido inteiro para a memória.
+     */
+    private int maxRecordLength = 64 * 1024;
+
+    /**
+     * Por quanto tempo o andamento de uma importação pode ser consultado depois de terminar.
+     */
+    private Duration jobRetention = Duration.ofHours(24);
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public int getMaxRejects() {
+        return maxRejects;
+    }
+
+    public void setMaxRejects(int maxRejects) {
+        this.maxRejects = maxRejects;
+    }
+
+    public int getMaxRecordLength() {
+        return maxRecordLength;
+    }
+
+    public void setMaxRecordLength(int maxRecordLength) {
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    public Duration getJobRetention() {
+        return jobRetention;
+    }
+
+    public void setJobRetention(Duration jobRetention) {
+        this.jobRetention = jobRetention;
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.example.backend.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV (RFC 4180, separador ',') que devolve um registro por vez.
+ *
+ * Campos entre aspas podem conter vírgulas, quebras de linha e aspas duplicadas (""), como
+ * os escritos pela exportação CSV. Linhas em branco são ignoradas e '\r' fora de aspas é
+ * descartado, então arquivos com fim de linha do Windows também funcionam.
+ */
+final class CsvRecordReader implements Closeable {
+
+    private static final char BOM = '\uFEFF';
+
+    private final Reader in;
+
+    private final int maxRecordLength;
+
+    private final StringBuilder field = new StringBuilder();
+
+    // Linha física atual e a linha em que começou o último registro devolvido (a partir de 1).
+    private long line = 1;
+
+    private long recordLine;
+
+    private boolean first = true;
+
+    CsvRecordReader(Reader in, int maxRecordLength) {
+        this.in = in;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * O próximo registro, ou null no fim do arquivo.
+     *
+     * @throws IllegalArgumentException se o registro tiver aspas sem fechamento ou passar de
+     *                                  'maxRecordLength' caracteres: o resto do arquivo não
+     *                                  pode mais ser lido com segurança.
+     */
+    List<String> next() throws IOException {
+        int c = in.read();
+        if (first) {
+            first = false;
+            if (c == BOM) {
+                c = in.read();
+            }
+        }
+        while (c == '\r' || c == '\n') {
+            if (c == '\n') {
+                line++;
+            }
+            c = in.read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (++length > maxRecordLength) {
+                throw new IllegalArgumentException("O registro da linha " + recordLine + " passa de "
+                        + maxRecordLength + " caracteres");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Aspas sem fechamento no registro da linha " + recordLine);
+                }
+                if (c == '"') {
+                    c = in.read();
+                    if (c != '"') {
+                        // Fim do campo entre aspas: 'c' já é o caractere seguinte.
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            } else if (c == -1 || c == '\n') {
+                fields.add(field.toString());
+                if (c == '\n') {
+                    line++;
+                }
+                return fields;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+    }
+
+    /**
+     * A linha do arquivo em que começa o último registro devolvido por 'next'.
+     */
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.example.backend.importer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Uma importação de CSV e o seu andamento.
+ *
+ * Os contadores são atualizados pelas threads de leitura e de gravação enquanto a importação
+ * roda; as consultas leem valores atômicos ou voláteis e nunca esperam pela importação.
+ */
+public class ImportJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        // Arquivo lido até o fim; as linhas válidas foram gravadas e as outras estão em 'rejects'.
+        COMPLETED,
+        // Erro que impediu a leitura do resto do arquivo: os blocos já gravados continuam gravados.
+        FAILED
+    }
+
+    /**
+     * Uma linha do arquivo que não foi gravada, com os erros no formato "campo: mensagem".
+     */
+    public record Reject(long line, List<String> errors) {
+    }
+
+    private final String id;
+
+    private final String fileName;
+
+    private final int maxRejects;
+
+    private final Instant submittedAt = Instant.now();
+
+    private final AtomicLong linesRead = new AtomicLong();
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final ReentrantLock rejectsLock = new ReentrantLock();
+
+    private final List<Reject> rejects = new ArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+
+    private volatile String error;
+
+    private volatile Instant completedAt;
+
+    ImportJob(String id, String fileName, int maxRejects) {
+        this.id = id;
+        this.fileName = fileName;
+        this.maxRejects = maxRejects;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getLinesRead() {
+        return linesRead.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public boolean isDone() {
+        Status s = status;
+        return s == Status.COMPLETED || s == Status.FAILED;
+    }
+
+    /**
+     * As primeiras 'max-rejects' linhas rejeitadas, em ordem de linha dentro de cada bloco.
+     */
+    public List<Reject> getRejects() {
+        rejectsLock.lock();
+        try {
+            return List.copyOf(rejects);
+        } finally {
+            rejectsLock.unlock();
+        }
+    }
+
+    void running() {
+        status = Status.RUNNING;
+    }
+
+    void lineRead() {
+        linesRead.incrementAndGet();
+    }
+
+    void written(int rows) {
+        written.addAndGet(rows);
+    }
+
+    void reject(long line, List<String> errors) {
+        rejected.incrementAndGet();
+        rejectsLock.lock();
+        try {
+            if (rejects.size() < maxRejects) {
+                rejects.add(new Reject(line, List.copyOf(errors)));
+            }
+        } finally {
+            rejectsLock.unlock();
+        }
+    }
+
+    /**
+     * Marca a importação como FAILED; a leitura e a gravação param no próximo registro ou bloco.
+     * Só o primeiro erro é guardado.
+     */
+    void fail(String message) {
+        if (error == null) {
+            error = message;
+        }
+    }
+
+    boolean isFailing() {
+        return error != null;
+    }
+
+    // O status final é publicado por último: quem lê um status final vê os contadores completos.
+    void finish() {
+        completedAt = Instant.now();
+        status = error == null ? Status.COMPLETED : Status.FAILED;
+    }
+
+}
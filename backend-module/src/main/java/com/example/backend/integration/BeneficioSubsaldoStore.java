@@ -0,0 +1,290 @@
+package com.example.backend.integration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.example.backend.cache.BeneficioCacheRegions.nativeUpdate;
+
+/**
+ * Saldo fracionado das contas quentes.
+ *
+ * Uma conta fracionada guarda o saldo em N faixas (linhas de BENEFICIO_SUBSALDO) além da
+ * própria coluna VALOR, e o saldo total é VALOR + a soma das faixas. Créditos vão para uma
+ * faixa sorteada e não tocam a linha de BENEFICIO (nem a VERSION), então transferências
+ * para a mesma conta deixam de disputar uma única linha. Débitos tentam algumas faixas com
+ * saldo suficiente; se nenhuma cobrir o valor, a conta é consolidada: todas as faixas são
+ * travadas, o valor sai do total e o restante é redistribuído igualmente.
+ *
+ * Ordem de locks dentro de uma conta: a linha de BENEFICIO antes das faixas, e as faixas em
+ * ordem crescente. Quem altera uma faixa avulsa (crédito ou débito) só trava depois contas
+ * de ID maior, a mesma regra das demais estratégias, então não há ciclo de espera.
+ *
+ * As contas fracionadas ficam num mapa em memória, carregado do banco no primeiro uso e
+ * atualizado após o commit de 'configure'. Um mapa desatualizado (a conta foi reconfigurada
+ * por outra instância) não perde dinheiro: operações que não encontram a faixa usam a
+ * coluna VALOR, que também faz parte do total.
+ *
+ * As escritas passam por 'nativeUpdate', que invalida o cache de segundo nível da conta: os
+ * créditos nas faixas mudam o saldo total sem tocar a linha nem a VERSION.
+ */
+@Component
+public class BeneficioSubsaldoStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioSubsaldoStore.class);
+
+    // Condição dos UPDATEs nas faixas: a conta dona (?2) existe e está ativa. Evita uma
+    // consulta separada; só quando nada é alterado o motivo é investigado.
+    private static final String CONTA_ATIVA =
+            "EXISTS (SELECT 1 FROM BENEFICIO b WHERE b.ID = ?2 AND b.ATIVO IS NOT FALSE)";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final BeneficioTransferProperties properties;
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    // ID da conta -> quantidade de faixas. Null até a primeira carga.
+    private volatile Map<Long, Integer> faixasPorConta;
+
+    public BeneficioSubsaldoStore(BeneficioTransferProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Saldos de uma conta travada por 'lock'.
+     *
+     * @param valor      A parcela guardada na coluna VALOR.
+     * @param faixas     Quantidade de faixas encontradas (0 se a conta não é fracionada).
+     * @param somaFaixas A soma das faixas.
+     */
+    public record Saldo(BigDecimal valor, int faixas, BigDecimal somaFaixas) {
+
+        public BigDecimal total() {
+            return valor.add(somaFaixas);
+        }
+
+    }
+
+    public boolean isStriped(Long id) {
+        Integer faixas = faixasPorConta().get(id);
+        return faixas != null && faixas > 0;
+    }
+
+    /**
+     * Credita 'amount' numa faixa sorteada da conta.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void credit(Long id, BigDecimal amount) {
+        int faixas = faixasPorConta().getOrDefault(id, 0);
+        if (faixas > 0) {
+            int updated = nativeUpdate(em, id,
+                            "UPDATE BENEFICIO_SUBSALDO SET VALOR = VALOR + ?1 " +
+                            "WHERE BENEFICIO_ID = ?2 AND FAIXA = ?3 AND " + CONTA_ATIVA)
+                    .setParameter(1, amount)
+                    .setParameter(2, id)
+                    .setParameter(3, ThreadLocalRandom.current().nextInt(faixas))
+                    .executeUpdate();
+            if (updated == 1) {
+                return;
+            }
+        }
+        // Conta inexistente ou inativa (exceção), ou a faixa não existe mais (conta
+        // reconfigurada): nesse caso credita na própria linha.
+        requireActive(id);
+        nativeUpdate(em, id, "UPDATE BENEFICIO SET VALOR = VALOR + ?1, VERSION = VERSION + 1 WHERE ID = ?2")
+                .setParameter(1, amount)
+                .setParameter(2, id)
+                .executeUpdate();
+    }
+
+    /**
+     * Debita 'amount' da conta: primeiro de uma das faixas testadas, senão do saldo total
+     * consolidado.
+     *
+     * @throws TransferRejectedException (INSUFFICIENT_FUNDS) se o saldo total não cobrir o valor.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void debit(Long id, BigDecimal amount) {
+        int faixas = faixasPorConta().getOrDefault(id, 0);
+        int probes = Math.min(faixas, Math.max(0, properties.getStriping().getDebitProbes()));
+        int start = faixas > 0 ? ThreadLocalRandom.current().nextInt(faixas) : 0;
+        for (int i = 0; i < probes; i++) {
+            // Um UPDATE condicional que não casa não trava a faixa.
+            int updated = nativeUpdate(em, id,
+                            "UPDATE BENEFICIO_SUBSALDO SET VALOR = VALOR - ?1 " +
+                            "WHERE BENEFICIO_ID = ?2 AND FAIXA = ?3 AND VALOR >= ?1 AND " + CONTA_ATIVA)
+                    .setParameter(1, amount)
+                    .setParameter(2, id)
+                    .setParameter(3, (start + i) % faixas)
+                    .executeUpdate();
+            if (updated == 1) {
+                return;
+            }
+        }
+
+        // Nenhuma faixa testada cobre o valor: consolida a conta inteira.
+        requireActive(id);
+        Saldo saldo = lock(id);
+        if (saldo.total().compareTo(amount) < 0) {
+            throw new TransferRejectedException(TransferRejectedException.Reason.INSUFFICIENT_FUNDS, "Saldo insuficiente");
+        }
+        BigDecimal restante = saldo.total().subtract(amount);
+        if (saldo.faixas() == 0) {
+            setBase(id, restante);
+            return;
+        }
+        spread(id, saldo.faixas(), restante);
+        if (saldo.valor().signum() != 0) {
+            setBase(id, BigDecimal.ZERO);
+        }
+        log.debug("Saldo fracionado consolidado: id={} faixas={} total={}", id, saldo.faixas(), restante);
+    }
+
+    /**
+     * Trava a linha da conta e todas as suas faixas, nessa ordem, e devolve os saldos.
+     *
+     * @throws NoSuchElementException se a conta não existir.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Saldo lock(Long id) {
+        List<?> base = em.createNativeQuery("SELECT VALOR FROM BENEFICIO WHERE ID = ?1 FOR UPDATE")
+                .setParameter(1, id)
+                .getResultList();
+        if (base.isEmpty()) {
+            throw new NoSuchElementException("Beneficio não encontrado");
+        }
+        List<?> faixas = em.createNativeQuery(
+                        "SELECT VALOR FROM BENEFICIO_SUBSALDO WHERE BENEFICIO_ID = ?1 ORDER BY FAIXA FOR UPDATE")
+                .setParameter(1, id)
+                .getResultList();
+        BigDecimal soma = BigDecimal.ZERO;
+        for (Object valor : faixas) {
+            soma = soma.add((BigDecimal) valor);
+        }
+        return new Saldo((BigDecimal) base.get(0), faixas.size(), soma);
+    }
+
+    /**
+     * Distribui 'total' igualmente entre as faixas de uma conta travada por 'lock'.
+     * A faixa 0 fica com os centavos que sobram da divisão. A coluna VALOR não é alterada.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void spread(Long id, int faixas, BigDecimal total) {
+        BigDecimal parte = total.divide(BigDecimal.valueOf(faixas), 2, RoundingMode.DOWN);
+        BigDecimal primeira = total.subtract(parte.multiply(BigDecimal.valueOf(faixas - 1L)));
+        nativeUpdate(em, id,
+                        "UPDATE BENEFICIO_SUBSALDO SET VALOR = CASE WHEN FAIXA = 0 THEN ?1 ELSE ?2 END " +
+                        "WHERE BENEFICIO_ID = ?3")
+                .setParameter(1, primeira)
+                .setParameter(2, parte)
+                .setParameter(3, id)
+                .executeUpdate();
+    }
+
+    /**
+     * Fraciona o saldo da conta em 'faixas' partes iguais, ou devolve tudo para a coluna
+     * VALOR com 'faixas' = 0. O saldo total não muda.
+     *
+     * @throws IllegalArgumentException se 'faixas' estiver fora de 0..max-stripes.
+     * @throws NoSuchElementException   se a conta não existir.
+     */
+    @Transactional
+    public void configure(Long id, int faixas) {
+        int max = properties.getStriping().getMaxStripes();
+        if (faixas < 0 || faixas > max) {
+            throw new IllegalArgumentException("A quantidade de faixas deve estar entre 0 e " + max);
+        }
+        Map<Long, Integer> mapa = faixasPorConta();
+        Saldo saldo = lock(id);
+        BigDecimal total = saldo.total();
+
+        nativeUpdate(em, id, "DELETE FROM BENEFICIO_SUBSALDO WHERE BENEFICIO_ID = ?1")
+                .setParameter(1, id)
+                .executeUpdate();
+        for (int faixa = 0; faixa < faixas; faixa++) {
+            nativeUpdate(em, id, "INSERT INTO BENEFICIO_SUBSALDO (BENEFICIO_ID, FAIXA, VALOR) VALUES (?1, ?2, 0)")
+                    .setParameter(1, id)
+                    .setParameter(2, faixa)
+                    .executeUpdate();
+        }
+        if (faixas > 0) {
+            spread(id, faixas, total);
+        }
+        nativeUpdate(em, id, "UPDATE BENEFICIO SET VALOR = ?1, SUBSALDOS = ?2, VERSION = VERSION + 1 WHERE ID = ?3")
+                .setParameter(1, faixas > 0 ? BigDecimal.ZERO : total)
+                .setParameter(2, faixas)
+                .setParameter(3, id)
+                .executeUpdate();
+
+        // Só depois do commit as transferências passam a usar (ou deixam de usar) as faixas.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (faixas > 0) {
+                    mapa.put(id, faixas);
+                } else {
+                    mapa.remove(id);
+                }
+            }
+        });
+        log.info("Saldo fracionado configurado: id={} faixas={} total={}", id, faixas, total);
+    }
+
+    private void setBase(Long id, BigDecimal valor) {
+        nativeUpdate(em, id, "UPDATE BENEFICIO SET VALOR = ?1, VERSION = VERSION + 1 WHERE ID = ?2")
+                .setParameter(1, valor)
+                .setParameter(2, id)
+                .executeUpdate();
+    }
+
+    private void requireActive(Long id) {
+        List<?> rows = em.createNativeQuery("SELECT ATIVO FROM BENEFICIO WHERE ID = ?1")
+                .setParameter(1, id)
+                .getResultList();
+        if (rows.isEmpty()) {
+            throw new NoSuchElementException("Beneficio não encontrado");
+        }
+        if (Boolean.FALSE.equals(rows.get(0))) {
+            throw new TransferRejectedException(TransferRejectedException.Reason.INACTIVE, "Ambos os Benefícios devem estar ativos");
+        }
+    }
+
+    private Map<Long, Integer> faixasPorConta() {
+        Map<Long, Integer> mapa = faixasPorConta;
+        if (mapa != null) {
+            return mapa;
+        }
+        loadLock.lock();
+        try {
+            if (faixasPorConta == null) {
+                Map<Long, Integer> carregado = new ConcurrentHashMap<>();
+                for (Object row : em.createNativeQuery("SELECT ID, SUBSALDOS FROM BENEFICIO WHERE SUBSALDOS > 0").getResultList()) {
+                    Object[] cols = (Object[]) row;
+                    carregado.put(((Number) cols[0]).longValue(), ((Number) cols[1]).intValue());
+                }
+                faixasPorConta = carregado;
+            }
+            return faixasPorConta;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.example.backend.integration;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BeneficioTransferProperties.class)
+public class BeneficioTransferConfig {
+}
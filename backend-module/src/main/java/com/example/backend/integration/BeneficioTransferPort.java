@@ -1,7 +1,16 @@
 package com.example.backend.integration;
 
+import com.example.backend.dto.TransferRequestDTO;
+
 import java.math.BigDecimal;
+import java.util.List;
 
 public interface BeneficioTransferPort {
     void transfer(Long fromId, Long toId, BigDecimal amount);
+
+    /**
+     * Aplica um lote ordenado de transferências, devolvendo um resultado por item
+     * (na mesma ordem do lote recebido).
+     */
+    List<TransferItemResult> transferBatch(List<TransferRequestDTO> transfers, TransferBatchMode mode);
 }
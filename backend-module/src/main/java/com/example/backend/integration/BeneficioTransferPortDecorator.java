@@ -0,0 +1,51 @@
+package com.example.backend.integration;
+
+import com.example.backend.integration.ejb.EjbBeneficioTransferClient;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.StringUtils;
+
+/**
+ * Base dos decorators que os BeanPostProcessors aplicam sobre o BeneficioTransferPort
+ * (métricas, retentativa, invalidação do cache).
+ *
+ * O container passa a enxergar só o decorator, então o ciclo de vida do bean original
+ * (ex: o @PreDestroy do EjbBeneficioTransferClient) é repassado daqui.
+ */
+public abstract class BeneficioTransferPortDecorator implements BeneficioTransferPort, DisposableBean {
+
+    protected final BeneficioTransferPort delegate;
+
+    protected BeneficioTransferPortDecorator(BeneficioTransferPort delegate) {
+        this.delegate = delegate;
+    }
+
+    public BeneficioTransferPort getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Nome curto da implementação por trás da cadeia de decorators ("local", "ejb"),
+     * usado como tag 'implementation' nas métricas.
+     */
+    public static String implementationName(BeneficioTransferPort port) {
+        BeneficioTransferPort target = port;
+        while (target instanceof BeneficioTransferPortDecorator decorator) {
+            target = decorator.delegate;
+        }
+        Class<?> type = AopUtils.getTargetClass(target);
+        if (EjbBeneficioTransferClient.class.isAssignableFrom(type)) return "ejb";
+        if (LocalBeneficioTransferService.class.isAssignableFrom(type)) return "local";
+        return StringUtils.uncapitalize(type.getSimpleName());
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        } else if (delegate instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+    }
+
+}
@@ -0,0 +1,523 @@
+package com.example.backend.integration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configurações comuns a qualquer implementação do BeneficioTransferPort (local ou EJB).
+ */
+@ConfigurationProperties(prefix = "beneficio.transfer")
+public class BeneficioTransferProperties {
+
+    /**
+     * Estratégia de concorrência das transferências locais. Lida a cada transferência.
+     */
+    private TransferLockingStrategy locking = TransferLockingStrategy.OPTIMISTIC;
+
+    private final Metrics metrics = new Metrics();
+
+    private final Retry retry = new Retry();
+
+    private final Striping striping = new Striping();
+
+    private final Async async = new Async();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Ledger ledger = new Ledger();
+
+    private final Audit audit = new Audit();
+
+    public TransferLockingStrategy getLocking() {
+        return locking;
+    }
+
+    public void setLocking(TransferLockingStrategy locking) {
+        this.locking = locking;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public Retry getRetry() {
+        return retry;
+    }
+
+    public Striping getStriping() {
+        return striping;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public Ledger getLedger() {
+        return ledger;
+    }
+
+    public Audit getAudit() {
+        return audit;
+    }
+
+    public static class Metrics {
+
+        private boolean enabled = true;
+
+        /**
+         * Quantidade de contas listadas nos rankings de contas mais usadas e mais disputadas.
+         */
+        private int topK = 10;
+
+        /**
+         * Contadores mantidos por ranking (algoritmo Space-Saving). Quanto maior em relação
+         * a 'topK', mais preciso o ranking; o custo por transferência cresce linearmente.
+         */
+        private int trackedAccounts = 64;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getTopK() {
+            return topK;
+        }
+
+        public void setTopK(int topK) {
+            this.topK = topK;
+        }
+
+        public int getTrackedAccounts() {
+            return trackedAccounts;
+        }
+
+        public void setTrackedAccounts(int trackedAccounts) {
+            this.trackedAccounts = trackedAccounts;
+        }
+
+    }
+
+    /**
+     * Retentativa no servidor de transferências que falharam por conflito de lock.
+     */
+    public static class Retry {
+
+        private boolean enabled = true;
+
+        /**
+         * Total de tentativas por transferência, incluindo a primeira.
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * Espera antes da primeira retentativa; multiplicada por 'multiplier' a cada nova
+         * tentativa, até 'maxBackoff'. A espera efetiva é sorteada entre zero e esse teto
+         * (full jitter), para que as transações em conflito não voltem todas juntas.
+         */
+        private Duration initialBackoff = Duration.ofMillis(10);
+
+        private Duration maxBackoff = Duration.ofMillis(200);
+
+        private double multiplier = 2.0;
+
+        private final Budget budget = new Budget();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public double getMultiplier() {
+            return multiplier;
+        }
+
+        public void setMultiplier(double multiplier) {
+            this.multiplier = multiplier;
+        }
+
+        public Budget getBudget() {
+            return budget;
+        }
+
+    }
+
+    /**
+     * Orçamento de retentativas por conta (token bucket). Cada retentativa consome uma
+     * ficha de cada conta envolvida; sem fichas, a transferência falha com o conflito
+     * original em vez de insistir numa conta já saturada.
+     */
+    public static class Budget {
+
+        /**
+         * Fichas acumuladas no máximo por conta (rajada de retentativas permitida).
+         */
+        private int capacity = 100;
+
+        /**
+         * Fichas devolvidas por segundo a cada conta.
+         */
+        private double refillPerSecond = 50;
+
+        /**
+         * Quantidade de baldes; contas com o mesmo hash dividem o balde.
+         */
+        private int stripes = 256;
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public int getStripes() {
+            return stripes;
+        }
+
+        public void setStripes(int stripes) {
+            this.stripes = stripes;
+        }
+
+    }
+
+    /**
+     * Saldo fracionado (faixas) das contas habilitadas via PUT /{id}/subsaldos.
+     */
+    public static class Striping {
+
+        /**
+         * Maior quantidade de faixas aceita por conta.
+         */
+        private int maxStripes = 64;
+
+        /**
+         * Faixas testadas por um débito antes de consolidar o saldo da conta.
+         */
+        private int debitProbes = 2;
+
+        public int getMaxStripes() {
+            return maxStripes;
+        }
+
+        public void setMaxStripes(int maxStripes) {
+            this.maxStripes = maxStripes;
+        }
+
+        public int getDebitProbes() {
+            return debitProbes;
+        }
+
+        public void setDebitProbes(int debitProbes) {
+            this.debitProbes = debitProbes;
+        }
+
+    }
+
+    /**
+     * Transferências assíncronas (POST /transfer/async): filas por conta e o pool que as executa.
+     */
+    public static class Async {
+
+        /**
+         * Quantidade de filas; contas com o mesmo hash dividem a fila (e são executadas em série).
+         */
+        private int lanes = 64;
+
+        /**
+         * Transferências aguardando por fila; acima disso a submissão é recusada (HTTP 503).
+         */
+        private int laneCapacity = 1000;
+
+        /**
+         * Threads que executam as filas. Cada uma ocupa no máximo uma conexão do banco.
+         */
+        private int workers = 8;
+
+        /**
+         * Por quanto tempo o status de um ticket fica disponível para consulta.
+         */
+        private Duration ticketRetention = Duration.ofMinutes(10);
+
+        /**
+         * Tickets guardados no máximo para consulta.
+         */
+        private long maxTickets = 100_000;
+
+        /**
+         * Espera pelo esvaziamento das filas ao desligar a aplicação.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+        public int getLanes() {
+            return lanes;
+        }
+
+        public void setLanes(int lanes) {
+            this.lanes = lanes;
+        }
+
+        public int getLaneCapacity() {
+            return laneCapacity;
+        }
+
+        public void setLaneCapacity(int laneCapacity) {
+            this.laneCapacity = laneCapacity;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public Duration getTicketRetention() {
+            return ticketRetention;
+        }
+
+        public void setTicketRetention(Duration ticketRetention) {
+            this.ticketRetention = ticketRetention;
+        }
+
+        public long getMaxTickets() {
+            return maxTickets;
+        }
+
+        public void setMaxTickets(long maxTickets) {
+            this.maxTickets = maxTickets;
+        }
+
+        public Duration getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+
+    }
+
+    /**
+     * Header Idempotency-Key nos endpoints de transferência: a resposta de cada chave é guardada
+     * e as repetições recebem a mesma resposta, sem executar a transferência de novo.
+     */
+    public static class Idempotency {
+
+        private boolean enabled = true;
+
+        /**
+         * Por quanto tempo uma chave vale. Depois disso, a mesma chave executa de novo.
+         */
+        private Duration ttl = Duration.ofHours(24);
+
+        /**
+         * Respostas mantidas em memória; as demais são lidas da tabela TRANSFER_IDEMPOTENCIA.
+         */
+        private long maximumSize = 100_000;
+
+        /**
+         * Espera máxima de uma repetição pela execução em andamento da mesma chave.
+         */
+        private Duration waitTimeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getWaitTimeout() {
+            return waitTimeout;
+        }
+
+        public void setWaitTimeout(Duration waitTimeout) {
+            this.waitTimeout = waitTimeout;
+        }
+
+    }
+
+    /**
+     * Snapshots de saldo do TRANSFER_LEDGER: o saldo de uma conta em qualquer instante é o
+     * snapshot anterior mais os lançamentos posteriores a ele.
+     */
+    public static class Ledger {
+
+        /**
+         * Intervalo entre as rodadas de snapshots. Zero desliga os snapshots periódicos.
+         */
+        private Duration snapshotInterval = Duration.ofMinutes(5);
+
+        /**
+         * Lançamentos desde o último snapshot a partir dos quais a conta ganha um novo.
+         */
+        private int snapshotMinEntries = 1000;
+
+        /**
+         * Contas por rodada, no máximo.
+         */
+        private int snapshotMaxAccounts = 500;
+
+        public Duration getSnapshotInterval() {
+            return snapshotInterval;
+        }
+
+        public void setSnapshotInterval(Duration snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+        }
+
+        public int getSnapshotMinEntries() {
+            return snapshotMinEntries;
+        }
+
+        public void setSnapshotMinEntries(int snapshotMinEntries) {
+            this.snapshotMinEntries = snapshotMinEntries;
+        }
+
+        public int getSnapshotMaxAccounts() {
+            return snapshotMaxAccounts;
+        }
+
+        public void setSnapshotMaxAccounts(int snapshotMaxAccounts) {
+            this.snapshotMaxAccounts = snapshotMaxAccounts;
+        }
+
+    }
+
+
+    /**
+     * Trilha de auditoria das transferências em arquivos binários mapeados em memória.
+     */
+    public static class Audit {
+
+        private boolean enabled = true;
+
+        /**
+         * Diretório dos segmentos (transfer-audit-*.bin).
+         */
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "beneficio-audit");
+
+        /**
+         * Tamanho de cada segmento; cheio, a gravação passa para um arquivo novo.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Segmentos mantidos no diretório; os mais antigos são apagados.
+         */
+        private int maxSegments = 8;
+
+        /**
+         * Eventos aguardando gravação (potência de 2). Com o buffer cheio, o evento é descartado
+         * e contado em 'beneficio.transfer.audit.dropped': a transferência nunca espera pelo disco.
+         */
+        private int bufferSize = 65536;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public int getMaxSegments() {
+            return maxSegments;
+        }
+
+        public void setMaxSegments(int maxSegments) {
+            this.maxSegments = maxSegments;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+    }
+
+}
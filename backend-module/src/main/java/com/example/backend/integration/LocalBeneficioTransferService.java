@@ -4,8 +4,14 @@
 package com.example.backend.integration;
 
 // Importa a entidade de domínio.
+import com.example.backend.dto.TransferRequestDTO;
 import com.example.backend.entity.Beneficio;
+import com.example.backend.events.BeneficioChange;
+import com.example.backend.events.BeneficioChangeFeed;
+import com.example.backend.ledger.TransferLedger;
+import com.example.backend.money.Money;
 // Importa as classes do JPA (Jakarta Persistence API).
+import jakarta.persistence.CacheRetrieveMode;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType; // 👈 Importante! Para controle de concorrência.
 import jakarta.persistence.PersistenceContext;
@@ -20,7 +26,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException; // Exceção para item não encontrado.
+import java.util.TreeSet;
+
+import static com.example.backend.cache.BeneficioCacheRegions.nativeUpdate;
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE;
 
 /**
  * @Service: Marca esta classe como um Bean gerenciado pelo Spring.
@@ -62,6 +76,32 @@ public class LocalBeneficioTransferService implements BeneficioTransferPort {
     // Logger estático padrão para esta classe.
     private static final Logger log = LoggerFactory.getLogger(LocalBeneficioTransferService.class);
 
+    // As estratégias que carregam as entidades leem o saldo do banco, nunca do cache de
+    // segundo nível: o 'em.find' com lock já vai ao banco, e o hint deixa isso explícito.
+    private static final Map<String, Object> FROM_DATABASE =
+            Map.of(HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+
+    // Configurações das transferências. A estratégia de lock ('beneficio.transfer.locking')
+    // é lida a cada chamada.
+    private final BeneficioTransferProperties properties;
+
+    // Faixas das contas com saldo fracionado (ver BeneficioSubsaldoStore).
+    private final BeneficioSubsaldoStore subsaldos;
+
+    // Lançamentos do TRANSFER_LEDGER, gravados na mesma transação da movimentação.
+    private final TransferLedger ledger;
+
+    // Novos saldos das contas movimentadas, entregues depois do commit.
+    private final BeneficioChangeFeed changeFeed;
+
+    public LocalBeneficioTransferService(BeneficioTransferProperties properties, BeneficioSubsaldoStore subsaldos,
+                                         TransferLedger ledger, BeneficioChangeFeed changeFeed) {
+        this.properties = properties;
+        this.subsaldos = subsaldos;
+        this.ledger = ledger;
+        this.changeFeed = changeFeed;
+    }
+
     /**
      * @Transactional: Esta é a anotação de transação do Spring (equivalente
      * ao @TransactionAttribute(REQUIRED) do EJB).
@@ -85,11 +125,38 @@ public class LocalBeneficioTransferService implements BeneficioTransferPort {
         // .signum() retorna 0 (para zero), 1 (para positivo) ou -1 (para negativo).
         // A transferência só pode ocorrer com um valor estritamente positivo.
         if (amount == null || amount.signum() <= 0) throw new IllegalArgumentException("O valor deve ser positivo");
+        // Em centavos: recusa (IllegalArgumentException) valores com mais de duas casas decimais.
+        Money cents = Money.of(amount);
 
         log.debug("Iniciando transferência local: from={} to={} amount={}", fromId, toId, amount);
 
-        // --- 2. Busca com Lock Otimista (Controle de Concorrência) ---
+        // --- 2. Escolha da estratégia de concorrência ---
+        // As três mantêm as mesmas regras (contas existentes e ativas, saldo suficiente)
+        // e diferem apenas em como evitam que duas transferências usem um saldo desatualizado.
+        // Contas com saldo fracionado têm um caminho próprio, que não trava a linha delas.
+        if (subsaldos.isStriped(fromId) || subsaldos.isStriped(toId)) {
+            transferStriped(fromId, toId, amount);
+        } else switch (properties.getLocking()) {
+            case PESSIMISTIC -> transferPessimistic(fromId, toId, cents);
+            case ATOMIC_SQL -> transferAtomicSql(fromId, toId, amount);
+            default -> transferOptimistic(fromId, toId, cents);
+        }
 
+        // Depois da movimentação: as duas contas já estão travadas por esta transação
+        // (ver TransferLedger), e uma transferência recusada não deixa lançamento.
+        ledger.recordTransfer(fromId, toId, cents);
+
+        log.debug("Transferência local concluída: from={} to={} amount={}", fromId, toId, amount);
+    }
+    // --- 5. Commit ---
+    // Se o método terminar sem lançar nenhuma exceção, a anotação @Transactional
+    // instrui o Spring a fazer o *COMMIT* da transação, tornando as
+    // mudanças (débito e crédito) permanentes no banco de dados.
+
+    /**
+     * Estratégia OPTIMISTIC (padrão): lê sem travar e confere a versão no flush.
+     */
+    private void transferOptimistic(Long fromId, Long toId, Money amount) {
         // Busca a entidade de origem (from).
         // LockModeType.OPTIMISTIC_FORCE_INCREMENT:
         // Esta é uma estratégia de "Lock Otimista". Ela presume que conflitos
@@ -105,26 +172,11 @@ public class LocalBeneficioTransferService implements BeneficioTransferPort {
         // Isso previne "race conditions" (condições de corrida), onde duas
         // transferências poderiam debitar da mesma conta ao mesmo tempo
         // baseadas em um saldo desatualizado.
-        Beneficio from = em.find(Beneficio.class, fromId, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        Beneficio from = em.find(Beneficio.class, fromId, LockModeType.OPTIMISTIC_FORCE_INCREMENT, FROM_DATABASE);
         // Busca a entidade de destino (to) aplicando o mesmo lock.
-        Beneficio to = em.find(Beneficio.class, toId, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
-
-        // --- 3. Bloco de Regras de Negócio ---
-        if (from == null || to == null) {
-            throw new NoSuchElementException("Beneficio não encontrado");
-        }
-        if (Boolean.FALSE.equals(from.getAtivo()) || Boolean.FALSE.equals(to.getAtivo())) {
-            throw new IllegalStateException("Ambos os Benefícios devem estar ativos");
-        }
-        // .compareTo() retorna < 0 se 'from.getValor()' for *menor* que 'amount'.
-        if (from.getValor().compareTo(amount) < 0) {
-            throw new IllegalStateException("Saldo insuficiente");
-        }
+        Beneficio to = em.find(Beneficio.class, toId, LockModeType.OPTIMISTIC_FORCE_INCREMENT, FROM_DATABASE);
 
-        // --- 4. Execução da Transação (Débito e Crédito) ---
-        // Se todas as validações e regras de negócio passaram, a operação é executada.
-        from.setValor(from.getValor().subtract(amount)); // Debita da origem
-        to.setValor(to.getValor().add(amount));     // Credita no destino
+        debitAndCredit(from, to, amount);
 
         // em.merge() informa ao JPA para sincronizar estas mudanças com o banco.
         // Dentro de uma @Transactional, as entidades 'from' e 'to' já estão
@@ -141,11 +193,342 @@ public class LocalBeneficioTransferService implements BeneficioTransferPort {
         // ou violações de constraints do BD) imediatamente, antes de
         // executar qualquer lógica adicional.
         em.flush();
+        publishTransfer(fromId, from.getSaldo(), toId, to.getSaldo(), amount);
+    }
+
+    /**
+     * Estratégia PESSIMISTIC: SELECT ... FOR UPDATE nas duas contas, sempre na ordem
+     * crescente de ID (a mesma regra do 'transferBatch').
+     *
+     * Se uma transferência 1→2 e outra 2→1 chegarem juntas, ambas tentam travar a conta 1
+     * primeiro; a segunda espera a primeira terminar em vez de formar um ciclo (deadlock).
+     * Como as linhas ficam travadas até o commit, nenhuma outra transação altera o saldo
+     * entre a leitura e a escrita, e não há conflito de versão.
+     */
+    private void transferPessimistic(Long fromId, Long toId, Money amount) {
+        Long firstId = Math.min(fromId, toId);
+        Long secondId = Math.max(fromId, toId);
+        Beneficio first = em.find(Beneficio.class, firstId, LockModeType.PESSIMISTIC_WRITE, FROM_DATABASE);
+        Beneficio second = em.find(Beneficio.class, secondId, LockModeType.PESSIMISTIC_WRITE, FROM_DATABASE);
 
-        log.info("Transferência local concluída: from={} to={} amount={}", fromId, toId, amount);
+        Beneficio from = fromId.equals(firstId) ? first : second;
+        Beneficio to = fromId.equals(firstId) ? second : first;
+        debitAndCredit(from, to, amount);
+
+        // As entidades estão gerenciadas: o dirty checking gera os UPDATEs (com a versão).
+        em.flush();
+        publishTransfer(fromId, from.getSaldo(), toId, to.getSaldo(), amount);
+    }
+
+    /**
+     * Estratégia ATOMIC_SQL: nenhuma entidade é carregada.
+     *
+     * O débito é um único UPDATE condicional: o próprio banco confere saldo e situação
+     * da conta e altera a linha atomicamente, então dois débitos concorrentes nunca
+     * usam o mesmo saldo. Se nenhuma linha for alterada, uma consulta de diagnóstico
+     * descobre o motivo (conta inexistente, inativa ou sem saldo) e a exceção desfaz o
+     * que já foi feito.
+     *
+     * Os dois UPDATEs também seguem a ordem crescente de ID, pelo mesmo motivo da
+     * estratégia pessimista: cada UPDATE trava a linha até o commit.
+     */
+    private void transferAtomicSql(Long fromId, Long toId, BigDecimal amount) {
+        if (fromId < toId) {
+            debitAtomically(fromId, amount);
+            creditAtomically(toId, amount);
+        } else {
+            creditAtomically(toId, amount);
+            debitAtomically(fromId, amount);
+        }
+        // Os UPDATEs não devolvem o saldo: só a diferença é publicada.
+        publishTransfer(fromId, null, toId, null, Money.of(amount));
+    }
+
+    /**
+     * Ao menos uma das contas tem saldo fracionado: cada lado é movimentado separadamente,
+     * na ordem crescente de ID. A conta fracionada usa as faixas; a outra, o UPDATE
+     * condicional da estratégia ATOMIC_SQL (qualquer que seja a estratégia configurada).
+     */
+    private void transferStriped(Long fromId, Long toId, BigDecimal amount) {
+        if (fromId < toId) {
+            debitLeg(fromId, amount);
+            creditLeg(toId, amount);
+        } else {
+            creditLeg(toId, amount);
+            debitLeg(fromId, amount);
+        }
+        publishTransfer(fromId, null, toId, null, Money.of(amount));
+    }
+
+    /**
+     * Os dois lados da transferência, com o novo saldo total quando a estratégia o conhece.
+     */
+    private void publishTransfer(Long fromId, Money saldoFrom, Long toId, Money saldoTo, Money amount) {
+        changeFeed.publishAfterCommit(BeneficioChange.transfer(fromId, saldoFrom, amount.negate()));
+        changeFeed.publishAfterCommit(BeneficioChange.transfer(toId, saldoTo, amount));
+    }
+
+    private void debitLeg(Long id, BigDecimal amount) {
+        if (subsaldos.isStriped(id)) {
+            subsaldos.debit(id, amount);
+        } else {
+            debitAtomically(id, amount);
+        }
+    }
+
+    private void creditLeg(Long id, BigDecimal amount) {
+        if (subsaldos.isStriped(id)) {
+            subsaldos.credit(id, amount);
+        } else {
+            creditAtomically(id, amount);
+        }
+    }
+
+    private void debitAtomically(Long id, BigDecimal amount) {
+        int updated = nativeUpdate(em, id,
+                        "UPDATE BENEFICIO SET VALOR = VALOR - ?1, VERSION = VERSION + 1 " +
+                        "WHERE ID = ?2 AND VALOR >= ?1 AND ATIVO IS NOT FALSE")
+                .setParameter(1, amount)
+                .setParameter(2, id)
+                .executeUpdate();
+        if (updated == 0) {
+            throw diagnoseRejectedUpdate(id, true);
+        }
+    }
+
+    private void creditAtomically(Long id, BigDecimal amount) {
+        int updated = nativeUpdate(em, id,
+                        "UPDATE BENEFICIO SET VALOR = VALOR + ?1, VERSION = VERSION + 1 " +
+                        "WHERE ID = ?2 AND ATIVO IS NOT FALSE")
+                .setParameter(1, amount)
+                .setParameter(2, id)
+                .executeUpdate();
+        if (updated == 0) {
+            throw diagnoseRejectedUpdate(id, false);
+        }
+    }
+
+    /**
+     * Descobre por que um UPDATE condicional não alterou a linha, devolvendo a mesma
+     * exceção que as estratégias baseadas em entidade lançariam.
+     */
+    private RuntimeException diagnoseRejectedUpdate(Long id, boolean debit) {
+        List<?> rows = em.createNativeQuery("SELECT ATIVO FROM BENEFICIO WHERE ID = ?1")
+                .setParameter(1, id)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return new NoSuchElementException("Beneficio não encontrado");
+        }
+        if (Boolean.FALSE.equals(rows.get(0))) {
+            return new TransferRejectedException(TransferRejectedException.Reason.INACTIVE, "Ambos os Benefícios devem estar ativos");
+        }
+        if (debit) {
+            return new TransferRejectedException(TransferRejectedException.Reason.INSUFFICIENT_FUNDS, "Saldo insuficiente");
+        }
+        return new IllegalStateException("Falha ao creditar o Beneficio " + id);
+    }
+
+    /**
+     * Regras de negócio e movimentação comuns às estratégias que carregam as entidades.
+     */
+    private static void debitAndCredit(Beneficio from, Beneficio to, Money amount) {
+        // --- 3. Bloco de Regras de Negócio ---
+        if (from == null || to == null) {
+            throw new NoSuchElementException("Beneficio não encontrado");
+        }
+        // TransferRejectedException é uma IllegalStateException (HTTP 422) que também
+        // informa o motivo, usado pelas métricas de transferência.
+        if (Boolean.FALSE.equals(from.getAtivo()) || Boolean.FALSE.equals(to.getAtivo())) {
+            throw new TransferRejectedException(TransferRejectedException.Reason.INACTIVE, "Ambos os Benefícios devem estar ativos");
+        }
+        // Comparação de centavos ('long'), sem BigDecimal.
+        if (from.getValor().isLessThan(amount)) {
+            throw new TransferRejectedException(TransferRejectedException.Reason.INSUFFICIENT_FUNDS, "Saldo insuficiente");
+        }
+
+        // --- 4. Execução da Transação (Débito e Crédito) ---
+        // Se todas as validações e regras de negócio passaram, a operação é executada.
+        from.setValor(from.getValor().minus(amount)); // Debita da origem
+        to.setValor(to.getValor().plus(amount));     // Credita no destino
+    }
+
+    /**
+     * Quantidade máxima de IDs por cláusula IN ao travar as contas do lote.
+     * Mantém o SQL dentro do limite de parâmetros dos bancos suportados.
+     */
+    private static final int LOCK_CHUNK_SIZE = 1000;
+
+    /**
+     * Aplica um lote de transferências em uma única transação.
+     *
+     * Diferente de 'transfer', aqui usamos *lock pessimista* (SELECT ... FOR UPDATE):
+     * cada conta tocada pelo lote é travada uma única vez, sempre em ordem crescente
+     * de ID. Como todos os lotes travam na mesma ordem, dois lotes concorrentes nunca
+     * esperam um pelo outro em ciclo (sem deadlock).
+     *
+     * Os débitos e créditos são calculados em memória, item a item e na ordem recebida;
+     * só depois os saldos finais são gravados, com um UPDATE por conta alterada
+     * (agrupados via 'hibernate.jdbc.batch_size').
+     */
+    @Transactional
+    @Override
+    public List<TransferItemResult> transferBatch(List<TransferRequestDTO> transfers, TransferBatchMode mode) {
+        if (transfers == null || transfers.isEmpty()) {
+            throw new IllegalArgumentException("O lote deve conter ao menos uma transferência");
+        }
+        TransferBatchMode effectiveMode = mode == null ? TransferBatchMode.ALL_OR_NOTHING : mode;
+
+        // --- 1. Lock ordenado de todas as contas tocadas pelo lote ---
+        Map<Long, BeneficioSubsaldoStore.Saldo> fracionadas = new HashMap<>();
+        Map<Long, Beneficio> contas = lockInAscendingOrder(transfers, fracionadas);
+
+        // Saldos de trabalho: começam com o valor lido (o total, nas contas fracionadas)
+        // e acumulam os itens aplicados.
+        Map<Long, Money> saldos = new HashMap<>(contas.size() * 2);
+        contas.forEach((id, conta) -> {
+            BeneficioSubsaldoStore.Saldo fracionada = fracionadas.get(id);
+            saldos.put(id, fracionada == null ? conta.getValor() : Money.of(fracionada.total()));
+        });
+
+        // --- 2. Aplicação em memória, item a item ---
+        List<TransferItemResult> results = new ArrayList<>(transfers.size());
+        int firstRejected = -1;
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequestDTO t = transfers.get(i);
+            String reason = validateBatchItem(t, contas, saldos);
+            if (reason != null) {
+                results.add(t == null
+                        ? TransferItemResult.rejected(i, null, null, null, reason)
+                        : TransferItemResult.rejected(i, t.fromId(), t.toId(), t.amount(), reason));
+                if (firstRejected < 0) {
+                    firstRejected = i;
+                }
+                continue;
+            }
+            Money amount = Money.of(t.amount());
+            saldos.put(t.fromId(), saldos.get(t.fromId()).minus(amount));
+            saldos.put(t.toId(), saldos.get(t.toId()).plus(amount));
+            results.add(TransferItemResult.applied(i, t.fromId(), t.toId(), t.amount()));
+        }
+
+        // --- 3. ALL_OR_NOTHING: nada foi gravado ainda, basta não escrever ---
+        if (effectiveMode == TransferBatchMode.ALL_OR_NOTHING && firstRejected >= 0) {
+            String reason = "Lote não aplicado: item " + firstRejected + " foi rejeitado";
+            List<TransferItemResult> aborted = new ArrayList<>(results.size());
+            for (TransferItemResult r : results) {
+                aborted.add(r.isApplied()
+                        ? TransferItemResult.rejected(r.index(), r.fromId(), r.toId(), r.amount(), reason)
+                        : r);
+            }
+            log.info("Lote de transferências rejeitado: itens={} primeiroRejeitado={}", transfers.size(), firstRejected);
+            return aborted;
+        }
+
+        // --- 4. Escrita: só as contas cujo saldo final mudou geram UPDATE ---
+        contas.forEach((id, conta) -> {
+            Money saldo = saldos.get(id);
+            BeneficioSubsaldoStore.Saldo fracionada = fracionadas.get(id);
+            // O feed recebe o efeito líquido do lote em cada conta, não um evento por item.
+            Money inicial = fracionada == null ? conta.getValor() : Money.of(fracionada.total());
+            if (!saldo.equals(inicial)) {
+                changeFeed.publishAfterCommit(BeneficioChange.transfer(id, saldo, saldo.minus(inicial)));
+            }
+            if (fracionada != null) {
+                // Faixas já travadas: o novo total é redistribuído e a linha fica zerada.
+                if (saldo.toBigDecimal().compareTo(fracionada.total()) != 0) {
+                    subsaldos.spread(id, fracionada.faixas(), saldo.toBigDecimal());
+                    if (conta.getValor().signum() != 0) {
+                        conta.setValor(Money.ZERO);
+                    }
+                }
+            } else if (!saldo.equals(conta.getValor())) {
+                conta.setValor(saldo);
+            }
+        });
+        em.flush();
+
+        ledger.recordBatch(results);
+
+        log.info("Lote de transferências concluído: itens={} contas={} modo={}", transfers.size(), contas.size(), effectiveMode);
+        return results;
+    }
+
+    /**
+     * Trava (PESSIMISTIC_WRITE) todas as contas referenciadas no lote, em ordem crescente de ID.
+     * IDs inexistentes simplesmente não aparecem no mapa retornado.
+     *
+     * As faixas das contas fracionadas também são travadas, logo após a linha da conta e
+     * antes das contas de ID maior, e seus saldos vão para 'fracionadas'.
+     */
+    private Map<Long, Beneficio> lockInAscendingOrder(List<TransferRequestDTO> transfers,
+                                                      Map<Long, BeneficioSubsaldoStore.Saldo> fracionadas) {
+        TreeSet<Long> ids = new TreeSet<>();
+        for (TransferRequestDTO t : transfers) {
+            if (t == null) continue;
+            if (t.fromId() != null) ids.add(t.fromId());
+            if (t.toId() != null) ids.add(t.toId());
+        }
+
+        Map<Long, Beneficio> contas = new HashMap<>(ids.size() * 2);
+        List<Long> chunk = new ArrayList<>(Math.min(ids.size(), LOCK_CHUNK_SIZE));
+        for (Long id : ids) {
+            if (subsaldos.isStriped(id)) {
+                lockChunk(chunk, contas);
+                chunk.clear();
+                lockChunk(List.of(id), contas);
+                if (contas.containsKey(id)) {
+                    BeneficioSubsaldoStore.Saldo saldo = subsaldos.lock(id);
+                    if (saldo.faixas() > 0) {
+                        fracionadas.put(id, saldo);
+                    }
+                }
+                continue;
+            }
+            chunk.add(id);
+            if (chunk.size() == LOCK_CHUNK_SIZE) {
+                lockChunk(chunk, contas);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            lockChunk(chunk, contas);
+        }
+        return contas;
+    }
+
+    private void lockChunk(List<Long> ids, Map<Long, Beneficio> contas) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        // ORDER BY garante que as linhas sejam travadas na ordem crescente de ID.
+        em.createQuery("SELECT b FROM Beneficio b WHERE b.id IN :ids ORDER BY b.id", Beneficio.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList()
+                .forEach(b -> contas.put(b.getId(), b));
+    }
+
+    /**
+     * Aplica as mesmas regras de 'transfer' a um item do lote, usando os saldos de trabalho.
+     *
+     * @return O motivo da rejeição, ou null se o item pode ser aplicado.
+     */
+    private static String validateBatchItem(TransferRequestDTO t, Map<Long, Beneficio> contas, Map<Long, Money> saldos) {
+        if (t == null) return "Transferência inválida";
+        if (t.fromId() == null || t.toId() == null) return "IDs devem ser fornecidos";
+        if (t.fromId().equals(t.toId())) return "fromId and toId devem ser diferentes";
+        if (t.amount() == null || t.amount().signum() <= 0) return "O valor deve ser positivo";
+        if (t.amount().stripTrailingZeros().scale() > Money.SCALE) {
+            return "O valor deve ter no máximo " + Money.SCALE + " casas decimais";
+        }
+
+        Beneficio from = contas.get(t.fromId());
+        Beneficio to = contas.get(t.toId());
+        if (from == null || to == null) return "Beneficio não encontrado";
+        if (Boolean.FALSE.equals(from.getAtivo()) || Boolean.FALSE.equals(to.getAtivo())) {
+            return "Ambos os Benefícios devem estar ativos";
+        }
+        if (saldos.get(t.fromId()).isLessThan(Money.of(t.amount()))) return "Saldo insuficiente";
+        return null;
     }
-    // --- 5. Commit ---
-    // Se o método terminar sem lançar nenhuma exceção, a anotação @Transactional
-    // instrui o Spring a fazer o *COMMIT* da transação, tornando as
-    // mudanças (débito e crédito) permanentes no banco de dados.
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.backend.integration;
+
+/**
+ * Semântica de um lote de transferências.
+ *
+ * ALL_OR_NOTHING: se qualquer item for rejeitado, nenhum item é aplicado.
+ * BEST_EFFORT: os itens válidos são aplicados e os inválidos são apenas reportados.
+ */
+public enum TransferBatchMode {
+    ALL_OR_NOTHING,
+    BEST_EFFORT
+}
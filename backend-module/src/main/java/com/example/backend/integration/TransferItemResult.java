@@ -0,0 +1,38 @@
+package com.example.backend.integration;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado individual de um item de um lote de transferências.
+ *
+ * @param index  Posição do item no lote recebido (base 0).
+ * @param status APPLIED quando o débito/crédito foi gravado, REJECTED caso contrário.
+ * @param reason Motivo da rejeição (nulo quando o item foi aplicado).
+ */
+public record TransferItemResult(
+        int index,
+        Long fromId,
+        Long toId,
+        BigDecimal amount,
+        Status status,
+        String reason
+) {
+
+    public enum Status {
+        APPLIED,
+        REJECTED
+    }
+
+    public static TransferItemResult applied(int index, Long fromId, Long toId, BigDecimal amount) {
+        return new TransferItemResult(index, fromId, toId, amount, Status.APPLIED, null);
+    }
+
+    public static TransferItemResult rejected(int index, Long fromId, Long toId, BigDecimal amount, String reason) {
+        return new TransferItemResult(index, fromId, toId, amount, Status.REJECTED, reason);
+    }
+
+    public boolean isApplied() {
+        return status == Status.APPLIED;
+    }
+
+}
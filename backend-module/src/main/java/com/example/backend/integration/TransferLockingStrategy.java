@@ -0,0 +1,27 @@
+package com.example.backend.integration;
+
+/**
+ * Estratégia de concorrência usada pelo LocalBeneficioTransferService em 'transfer'
+ * (propriedade 'beneficio.transfer.locking').
+ */
+public enum TransferLockingStrategy {
+
+    /**
+     * Lê as duas contas com OPTIMISTIC_FORCE_INCREMENT; um conflito falha no flush
+     * (e pode ser repetido pelo decorator de retentativa).
+     */
+    OPTIMISTIC,
+
+    /**
+     * Trava as duas contas com PESSIMISTIC_WRITE (SELECT ... FOR UPDATE), sempre em ordem
+     * crescente de ID. Transferências concorrentes esperam em fila em vez de falhar.
+     */
+    PESSIMISTIC,
+
+    /**
+     * Sem carregar entidades: um UPDATE condicional debita (só se houver saldo e a conta
+     * estiver ativa) e outro credita. O banco aplica cada um atomicamente sobre a linha.
+     */
+    ATOMIC_SQL
+
+}
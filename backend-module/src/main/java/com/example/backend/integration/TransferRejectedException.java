@@ -0,0 +1,27 @@
+package com.example.backend.integration;
+
+/**
+ * Regra de negócio que impediu a transferência (saldo insuficiente, conta inativa).
+ *
+ * Estende IllegalStateException para manter o mapeamento HTTP 422 do RestExceptionHandler;
+ * o 'reason' permite classificar a falha sem depender do texto da mensagem.
+ */
+public class TransferRejectedException extends IllegalStateException {
+
+    public enum Reason {
+        INSUFFICIENT_FUNDS,
+        INACTIVE
+    }
+
+    private final Reason reason;
+
+    public TransferRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+}
@@ -0,0 +1,299 @@
+package com.example.backend.integration.async;
+
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.BeneficioTransferProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Executa as transferências submetidas por POST /transfer/async.
+ *
+ * As contas são distribuídas em 'lanes' (hash do ID). Cada lane é uma caixa de mensagens
+ * com fila limitada, esvaziada por no máximo uma thread de cada vez; lanes diferentes rodam
+ * em paralelo no pool de 'workers'. Uma transferência entra na lane de menor índice entre
+ * as suas duas contas e, ao rodar, também trava a outra lane (sempre em ordem crescente,
+ * então sem deadlock): duas transferências com uma conta em comum nunca rodam ao mesmo
+ * tempo e não entram em conflito de lock otimista uma com a outra.
+ *
+ * A submissão nunca bloqueia a thread do Tomcat: com a fila da conta cheia, é recusada na
+ * hora (TransferQueueFullException, HTTP 503). A execução delega ao BeneficioTransferPort,
+ * com métricas, retentativas e invalidação do cache. Os tickets ficam só em memória.
+ *
+ * Com 'spring.threads.virtual.enabled' (Java 21), os workers são threads virtuais; continuam
+ * sendo 'workers' no máximo, porque cada um ocupa uma conexão do banco. A espera pela lane
+ * de outra conta usa ReentrantLock, que não prende a thread virtual à thread do sistema.
+ */
+@Component
+public class AsyncTransferExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncTransferExecutor.class);
+
+    // Transferências por vez que uma lane executa antes de devolver a thread ao pool.
+    private static final int DRAIN_BATCH = 64;
+
+    private final BeneficioTransferPort port;
+
+    private final Lane[] lanes;
+
+    private final int laneCapacity;
+
+    private final ExecutorService workers;
+
+    private final Cache<String, TransferTicket> tickets;
+
+    private final long shutdownTimeoutMillis;
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Counter rejectedSubmissions;
+
+    private volatile boolean closed;
+
+    @Autowired
+    public AsyncTransferExecutor(BeneficioTransferPort port, BeneficioTransferProperties properties,
+                                 ObjectProvider<MeterRegistry> registry, Environment environment) {
+        this(port, properties.getAsync(), registry.getIfAvailable(SimpleMeterRegistry::new),
+                Threading.VIRTUAL.isActive(environment));
+    }
+
+    AsyncTransferExecutor(BeneficioTransferPort port, BeneficioTransferProperties.Async properties,
+                          MeterRegistry registry) {
+        this(port, properties, registry, false);
+    }
+
+    AsyncTransferExecutor(BeneficioTransferPort port, BeneficioTransferProperties.Async properties,
+                          MeterRegistry registry, boolean virtualThreads) {
+        if (properties.getLanes() < 1 || properties.getLaneCapacity() < 1 || properties.getWorkers() < 1) {
+            throw new IllegalArgumentException("lanes, lane-capacity e workers devem ser positivos");
+        }
+        this.port = port;
+        this.laneCapacity = properties.getLaneCapacity();
+        this.lanes = new Lane[properties.getLanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane();
+        }
+        this.workers = Executors.newFixedThreadPool(properties.getWorkers(), threadFactory(virtualThreads));
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTicketRetention())
+                .maximumSize(properties.getMaxTickets())
+                .build();
+        this.shutdownTimeoutMillis = properties.getShutdownTimeout().toMillis();
+
+        Gauge.builder("beneficio.transfer.async.queued", queued, AtomicInteger::get)
+                .description("Transferências assíncronas aguardando execução")
+                .register(registry);
+        this.rejectedSubmissions = Counter.builder("beneficio.transfer.async.rejected")
+                .description("Submissões recusadas por fila cheia")
+                .register(registry);
+    }
+
+    /**
+     * Enfileira a transferência e devolve o ticket para consulta do andamento.
+     *
+     * @throws IllegalArgumentException se os argumentos forem inválidos (nada é enfileirado).
+     * @throws TransferQueueFullException se a fila da conta estiver cheia.
+     */
+    public TransferTicket submit(Long fromId, Long toId, BigDecimal amount) {
+        if (fromId == null || toId == null) throw new IllegalArgumentException("IDs devem ser fornecidos");
+        if (fromId.equals(toId)) throw new IllegalArgumentException("fromId and toId devem ser diferentes");
+        if (amount == null || amount.signum() <= 0) throw new IllegalArgumentException("O valor deve ser positivo");
+        if (closed) {
+            throw new TransferQueueFullException("Aplicação encerrando; transferências assíncronas não são aceitas");
+        }
+
+        TransferTicket ticket = new TransferTicket(UUID.randomUUID().toString(), fromId, toId, amount);
+        int a = laneOf(fromId);
+        int b = laneOf(toId);
+        Lane lane = lanes[Math.min(a, b)];
+        Lane other = a == b ? null : lanes[Math.max(a, b)];
+
+        // Registrado antes de enfileirar: a transferência pode terminar antes do 'offer' retornar.
+        tickets.put(ticket.getId(), ticket);
+        if (!lane.offer(new Task(ticket, other))) {
+            tickets.invalidate(ticket.getId());
+            rejectedSubmissions.increment();
+            throw new TransferQueueFullException("Fila de transferências cheia para as contas " + fromId + " e " + toId);
+        }
+        return ticket;
+    }
+
+    /**
+     * O ticket, enquanto estiver retido ('ticket-retention').
+     */
+    public Optional<TransferTicket> find(String ticketId) {
+        return Optional.ofNullable(tickets.getIfPresent(ticketId));
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Para de aceitar submissões e espera as filas esvaziarem (até 'shutdown-timeout').
+     */
+    @PreDestroy
+    public void close() {
+        closed = true;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                log.warn("Async transfer queues not drained on shutdown: {} pending", queued.get());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+    }
+
+    private int laneOf(Long id) {
+        return Math.floorMod(Long.hashCode(id) * 0x9E3779B9, lanes.length);
+    }
+
+    private void execute(Task task, Lane lane) {
+        TransferTicket ticket = task.ticket();
+        lane.running.lock();
+        try {
+            if (task.other() != null) {
+                task.other().running.lock();
+            }
+            try {
+                ticket.running();
+                port.transfer(ticket.getFromId(), ticket.getToId(), ticket.getAmount());
+                ticket.complete(TransferTicket.Status.APPLIED, null);
+            } finally {
+                if (task.other() != null) {
+                    task.other().running.unlock();
+                }
+            }
+        } catch (IllegalArgumentException | IllegalStateException | NoSuchElementException ex) {
+            // Regra de negócio (inclui TransferRejectedException): mesmo mapeamento do endpoint síncrono.
+            ticket.complete(TransferTicket.Status.REJECTED, ex.getMessage());
+        } catch (RuntimeException ex) {
+            log.warn("Async transfer {} failed: from={} to={}", ticket.getId(), ticket.getFromId(), ticket.getToId(), ex);
+            ticket.complete(TransferTicket.Status.FAILED, ex.getMessage());
+        } finally {
+            lane.running.unlock();
+        }
+    }
+
+    private static ThreadFactory threadFactory(boolean virtualThreads) {
+        if (virtualThreads) {
+            return new VirtualThreadTaskExecutor("transfer-async-").getVirtualThreadFactory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "transfer-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Task(TransferTicket ticket, Lane other) {
+    }
+
+    /**
+     * Caixa de mensagens de um grupo de contas. 'running' fica travado enquanto roda qualquer
+     * transferência que envolva uma conta da lane, inclusive as enfileiradas em outra lane.
+     */
+    private final class Lane implements Runnable {
+
+        private final ReentrantLock queueLock = new ReentrantLock();
+
+        private final ArrayDeque<Task> queue = new ArrayDeque<>();
+
+        // Há uma execução desta lane agendada ou rodando no pool (protegido por queueLock).
+        private boolean scheduled;
+
+        private final ReentrantLock running = new ReentrantLock();
+
+        boolean offer(Task task) {
+            queueLock.lock();
+            try {
+                if (queue.size() >= laneCapacity) {
+                    return false;
+                }
+                queue.add(task);
+                queued.incrementAndGet();
+                if (scheduled) {
+                    return true;
+                }
+                scheduled = true;
+            } finally {
+                queueLock.unlock();
+            }
+            try {
+                workers.execute(this);
+                return true;
+            } catch (RejectedExecutionException ex) {
+                // Pool já encerrado: a fila estava vazia, então só esta transferência volta.
+                queueLock.lock();
+                try {
+                    queue.remove(task);
+                    queued.decrementAndGet();
+                    scheduled = false;
+                } finally {
+                    queueLock.unlock();
+                }
+                return false;
+            }
+        }
+
+        @Override
+        public void run() {
+            int budget = DRAIN_BATCH;
+            while (true) {
+                Task task;
+                queueLock.lock();
+                try {
+                    task = queue.poll();
+                    if (task == null) {
+                        scheduled = false;
+                        return;
+                    }
+                } finally {
+                    queueLock.unlock();
+                }
+                queued.decrementAndGet();
+                execute(task, this);
+
+                if (--budget == 0) {
+                    try {
+                        workers.execute(this); // volta ao fim da fila do pool: as outras lanes também andam
+                        return;
+                    } catch (RejectedExecutionException ex) {
+                        budget = DRAIN_BATCH; // encerrando: esvazia a fila aqui mesmo
+                    }
+                }
+            }
+        }
+
+    }
+
+}
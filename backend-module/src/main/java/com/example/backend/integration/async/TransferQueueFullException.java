@@ -0,0 +1,14 @@
+package com.example.backend.integration.async;
+
+/**
+ * A fila da conta está cheia (ou a aplicação está desligando): a transferência não foi aceita.
+ *
+ * Mapeada para HTTP 503 com 'Retry-After' pelo RestExceptionHandler; nada foi gravado.
+ */
+public class TransferQueueFullException extends RuntimeException {
+
+    public TransferQueueFullException(String message) {
+        super(message);
+    }
+
+}
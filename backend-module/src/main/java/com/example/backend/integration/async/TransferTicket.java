@@ -0,0 +1,95 @@
+package com.example.backend.integration.async;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Uma transferência submetida de forma assíncrona e o seu andamento.
+ *
+ * O status só avança (QUEUED → RUNNING → APPLIED | REJECTED | FAILED) e é publicado
+ * pela thread que executou a transferência; as consultas leem campos voláteis.
+ */
+public class TransferTicket {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        // Débito e crédito gravados.
+        APPLIED,
+        // Regra de negócio (saldo, conta inativa ou inexistente): nada foi gravado.
+        REJECTED,
+        // Erro técnico (ex: conflitos além das retentativas): nada foi gravado.
+        FAILED
+    }
+
+    private final String id;
+
+    private final Long fromId;
+
+    private final Long toId;
+
+    private final BigDecimal amount;
+
+    private final Instant submittedAt = Instant.now();
+
+    private volatile Status status = Status.QUEUED;
+
+    private volatile String reason;
+
+    private volatile Instant completedAt;
+
+    TransferTicket(String id, Long fromId, Long toId, BigDecimal amount) {
+        this.id = id;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.amount = amount;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getFromId() {
+        return fromId;
+    }
+
+    public Long getToId() {
+        return toId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public boolean isDone() {
+        Status current = status;
+        return current != Status.QUEUED && current != Status.RUNNING;
+    }
+
+    void running() {
+        status = Status.RUNNING;
+    }
+
+    void complete(Status outcome, String reason) {
+        this.reason = reason;
+        this.completedAt = Instant.now();
+        this.status = outcome; // por último: quem vê o status final também vê o motivo
+    }
+
+}
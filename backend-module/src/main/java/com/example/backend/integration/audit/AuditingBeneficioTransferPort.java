@@ -0,0 +1,90 @@
+package com.example.backend.integration.audit;
+
+import com.example.backend.dto.TransferRequestDTO;
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.BeneficioTransferPortDecorator;
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.integration.TransferItemResult;
+import com.example.backend.integration.metrics.TransferOutcome;
+import com.example.backend.money.Money;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Decorator que publica na trilha de auditoria o resultado de cada transferência e de cada
+ * item de lote, no lugar dos logs INFO por transferência.
+ *
+ * Fica logo por fora do proxy transacional: o resultado já inclui as falhas do commit, e cada
+ * nova tentativa do decorator de retentativa aparece como um evento próprio.
+ */
+public class AuditingBeneficioTransferPort extends BeneficioTransferPortDecorator {
+
+    private final TransferAuditLog audit;
+
+    public AuditingBeneficioTransferPort(BeneficioTransferPort delegate, TransferAuditLog audit) {
+        super(delegate);
+        this.audit = audit;
+    }
+
+    @Override
+    public void transfer(Long fromId, Long toId, BigDecimal amount) {
+        long start = System.nanoTime();
+        TransferOutcome outcome = TransferOutcome.OK;
+        try {
+            delegate.transfer(fromId, toId, amount);
+        } catch (RuntimeException | Error ex) {
+            outcome = TransferOutcome.classify(ex);
+            throw ex;
+        } finally {
+            audit.record(id(fromId), id(toId), cents(amount), outcome, TransferAuditLog.TRANSFER,
+                    System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public List<TransferItemResult> transferBatch(List<TransferRequestDTO> transfers, TransferBatchMode mode) {
+        long start = System.nanoTime();
+        List<TransferItemResult> results;
+        try {
+            results = delegate.transferBatch(transfers, mode);
+        } catch (RuntimeException | Error ex) {
+            // O lote inteiro falhou: cada item é registrado com o mesmo resultado.
+            TransferOutcome outcome = TransferOutcome.classify(ex);
+            long elapsed = System.nanoTime() - start;
+            if (transfers != null) {
+                for (TransferRequestDTO t : transfers) {
+                    if (t != null) {
+                        audit.record(id(t.fromId()), id(t.toId()), cents(t.amount()), outcome,
+                                TransferAuditLog.BATCH_ITEM, elapsed);
+                    }
+                }
+            }
+            throw ex;
+        }
+        long elapsed = System.nanoTime() - start;
+        for (TransferItemResult r : results) {
+            TransferOutcome outcome = r.isApplied() ? TransferOutcome.OK : TransferOutcome.fromReason(r.reason());
+            audit.record(id(r.fromId()), id(r.toId()), cents(r.amount()),
+                    outcome == null ? TransferOutcome.ERROR : outcome, TransferAuditLog.BATCH_ITEM, elapsed);
+        }
+        return results;
+    }
+
+    private static long id(Long id) {
+        return id == null ? 0 : id;
+    }
+
+    // Valores com mais de duas casas (recusados pela transferência) são registrados como 0.
+    private static long cents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        try {
+            return amount.movePointRight(Money.SCALE).longValueExact();
+        } catch (ArithmeticException ex) {
+            return 0;
+        }
+    }
+
+}
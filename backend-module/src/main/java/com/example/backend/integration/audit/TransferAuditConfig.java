@@ -0,0 +1,73 @@
+package com.example.backend.integration.audit;
+
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.BeneficioTransferProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(prefix = "beneficio.transfer.audit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TransferAuditConfig {
+
+    @Bean
+    TransferAuditLog transferAuditLog(BeneficioTransferProperties properties) {
+        return new TransferAuditLog(properties.getAudit());
+    }
+
+    /**
+     * Eventos descartados e eventos aguardando gravação, em /actuator/metrics.
+     */
+    @Bean
+    MeterBinder transferAuditMetrics(TransferAuditLog audit) {
+        return registry -> {
+            Gauge.builder("beneficio.transfer.audit.dropped", audit, TransferAuditLog::getDropped)
+                    .description("Eventos de auditoria descartados")
+                    .register(registry);
+            Gauge.builder("beneficio.transfer.audit.backlog", audit, TransferAuditLog::getBacklog)
+                    .description("Eventos de auditoria aguardando gravação")
+                    .register(registry);
+        };
+    }
+
+    // 'static': BeanPostProcessors são criados antes dos demais beans desta configuração.
+    @Bean
+    static TransferAuditPostProcessor transferAuditPostProcessor(ObjectProvider<TransferAuditLog> audit) {
+        return new TransferAuditPostProcessor(audit);
+    }
+
+    /**
+     * Envolve todo bean BeneficioTransferPort com o AuditingBeneficioTransferPort.
+     *
+     * Roda antes do post-processor de invalidação do cache, resultando em
+     * Métricas → Retentativa → Invalidação do cache → Auditoria → @Transactional.
+     */
+    static class TransferAuditPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<TransferAuditLog> audit;
+
+        TransferAuditPostProcessor(ObjectProvider<TransferAuditLog> audit) {
+            this.audit = audit;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof BeneficioTransferPort port) || bean instanceof AuditingBeneficioTransferPort) {
+                return bean;
+            }
+            return new AuditingBeneficioTransferPort(port, audit.getObject());
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 2;
+        }
+
+    }
+
+}
@@ -0,0 +1,321 @@
+package com.example.backend.integration.audit;
+
+import com.example.backend.integration.BeneficioTransferProperties;
+import com.example.backend.integration.metrics.TransferOutcome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Trilha de auditoria das transferências: um evento de tamanho fixo por transferência (ou item
+ * de lote), gravado em segmentos binários mapeados em memória.
+ *
+ * As threads das transferências só escrevem no ring buffer (arrays pré-alocados, posição
+ * reservada com CAS, publicação com 'lazySet'): nada é alocado nem formatado por evento, e
+ * nenhuma trava é disputada. Uma única thread esvazia o buffer, em ordem de sequência, para
+ * o segmento atual; quando ele enche, abre o seguinte e apaga os que passam de 'max-segments'.
+ * Com o buffer cheio (disco parado), o evento é descartado e contado em 'getDropped'.
+ *
+ * Layout de um segmento (little-endian), decodificado pelo TransferAuditReader:
+ *
+ *   cabeçalho (64 bytes): magic "BAUD", versão, tamanho do registro, início do processo (ms)
+ *   registro  (48 bytes): sequência (a partir de 1; 0 = fim dos dados), horário (ms),
+ *                         origem, destino, valor em centavos, resultado (TransferOutcome),
+ *                         tipo (TRANSFER/BATCH_ITEM), 2 bytes livres, duração (µs)
+ */
+public class TransferAuditLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferAuditLog.class);
+
+    static final int MAGIC = 0x42415544; // "BAUD"
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 64;
+
+    static final int RECORD_SIZE = 48;
+
+    static final String FILE_PREFIX = "transfer-audit-";
+
+    static final String FILE_SUFFIX = ".bin";
+
+    public static final byte TRANSFER = 0;
+
+    public static final byte BATCH_ITEM = 1;
+
+    // Contador dos nomes de segmento, compartilhado pelas instâncias da JVM.
+    private static final AtomicLong SEGMENTS = new AtomicLong();
+
+    // Espera máxima da thread de gravação com o buffer vazio.
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Path directory;
+
+    private final long segmentSize;
+
+    private final int maxSegments;
+
+    private final long startedAt = System.currentTimeMillis();
+
+    // --- ring buffer: uma posição por evento, 'mask + 1' posições ---
+
+    private final int mask;
+
+    private final long[] times;
+
+    private final long[] fromIds;
+
+    private final long[] toIds;
+
+    private final long[] amounts;
+
+    private final int[] micros;
+
+    private final byte[] outcomes;
+
+    private final byte[] kinds;
+
+    // Sequência + 1 do evento publicado em cada posição (0: nunca usada).
+    private final AtomicLongArray published;
+
+    // Próxima sequência a reservar e próxima a gravar.
+    private final AtomicLong claimed = new AtomicLong();
+
+    private final AtomicLong consumed = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    // --- estado da thread de gravação ---
+
+    private MappedByteBuffer segment;
+
+    private int position;
+
+    private boolean failing;
+
+    public TransferAuditLog(BeneficioTransferProperties.Audit properties) {
+        int capacity = properties.getBufferSize();
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("buffer-size deve ser uma potência de 2");
+        }
+        if (properties.getSegmentSize().toBytes() < HEADER_SIZE + RECORD_SIZE
+                || properties.getSegmentSize().toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segment-size deve estar entre " + (HEADER_SIZE + RECORD_SIZE)
+                    + " bytes e 2GB");
+        }
+        if (properties.getMaxSegments() < 1) {
+            throw new IllegalArgumentException("max-segments deve ser positivo");
+        }
+        this.directory = properties.getDirectory();
+        this.segmentSize = properties.getSegmentSize().toBytes();
+        this.maxSegments = properties.getMaxSegments();
+        this.mask = capacity - 1;
+        this.times = new long[capacity];
+        this.fromIds = new long[capacity];
+        this.toIds = new long[capacity];
+        this.amounts = new long[capacity];
+        this.micros = new int[capacity];
+        this.outcomes = new byte[capacity];
+        this.kinds = new byte[capacity];
+        this.published = new AtomicLongArray(capacity);
+
+        try {
+            Files.createDirectories(directory);
+            openSegment();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Não foi possível abrir a trilha de auditoria em " + directory, ex);
+        }
+        this.writer = new Thread(this::drain, "transfer-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Publica um evento. Nunca bloqueia nem aloca.
+     *
+     * @param fromId       conta de origem (0 se ausente)
+     * @param toId         conta de destino (0 se ausente)
+     * @param amountCents  valor em centavos (0 se ausente ou inválido)
+     * @param outcome      resultado da transferência
+     * @param kind         TRANSFER ou BATCH_ITEM
+     * @param elapsedNanos duração da chamada (do lote inteiro, nos itens de lote)
+     * @return false se o buffer estava cheio e o evento foi descartado.
+     */
+    public boolean record(long fromId, long toId, long amountCents, TransferOutcome outcome, byte kind,
+                         long elapsedNanos) {
+        long seq;
+        do {
+            seq = claimed.get();
+            if (seq - consumed.get() > mask) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(seq, seq + 1));
+
+        int slot = (int) seq & mask;
+        times[slot] = System.currentTimeMillis();
+        fromIds[slot] = fromId;
+        toIds[slot] = toId;
+        amounts[slot] = amountCents;
+        micros[slot] = (int) Math.min(Integer.MAX_VALUE, elapsedNanos / 1000);
+        outcomes[slot] = (byte) outcome.ordinal();
+        kinds[slot] = kind;
+        // Release: a thread de gravação que lê 'published' enxerga os campos acima.
+        published.lazySet(slot, seq + 1);
+        return true;
+    }
+
+    /**
+     * Eventos descartados desde o início (buffer cheio ou segmento que não pôde ser aberto).
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Eventos publicados e ainda não gravados no segmento.
+     */
+    public long getBacklog() {
+        return claimed.get() - consumed.get();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Grava os eventos pendentes, força o segmento atual para o disco e para a thread de gravação.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Transfer audit writer did not stop; {} events not written", getBacklog());
+        }
+    }
+
+    private void drain() {
+        long next = consumed.get();
+        long idle = 0;
+        while (true) {
+            int slot = (int) next & mask;
+            if (published.get(slot) != next + 1) {
+                if (!running && next == claimed.get()) {
+                    break;
+                }
+                // Buffer vazio (ou evento reservado e ainda não publicado): espera crescente até 1ms.
+                idle = Math.min(MAX_IDLE_NANOS, Math.max(1_000, idle * 2));
+                LockSupport.parkNanos(idle);
+                continue;
+            }
+            idle = 0;
+            try {
+                write(next, slot);
+                failing = false;
+            } catch (IOException | RuntimeException ex) {
+                // Sem segmento (ex: disco cheio): o evento se perde; o erro é registrado uma vez.
+                dropped.increment();
+                if (!failing) {
+                    failing = true;
+                    log.error("Transfer audit segment rotation failed in {}; events are being dropped", directory, ex);
+                }
+            }
+            next++;
+            consumed.lazySet(next);
+        }
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    private void write(long seq, int slot) throws IOException {
+        if (segment == null || position + RECORD_SIZE > segmentSize) {
+            openSegment();
+        }
+        int at = position;
+        segment.putLong(at + 8, times[slot]);
+        segment.putLong(at + 16, fromIds[slot]);
+        segment.putLong(at + 24, toIds[slot]);
+        segment.putLong(at + 32, amounts[slot]);
+        segment.put(at + 40, outcomes[slot]);
+        segment.put(at + 41, kinds[slot]);
+        segment.putInt(at + 44, micros[slot]);
+        // A sequência por último: um leitor concorrente nunca vê um registro pela metade.
+        segment.putLong(at, seq + 1);
+        position = at + RECORD_SIZE;
+    }
+
+    private void openSegment() throws IOException {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+        // Nome pelo horário de criação + contador: a ordem alfabética é a ordem cronológica.
+        long stamp = System.currentTimeMillis();
+        Path file;
+        while (true) {
+            long counter = SEGMENTS.getAndIncrement() % 1_000_000;
+            file = directory.resolve(String.format("%s%013d-%06d%s", FILE_PREFIX, stamp, counter, FILE_SUFFIX));
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                // O mapeamento continua válido depois de fechar o canal.
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+                break;
+            } catch (FileAlreadyExistsException ex) {
+                // Outro processo (ou contexto) no mesmo diretório e milissegundo: tenta o próximo contador.
+            }
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, VERSION);
+        segment.putInt(8, RECORD_SIZE);
+        segment.putLong(16, startedAt);
+        position = HEADER_SIZE;
+        purge(file);
+    }
+
+    // Apaga os segmentos mais antigos além de 'max-segments' (o atual nunca).
+    private void purge(Path current) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            files.forEach(segments::add);
+        }
+        if (segments.size() <= maxSegments) {
+            return;
+        }
+        segments.sort(null);
+        for (Path old : segments.subList(0, segments.size() - maxSegments)) {
+            if (!old.equals(current)) {
+                Files.deleteIfExists(old);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.example.backend.integration.audit;
+
+import com.example.backend.integration.metrics.TransferOutcome;
+import com.example.backend.money.Money;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Decodifica os segmentos gravados pelo TransferAuditLog.
+ *
+ * Também é um utilitário de linha de comando, que imprime os registros em CSV:
+ *
+ *   java -cp backend-module.jar -Dloader.main=com.example.backend.integration.audit.TransferAuditReader \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher /tmp/beneficio-audit
+ *
+ * Aceita segmentos ou diretórios (todos os transfer-audit-*.bin, em ordem cronológica).
+ */
+public final class TransferAuditReader {
+
+    private static final TransferOutcome[] OUTCOMES = TransferOutcome.values();
+
+    private TransferAuditReader() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("uso: TransferAuditReader <diretório ou segmento>...");
+            System.exit(2);
+        }
+        PrintStream out = System.out;
+        out.println("sequence,at,kind,fromId,toId,amount,outcome,elapsedMicros");
+        for (String arg : args) {
+            for (Path segment : segments(Path.of(arg))) {
+                read(segment, r -> out.println(r.toCsv()));
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Os segmentos de um diretório, do mais antigo para o mais novo; um arquivo é devolvido sozinho.
+     */
+    public static List<Path> segments(Path path) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(path)) {
+            segments.add(path);
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(path,
+                TransferAuditLog.FILE_PREFIX + "*" + TransferAuditLog.FILE_SUFFIX)) {
+            files.forEach(segments::add);
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    /**
+     * Entrega cada registro do segmento, até o primeiro espaço ainda não gravado.
+     *
+     * @throws IllegalArgumentException se o arquivo não for um segmento da trilha de auditoria.
+     */
+    public static void read(Path segment, Consumer<TransferAuditRecord> consumer) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < TransferAuditLog.HEADER_SIZE || buffer.getInt(0) != TransferAuditLog.MAGIC) {
+            throw new IllegalArgumentException("Não é um segmento da trilha de auditoria: " + segment);
+        }
+        if (buffer.getInt(4) != TransferAuditLog.VERSION) {
+            throw new IllegalArgumentException("Versão de segmento não suportada (" + buffer.getInt(4) + "): " + segment);
+        }
+        int recordSize = buffer.getInt(8);
+        for (int at = TransferAuditLog.HEADER_SIZE; at + recordSize <= buffer.limit(); at += recordSize) {
+            long sequence = buffer.getLong(at);
+            if (sequence == 0) {
+                return;
+            }
+            int outcome = buffer.get(at + 40);
+            consumer.accept(new TransferAuditRecord(
+                    sequence,
+                    Instant.ofEpochMilli(buffer.getLong(at + 8)),
+                    buffer.getLong(at + 16),
+                    buffer.getLong(at + 24),
+                    Money.ofCents(buffer.getLong(at + 32)),
+                    outcome >= 0 && outcome < OUTCOMES.length ? OUTCOMES[outcome] : TransferOutcome.ERROR,
+                    buffer.get(at + 41),
+                    Integer.toUnsignedLong(buffer.getInt(at + 44))));
+        }
+    }
+
+}
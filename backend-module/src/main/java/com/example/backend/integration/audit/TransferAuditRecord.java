@@ -0,0 +1,25 @@
+package com.example.backend.integration.audit;
+
+import com.example.backend.integration.metrics.TransferOutcome;
+import com.example.backend.money.Money;
+
+import java.time.Instant;
+
+/**
+ * Um registro decodificado da trilha de auditoria (ver TransferAuditLog).
+ *
+ * @param sequence sequência do evento no processo que o gravou (a partir de 1)
+ * @param kind     TransferAuditLog.TRANSFER ou TransferAuditLog.BATCH_ITEM
+ */
+public record TransferAuditRecord(long sequence, Instant at, long fromId, long toId, Money amount,
+                                  TransferOutcome outcome, byte kind, long elapsedMicros) {
+
+    /**
+     * Uma linha CSV: sequence,at,kind,fromId,toId,amount,outcome,elapsedMicros.
+     */
+    public String toCsv() {
+        return sequence + "," + at + "," + (kind == TransferAuditLog.BATCH_ITEM ? "batch_item" : "transfer") + ","
+                + fromId + "," + toId + "," + amount + "," + outcome.tag() + "," + elapsedMicros;
+    }
+
+}
@@ -2,6 +2,7 @@ package com.example.backend.integration.ejb;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,6 +15,51 @@ public class BeneficioEjbProperties {
 
     private Map<String, String> jndi = new HashMap<>();
 
+    /**
+     * Quantidade de proxies remotos (cada um com seu próprio InitialContext) mantidos
+     * em rodízio. Um único proxy já é thread-safe; mais de um distribui as chamadas
+     * entre conexões quando o servidor remoto tem vários nós.
+     */
+    private int poolSize = 1;
+
+    /**
+     * Idade máxima de um proxy antes de uma nova consulta JNDI. Se a nova consulta
+     * falhar, o proxy antigo continua em uso.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(10);
+
+    /**
+     * Espera inicial antes de repetir uma consulta JNDI que falhou; dobra a cada falha
+     * consecutiva até 'lookupBackoffMax'.
+     */
+    private Duration lookupBackoffInitial = Duration.ofMillis(200);
+
+    private Duration lookupBackoffMax = Duration.ofSeconds(30);
+
+    /**
+     * Intervalo da verificação de saúde que refaz, em segundo plano, a consulta dos
+     * proxies descartados. Zero desativa a verificação.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(30);
+
+    /**
+     * Máximo de transferências individuais agrupadas em uma chamada a 'transferBatch'.
+     * 1 desativa o agrupamento: cada transferência é uma chamada remota.
+     */
+    private int batchSize = 64;
+
+    /**
+     * Quanto o primeiro item de um lote espera por outros antes de o lote ser enviado
+     * incompleto. É a latência extra de uma transferência sem concorrência.
+     */
+    private Duration batchWindow = Duration.ofMillis(2);
+
+    /**
+     * Lotes em andamento ao mesmo tempo (cada um ocupa uma thread à espera do servidor).
+     * Com todos ocupados, as transferências se acumulam e o próximo lote sai cheio.
+     */
+    private int batchConcurrency = 4;
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -38,4 +84,68 @@ public class BeneficioEjbProperties {
         this.jndi = jndi;
     }
 
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public Duration getLookupBackoffInitial() {
+        return lookupBackoffInitial;
+    }
+
+    public void setLookupBackoffInitial(Duration lookupBackoffInitial) {
+        this.lookupBackoffInitial = lookupBackoffInitial;
+    }
+
+    public Duration getLookupBackoffMax() {
+        return lookupBackoffMax;
+    }
+
+    public void setLookupBackoffMax(Duration lookupBackoffMax) {
+        this.lookupBackoffMax = lookupBackoffMax;
+    }
+
+    public Duration getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    public void setHealthCheckInterval(Duration healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getBatchWindow() {
+        return batchWindow;
+    }
+
+    public void setBatchWindow(Duration batchWindow) {
+        this.batchWindow = batchWindow;
+    }
+
+    public int getBatchConcurrency() {
+        return batchConcurrency;
+    }
+
+    public void setBatchConcurrency(int batchConcurrency) {
+        this.batchConcurrency = batchConcurrency;
+    }
+
 }
@@ -0,0 +1,245 @@
+package com.example.backend.integration.ejb;
+
+import com.example.ejb.BeneficioTransferRemote;
+import jakarta.ejb.NoSuchEJBException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.naming.CommunicationException;
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import java.io.IOException;
+import java.rmi.RemoteException;
+import java.util.Hashtable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mantém os proxies remotos do BeneficioTransferRemote resolvidos entre as chamadas.
+ *
+ * Cada posição do pool guarda um InitialContext e o proxy obtido nele. A consulta JNDI
+ * (que no WildFly abre conexão e faz handshake) acontece só na primeira vez, quando o
+ * proxy passa de 'refreshInterval' ou depois de ser descartado por uma falha de conexão.
+ * Consultas que falham são repetidas com backoff exponencial, e enquanto o backoff não
+ * vence as chamadas falham imediatamente, sem martelar o servidor remoto.
+ */
+public class BeneficioRemoteProxyPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioRemoteProxyPool.class);
+
+    private final BeneficioEjbProperties properties;
+
+    private final Slot[] slots;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final ScheduledExecutorService healthChecker;
+
+    public BeneficioRemoteProxyPool(BeneficioEjbProperties properties) {
+        this.properties = properties;
+        this.slots = new Slot[Math.max(1, properties.getPoolSize())];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot(properties.getLookupBackoffInitial().toNanos());
+        }
+
+        long interval = properties.getHealthCheckInterval().toMillis();
+        if (interval > 0) {
+            healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "beneficio-ejb-health");
+                t.setDaemon(true);
+                return t;
+            });
+            healthChecker.scheduleWithFixedDelay(this::healthCheck, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            healthChecker = null;
+        }
+    }
+
+    /**
+     * Devolve um proxy pronto para uso, em rodízio entre as posições do pool.
+     *
+     * @throws IllegalStateException se não houver proxy e a consulta JNDI falhar
+     *                               (ou ainda estiver em backoff).
+     */
+    public BeneficioTransferRemote acquire() {
+        Slot slot = slots[Math.floorMod(next.getAndIncrement(), slots.length)];
+        BeneficioTransferRemote proxy = slot.proxy;
+        if (proxy != null && System.nanoTime() - slot.resolvedAt < properties.getRefreshInterval().toNanos()) {
+            return proxy;
+        }
+        return resolve(slot);
+    }
+
+    /**
+     * Descarta o proxy após uma falha de conexão; a próxima chamada nesta posição
+     * refaz a consulta JNDI.
+     */
+    public void invalidate(BeneficioTransferRemote proxy) {
+        for (Slot slot : slots) {
+            if (slot.proxy != proxy) continue;
+            slot.lock.lock();
+            try {
+                if (slot.proxy == proxy) {
+                    log.warn("Descartando proxy do Beneficio EJB após falha de conexão");
+                    slot.proxy = null;
+                    closeQuietly(slot.context);
+                    slot.context = null;
+                }
+            } finally {
+                slot.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Verificação de saúde: tenta recuperar as posições sem proxy cujo backoff já venceu.
+     *
+     * @return true se ao menos uma posição do pool tem um proxy resolvido.
+     */
+    public boolean healthCheck() {
+        for (Slot slot : slots) {
+            if (slot.proxy == null && !slot.inBackoff(System.nanoTime())) {
+                try {
+                    resolve(slot);
+                } catch (RuntimeException ex) {
+                    log.debug("Verificação de saúde do Beneficio EJB falhou: {}", ex.getMessage());
+                }
+            }
+        }
+        return isHealthy();
+    }
+
+    public boolean isHealthy() {
+        for (Slot slot : slots) {
+            if (slot.proxy != null) return true;
+        }
+        return false;
+    }
+
+    private BeneficioTransferRemote resolve(Slot slot) {
+        // ReentrantLock em vez de 'synchronized': a consulta JNDI é I/O de rede e não
+        // deve prender a thread carregadora (importante com virtual threads).
+        slot.lock.lock();
+        try {
+            long now = System.nanoTime();
+            BeneficioTransferRemote current = slot.proxy;
+            if (current != null && now - slot.resolvedAt < properties.getRefreshInterval().toNanos()) {
+                return current; // outra thread já resolveu enquanto esperávamos
+            }
+            if (slot.inBackoff(now)) {
+                if (current != null) return current; // renovação adiada: segue com o proxy atual
+                throw new IllegalStateException("Beneficio EJB indisponível; nova consulta em "
+                        + TimeUnit.NANOSECONDS.toMillis(slot.retryAt - now) + " ms");
+            }
+
+            Context context = null;
+            try {
+                context = newContext();
+                BeneficioTransferRemote proxy = (BeneficioTransferRemote) context.lookup(properties.getJndiName());
+                closeQuietly(slot.context);
+                slot.context = context;
+                slot.proxy = proxy;
+                slot.resolvedAt = System.nanoTime();
+                slot.backoffNanos = properties.getLookupBackoffInitial().toNanos();
+                slot.failed = false;
+                return proxy;
+            } catch (NamingException | RuntimeException ex) {
+                closeQuietly(context);
+                slot.retryAt = System.nanoTime() + slot.backoffNanos;
+                slot.failed = true;
+                slot.backoffNanos = Math.min(slot.backoffNanos * 2, properties.getLookupBackoffMax().toNanos());
+                if (current != null) {
+                    log.warn("Falha ao renovar o proxy do Beneficio EJB em {}; mantendo o atual", properties.getJndiName(), ex);
+                    return current;
+                }
+                log.error("Falha ao consultar Beneficio EJB em {}", properties.getJndiName(), ex);
+                throw new IllegalStateException("Não é possível consultar o Beneficio EJB", ex);
+            }
+        } finally {
+            slot.lock.unlock();
+        }
+    }
+
+    private Context newContext() throws NamingException {
+        Hashtable<String, Object> env = new Hashtable<>();
+        properties.getJndi().forEach(env::put);
+        return env.isEmpty() ? new InitialContext() : new InitialContext(env);
+    }
+
+    /**
+     * Indica se a exceção lançada pela chamada remota significa que o proxy perdeu a
+     * conexão (e deve ser descartado), e não um erro de negócio do EJB.
+     */
+    public static boolean isConnectionFailure(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof NoSuchEJBException
+                    || t instanceof RemoteException
+                    || t instanceof CommunicationException
+                    || t instanceof IOException) {
+                return true;
+            }
+            // WildFly: "EJBCLIENT000025: No EJB receiver available for handling ..."
+            if (t instanceof IllegalStateException && t.getMessage() != null && t.getMessage().startsWith("EJBCLIENT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        for (Slot slot : slots) {
+            slot.lock.lock();
+            try {
+                slot.proxy = null;
+                closeQuietly(slot.context);
+                slot.context = null;
+            } finally {
+                slot.lock.unlock();
+            }
+        }
+    }
+
+    private static void closeQuietly(Context context) {
+        if (context == null) return;
+        try {
+            context.close();
+        } catch (NamingException ex) {
+            log.debug("Falha ao fechar InitialContext", ex);
+        }
+    }
+
+    private static final class Slot {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private volatile BeneficioTransferRemote proxy;
+
+        private volatile long resolvedAt;
+
+        private volatile long retryAt;
+
+        private volatile boolean failed;
+
+        private Context context;
+
+        private long backoffNanos;
+
+        private Slot(long initialBackoffNanos) {
+            this.backoffNanos = initialBackoffNanos;
+        }
+
+        private boolean inBackoff(long now) {
+            return failed && now - retryAt < 0;
+        }
+
+    }
+
+}
@@ -1,54 +1,149 @@
 package com.example.backend.integration.ejb;
 
+import com.example.backend.dto.TransferRequestDTO;
 import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.integration.TransferItemResult;
+import com.example.backend.integration.TransferRejectedException;
 import com.example.ejb.BeneficioTransferRemote;
+import com.example.ejb.SaldoInsuficienteException;
+import com.example.ejb.TransferOrder;
+import com.example.ejb.TransferOrderResult;
+import jakarta.annotation.PreDestroy;
 import jakarta.ejb.EJBException;
-import javax.naming.InitialContext;
-import javax.naming.NamingException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.util.Hashtable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
 
+/**
+ * BeneficioTransferPort sobre o EJB remoto.
+ *
+ * Com 'batch-size' maior que 1, as transferências individuais de threads concorrentes são
+ * agrupadas (TransferCoalescer) e enviadas juntas por 'transferBatch': uma chamada remota e
+ * uma transação no servidor por lote, e não por transferência. Cada chamador recebe o
+ * resultado do seu próprio item, com a mesma exceção que a transferência isolada lançaria.
+ */
 @Component
 @ConditionalOnProperty(prefix = "ejb.beneficio", name = "enabled", havingValue = "true")
-public class EjbBeneficioTransferClient implements BeneficioTransferPort {
+public class EjbBeneficioTransferClient implements BeneficioTransferPort, AutoCloseable {
 
-    private static final Logger log = LoggerFactory.getLogger(EjbBeneficioTransferClient.class);
+    // Proxies remotos resolvidos uma vez e reaproveitados entre as chamadas.
+    private final BeneficioRemoteProxyPool proxyPool;
 
-    private final BeneficioEjbProperties properties;
+    // Null quando o agrupamento está desativado ('batch-size' 1).
+    private final TransferCoalescer coalescer;
 
     public EjbBeneficioTransferClient(BeneficioEjbProperties properties) {
-        this.properties = properties;
+        this.proxyPool = new BeneficioRemoteProxyPool(properties);
+        this.coalescer = properties.getBatchSize() > 1
+                ? new TransferCoalescer(properties, orders -> invoke(ejb -> ejb.transferBatch(orders, false)))
+                : null;
     }
 
     @Override
     public void transfer(Long fromId, Long toId, BigDecimal amount) {
-        BeneficioTransferRemote ejb = lookup();
+        if (coalescer == null) {
+            invoke(ejb -> {
+                ejb.transfer(fromId, toId, amount);
+                return null;
+            });
+            return;
+        }
+        TransferOrderResult result = coalescer.submit(new TransferOrder(fromId, toId, amount));
+        if (!result.isApplied()) {
+            throw rejection(result);
+        }
+    }
+
+    /**
+     * O lote vai inteiro em uma chamada a 'transferBatch', aplicado em uma única transação
+     * no servidor; por isso os dois modos são atendidos.
+     */
+    @Override
+    public List<TransferItemResult> transferBatch(List<TransferRequestDTO> transfers, TransferBatchMode mode) {
+        if (transfers == null || transfers.isEmpty()) {
+            throw new IllegalArgumentException("O lote deve conter ao menos uma transferência");
+        }
+        List<TransferOrder> orders = new ArrayList<>(transfers.size());
+        for (TransferRequestDTO t : transfers) {
+            orders.add(t == null ? null : new TransferOrder(t.fromId(), t.toId(), t.amount()));
+        }
+        boolean allOrNothing = mode != TransferBatchMode.BEST_EFFORT;
+        List<TransferOrderResult> remote = invoke(ejb -> ejb.transferBatch(orders, allOrNothing));
+
+        List<TransferItemResult> results = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequestDTO t = transfers.get(i);
+            TransferOrderResult r = remote.get(i);
+            if (t == null) {
+                results.add(TransferItemResult.rejected(i, null, null, null, r.getMessage()));
+            } else if (r.isApplied()) {
+                results.add(TransferItemResult.applied(i, t.fromId(), t.toId(), t.amount()));
+            } else {
+                results.add(TransferItemResult.rejected(i, t.fromId(), t.toId(), t.amount(), r.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Executa a chamada remota com um proxy do pool, descartando o proxy quando a conexão
+     * caiu e repassando a causa das EJBException (o erro de negócio original).
+     */
+    private <T> T invoke(Function<BeneficioTransferRemote, T> call) {
+        BeneficioTransferRemote ejb = proxyPool.acquire();
         try {
-            ejb.transfer(fromId, toId, amount);
+            return call.apply(ejb);
+        } catch (SaldoInsuficienteException ex) {
+            throw new TransferRejectedException(TransferRejectedException.Reason.INSUFFICIENT_FUNDS, ex.getMessage());
         } catch (EJBException ex) {
+            discardIfDisconnected(ejb, ex);
             Throwable cause = ex.getCause();
             if (cause instanceof RuntimeException runtime) {
                 throw runtime;
             }
             throw new IllegalStateException("A execução do EJB falhou", ex);
+        } catch (RuntimeException ex) {
+            discardIfDisconnected(ejb, ex);
+            throw ex;
         }
     }
 
-    private BeneficioTransferRemote lookup() {
-        Hashtable<String, Object> env = new Hashtable<>();
-        properties.getJndi().forEach(env::put);
-        try {
-            InitialContext context = env.isEmpty() ? new InitialContext() : new InitialContext(env);
-            Object instance = context.lookup(properties.getJndiName());
-            return (BeneficioTransferRemote) instance;
-        } catch (NamingException ex) {
-            log.error("Falha ao consultar Beneficio EJB em {}", properties.getJndiName(), ex);
-            throw new IllegalStateException("Não é possível consultar o Beneficio EJB", ex);
+    /**
+     * A exceção que 'transfer' lançaria para o mesmo motivo, para o RestExceptionHandler e as
+     * métricas tratarem o item agrupado como uma transferência comum.
+     */
+    private static RuntimeException rejection(TransferOrderResult result) {
+        return switch (result.getStatus()) {
+            case INSUFFICIENT_FUNDS -> new TransferRejectedException(TransferRejectedException.Reason.INSUFFICIENT_FUNDS, result.getMessage());
+            case INACTIVE -> new TransferRejectedException(TransferRejectedException.Reason.INACTIVE, result.getMessage());
+            case NOT_FOUND -> new NoSuchElementException(result.getMessage());
+            case INVALID -> new IllegalArgumentException(result.getMessage());
+            default -> new IllegalStateException(result.getMessage());
+        };
+    }
+
+    private void discardIfDisconnected(BeneficioTransferRemote ejb, RuntimeException ex) {
+        if (BeneficioRemoteProxyPool.isConnectionFailure(ex)) {
+            proxyPool.invalidate(ejb);
+        }
+    }
+
+    public boolean isHealthy() {
+        return proxyPool.isHealthy();
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        if (coalescer != null) {
+            coalescer.close();
         }
+        proxyPool.close();
     }
 }
@@ -0,0 +1,209 @@
+package com.example.backend.integration.ejb;
+
+import com.example.backend.integration.async.TransferQueueFullException;
+import com.example.ejb.TransferOrder;
+import com.example.ejb.TransferOrderResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Junta transferências individuais de threads diferentes em lotes para uma única chamada
+ * remota ('BeneficioTransferRemote.transferBatch').
+ *
+ * Quem chama 'submit' coloca o item numa fila e espera o resultado dele. Uma thread
+ * ('beneficio-ejb-batcher') monta os lotes: o primeiro item espera até 'batchWindow' por
+ * outros, e o lote sai antes disso se chegar a 'batchSize'. A espera só acontece enquanto
+ * todos os outros envios aguardam o servidor; com algum livre, o que está na fila sai na
+ * hora, e uma transferência isolada não paga a janela. O envio roda num pool de
+ * 'batchConcurrency' threads; com todas ocupadas, a fila cresce e o próximo lote sai cheio,
+ * então o agrupamento aumenta justamente quando o servidor está mais lento.
+ *
+ * Os lotes usam BEST_EFFORT: um item recusado (ex: saldo insuficiente) não afeta os outros
+ * chamadores. Já uma falha da chamada remota (conexão, erro inesperado no servidor) é
+ * repassada a todos os itens daquele lote.
+ */
+final class TransferCoalescer implements AutoCloseable {
+
+    // Itens aguardando lote; acima disso, a transferência é recusada (HTTP 503).
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    private final Function<List<TransferOrder>, List<TransferOrderResult>> sender;
+
+    private final int batchSize;
+
+    private final long windowNanos;
+
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+
+    private final Semaphore inFlight;
+
+    private final ExecutorService senders;
+
+    private final Thread batcher;
+
+    private volatile boolean closed;
+
+    TransferCoalescer(BeneficioEjbProperties properties,
+                      Function<List<TransferOrder>, List<TransferOrderResult>> sender) {
+        this.sender = sender;
+        this.batchSize = properties.getBatchSize();
+        this.windowNanos = properties.getBatchWindow().toNanos();
+        int concurrency = Math.max(1, properties.getBatchConcurrency());
+        this.inFlight = new Semaphore(concurrency);
+        AtomicInteger senderIds = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r, "beneficio-ejb-batch-" + senderIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.batcher = new Thread(this::run, "beneficio-ejb-batcher");
+        this.batcher.setDaemon(true);
+        this.batcher.start();
+    }
+
+    /**
+     * Enfileira a transferência e espera o resultado do lote em que ela foi enviada.
+     *
+     * @throws TransferQueueFullException se a fila estiver cheia ou o cliente encerrado.
+     * @throws RuntimeException           a falha da chamada remota do lote, como lançada.
+     */
+    TransferOrderResult submit(TransferOrder order) {
+        Pending pending = new Pending(order);
+        if (closed || !queue.offer(pending)) {
+            throw new TransferQueueFullException("Fila de transferências do EJB cheia");
+        }
+        // 'close' pode ter esvaziado a fila entre a checagem e o 'offer'.
+        if (closed && queue.remove(pending)) {
+            throw new TransferQueueFullException("Cliente EJB encerrado");
+        }
+        try {
+            return pending.result.get();
+        } catch (InterruptedException ex) {
+            // O item pode já estar a caminho do servidor; só não esperamos mais o resultado.
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o lote do EJB", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("A execução do EJB falhou", ex.getCause());
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(Math.min(batchSize, 64));
+        while (!closed) {
+            try {
+                // A vaga é reservada antes de montar o lote: enquanto todos os envios estão
+                // ocupados, os itens ficam na fila e o próximo lote já sai cheio.
+                inFlight.acquire();
+                nextBatch(batch);
+            } catch (InterruptedException ex) {
+                fail(batch, new TransferQueueFullException("Cliente EJB encerrado"));
+                return;
+            }
+            List<Pending> ready = batch;
+            batch = new ArrayList<>(Math.min(batchSize, 64));
+            try {
+                senders.execute(() -> {
+                    try {
+                        send(ready);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                inFlight.release();
+                fail(ready, new TransferQueueFullException("Cliente EJB encerrado"));
+            }
+        }
+    }
+
+    private void nextBatch(List<Pending> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < batchSize) {
+            // O que já está na fila entra sem espera; depois, só até o fim da janela.
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            // Com outro envio livre, esperar só atrasaria este lote sem liberar o servidor.
+            if (inFlight.availablePermits() > 0) {
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        List<TransferOrder> orders = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            orders.add(p.order);
+        }
+        try {
+            List<TransferOrderResult> results = sender.apply(orders);
+            if (results == null || results.size() != batch.size()) {
+                throw new IllegalStateException("O EJB devolveu " + (results == null ? 0 : results.size())
+                        + " resultados para um lote de " + batch.size());
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (RuntimeException ex) {
+            fail(batch, ex);
+        }
+    }
+
+    private static void fail(List<Pending> batch, RuntimeException ex) {
+        for (Pending p : batch) {
+            p.result.completeExceptionally(ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        batcher.interrupt();
+        senders.shutdown();
+        try {
+            if (!senders.awaitTermination(5, TimeUnit.SECONDS)) {
+                senders.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            senders.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        fail(left, new TransferQueueFullException("Cliente EJB encerrado"));
+    }
+
+    private static final class Pending {
+
+        private final TransferOrder order;
+
+        private final CompletableFuture<TransferOrderResult> result = new CompletableFuture<>();
+
+        private Pending(TransferOrder order) {
+            this.order = order;
+        }
+
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.example.backend.integration.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ranking aproximado das contas mais frequentes (algoritmo Space-Saving).
+ *
+ * Mantém no máximo 'capacity' contadores em arrays pré-alocados: uma conta nova ocupa
+ * o lugar da conta com a menor contagem e herda essa contagem como margem de erro. Toda
+ * conta com frequência real acima de total/capacity está garantidamente no ranking.
+ *
+ * O registro não aloca memória: é uma varredura linear dos arrays sob um lock curto.
+ */
+final class HotAccountTracker {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final long[] ids;
+
+    private final long[] counts;
+
+    private final long[] errors;
+
+    private int size;
+
+    private long total;
+
+    HotAccountTracker(int capacity) {
+        int c = Math.max(1, capacity);
+        this.ids = new long[c];
+        this.counts = new long[c];
+        this.errors = new long[c];
+    }
+
+    void record(Long id) {
+        if (id == null) return;
+        lock.lock();
+        try {
+            offer(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void record(Long first, Long second) {
+        lock.lock();
+        try {
+            if (first != null) offer(first);
+            if (second != null) offer(second);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void offer(long id) {
+        total++;
+        int min = 0;
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                counts[i]++;
+                return;
+            }
+            if (counts[i] < counts[min]) {
+                min = i;
+            }
+        }
+        if (size < ids.length) {
+            ids[size] = id;
+            counts[size] = 1;
+            errors[size] = 0;
+            size++;
+            return;
+        }
+        long floor = counts[min];
+        ids[min] = id;
+        counts[min] = floor + 1;
+        errors[min] = floor;
+    }
+
+    /**
+     * @return As 'k' contas com maior contagem, da maior para a menor.
+     */
+    List<AccountCount> top(int k) {
+        AccountCount[] snapshot;
+        lock.lock();
+        try {
+            snapshot = new AccountCount[size];
+            for (int i = 0; i < size; i++) {
+                snapshot[i] = new AccountCount(ids[i], counts[i], errors[i]);
+            }
+        } finally {
+            lock.unlock();
+        }
+        Arrays.sort(snapshot, (a, b) -> Long.compare(b.count(), a.count()));
+        List<AccountCount> top = new ArrayList<>(Math.min(k, snapshot.length));
+        for (int i = 0; i < snapshot.length && i < k; i++) {
+            top.add(snapshot[i]);
+        }
+        return top;
+    }
+
+    long total() {
+        lock.lock();
+        try {
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param count           Contagem estimada (nunca menor que a real).
+     * @param maxOverestimate Quanto a contagem pode estar acima da real.
+     */
+    public record AccountCount(long id, long count, long maxOverestimate) {
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.example.backend.integration.metrics;
+
+import com.example.backend.dto.TransferRequestDTO;
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.BeneficioTransferPortDecorator;
+import com.example.backend.integration.BeneficioTransferProperties;
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.integration.TransferItemResult;
+import com.example.backend.integration.retry.RetryingBeneficioTransferPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decorator que mede qualquer implementação do BeneficioTransferPort (local ou EJB).
+ *
+ * Registra no Micrometer, com a tag 'implementation':
+ * - beneficio.transfer.latency / beneficio.transfer.batch.latency (p50, p99, p999)
+ * - beneficio.transfer.outcome / beneficio.transfer.batch.items (por 'outcome')
+ * - beneficio.transfer.in_flight / beneficio.transfer.batch.in_flight
+ *
+ * e mantém os rankings das contas mais usadas e das mais envolvidas em conflitos de
+ * lock otimista. Todos os medidores são criados no construtor; o caminho da transferência
+ * só incrementa contadores já existentes, sem alocar.
+ *
+ * Com o decorator de retentativa por dentro, o ranking de contas disputadas também recebe
+ * cada conflito resolvido por uma nova tentativa, que daqui seria invisível.
+ */
+public class InstrumentedBeneficioTransferPort extends BeneficioTransferPortDecorator {
+
+    private final MeterRegistry registry;
+
+    private final String implementation;
+
+    private final int topK;
+
+    private final Timer latency;
+
+    private final Timer batchLatency;
+
+    private final Counter[] outcomes;
+
+    private final Counter[] batchItems;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger batchInFlight = new AtomicInteger();
+
+    private final HotAccountTracker hotAccounts;
+
+    private final HotAccountTracker contendedAccounts;
+
+    public InstrumentedBeneficioTransferPort(BeneficioTransferPort delegate, String implementation,
+                                             MeterRegistry registry, BeneficioTransferProperties.Metrics properties) {
+        super(delegate);
+        this.registry = registry;
+        this.implementation = implementation;
+        this.topK = properties.getTopK();
+        this.hotAccounts = new HotAccountTracker(properties.getTrackedAccounts());
+        this.contendedAccounts = new HotAccountTracker(properties.getTrackedAccounts());
+        for (BeneficioTransferPort p = delegate; p instanceof BeneficioTransferPortDecorator d; p = d.getDelegate()) {
+            if (p instanceof RetryingBeneficioTransferPort retrying) {
+                retrying.setConflictListener(contendedAccounts::record);
+            }
+        }
+
+        this.latency = Timer.builder("beneficio.transfer.latency")
+                .description("Duração de cada transferência")
+                .tag("implementation", implementation)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchLatency = Timer.builder("beneficio.transfer.batch.latency")
+                .description("Duração de cada lote de transferências")
+                .tag("implementation", implementation)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(registry);
+
+        TransferOutcome[] all = TransferOutcome.all();
+        this.outcomes = new Counter[all.length];
+        this.batchItems = new Counter[all.length];
+        for (TransferOutcome o : all) {
+            outcomes[o.ordinal()] = Counter.builder("beneficio.transfer.outcome")
+                    .tag("implementation", implementation)
+                    .tag("outcome", o.tag())
+                    .register(registry);
+            batchItems[o.ordinal()] = Counter.builder("beneficio.transfer.batch.items")
+                    .tag("implementation", implementation)
+                    .tag("outcome", o.tag())
+                    .register(registry);
+        }
+
+        Gauge.builder("beneficio.transfer.in_flight", inFlight, AtomicInteger::get)
+                .tag("implementation", implementation)
+                .register(registry);
+        Gauge.builder("beneficio.transfer.batch.in_flight", batchInFlight, AtomicInteger::get)
+                .tag("implementation", implementation)
+                .register(registry);
+    }
+
+    @Override
+    public void transfer(Long fromId, Long toId, BigDecimal amount) {
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        TransferOutcome outcome = TransferOutcome.OK;
+        try {
+            delegate.transfer(fromId, toId, amount);
+        } catch (RuntimeException | Error ex) {
+            outcome = TransferOutcome.classify(ex);
+            throw ex;
+        } finally {
+            latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            inFlight.decrementAndGet();
+            outcomes[outcome.ordinal()].increment();
+            hotAccounts.record(fromId, toId);
+            if (outcome == TransferOutcome.OPTIMISTIC_CONFLICT) {
+                contendedAccounts.record(fromId, toId);
+            }
+        }
+    }
+
+    @Override
+    public List<TransferItemResult> transferBatch(List<TransferRequestDTO> transfers, TransferBatchMode mode) {
+        batchInFlight.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            List<TransferItemResult> results = delegate.transferBatch(transfers, mode);
+            for (TransferItemResult r : results) {
+                TransferOutcome outcome = r.isApplied() ? TransferOutcome.OK : TransferOutcome.fromReason(r.reason());
+                batchItems[(outcome == null ? TransferOutcome.ERROR : outcome).ordinal()].increment();
+                hotAccounts.record(r.fromId(), r.toId());
+            }
+            return results;
+        } catch (RuntimeException | Error ex) {
+            // O lote inteiro falhou (ex: conflito de lock): cada item conta com o mesmo motivo.
+            TransferOutcome outcome = TransferOutcome.classify(ex);
+            batchItems[outcome.ordinal()].increment(transfers == null ? 0 : transfers.size());
+            throw ex;
+        } finally {
+            batchLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchInFlight.decrementAndGet();
+        }
+    }
+
+    public String getImplementation() {
+        return implementation;
+    }
+
+    public TransferMetricsSnapshot snapshot() {
+        return new TransferMetricsSnapshot(
+                implementation,
+                inFlight.get(),
+                batchInFlight.get(),
+                TransferMetricsSnapshot.Latency.of(latency),
+                TransferMetricsSnapshot.Latency.of(batchLatency),
+                counts(outcomes),
+                counts(batchItems),
+                retries(),
+                hotAccounts.total(),
+                hotAccounts.top(topK),
+                contendedAccounts.top(topK));
+    }
+
+    /**
+     * Contadores do decorator de retentativa (quando ativo), lidos do próprio MeterRegistry.
+     */
+    private Map<String, Long> retries() {
+        Map<String, Long> retries = new TreeMap<>();
+        for (Counter c : registry.find("beneficio.transfer.retry").tag("implementation", implementation).counters()) {
+            retries.put(c.getId().getTag("result"), (long) c.count());
+        }
+        return retries;
+    }
+
+    private static Map<TransferOutcome, Long> counts(Counter[] counters) {
+        Map<TransferOutcome, Long> counts = new EnumMap<>(TransferOutcome.class);
+        for (TransferOutcome o : TransferOutcome.all()) {
+            counts.put(o, (long) counters[o.ordinal()].count());
+        }
+        return counts;
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.example.backend.integration.metrics;
+
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.BeneficioTransferProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "beneficio.transfer.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TransferMetricsConfig {
+
+    // 'static': BeanPostProcessors são criados antes dos demais beans desta configuração.
+    @Bean
+    static TransferMetricsPostProcessor transferMetricsPostProcessor(ObjectProvider<MeterRegistry> registry,
+                                                                     ObjectProvider<BeneficioTransferProperties> properties) {
+        return new TransferMetricsPostProcessor(registry, properties);
+    }
+
+    @Bean
+    TransferMetricsEndpoint transferMetricsEndpoint(ObjectProvider<BeneficioTransferPort> ports) {
+        return new TransferMetricsEndpoint(ports);
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.example.backend.integration.metrics;
+
+import com.example.backend.integration.BeneficioTransferPort;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GET /actuator/transfers: latência, resultados, transferências em andamento e contas
+ * mais usadas/disputadas, por implementação do BeneficioTransferPort.
+ */
+@Endpoint(id = "transfers")
+public class TransferMetricsEndpoint {
+
+    private final ObjectProvider<BeneficioTransferPort> ports;
+
+    public TransferMetricsEndpoint(ObjectProvider<BeneficioTransferPort> ports) {
+        this.ports = ports;
+    }
+
+    @ReadOperation
+    public Map<String, TransferMetricsSnapshot> transfers() {
+        Map<String, TransferMetricsSnapshot> snapshots = new LinkedHashMap<>();
+        ports.orderedStream()
+                .filter(InstrumentedBeneficioTransferPort.class::isInstance)
+                .map(InstrumentedBeneficioTransferPort.class::cast)
+                .forEach(p -> snapshots.put(p.getImplementation(), p.snapshot()));
+        return snapshots;
+    }
+
+}
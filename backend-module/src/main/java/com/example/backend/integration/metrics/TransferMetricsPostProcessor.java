@@ -0,0 +1,42 @@
+package com.example.backend.integration.metrics;
+
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.BeneficioTransferPortDecorator;
+import com.example.backend.integration.BeneficioTransferProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Envolve todo bean BeneficioTransferPort com o InstrumentedBeneficioTransferPort.
+ *
+ * Não implementa Ordered, então roda depois dos post-processors de AOP e do de
+ * retentativa: o decorator fica por fora do proxy transacional (mede as falhas que só
+ * aparecem no commit) e das retentativas (a latência inclui as novas tentativas).
+ */
+public class TransferMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> registry;
+
+    private final ObjectProvider<BeneficioTransferProperties> properties;
+
+    public TransferMetricsPostProcessor(ObjectProvider<MeterRegistry> registry,
+                                        ObjectProvider<BeneficioTransferProperties> properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof BeneficioTransferPort port) || bean instanceof InstrumentedBeneficioTransferPort) {
+            return bean;
+        }
+        return new InstrumentedBeneficioTransferPort(
+                port,
+                BeneficioTransferPortDecorator.implementationName(port),
+                registry.getIfAvailable(SimpleMeterRegistry::new),
+                properties.getObject().getMetrics());
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.example.backend.integration.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Visão consolidada das métricas de um BeneficioTransferPort, devolvida pelo
+ * endpoint /actuator/transfers.
+ */
+public record TransferMetricsSnapshot(
+        String implementation,
+        int inFlight,
+        int batchInFlight,
+        Latency latency,
+        Latency batchLatency,
+        Map<TransferOutcome, Long> outcomes,
+        Map<TransferOutcome, Long> batchItems,
+        Map<String, Long> retries,
+        long trackedTransfers,
+        List<HotAccountTracker.AccountCount> hotAccounts,
+        List<HotAccountTracker.AccountCount> contendedAccounts
+) {
+
+    /**
+     * Latência em milissegundos; os percentis cobrem a janela recente do Timer
+     * (por padrão, os últimos 2 minutos).
+     */
+    public record Latency(long count, double meanMs, double maxMs, double p50Ms, double p99Ms, double p999Ms) {
+
+        static Latency of(Timer timer) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            double p50 = Double.NaN;
+            double p99 = Double.NaN;
+            double p999 = Double.NaN;
+            for (ValueAtPercentile v : snapshot.percentileValues()) {
+                double ms = v.value(TimeUnit.MILLISECONDS);
+                if (v.percentile() == 0.5) p50 = ms;
+                else if (v.percentile() == 0.99) p99 = ms;
+                else if (v.percentile() == 0.999) p999 = ms;
+            }
+            return new Latency(snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                    snapshot.max(TimeUnit.MILLISECONDS), p50, p99, p999);
+        }
+
+    }
+
+}
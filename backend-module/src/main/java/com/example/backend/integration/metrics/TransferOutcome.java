@@ -0,0 +1,89 @@
+package com.example.backend.integration.metrics;
+
+import com.example.backend.integration.TransferRejectedException;
+import com.example.ejb.SaldoInsuficienteException;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.StaleStateException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Resultado de uma transferência, usado como tag 'outcome' nas métricas.
+ */
+public enum TransferOutcome {
+
+    OK,
+    INSUFFICIENT_FUNDS,
+    INACTIVE,
+    NOT_FOUND,
+    OPTIMISTIC_CONFLICT,
+    INVALID,
+    // Item válido descartado porque outro item do lote ALL_OR_NOTHING foi rejeitado.
+    ABORTED,
+    ERROR;
+
+    private static final TransferOutcome[] VALUES = values();
+
+    private final String tag = name().toLowerCase(Locale.ROOT);
+
+    public String tag() {
+        return tag;
+    }
+
+    static TransferOutcome[] all() {
+        return VALUES;
+    }
+
+    /**
+     * Classifica a exceção lançada pelo port percorrendo a cadeia de causas (sem alocar).
+     */
+    public static TransferOutcome classify(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof TransferRejectedException rejected) {
+                return rejected.getReason() == TransferRejectedException.Reason.INSUFFICIENT_FUNDS
+                        ? INSUFFICIENT_FUNDS : INACTIVE;
+            }
+            if (t instanceof SaldoInsuficienteException) {
+                return INSUFFICIENT_FUNDS;
+            }
+            if (t instanceof OptimisticLockingFailureException
+                    || t instanceof OptimisticLockException
+                    || t instanceof StaleStateException) {
+                return OPTIMISTIC_CONFLICT;
+            }
+            if (t instanceof NoSuchElementException || t instanceof EntityNotFoundException) {
+                return NOT_FOUND;
+            }
+            if (t instanceof IllegalArgumentException) {
+                return INVALID;
+            }
+        }
+        // Exceções vindas do EJB remoto chegam sem o tipo original: resta a mensagem.
+        TransferOutcome byMessage = fromReason(ex == null ? null : ex.getMessage());
+        return byMessage == null ? ERROR : byMessage;
+    }
+
+    /**
+     * Classifica o motivo de rejeição de um item de lote (ver TransferItemResult.reason).
+     *
+     * @return null quando o texto não corresponde a nenhum motivo conhecido.
+     */
+    public static TransferOutcome fromReason(String reason) {
+        if (reason == null) return null;
+        if (reason.startsWith("Saldo insuficiente")) return INSUFFICIENT_FUNDS;
+        if (reason.endsWith("devem estar ativos")) return INACTIVE;
+        if (reason.startsWith("Beneficio não encontrado")) return NOT_FOUND;
+        if (reason.startsWith("Lote não aplicado")) return ABORTED;
+        if (reason.equals("Transferência inválida")
+                || reason.equals("IDs devem ser fornecidos")
+                || reason.endsWith("devem ser diferentes")
+                || reason.equals("O valor deve ser positivo")) {
+            return INVALID;
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.example.backend.integration.retry;
+
+import com.example.backend.integration.BeneficioTransferProperties;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket de retentativas por conta, particionado em baldes (stripes) por hash do ID.
+ *
+ * Uma conta muito disputada esgota o seu balde e as transferências seguintes que a envolvem
+ * desistem na primeira falha, em vez de somar mais carga ao conflito. As demais contas
+ * continuam com o orçamento intacto.
+ */
+final class RetryBudget {
+
+    private final Bucket[] buckets;
+
+    private final int mask;
+
+    private final double capacity;
+
+    private final double refillPerNano;
+
+    RetryBudget(BeneficioTransferProperties.Budget properties) {
+        // Arredonda para potência de 2, para escolher o balde com uma máscara.
+        int stripes = Integer.highestOneBit(Math.max(1, properties.getStripes()));
+        if (stripes < properties.getStripes()) {
+            stripes <<= 1;
+        }
+        this.buckets = new Bucket[stripes];
+        this.mask = stripes - 1;
+        this.capacity = Math.max(1, properties.getCapacity());
+        this.refillPerNano = Math.max(0, properties.getRefillPerSecond()) / TimeUnit.SECONDS.toNanos(1);
+        long now = System.nanoTime();
+        for (int i = 0; i < stripes; i++) {
+            buckets[i] = new Bucket(capacity, now);
+        }
+    }
+
+    /**
+     * Consome uma ficha de cada conta; se alguma não tiver ficha, nada é consumido.
+     */
+    boolean tryAcquire(Long fromId, Long toId) {
+        Bucket first = bucket(fromId);
+        if (!first.tryTake(capacity, refillPerNano)) {
+            return false;
+        }
+        Bucket second = bucket(toId);
+        if (!second.tryTake(capacity, refillPerNano)) {
+            first.giveBack(capacity);
+            return false;
+        }
+        return true;
+    }
+
+    private Bucket bucket(Long id) {
+        long h = id == null ? 0 : id * 0x9E3779B97F4A7C15L; // espalha IDs sequenciais
+        return buckets[(int) (h ^ (h >>> 32)) & mask];
+    }
+
+    private static final class Bucket {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private double tokens;
+
+        private long refilledAt;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        private boolean tryTake(double capacity, double refillPerNano) {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+                refilledAt = now;
+                if (tokens < 1) {
+                    return false;
+                }
+                tokens -= 1;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void giveBack(double capacity) {
+            lock.lock();
+            try {
+                tokens = Math.min(capacity, tokens + 1);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+    }
+
+}
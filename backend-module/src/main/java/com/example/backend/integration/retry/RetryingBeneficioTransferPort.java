@@ -0,0 +1,176 @@
+package com.example.backend.integration.retry;
+
+import com.example.backend.dto.TransferRequestDTO;
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.BeneficioTransferPortDecorator;
+import com.example.backend.integration.BeneficioTransferProperties;
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.integration.TransferItemResult;
+import com.example.backend.integration.metrics.TransferOutcome;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repete no servidor as transferências que falharam por conflito de lock, cada tentativa
+ * em uma transação nova.
+ *
+ * O decorator fica por fora do proxy transacional do port, então cada chamada ao 'delegate'
+ * abre e fecha a sua própria transação. Entre as tentativas há um backoff exponencial com
+ * jitter, e cada retentativa consome o orçamento (RetryBudget) das duas contas envolvidas.
+ *
+ * Se a chamada já acontece dentro de uma transação, o delegate participa dela e uma nova
+ * tentativa veria a mesma transação marcada para rollback: nesse caso não há retentativa.
+ *
+ * Os conflitos resolvidos aqui não chegam aos decorators de fora; quem precisa vê-los (o
+ * ranking de contas disputadas das métricas) se registra com 'setConflictListener'.
+ */
+public class RetryingBeneficioTransferPort extends BeneficioTransferPortDecorator {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryingBeneficioTransferPort.class);
+
+    private final int maxAttempts;
+
+    private final long initialBackoffNanos;
+
+    private final long maxBackoffNanos;
+
+    private final double multiplier;
+
+    private final RetryBudget budget;
+
+    private final Counter retried;
+
+    private final Counter recovered;
+
+    private final Counter exhausted;
+
+    private final Counter budgetExhausted;
+
+    private volatile ConflictListener conflictListener = (fromId, toId) -> { };
+
+    /**
+     * Avisado a cada conflito que vai ganhar uma nova tentativa, na thread da transferência.
+     * O conflito da última tentativa não passa por aqui: ele chega como exceção a quem chamou.
+     */
+    @FunctionalInterface
+    public interface ConflictListener {
+        void onConflict(Long fromId, Long toId);
+    }
+
+    public RetryingBeneficioTransferPort(BeneficioTransferPort delegate, String implementation,
+                                         MeterRegistry registry, BeneficioTransferProperties.Retry properties) {
+        super(delegate);
+        this.maxAttempts = Math.max(1, properties.getMaxAttempts());
+        this.initialBackoffNanos = properties.getInitialBackoff().toNanos();
+        this.maxBackoffNanos = properties.getMaxBackoff().toNanos();
+        this.multiplier = Math.max(1.0, properties.getMultiplier());
+        this.budget = new RetryBudget(properties.getBudget());
+
+        this.retried = counter(registry, implementation, "retried", "Novas tentativas após conflito de lock");
+        this.recovered = counter(registry, implementation, "recovered", "Transferências concluídas após ao menos uma nova tentativa");
+        this.exhausted = counter(registry, implementation, "exhausted", "Transferências que esgotaram as tentativas");
+        this.budgetExhausted = counter(registry, implementation, "budget_exhausted", "Transferências sem orçamento de retentativa para as contas");
+    }
+
+    private static Counter counter(MeterRegistry registry, String implementation, String result, String description) {
+        return Counter.builder("beneficio.transfer.retry")
+                .description(description)
+                .tag("implementation", implementation)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public void setConflictListener(ConflictListener conflictListener) {
+        this.conflictListener = conflictListener;
+    }
+
+    @Override
+    public void transfer(Long fromId, Long toId, BigDecimal amount) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            delegate.transfer(fromId, toId, amount);
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                delegate.transfer(fromId, toId, amount);
+                if (attempt > 1) {
+                    recovered.increment();
+                }
+                return;
+            } catch (RuntimeException ex) {
+                if (!isRetryable(ex)) {
+                    throw ex;
+                }
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    log.debug("Transferência desistiu após {} tentativas: from={} to={}", attempt, fromId, toId);
+                    throw ex;
+                }
+                if (!budget.tryAcquire(fromId, toId)) {
+                    budgetExhausted.increment();
+                    log.debug("Sem orçamento de retentativa: from={} to={}", fromId, toId);
+                    throw ex;
+                }
+                retried.increment();
+                conflictListener.onConflict(fromId, toId);
+                backOff(attempt, ex);
+            }
+        }
+    }
+
+    /**
+     * Lotes usam lock pessimista e não sofrem conflito otimista; seguem sem retentativa.
+     */
+    @Override
+    public List<TransferItemResult> transferBatch(List<TransferRequestDTO> transfers, TransferBatchMode mode) {
+        return delegate.transferBatch(transfers, mode);
+    }
+
+    /**
+     * Conflito de lock otimista, timeout de lock ou deadlock: outra tentativa, em uma
+     * transação nova, tem chance real de passar.
+     */
+    static boolean isRetryable(Throwable ex) {
+        if (TransferOutcome.classify(ex) == TransferOutcome.OPTIMISTIC_CONFLICT) {
+            return true;
+        }
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConcurrencyFailureException
+                    || t instanceof PessimisticLockException
+                    || t instanceof LockTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Full jitter: espera um tempo sorteado entre zero e o teto exponencial da tentativa.
+     */
+    private void backOff(int attempt, RuntimeException cause) {
+        double ceiling = initialBackoffNanos * Math.pow(multiplier, attempt - 1);
+        long bound = (long) Math.min(maxBackoffNanos, ceiling);
+        if (bound <= 0) {
+            return;
+        }
+        long sleep = ThreadLocalRandom.current().nextLong(bound + 1);
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleep);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.example.backend.integration.retry;
+
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.BeneficioTransferPortDecorator;
+import com.example.backend.integration.BeneficioTransferProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(prefix = "beneficio.transfer.retry", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TransferRetryConfig {
+
+    // 'static': BeanPostProcessors são criados antes dos demais beans desta configuração.
+    @Bean
+    static TransferRetryPostProcessor transferRetryPostProcessor(ObjectProvider<MeterRegistry> registry,
+                                                                 ObjectProvider<BeneficioTransferProperties> properties) {
+        return new TransferRetryPostProcessor(registry, properties);
+    }
+
+    /**
+     * Envolve todo bean BeneficioTransferPort com o RetryingBeneficioTransferPort.
+     *
+     * Ordered: roda depois do post-processor de AOP (que cria o proxy transacional) e do de
+     * invalidação do cache, e antes do de métricas (que não é ordenado), resultando em
+     * Métricas → Retentativa → Invalidação do cache → @Transactional.
+     */
+    static class TransferRetryPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<MeterRegistry> registry;
+
+        private final ObjectProvider<BeneficioTransferProperties> properties;
+
+        TransferRetryPostProcessor(ObjectProvider<MeterRegistry> registry,
+                                   ObjectProvider<BeneficioTransferProperties> properties) {
+            this.registry = registry;
+            this.properties = properties;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof BeneficioTransferPort port) || bean instanceof RetryingBeneficioTransferPort) {
+                return bean;
+            }
+            return new RetryingBeneficioTransferPort(
+                    port,
+                    BeneficioTransferPortDecorator.implementationName(port),
+                    registry.getIfAvailable(SimpleMeterRegistry::new),
+                    properties.getObject().getRetry());
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+    }
+
+}
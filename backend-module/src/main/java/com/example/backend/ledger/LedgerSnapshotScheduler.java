@@ -0,0 +1,84 @@
+package com.example.backend.ledger;
+
+import com.example.backend.integration.BeneficioTransferProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tira snapshots de saldo periodicamente ('beneficio.transfer.ledger.snapshot-interval'),
+ * só das contas com muitos lançamentos desde o último. Assim a reconstrução de um saldo
+ * passado lê no máximo da ordem de 'snapshot-min-entries' lançamentos por intervalo.
+ *
+ * Cada snapshot é uma transação curta que trava uma única conta.
+ */
+@Component
+public class LedgerSnapshotScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerSnapshotScheduler.class);
+
+    private final TransferLedger ledger;
+
+    private final BeneficioTransferProperties.Ledger properties;
+
+    private final ScheduledExecutorService scheduler;
+
+    public LedgerSnapshotScheduler(TransferLedger ledger, BeneficioTransferProperties properties) {
+        this.ledger = ledger;
+        this.properties = properties.getLedger();
+
+        long interval = this.properties.getSnapshotInterval().toMillis();
+        if (interval > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "ledger-snapshot");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleWithFixedDelay(this::safeRun, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Uma rodada de snapshots.
+     *
+     * @return Quantidade de snapshots gravados.
+     */
+    public int run() {
+        List<Long> contas = ledger.snapshotCandidates(properties.getSnapshotMinEntries(),
+                properties.getSnapshotMaxAccounts());
+        int gravados = 0;
+        for (Long id : contas) {
+            if (ledger.snapshot(id)) {
+                gravados++;
+            }
+        }
+        if (gravados > 0) {
+            log.info("Ledger snapshots written: {}", gravados);
+        }
+        return gravados;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void safeRun() {
+        try {
+            run();
+        } catch (RuntimeException ex) {
+            log.warn("Ledger snapshot run failed", ex);
+        }
+    }
+
+}
@@ -0,0 +1,243 @@
+package com.example.backend.ledger;
+
+import com.example.backend.dto.LedgerBalanceResponse;
+import com.example.backend.dto.LedgerEntryResponse;
+import com.example.backend.dto.LedgerPage;
+import com.example.backend.entity.LedgerEntry;
+import com.example.backend.integration.BeneficioSubsaldoStore;
+import com.example.backend.integration.TransferItemResult;
+import com.example.backend.money.Money;
+import com.example.backend.repository.LedgerEntryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+/**
+ * Histórico das movimentações de saldo: TRANSFER_LEDGER (lançamentos) e
+ * BENEFICIO_SALDO_SNAPSHOT (saldos de referência).
+ *
+ * Os lançamentos são gravados na mesma transação da movimentação, depois que as linhas
+ * alteradas já estão travadas, e o ID vem da sequence no 'persist'. Um snapshot tirado com a
+ * conta travada guarda o maior ID de lançamento da conta: os que ele inclui têm ID até esse
+ * corte, e os seguintes só recebem ID depois que o snapshot libera a conta, já acima dele
+ * (o otimizador pooled entrega os IDs em ordem crescente). O corte não depende do relógio:
+ * horários iguais ou um relógio que volta não tiram nem repetem lançamentos. O saldo em um
+ * instante é o último snapshot até ele mais a soma dos lançamentos acima do corte até o instante.
+ *
+ * Só o adaptador local grava o ledger; no modo EJB a transferência roda no servidor remoto.
+ */
+@Component
+public class TransferLedger {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final LedgerEntryRepository repository;
+
+    private final BeneficioSubsaldoStore subsaldos;
+
+    public TransferLedger(LedgerEntryRepository repository, BeneficioSubsaldoStore subsaldos) {
+        this.repository = repository;
+        this.subsaldos = subsaldos;
+    }
+
+    /**
+     * Registra o débito na origem e o crédito no destino. Deve ser chamado depois que as
+     * duas contas foram alteradas (e travadas) pela transação corrente.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransfer(Long fromId, Long toId, Money amount) {
+        persistTransfer(fromId, toId, amount, now());
+    }
+
+    /**
+     * Registra os itens aplicados de um lote, todos com o mesmo horário: o lote é uma
+     * movimentação só.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBatch(List<TransferItemResult> results) {
+        Instant at = now();
+        for (TransferItemResult r : results) {
+            if (r.isApplied()) {
+                persistTransfer(r.fromId(), r.toId(), Money.of(r.amount()), at);
+            }
+        }
+    }
+
+    /**
+     * Registra uma mudança de saldo fora de uma transferência (criação ou PUT). Sem efeito se
+     * 'delta' for zero.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAdjustment(Long id, Money delta) {
+        if (delta.signum() != 0) {
+            em.persist(new LedgerEntry(id, null, delta, LedgerEntry.Tipo.AJUSTE, now()));
+        }
+    }
+
+    /**
+     * Grava o saldo atual da conta como snapshot, com o maior ID de lançamento que ele inclui.
+     * A linha da conta e as faixas do saldo fracionado ficam travadas até o commit, então
+     * nenhuma movimentação acontece entre a leitura do saldo e a do corte. Sem lançamento novo
+     * desde o último snapshot, nada é gravado.
+     *
+     * @return false se a conta não existe mais.
+     */
+    @Transactional
+    public boolean snapshot(Long id) {
+        BeneficioSubsaldoStore.Saldo saldo;
+        try {
+            saldo = subsaldos.lock(id);
+        } catch (NoSuchElementException ex) {
+            return false;
+        }
+        Object[] cortes = (Object[]) em.createNativeQuery("""
+                        SELECT (SELECT COALESCE(MAX(ID), 0) FROM TRANSFER_LEDGER WHERE BENEFICIO_ID = ?1),
+                               (SELECT MAX(ULTIMO_LANCAMENTO_ID) FROM BENEFICIO_SALDO_SNAPSHOT WHERE BENEFICIO_ID = ?1)
+                        """)
+                .setParameter(1, id)
+                .getSingleResult();
+        long corte = ((Number) cortes[0]).longValue();
+        if (cortes[1] != null && ((Number) cortes[1]).longValue() == corte) {
+            return true;
+        }
+        em.createNativeQuery("""
+                        INSERT INTO BENEFICIO_SALDO_SNAPSHOT (BENEFICIO_ID, ULTIMO_LANCAMENTO_ID, CRIADO_EM, SALDO)
+                        VALUES (?1, ?2, ?3, ?4)
+                        """)
+                .setParameter(1, id)
+                .setParameter(2, corte)
+                .setParameter(3, Timestamp.from(now()))
+                .setParameter(4, saldo.total())
+                // Sem o espaço declarado, o Hibernate apagaria todo o cache de segundo nível no commit.
+                .setHint(HINT_NATIVE_SPACES, "BENEFICIO_SALDO_SNAPSHOT")
+                .executeUpdate();
+        return true;
+    }
+
+    /**
+     * Contas com ao menos 'minEntries' lançamentos depois do último snapshot.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> snapshotCandidates(int minEntries, int maxAccounts) {
+        return em.createNativeQuery("""
+                        SELECT l.BENEFICIO_ID FROM TRANSFER_LEDGER l
+                        WHERE l.ID > COALESCE((SELECT MAX(s.ULTIMO_LANCAMENTO_ID) FROM BENEFICIO_SALDO_SNAPSHOT s
+                                               WHERE s.BENEFICIO_ID = l.BENEFICIO_ID), 0)
+                        GROUP BY l.BENEFICIO_ID
+                        HAVING COUNT(*) >= ?1
+                        ORDER BY l.BENEFICIO_ID
+                        """, Long.class)
+                .setParameter(1, minEntries)
+                .setMaxResults(maxAccounts)
+                .getResultList()
+                .stream()
+                .map(id -> ((Number) id).longValue())
+                .toList();
+    }
+
+    /**
+     * Saldo da conta no instante 'at': o último snapshot até 'at' mais os lançamentos acima
+     * do corte dele, até 'at'. Só os lançamentos desde o snapshot são lidos.
+     *
+     * @throws NoSuchElementException se a conta não tem nenhum histórico.
+     */
+    @Transactional(readOnly = true)
+    public LedgerBalanceResponse balanceAt(Long id, Instant at) {
+        List<?> snapshots = em.createNativeQuery("""
+                        SELECT CRIADO_EM, SALDO, ULTIMO_LANCAMENTO_ID FROM BENEFICIO_SALDO_SNAPSHOT
+                        WHERE BENEFICIO_ID = ?1 AND CRIADO_EM <= ?2
+                        ORDER BY ULTIMO_LANCAMENTO_ID DESC
+                        """)
+                .setParameter(1, id)
+                .setParameter(2, Timestamp.from(at))
+                .setMaxResults(1)
+                .getResultList();
+        Instant snapshotEm = null;
+        BigDecimal saldo = BigDecimal.ZERO;
+        long corte = 0;
+        if (!snapshots.isEmpty()) {
+            Object[] row = (Object[]) snapshots.get(0);
+            snapshotEm = toInstant(row[0]);
+            saldo = (BigDecimal) row[1];
+            corte = ((Number) row[2]).longValue();
+        }
+
+        Object[] replay = (Object[]) em.createNativeQuery("""
+                        SELECT COALESCE(SUM(VALOR), 0), COUNT(*) FROM TRANSFER_LEDGER
+                        WHERE BENEFICIO_ID = ?1 AND ID > ?2 AND CRIADO_EM <= ?3
+                        """)
+                .setParameter(1, id)
+                .setParameter(2, corte)
+                .setParameter(3, Timestamp.from(at))
+                .getSingleResult();
+        long aplicados = ((Number) replay[1]).longValue();
+        if (snapshotEm == null && aplicados == 0 && !hasHistory(id)) {
+            throw new NoSuchElementException("Beneficio não encontrado");
+        }
+        return new LedgerBalanceResponse(id, at, Money.of(saldo.add((BigDecimal) replay[0])), snapshotEm, aplicados);
+    }
+
+    /**
+     * Extrato da conta por cursor, do lançamento mais novo para o mais antigo.
+     *
+     * @param before Só lançamentos com ID menor (null: a partir do mais novo).
+     */
+    @Transactional(readOnly = true)
+    public LedgerPage page(Long id, Long before, int limit) {
+        List<LedgerEntryResponse> items = repository.findPage(id, before == null ? Long.MAX_VALUE : before,
+                Limit.of(limit + 1));
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            return new LedgerPage(items, items.get(limit - 1).id());
+        }
+        return new LedgerPage(items, null);
+    }
+
+    private void persistTransfer(Long fromId, Long toId, Money amount, Instant at) {
+        // Os INSERTs só saem no flush do commit, agrupados em lotes JDBC.
+        em.persist(new LedgerEntry(fromId, toId, amount.negate(), LedgerEntry.Tipo.TRANSFERENCIA, at));
+        em.persist(new LedgerEntry(toId, fromId, amount, LedgerEntry.Tipo.TRANSFERENCIA, at));
+    }
+
+    private boolean hasHistory(Long id) {
+        return !em.createNativeQuery("""
+                        SELECT 1 FROM BENEFICIO_SALDO_SNAPSHOT WHERE BENEFICIO_ID = ?1
+                        UNION ALL
+                        SELECT 1 FROM TRANSFER_LEDGER WHERE BENEFICIO_ID = ?1
+                        """)
+                .setParameter(1, id)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Timestamp ts) {
+            return ts.toInstant();
+        }
+        if (value instanceof LocalDateTime ldt) {
+            return Timestamp.valueOf(ldt).toInstant();
+        }
+        return (Instant) value;
+    }
+
+    // Mesma precisão das colunas TIMESTAMP: o horário gravado é o mesmo devolvido no extrato.
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.example.backend.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+
+/**
+ * Valor monetário em centavos, guardado num 'long'.
+ *
+ * VALOR é DECIMAL(15,2): qualquer saldo cabe num 'long' de centavos, e as contas do caminho
+ * das transferências (comparar, debitar, creditar) viram operações de 'long' sem alocar
+ * BigDecimal. As operações conferem overflow ('Math.addExact'), lançando ArithmeticException.
+ *
+ * Imutável. No banco é um DECIMAL (MoneyConverter); no JSON é um número com duas casas
+ * decimais, lido e escrito direto do texto, sem BigDecimal intermediário.
+ */
+@JsonSerialize(using = MoneyJsonSerializer.class)
+@JsonDeserialize(using = MoneyJsonDeserializer.class)
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100};
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * @throws IllegalArgumentException se o valor tiver mais de duas casas decimais
+     *                                  significativas ou não couber em centavos.
+     */
+    public static Money of(BigDecimal value) {
+        try {
+            return ofCents(value.movePointRight(SCALE).longValueExact());
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("O valor deve ter no máximo " + SCALE + " casas decimais: " + value);
+        }
+    }
+
+    /**
+     * Null-safe: null se 'value' for null.
+     */
+    public static Money ofNullable(BigDecimal value) {
+        return value == null ? null : of(value);
+    }
+
+    public static Money parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Lê um decimal ('-12', '12.5', '12.50', '+0.07') de 'text[start, end)' sem criar objetos
+     * intermediários. Zeros à direita além da segunda casa são aceitos; outros dígitos, não.
+     *
+     * @throws IllegalArgumentException se o texto não for um decimal válido com até duas casas.
+     */
+    public static Money parse(CharSequence text, int start, int end) {
+        try {
+            return parseCents(text, start, end);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Valor fora do limite: " + text.subSequence(start, end));
+        }
+    }
+
+    private static Money parseCents(CharSequence text, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long units = 0;
+        int digits = 0;
+        for (; i < end && text.charAt(i) != '.'; i++, digits++) {
+            units = Math.addExact(Math.multiplyExact(units, 10), digit(text, i, start, end));
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < end) {
+            for (i++; i < end; i++, fractionDigits++) {
+                int d = digit(text, i, start, end);
+                if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + d;
+                } else if (d != 0) {
+                    throw new IllegalArgumentException("O valor deve ter no máximo " + SCALE + " casas decimais: "
+                            + text.subSequence(start, end));
+                }
+            }
+        }
+        if (digits + fractionDigits == 0) {
+            throw invalid(text, start, end);
+        }
+        long cents = Math.addExact(Math.multiplyExact(units, 100),
+                fraction * POWERS_OF_TEN[SCALE - Math.min(fractionDigits, SCALE)]);
+        return ofCents(negative ? -cents : cents);
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return other.cents == 0 ? this : ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return other.cents == 0 ? this : ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * Null-safe: null se 'value' for null.
+     */
+    public static BigDecimal toBigDecimal(Money value) {
+        return value == null ? null : value.toBigDecimal();
+    }
+
+    /**
+     * Escreve o valor ('-1234.05') em 'buffer' a partir de 'offset'; são necessários até 21
+     * caracteres.
+     *
+     * @return A posição seguinte ao último caractere escrito.
+     */
+    public int writeTo(char[] buffer, int offset) {
+        if (cents == Long.MIN_VALUE) {
+            String text = toBigDecimal().toPlainString();
+            text.getChars(0, text.length(), buffer, offset);
+            return offset + text.length();
+        }
+        long abs = Math.abs(cents);
+        int integerDigits = 1;
+        for (long rest = abs / 1000; rest > 0; rest /= 10) {
+            integerDigits++;
+        }
+        int end = offset + (cents < 0 ? 1 : 0) + integerDigits + 1 + SCALE;
+        // De trás para frente: centavos, ponto, parte inteira e sinal.
+        int pos = end;
+        for (int i = 0; i < SCALE; i++) {
+            buffer[--pos] = (char) ('0' + abs % 10);
+            abs /= 10;
+        }
+        buffer[--pos] = '.';
+        do {
+            buffer[--pos] = (char) ('0' + abs % 10);
+            abs /= 10;
+        } while (abs > 0);
+        if (cents < 0) {
+            buffer[--pos] = '-';
+        }
+        return end;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && other.cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        char[] buffer = new char[21];
+        return new String(buffer, 0, writeTo(buffer, 0));
+    }
+
+    private static int digit(CharSequence text, int i, int start, int end) {
+        char c = text.charAt(i);
+        if (c < '0' || c > '9') {
+            throw invalid(text, start, end);
+        }
+        return c - '0';
+    }
+
+    private static IllegalArgumentException invalid(CharSequence text, int start, int end) {
+        return new IllegalArgumentException("Valor inválido: " + text.subSequence(start, end));
+    }
+
+}
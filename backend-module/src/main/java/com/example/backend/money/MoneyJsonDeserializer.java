@@ -0,0 +1,55 @@
+package com.example.backend.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.CharBuffer;
+
+/**
+ * Lê um Money de um número ('100', '100.5', '100.50') ou de uma string com o mesmo formato.
+ *
+ * O texto do número é lido do buffer do parser, sem passar por BigDecimal. Só números em
+ * notação científica ('1e2') usam o caminho com BigDecimal.
+ */
+public class MoneyJsonDeserializer extends StdScalarDeserializer<Money> {
+
+    public MoneyJsonDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        try {
+            if (token == JsonToken.VALUE_NUMBER_INT && p.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                return Money.ofCents(Math.multiplyExact(p.getLongValue(), 100L));
+            }
+            if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT
+                    || token == JsonToken.VALUE_STRING) {
+                CharBuffer text = CharBuffer.wrap(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                if (token == JsonToken.VALUE_NUMBER_FLOAT && indexOfExponent(text) >= 0) {
+                    return Money.of(new BigDecimal(text.toString()));
+                }
+                return Money.parse(text);
+            }
+        } catch (IllegalArgumentException | ArithmeticException ex) {
+            return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), ex.getMessage());
+        }
+        return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+    }
+
+    private static int indexOfExponent(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == 'e' || c == 'E') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.example.backend.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Escreve um Money como número JSON com duas casas decimais ('1234.50'), direto dos centavos.
+ *
+ * Formatos binários (CBOR) gravariam os caracteres como texto; neles o valor sai como
+ * número decimal de verdade.
+ */
+public class MoneyJsonSerializer extends StdSerializer<Money> {
+
+    // Um buffer por thread: o gerador copia os caracteres na hora, então dá para reaproveitar.
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[21]);
+
+    public MoneyJsonSerializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public void serialize(Money value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (!gen.canWriteFormattedNumbers()) {
+            gen.writeNumber(value.toBigDecimal());
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        gen.writeNumber(buffer, 0, value.writeTo(buffer, 0));
+    }
+
+}
@@ -1,7 +1,130 @@
 package com.example.backend.repository;
 
+import com.example.backend.cache.BeneficioCache;
+import com.example.backend.cache.BeneficioCacheRegions;
+import com.example.backend.dto.BeneficioResponse;
 import com.example.backend.entity.Beneficio;
+import com.example.backend.money.Money;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FLUSH_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * As consultas de leitura projetam direto nos objetos devolvidos pela API (expressões
+ * 'SELECT new ...'): nenhuma entidade gerenciada é criada, então não há cópia para o dirty
+ * checking nem conversão depois. Rodam em transação somente leitura (o Spring coloca a
+ * Session em FlushMode.MANUAL e read-only) e com os mesmos hints na própria consulta, que
+ * valem também quando ela é chamada de dentro de uma transação de escrita.
+ */
 public interface BeneficioRepository extends JpaRepository<Beneficio, Long> {
+
+    /**
+     * Página da listagem por cursor: só linhas com ID maior que 'after', em ordem de ID.
+     * Projeta direto em BeneficioResponse, sem carregar entidades gerenciadas.
+     * O prefixo de nome já deve vir escapado e terminado em '%'.
+     *
+     * O valor é o saldo total (VALOR + faixas). Como as faixas nunca são negativas, os
+     * filtros comparam primeiro só VALOR, e a soma das faixas só entra nas contas fracionadas.
+     * Money não aceita aritmética no JPQL: a soma é feita sobre 'cast(... as BigDecimal)' e,
+     * na projeção, pelo construtor de BeneficioResponse.
+     *
+     * O resultado vai para o cache de consultas do Hibernate (região 'beneficio-listagem'),
+     * chaveado pelos parâmetros e pelo limite. Qualquer escrita confirmada em BENEFICIO
+     * descarta as páginas guardadas antes dela.
+     */
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = BeneficioCacheRegions.LISTAGEM)
+    })
+    @Query("""
+            SELECT new com.example.backend.dto.BeneficioResponse(b.id, b.nome, b.descricao, b.valor,
+                   b.valorSubsaldos, b.ativo, b.version)
+            FROM Beneficio b
+            WHERE b.id > :after
+              AND (:ativo IS NULL OR b.ativo = :ativo)
+              AND (:nomePrefix IS NULL OR b.nome LIKE :nomePrefix ESCAPE '\\')
+              AND (:valorMin IS NULL OR b.valor >= :valorMin
+                   OR (b.subsaldos > 0 AND cast(b.valor as BigDecimal) + cast(b.valorSubsaldos as BigDecimal)
+                       >= cast(:valorMin as BigDecimal)))
+              AND (:valorMax IS NULL OR (b.valor <= :valorMax
+                   AND (b.subsaldos = 0 OR cast(b.valor as BigDecimal) + cast(b.valorSubsaldos as BigDecimal)
+                       <= cast(:valorMax as BigDecimal))))
+            ORDER BY b.id
+            """)
+    List<BeneficioResponse> findPage(@Param("after") long after,
+                                     @Param("ativo") Boolean ativo,
+                                     @Param("nomePrefix") String nomePrefix,
+                                     @Param("valorMin") Money valorMin,
+                                     @Param("valorMax") Money valorMax,
+                                     Limit limit);
+
+    /**
+     * Todos os benefícios, projetados em BeneficioResponse, em ordem de ID.
+     */
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("""
+            SELECT new com.example.backend.dto.BeneficioResponse(b.id, b.nome, b.descricao, b.valor,
+                   b.valorSubsaldos, b.ativo, b.version)
+            FROM Beneficio b
+            ORDER BY b.id
+            """)
+    List<BeneficioResponse> findAllResponses();
+
+    /**
+     * A cópia imutável guardada pelo BeneficioCache (com a VERSION, usada como ETag), lida
+     * direto da linha, sem passar por uma entidade.
+     */
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("""
+            SELECT new com.example.backend.cache.BeneficioCache$Snapshot(b.id, b.nome, b.descricao, b.valor,
+                   b.valorSubsaldos, b.ativo, b.version, b.subsaldos)
+            FROM Beneficio b
+            WHERE b.id = :id
+            """)
+    Optional<BeneficioCache.Snapshot> findSnapshotById(@Param("id") Long id);
+
+    /**
+     * Percorre a tabela inteira em ordem de ID com um cursor forward-only do JDBC, já
+     * projetada em BeneficioResponse. As linhas são buscadas do banco em blocos de
+     * 'fetchSize'; o Stream precisa ser consumido (e fechado) dentro de uma transação.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+            SELECT new com.example.backend.dto.BeneficioResponse(b.id, b.nome, b.descricao, b.valor,
+                   b.valorSubsaldos, b.ativo, b.version)
+            FROM Beneficio b
+            ORDER BY b.id
+            """)
+    Stream<BeneficioResponse> streamAll();
+
 }
@@ -0,0 +1,28 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.LedgerEntryResponse;
+import com.example.backend.entity.LedgerEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    /**
+     * Extrato por cursor (keyset), do lançamento mais novo para o mais antigo: só IDs menores
+     * que 'before'. Usa o índice (BENEFICIO_ID, ID), sem OFFSET.
+     */
+    @Query("""
+            SELECT new com.example.backend.dto.LedgerEntryResponse(l.id, l.beneficioId, l.contraparteId, l.valor, l.tipo, l.criadoEm)
+            FROM LedgerEntry l
+            WHERE l.beneficioId = :beneficioId AND l.id < :before
+            ORDER BY l.id DESC
+            """)
+    List<LedgerEntryResponse> findPage(@Param("beneficioId") Long beneficioId,
+                                       @Param("before") long before,
+                                       Limit limit);
+
+}
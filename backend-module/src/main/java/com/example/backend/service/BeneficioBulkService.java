@@ -0,0 +1,335 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.BeneficioCache;
+import com.example.backend.dto.BeneficioBulkResponse;
+import com.example.backend.dto.BeneficioBulkResult;
+import com.example.backend.dto.BeneficioBulkUpdateRequest;
+import com.example.backend.dto.BeneficioRequest;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.events.BeneficioChange;
+import com.example.backend.events.BeneficioChangeFeed;
+import com.example.backend.integration.BeneficioSubsaldoStore;
+import com.example.backend.ledger.TransferLedger;
+import com.example.backend.money.Money;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Cadastro e atualização em massa (POST/PUT /api/v1/beneficios/bulk).
+ *
+ * O corpo é um array JSON lido elemento a elemento, sem materializar a lista inteira. Cada
+ * linha é convertida e validada sozinha: uma linha inválida vira um resultado REJECTED com os
+ * seus erros e não impede as outras.
+ *
+ * As linhas válidas são gravadas em blocos de CHUNK_SIZE, na mesma transação: o ID vem da
+ * sequence (pooled), então os INSERTs e UPDATEs de um bloco saem em lotes JDBC
+ * ('hibernate.jdbc.batch_size', 'order_inserts'/'order_updates'), e o contexto de persistência
+ * é esvaziado depois de cada bloco, mantendo a memória constante.
+ *
+ * Na atualização, todas as contas do corpo são travadas antes da primeira gravação, numa só
+ * passada em ordem crescente de ID, como no lote de transferências: travar bloco a bloco
+ * deixaria um bloco posterior pegar um ID menor que um já travado, e duas atualizações em
+ * massa (ou uma delas e um lote de transferências) poderiam esperar uma pela outra em ciclo.
+ * Por isso as linhas válidas da atualização (só os DTOs) ficam em memória até o fim da leitura.
+ *
+ * Um JSON malformado (o array não pode mais ser lido) desfaz tudo e responde 400.
+ */
+@Service
+public class BeneficioBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioBulkService.class);
+
+    // Linhas por flush/clear; múltiplo de 'hibernate.jdbc.batch_size'.
+    static final int CHUNK_SIZE = 500;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectReader createReader;
+
+    private final ObjectReader updateReader;
+
+    private final Validator validator;
+
+    private final BeneficioSubsaldoStore subsaldos;
+
+    private final TransferLedger ledger;
+
+    private final BeneficioCache cache;
+
+    private final BeneficioChangeFeed changeFeed;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public BeneficioBulkService(ObjectMapper objectMapper, Validator validator, BeneficioSubsaldoStore subsaldos,
+                                TransferLedger ledger, BeneficioCache cache, BeneficioChangeFeed changeFeed) {
+        this.objectMapper = objectMapper;
+        this.createReader = objectMapper.readerFor(BeneficioRequest.class);
+        this.updateReader = objectMapper.readerFor(BeneficioBulkUpdateRequest.class);
+        this.validator = validator;
+        this.subsaldos = subsaldos;
+        this.ledger = ledger;
+        this.cache = cache;
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * Cria um benefício por linha válida. Como no POST simples, 'ativo' ausente vira true e o
+     * saldo inicial entra no ledger como AJUSTE.
+     *
+     * @throws IllegalArgumentException se o corpo não for um array JSON bem formado.
+     */
+    @Transactional
+    public BeneficioBulkResponse create(InputStream body) throws IOException {
+        List<BeneficioBulkResult> results = new ArrayList<>();
+        int count = read(body, createReader, results, chunk -> writeChunk(chunk, this::insertChunk, results));
+        return finish(count, results);
+    }
+
+    /**
+     * Atualiza, por linha válida, o benefício do 'id' informado (substituição total, como no
+     * PUT /{id}). Todas as contas são travadas antes, em ordem crescente de ID.
+     *
+     * @throws IllegalArgumentException se o corpo não for um array JSON bem formado.
+     */
+    @Transactional
+    public BeneficioBulkResponse update(InputStream body) throws IOException {
+        List<BeneficioBulkResult> results = new ArrayList<>();
+        List<Row<BeneficioBulkUpdateRequest>> rows = new ArrayList<>();
+        int count = this.<BeneficioBulkUpdateRequest>read(body, updateReader, results, rows::addAll);
+
+        lockInAscendingOrder(rows);
+        for (int from = 0; from < rows.size(); from += CHUNK_SIZE) {
+            writeChunk(rows.subList(from, Math.min(from + CHUNK_SIZE, rows.size())), this::updateChunk, results);
+        }
+        return finish(count, results);
+    }
+
+    /**
+     * Lê o array linha a linha. As linhas inválidas vão direto para 'results'; as válidas são
+     * entregues a 'sink' em blocos de até CHUNK_SIZE (o bloco é reaproveitado depois).
+     *
+     * @return Quantidade de linhas lidas.
+     */
+    private <T extends BeneficioRequest> int read(InputStream body, ObjectReader reader,
+                                                  List<BeneficioBulkResult> results,
+                                                  Consumer<List<Row<T>>> sink) throws IOException {
+        List<Row<T>> chunk = new ArrayList<>(CHUNK_SIZE);
+        int index = 0;
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("O corpo deve ser um array JSON de benefícios");
+            }
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    throw new IllegalArgumentException("Array JSON incompleto após a linha " + index);
+                }
+                // A linha é lida como árvore: um erro de conversão fica nela e o parser segue no próximo elemento.
+                JsonNode node = parser.readValueAsTree();
+                List<String> errors = new ArrayList<>();
+                T row = convert(reader, node, errors);
+                if (row != null) {
+                    for (ConstraintViolation<T> violation : validator.validate(row)) {
+                        errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+                    }
+                }
+                if (errors.isEmpty()) {
+                    chunk.add(new Row<>(index, row));
+                    if (chunk.size() == CHUNK_SIZE) {
+                        sink.accept(chunk);
+                        chunk.clear();
+                    }
+                } else {
+                    errors.sort(null);
+                    results.add(BeneficioBulkResult.rejected(index, reader == updateReader ? idOf(node) : null, errors));
+                }
+                index++;
+            }
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("JSON inválido após a linha " + index + ": " + ex.getOriginalMessage());
+        }
+        if (!chunk.isEmpty()) {
+            sink.accept(chunk);
+        }
+        return index;
+    }
+
+    private static BeneficioBulkResponse finish(int count, List<BeneficioBulkResult> results) {
+        // Resultados na ordem das linhas recebidas.
+        results.sort((a, b) -> Integer.compare(a.index(), b.index()));
+        BeneficioBulkResponse response = BeneficioBulkResponse.from(results);
+        log.info("Bulk write finished: rows={} applied={} rejected={}", count, response.applied(), response.rejected());
+        return response;
+    }
+
+    private <T extends BeneficioRequest> void writeChunk(List<Row<T>> chunk, ChunkWriter<T> writer,
+                                                         List<BeneficioBulkResult> results) {
+        writer.write(chunk, results);
+        em.flush();
+        em.clear();
+    }
+
+    /**
+     * Trava as linhas de todas as contas atualizadas, em ordem crescente de ID, antes de
+     * qualquer gravação. As contas fracionadas travam também as faixas, logo depois da
+     * própria linha (mesma ordem de 'LocalBeneficioTransferService.transferBatch').
+     * IDs inexistentes são ignorados aqui e rejeitados na aplicação.
+     */
+    private void lockInAscendingOrder(List<Row<BeneficioBulkUpdateRequest>> rows) {
+        TreeSet<Long> ids = new TreeSet<>();
+        for (Row<BeneficioBulkUpdateRequest> row : rows) {
+            ids.add(row.request().getId());
+        }
+        List<Long> chunk = new ArrayList<>(Math.min(ids.size(), CHUNK_SIZE));
+        for (Long id : ids) {
+            if (subsaldos.isStriped(id)) {
+                lockChunk(chunk);
+                chunk.clear();
+                subsaldos.lock(id);
+                continue;
+            }
+            chunk.add(id);
+            if (chunk.size() == CHUNK_SIZE) {
+                lockChunk(chunk);
+                chunk.clear();
+            }
+        }
+        lockChunk(chunk);
+    }
+
+    private void lockChunk(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        // Só trava: as entidades são carregadas bloco a bloco, na aplicação.
+        em.createNativeQuery("SELECT ID FROM BENEFICIO WHERE ID IN (?1) ORDER BY ID FOR UPDATE")
+                .setParameter(1, ids)
+                .getResultList();
+    }
+
+    private void insertChunk(List<Row<BeneficioRequest>> chunk, List<BeneficioBulkResult> results) {
+        for (Row<BeneficioRequest> row : chunk) {
+            Beneficio b = row.request().toEntity();
+            if (b.getAtivo() == null) {
+                b.setAtivo(Boolean.TRUE);
+            }
+            // O ID vem do bloco já reservado na sequence: nenhum INSERT sai aqui.
+            em.persist(b);
+            ledger.recordAdjustment(b.getId(), b.getValor());
+            changeFeed.publishAfterCommit(BeneficioChange.created(b.getId(), b.getValor(), b.getAtivo()));
+            results.add(BeneficioBulkResult.created(row.index(), b.getId()));
+        }
+        // Nenhum ID em cache, mas a listagem mudou.
+        cache.invalidateAfterCommit(List.of());
+    }
+
+    private void updateChunk(List<Row<BeneficioBulkUpdateRequest>> chunk, List<BeneficioBulkResult> results) {
+        Set<Long> ids = new TreeSet<>();
+        for (Row<BeneficioBulkUpdateRequest> row : chunk) {
+            ids.add(row.request().getId());
+        }
+        // As linhas já foram travadas em 'lockInAscendingOrder'.
+        Map<Long, Beneficio> contas = new HashMap<>(ids.size() * 2);
+        em.createQuery("SELECT b FROM Beneficio b WHERE b.id IN :ids", Beneficio.class)
+                .setParameter("ids", ids)
+                .getResultList()
+                .forEach(b -> contas.put(b.getId(), b));
+
+        List<Long> updated = new ArrayList<>(contas.size());
+        for (Row<BeneficioBulkUpdateRequest> row : chunk) {
+            BeneficioBulkUpdateRequest req = row.request();
+            Beneficio current = contas.get(req.getId());
+            if (current == null) {
+                results.add(BeneficioBulkResult.rejected(row.index(), req.getId(), List.of("id: Beneficio não encontrado")));
+                continue;
+            }
+            apply(current, req);
+            updated.add(current.getId());
+            results.add(BeneficioBulkResult.updated(row.index(), current.getId()));
+        }
+        cache.invalidateAfterCommit(updated);
+    }
+
+    /**
+     * Mesmas regras do 'BeneficioSpringService.update': nas contas fracionadas, o valor é o
+     * novo saldo total, redistribuído pelas faixas; a diferença entra no ledger como AJUSTE.
+     */
+    private void apply(Beneficio current, BeneficioRequest req) {
+        Long id = current.getId();
+        // As faixas só são lidas nas contas fracionadas, que são poucas (já travadas em
+        // 'lockInAscendingOrder'): a consulta nativa esvazia o lote JDBC pendente.
+        BeneficioSubsaldoStore.Saldo saldo = current.isFracionado() ? subsaldos.lock(id) : null;
+        Money saldoAnterior = saldo != null ? Money.of(saldo.total()) : current.getSaldo();
+        Boolean ativoAnterior = current.getAtivo();
+
+        current.setNome(req.getNome());
+        current.setDescricao(req.getDescricao());
+        current.setAtivo(req.getAtivo());
+        if (saldo != null && saldo.faixas() > 0) {
+            subsaldos.spread(id, saldo.faixas(), req.getValor().toBigDecimal());
+            current.setValor(Money.ZERO);
+            current.setValorSubsaldos(req.getValor());
+        } else {
+            current.setValor(req.getValor());
+        }
+        // A linha já está travada: o lançamento (e o seu ID) vem depois do lock (ver TransferLedger).
+        ledger.recordAdjustment(id, req.getValor().minus(saldoAnterior));
+        changeFeed.publishAfterCommit(BeneficioChange.updated(id, saldoAnterior, req.getValor(), ativoAnterior,
+                current.getAtivo()));
+    }
+
+    private static <T> T convert(ObjectReader reader, JsonNode node, List<String> errors) {
+        if (!node.isObject()) {
+            errors.add("linha: deve ser um objeto JSON");
+            return null;
+        }
+        try {
+            return reader.readValue(node);
+        } catch (JsonMappingException ex) {
+            String field = ex.getPath().isEmpty() ? "linha" : ex.getPath().get(ex.getPath().size() - 1).getFieldName();
+            errors.add(field + ": " + ex.getOriginalMessage());
+            return null;
+        } catch (IOException ex) {
+            errors.add("linha: " + ex.getMessage());
+            return null;
+        }
+    }
+
+    // O 'id' informado na linha de atualização, quando for um número, para identificar a linha rejeitada.
+    private static Long idOf(JsonNode node) {
+        JsonNode id = node.get("id");
+        return id != null && id.canConvertToLong() ? id.asLong() : null;
+    }
+
+    private record Row<T>(int index, T request) {
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        void write(List<Row<T>> chunk, List<BeneficioBulkResult> results);
+    }
+
+}
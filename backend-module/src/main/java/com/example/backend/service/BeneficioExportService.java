@@ -0,0 +1,167 @@
+package com.example.backend.service;
+
+import com.example.backend.codec.BeneficioBinaryCodec;
+import com.example.backend.codec.PayloadFormatConfig;
+import com.example.backend.dto.BeneficioResponse;
+import com.example.backend.repository.BeneficioRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta a tabela BENEFICIO inteira em streaming, com uso de memória constante.
+ *
+ * As linhas vêm de um cursor forward-only ('BeneficioRepository.streamAll') já projetadas em
+ * BeneficioResponse: nenhuma entidade entra no contexto de persistência, e a saída é enviada
+ * ao cliente em blocos de FLUSH_EVERY linhas. Nada é acumulado por linha, então
+ * o heap fica estável com 1 mil ou 50 milhões de registros.
+ *
+ * NDJSON e CBOR usam um único gerador Jackson por exportação (os buffers internos vêm do
+ * reciclador do Jackson); o binário escreve os registros direto nos blocos do BeneficioBinaryCodec.
+ */
+@Service
+public class BeneficioExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioExportService.class);
+
+    // Quantidade de linhas entre dois flushes para o cliente.
+    static final int FLUSH_EVERY = 1000;
+
+    private static final String CSV_HEADER = "id,nome,descricao,valor,ativo\n";
+
+    private final BeneficioRepository repository;
+
+    private final ObjectWriter rowWriter;
+
+    private final ObjectWriter cborRowWriter;
+
+    private final BeneficioBinaryCodec binaryCodec;
+
+    public BeneficioExportService(BeneficioRepository repository, ObjectMapper objectMapper,
+                                  BeneficioBinaryCodec binaryCodec) {
+        this.repository = repository;
+        // Sem flush a cada valor: quem decide quando enviar um bloco é o laço de exportação.
+        this.rowWriter = objectMapper.writerFor(BeneficioResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+        this.cborRowWriter = PayloadFormatConfig.cbor(objectMapper).writerFor(BeneficioResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.binaryCodec = binaryCodec;
+    }
+
+    /**
+     * Escreve todos os benefícios no formato pedido.
+     *
+     * Uma IOException na escrita (ex: o cliente desconectou) interrompe a leitura,
+     * fecha o cursor e encerra a transação de leitura.
+     *
+     * @return A quantidade de linhas exportadas.
+     */
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<BeneficioResponse> rows = repository.streamAll()) {
+            Iterator<BeneficioResponse> it = rows.iterator();
+            long count = switch (format) {
+                case NDJSON -> writeSequence(rowWriter, it, out, true);
+                case CSV -> writeCsv(it, out);
+                case CBOR -> writeSequence(cborRowWriter, it, out, false);
+                case BINARY -> writeBinary(it, out);
+            };
+            log.debug("Exportação {} concluída: {} linhas", format, count);
+            return count;
+        } catch (IOException ex) {
+            log.debug("Exportação {} interrompida: {}", format, ex.getMessage());
+            throw ex;
+        }
+    }
+
+    // Um valor por linha (NDJSON) ou itens CBOR concatenados, que já são autodelimitados.
+    private long writeSequence(ObjectWriter writer, Iterator<BeneficioResponse> it, OutputStream out,
+                               boolean newline) throws IOException {
+        long count = 0;
+        try (JsonGenerator gen = writer.createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (it.hasNext()) {
+                writer.writeValue(gen, it.next());
+                if (newline) {
+                    gen.writeRaw('\n');
+                }
+                if (++count % FLUSH_EVERY == 0) {
+                    gen.flush();
+                }
+            }
+            gen.flush();
+        }
+        return count;
+    }
+
+    private long writeBinary(Iterator<BeneficioResponse> it, OutputStream out) throws IOException {
+        long count = binaryCodec.write(it, out, FLUSH_EVERY);
+        out.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<BeneficioResponse> it, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        while (it.hasNext()) {
+            BeneficioResponse b = it.next();
+            writer.write(String.valueOf(b.getId()));
+            writer.write(',');
+            writeCsvField(writer, b.getNome());
+            writer.write(',');
+            writeCsvField(writer, b.getDescricao());
+            writer.write(',');
+            writer.write(b.getValor().toString());
+            writer.write(',');
+            // Nulo vira campo vazio, como nos textos: é o que a importação lê como nulo.
+            if (b.getAtivo() != null) {
+                writer.write(b.getAtivo().toString());
+            }
+            writer.write('\n');
+            if (++count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Escreve um campo de texto no padrão RFC 4180: entre aspas quando contém vírgula,
+     * aspas ou quebra de linha, com as aspas internas duplicadas.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+}
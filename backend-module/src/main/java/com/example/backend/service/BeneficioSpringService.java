@@ -3,18 +3,39 @@
 package com.example.backend.service;
 
 // Importa a entidade de domínio. O serviço opera sobre estas entidades.
+import com.example.backend.cache.BeneficioCache;
+import com.example.backend.dto.BeneficioFilter;
+import com.example.backend.dto.BeneficioPage;
+import com.example.backend.dto.BeneficioResponse;
+import com.example.backend.dto.LedgerBalanceResponse;
+import com.example.backend.dto.LedgerPage;
+import com.example.backend.dto.TransferRequestDTO;
 import com.example.backend.entity.Beneficio;
+import com.example.backend.events.BeneficioChange;
+import com.example.backend.events.BeneficioChangeFeed;
 // Importa o "Port" de transferência. Isso sugere um padrão de design (Ports & Adapters)
 // onde a lógica de transferência complexa é abstraída para fora deste serviço.
+import com.example.backend.integration.BeneficioSubsaldoStore;
 import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.integration.TransferItemResult;
+import com.example.backend.integration.async.AsyncTransferExecutor;
+import com.example.backend.integration.async.TransferTicket;
+import com.example.backend.ledger.TransferLedger;
+import com.example.backend.money.Money;
 // Importa o repositório, que é a interface de acesso aos dados (camada de persistência).
 import com.example.backend.repository.BeneficioRepository;
 // Anotação para injeção de dependência (opcional em construtores mais recentes, mas boa para clareza).
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 // @Service marca esta classe como um componente de serviço gerenciado pelo Spring.
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 // Exceção padrão do Java usada quando um item não é encontrado.
 import java.util.NoSuchElementException;
@@ -28,6 +49,17 @@ import java.util.NoSuchElementException;
 @Service
 public class BeneficioSpringService {
 
+    /**
+     * Limite de itens por lote de transferências. Cada item pode travar até duas
+     * linhas até o fim da transação, então lotes maiores devem ser divididos pelo cliente.
+     */
+    public static final int MAX_TRANSFER_BATCH_SIZE = 10_000;
+
+    /**
+     * Tamanho máximo de uma página da listagem. Limita a memória usada por requisição.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
     // Dependência da camada de repositório (JPA).
     // É 'final' para garantir que seja inicializada no construtor (imutabilidade).
     private final BeneficioRepository repository;
@@ -37,6 +69,21 @@ public class BeneficioSpringService {
     // para este port, separando as responsabilidades (SRP).
     private final BeneficioTransferPort transferPort;
 
+    // Faixas do saldo fracionado das contas quentes.
+    private final BeneficioSubsaldoStore subsaldos;
+
+    // Cache das leituras por ID; toda escrita deste serviço invalida o ID depois do commit.
+    private final BeneficioCache cache;
+
+    // Filas por conta das transferências assíncronas.
+    private final AsyncTransferExecutor asyncTransfers;
+
+    // Histórico das movimentações: criação e PUT do saldo geram lançamentos de AJUSTE.
+    private final TransferLedger ledger;
+
+    // Mudanças de saldo e de situação, entregues depois do commit (ex: BeneficioStats).
+    private final BeneficioChangeFeed changeFeed;
+
     /**
      * Construtor para Injeção de Dependência (Constructor Injection).
      * Esta é a forma *preferida* de injeção no Spring.
@@ -45,20 +92,93 @@ public class BeneficioSpringService {
      *
      * @param repository A implementação do repositório gerenciada pelo Spring.
      * @param transferPort A implementação do port de transferência gerenciada pelo Spring.
+     * @param subsaldos As faixas do saldo fracionado.
+     * @param cache O cache das leituras por ID.
+     * @param asyncTransfers As filas das transferências assíncronas.
+     * @param ledger O histórico das movimentações de saldo.
+     * @param changeFeed O feed das mudanças confirmadas.
      */
     @Autowired // Opcional em construtores únicos, mas explícito.
-    public BeneficioSpringService(BeneficioRepository repository, BeneficioTransferPort transferPort) {
+    public BeneficioSpringService(BeneficioRepository repository, BeneficioTransferPort transferPort,
+                                  BeneficioSubsaldoStore subsaldos, BeneficioCache cache,
+                                  AsyncTransferExecutor asyncTransfers, TransferLedger ledger,
+                                  BeneficioChangeFeed changeFeed) {
         this.repository = repository;
         this.transferPort = transferPort;
+        this.subsaldos = subsaldos;
+        this.cache = cache;
+        this.asyncTransfers = asyncTransfers;
+        this.ledger = ledger;
+        this.changeFeed = changeFeed;
     }
 
     /**
      * Busca todos os benefícios.
-     * Simplesmente delega a chamada para o repositório.
-     * * @return Uma lista de todas as entidades 'Beneficio'.
+     * Simplesmente delega a chamada para o repositório, que projeta as linhas direto em DTOs
+     * (sem entidades gerenciadas nem cópia para o dirty checking).
+     * * @return Uma lista de todos os benefícios, com o saldo total.
      */
-    public List<Beneficio> listAll() {
-        return repository.findAll();
+    @Transactional(readOnly = true)
+    public List<BeneficioResponse> listAll() {
+        return repository.findAllResponses();
+    }
+
+    /**
+     * Busca uma página de benefícios usando paginação por cursor (keyset).
+     *
+     * Em vez de OFFSET (que obriga o banco a percorrer e descartar as linhas anteriores),
+     * a próxima página começa no primeiro ID maior que o último ID devolvido. O custo por
+     * página fica constante e a memória é limitada pelo tamanho da página.
+     *
+     * @param filter Filtros opcionais (situação, prefixo do nome, faixa de valor).
+     * @param after  Cursor: o último ID da página anterior (null para a primeira página).
+     * @param limit  Tamanho da página (1 a MAX_PAGE_SIZE).
+     * @return A página e o cursor da próxima (null se não houver mais linhas).
+     */
+    @Transactional(readOnly = true)
+    public BeneficioPage listPage(BeneficioFilter filter, Long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+        // Busca uma linha a mais só para saber se existe uma próxima página.
+        List<BeneficioResponse> rows = find(filter, after, Limit.of(limit + 1));
+        if (rows.size() <= limit) {
+            return new BeneficioPage(rows, null);
+        }
+        List<BeneficioResponse> items = rows.subList(0, limit);
+        return new BeneficioPage(items, items.get(limit - 1).getId());
+    }
+
+    /**
+     * Busca todos os benefícios que passam pelos filtros, sem paginação: o contrato da
+     * listagem para quem não manda 'after' nem 'limit'.
+     *
+     * @param filter Filtros opcionais (situação, prefixo do nome, faixa de valor).
+     * @return Os benefícios em ordem de ID.
+     */
+    @Transactional(readOnly = true)
+    public List<BeneficioResponse> listAll(BeneficioFilter filter) {
+        return find(filter, null, Limit.unlimited());
+    }
+
+    private List<BeneficioResponse> find(BeneficioFilter filter, Long after, Limit limit) {
+        BeneficioFilter f = filter == null ? BeneficioFilter.none() : filter;
+        String nomePrefix = f.nome() == null || f.nome().isEmpty() ? null : escapeLike(f.nome()) + "%";
+        return repository.findPage(after == null ? 0L : after,
+                f.ativo(), nomePrefix, toCents(f.valorMin(), RoundingMode.CEILING),
+                toCents(f.valorMax(), RoundingMode.FLOOR), limit);
+    }
+
+    // Limite da faixa em centavos, arredondado para dentro da faixa ('valorMin=10.001' só aceita 10.01).
+    private static Money toCents(BigDecimal limite, RoundingMode rounding) {
+        return limite == null ? null : Money.of(limite.setScale(Money.SCALE, rounding));
+    }
+
+    /**
+     * Escapa os curingas do LIKE ('%' e '_') para que o prefixo seja comparado literalmente.
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     /**
@@ -78,16 +198,55 @@ public class BeneficioSpringService {
         return repository.findById(id).orElseThrow(() -> new NoSuchElementException("Beneficio não encontrado: " + id));
     }
 
+    /**
+     * Busca um benefício pelo ID para exibição, passando pelo BeneficioCache.
+     *
+     * Diferente de 'getById', devolve um DTO (nunca a entidade) e pode não ir ao banco.
+     * Escritas confirmadas por esta instância nunca são mascaradas pelo cache.
+     *
+     * @param id O ID a ser buscado.
+     * @return O 'BeneficioResponse' com o saldo total.
+     * @throws NoSuchElementException se o ID não for encontrado no banco de dados.
+     */
+    public BeneficioResponse getResponse(Long id) {
+        return getSnapshot(id).toResponse();
+    }
+
+    /**
+     * Como 'getResponse', mas devolve a cópia em cache inteira, com a versão usada como ETag.
+     *
+     * @param id O ID a ser buscado.
+     * @return A cópia imutável do benefício.
+     * @throws NoSuchElementException se o ID não for encontrado no banco de dados.
+     */
+    public BeneficioCache.Snapshot getSnapshot(Long id) {
+        // Na falta, a cópia é projetada direto da linha (transação somente leitura, sem entidade).
+        // Só a falta abre transação: uma leitura servida pelo cache não pega conexão do pool.
+        return cache.get(id, key -> repository.findSnapshotById(key)
+                .orElseThrow(() -> new NoSuchElementException("Beneficio não encontrado: " + key)));
+    }
+
+    /**
+     * Marcador de mudança da listagem (ETag), sem consultar o banco.
+     * Deve ser lido *antes* de buscar a página, para que o ETag nunca seja mais novo que os dados.
+     */
+    public String listVersionTag() {
+        return cache.revisionTag();
+    }
+
     /**
      * Cria e persiste uma nova entidade 'Beneficio'.
      * Inclui lógica de negócios para definir valores padrão.
      * * @param b A entidade 'Beneficio' a ser criada (normalmente vinda de um DTO).
      * @return A entidade 'Beneficio' persistida (agora com um ID).
+     *
+     * O saldo inicial entra no ledger como AJUSTE, na mesma transação do INSERT.
      */
+    @Transactional
     public Beneficio create(Beneficio b) {
         // Lógica de negócios: Garante que um benefício novo nunca tenha valor nulo.
         if (b.getValor() == null) {
-            b.setValor(BigDecimal.ZERO);
+            b.setValor(Money.ZERO);
         }
         // Lógica de negócios: Garante que um benefício novo seja 'ativo' por padrão.
         if (b.getAtivo() == null) {
@@ -95,7 +254,12 @@ public class BeneficioSpringService {
         }
         // O método 'save' do Spring Data JPA é inteligente:
         // Se a entidade 'b' não tem ID (ou o ID é nulo), ele executa um INSERT.
-        return repository.save(b);
+        Beneficio created = repository.save(b);
+        ledger.recordAdjustment(created.getId(), created.getValor());
+        changeFeed.publishAfterCommit(BeneficioChange.created(created.getId(), created.getValor(), created.getAtivo()));
+        // Nenhum ID a remover do cache, mas a listagem mudou.
+        cache.invalidateAfterCommit(List.of(created.getId()));
+        return created;
     }
 
     /**
@@ -111,36 +275,136 @@ public class BeneficioSpringService {
      * JPA. As alterações (setters) seriam rastreadas (dirty checking) e
      * persistidas no commit da transação, tornando a chamada 'repository.save(current)'
      * tecnicamente redundante, mas ainda assim inofensiva e explícita.
+     *
+     * A transação é necessária nas contas com saldo fracionado: o valor informado é o novo
+     * saldo total, redistribuído pelas faixas junto com o UPDATE da própria linha.
      */
+    @Transactional
     public Beneficio update(Long id, Beneficio changes) {
+        return update(id, changes, null);
+    }
+
+    /**
+     * Atualização condicional (If-Match): só aplica as mudanças se o benefício ainda
+     * estiver em uma das versões informadas (tags de 'BeneficioCache.Snapshot.versionTag', ou '*').
+     *
+     * Quando a cópia em cache já prova que todas as versões informadas são antigas, falha sem
+     * nenhum SQL. Caso contrário, a checagem é feita na linha lida (e, nas contas fracionadas,
+     * com as faixas travadas), antes de qualquer escrita.
+     *
+     * @param expectedTags As versões aceitas, ou null para atualizar incondicionalmente.
+     * @throws VersionMismatchException se o benefício não estiver em nenhuma das versões.
+     */
+    @Transactional
+    public Beneficio update(Long id, Beneficio changes, Collection<String> expectedTags) {
+        if (expectedTags != null && !expectedTags.contains("*")) {
+            BeneficioCache.Snapshot cached = cache.peek(id);
+            if (cached != null && cached.version() != null
+                    && expectedTags.stream().allMatch(tag -> BeneficioCache.Snapshot.versionOf(tag) < cached.version())) {
+                throw new VersionMismatchException(id);
+            }
+        }
+
         // 1. Busca a entidade *atual* do banco. Isso garante que estamos
         //    atualizando um registro que realmente existe. 'current' é a entidade gerenciada.
         Beneficio current = getById(id);
+        // Nas contas fracionadas, as faixas ficam travadas até o commit: nenhum crédito
+        // muda o saldo entre a checagem da versão e a escrita.
+        BeneficioSubsaldoStore.Saldo saldo = current.isFracionado() ? subsaldos.lock(id) : null;
+        if (expectedTags != null && !expectedTags.contains("*")) {
+            String tag = BeneficioCache.Snapshot.versionTag(current.getVersion(), current.isFracionado(),
+                    saldo != null ? Money.of(saldo.total()) : current.getSaldo());
+            if (!expectedTags.contains(tag)) {
+                throw new VersionMismatchException(id);
+            }
+        }
+
+        Money saldoAnterior = saldo != null ? Money.of(saldo.total()) : current.getSaldo();
+        Boolean ativoAnterior = current.getAtivo();
 
         // 2. Aplica manualmente as mudanças da entidade 'changes' (vinda da requisição)
         //    para a entidade 'current' (vinda do banco).
         current.setNome(changes.getNome());
         current.setDescricao(changes.getDescricao());
-        current.setValor(changes.getValor());
         current.setAtivo(changes.getAtivo());
+        if (saldo != null && changes.getValor() != null) {
+            if (saldo.faixas() > 0) {
+                subsaldos.spread(id, saldo.faixas(), changes.getValor().toBigDecimal());
+                current.setValor(Money.ZERO);
+                current.setValorSubsaldos(changes.getValor());
+            } else {
+                current.setValor(changes.getValor());
+            }
+        } else {
+            current.setValor(changes.getValor());
+        }
 
         // 3. O método 'save' do Spring Data JPA, quando usado em uma entidade
         //    que *já tem* um ID e foi carregada do banco, executa um UPDATE.
-        return repository.save(current);
+        //    O flush trava a linha antes do lançamento no ledger (ver TransferLedger).
+        Beneficio saved = repository.saveAndFlush(current);
+        if (changes.getValor() != null) {
+            ledger.recordAdjustment(id, changes.getValor().minus(saldoAnterior));
+        }
+        changeFeed.publishAfterCommit(BeneficioChange.updated(id, saldoAnterior, saved.getSaldo(), ativoAnterior,
+                saved.getAtivo()));
+        cache.invalidateAfterCommit(List.of(id));
+        return saved;
+    }
+
+    /**
+     * Extrato da conta no ledger, por cursor (keyset), do lançamento mais novo para o mais antigo.
+     *
+     * @param before Cursor da página anterior ('nextCursor'), ou null para a primeira.
+     * @param limit  Tamanho da página (1 a MAX_PAGE_SIZE).
+     */
+    public LedgerPage ledgerPage(Long id, Long before, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+        return ledger.page(id, before, limit);
+    }
+
+    /**
+     * Saldo da conta no instante informado, reconstruído do último snapshot anterior a ele.
+     */
+    public LedgerBalanceResponse balanceAt(Long id, Instant at) {
+        if (at == null) {
+            throw new IllegalArgumentException("O instante deve ser informado");
+        }
+        return ledger.balanceAt(id, at);
+    }
+
+    /**
+     * Fraciona o saldo de uma conta quente em 'quantidade' faixas (0 desfaz o fracionamento).
+     * O saldo total não muda; créditos passam a ir para as faixas em vez da linha da conta.
+     *
+     * @param id O ID do benefício.
+     * @param quantidade Quantidade de faixas (0 a 'beneficio.transfer.striping.max-stripes').
+     * @return O benefício com o saldo total após a mudança.
+     */
+    public Beneficio configureSubsaldos(Long id, int quantidade) {
+        subsaldos.configure(id, quantidade);
+        cache.invalidate(List.of(id));
+        return getById(id);
     }
 
     /**
      * Deleta um benefício pelo seu ID.
      *
      * @param id O ID do benefício a ser deletado.
+     *
+     * A linha é lida antes da remoção, na mesma transação, para que o saldo e a situação
+     * removidos cheguem ao feed de mudanças. Um ID inexistente não faz nada.
      */
+    @Transactional
     public void delete(Long id) {
-        // Delega a operação diretamente para o repositório.
-        // O Spring Data JPA lidará com a busca e exclusão.
-        // Se o ID não existir, ele pode (dependendo da configuração)
-        // lançar uma EmptyResultDataAccessException, que também deve ser
-        // tratada pelo @ControllerAdvice.
-        repository.deleteById(id);
+        // Delega a operação para o repositório: o Spring Data JPA remove a entidade carregada.
+        repository.findById(id).ifPresent(b -> {
+            repository.delete(b);
+            changeFeed.publishAfterCommit(BeneficioChange.deleted(id, b.getSaldo(), b.getAtivo()));
+        });
+        cache.invalidateAfterCommit(List.of(id));
     }
 
     /**
@@ -159,4 +423,41 @@ public class BeneficioSpringService {
         transferPort.transfer(fromId, toId, amount);
     }
 
+    /**
+     * Enfileira uma transferência para execução assíncrona, sem ocupar uma conexão do banco.
+     * O resultado é consultado depois pelo ticket ('getTransferTicket').
+     *
+     * @throws IllegalArgumentException se os argumentos forem inválidos.
+     * @throws com.example.backend.integration.async.TransferQueueFullException se a fila da conta estiver cheia.
+     */
+    public TransferTicket transferAsync(Long fromId, Long toId, BigDecimal amount) {
+        return asyncTransfers.submit(fromId, toId, amount);
+    }
+
+    /**
+     * @throws NoSuchElementException se o ticket não existir ou já tiver expirado.
+     */
+    public TransferTicket getTransferTicket(String ticketId) {
+        return asyncTransfers.find(ticketId)
+                .orElseThrow(() -> new NoSuchElementException("Ticket de transferência não encontrado: " + ticketId));
+    }
+
+    /**
+     * Orquestra um lote de transferências, delegando ao Port a execução atômica
+     * (ou best-effort) de todos os itens.
+     *
+     * @param transfers Itens do lote, na ordem em que devem ser aplicados.
+     * @param mode ALL_OR_NOTHING (padrão) ou BEST_EFFORT.
+     * @return Um resultado por item, na mesma ordem recebida.
+     */
+    public List<TransferItemResult> transferBatch(List<TransferRequestDTO> transfers, TransferBatchMode mode) {
+        if (transfers == null || transfers.isEmpty()) {
+            throw new IllegalArgumentException("O lote deve conter ao menos uma transferência");
+        }
+        if (transfers.size() > MAX_TRANSFER_BATCH_SIZE) {
+            throw new IllegalArgumentException("O lote excede o limite de " + MAX_TRANSFER_BATCH_SIZE + " transferências");
+        }
+        return transferPort.transferBatch(transfers, mode == null ? TransferBatchMode.ALL_OR_NOTHING : mode);
+    }
+
 }
\ No newline at end of file
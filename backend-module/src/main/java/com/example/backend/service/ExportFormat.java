@@ -0,0 +1,71 @@
+package com.example.backend.service;
+
+import com.example.backend.codec.BeneficioBinaryCodec;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Formatos suportados pela exportação em streaming.
+ */
+public enum ExportFormat {
+
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv"),
+    // Sequência de itens CBOR, um por benefício (RFC 8742): o equivalente binário do NDJSON.
+    CBOR(MediaType.parseMediaType("application/cbor-seq"), "cbor"),
+    // Registros de 24 bytes (id, centavos, version); ver BeneficioBinaryCodec.
+    BINARY(BeneficioBinaryCodec.MEDIA_TYPE, "bin");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * O formato do parâmetro 'format' ou, sem ele, o primeiro do Accept que a exportação
+     * produz ('application/cbor' vale como CBOR). Sem nenhum, NDJSON.
+     */
+    public static ExportFormat negotiate(String format, List<MediaType> accept) {
+        if (format != null) {
+            return parse(format);
+        }
+        List<MediaType> sorted = new ArrayList<>(accept);
+        MimeTypeUtils.sortBySpecificity(sorted);
+        for (MediaType requested : sorted) {
+            if (requested.isWildcardType()) {
+                break;
+            }
+            for (ExportFormat f : values()) {
+                if (requested.isCompatibleWith(f.mediaType)
+                        || (f == CBOR && requested.isCompatibleWith(MediaType.APPLICATION_CBOR))) {
+                    return f;
+                }
+            }
+        }
+        return NDJSON;
+    }
+
+    public static ExportFormat parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            throw new IllegalArgumentException("Formato de exportação não suportado: " + value);
+        }
+    }
+
+}
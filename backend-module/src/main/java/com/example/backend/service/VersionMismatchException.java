@@ -0,0 +1,22 @@
+package com.example.backend.service;
+
+/**
+ * A escrita informou uma versão (If-Match) que não é mais a atual do benefício.
+ *
+ * Mapeada para HTTP 412 pelo RestExceptionHandler: o cliente deve buscar o benefício
+ * de novo antes de repetir a escrita.
+ */
+public class VersionMismatchException extends RuntimeException {
+
+    private final Long id;
+
+    public VersionMismatchException(Long id) {
+        super("O benefício " + id + " mudou desde a versão informada; busque-o novamente antes de atualizar.");
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+}
@@ -0,0 +1,478 @@
+package com.example.backend.stats;
+
+import com.example.backend.dto.BeneficioStatsResponse;
+import com.example.backend.events.BeneficioChange;
+import com.example.backend.events.BeneficioChangeListener;
+import com.example.backend.money.Money;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Totais dos benefícios mantidos em memória: saldo total, contas ativas e inativas e as de
+ * maior saldo. A leitura ('snapshot') não consulta o banco: O(1) para os totais e O(N) para
+ * as N maiores contas.
+ *
+ * - Carga inicial: uma única varredura da tabela, em streaming, ao subir a aplicação.
+ * - Atualização: incremental, a cada mudança confirmada (BeneficioChangeFeed) de criação,
+ *   alteração, remoção e transferência local.
+ * - Reconciliação: a cada 'reconcile-interval', os totais e o ranking são conferidos com
+ *   agregações SQL, o que também corrige o que não passa pelo feed (ex: transferências EJB).
+ *
+ * O ranking guarda até 'top-capacity' contas e é sempre o topo exato da tabela: quem está
+ * fora dele tem saldo menor ou igual ao último. Uma conta que cai abaixo do último sai do
+ * ranking; um crédito de saldo desconhecido (ATOMIC_SQL, contas fracionadas) em uma conta
+ * fora dele, ou um ranking reduzido a menos da metade, agenda uma recarga do banco.
+ */
+@Component
+public class BeneficioStats implements BeneficioChangeListener, SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioStats.class);
+
+    /**
+     * Maior N aceito em 'snapshot'.
+     */
+    public static final int MAX_TOP = 100;
+
+    // Mudanças guardadas durante uma reconciliação, para reaplicar sobre o resultado do SQL.
+    static final int MAX_PENDING = 100_000;
+
+    private static final int FETCH_SIZE = 500;
+
+    // Mesma soma do @Formula de Beneficio.valorSubsaldos.
+    private static final String SALDO = "COALESCE(b.VALOR, 0) + CASE WHEN b.SUBSALDOS > 0 THEN "
+            + "(SELECT COALESCE(SUM(s.VALOR), 0) FROM BENEFICIO_SUBSALDO s WHERE s.BENEFICIO_ID = b.ID) ELSE 0 END";
+
+    private static final String SCAN_SQL = "SELECT b.ID, b.ATIVO, " + SALDO + " FROM BENEFICIO b";
+
+    private static final String TOTALS_SQL = "SELECT COUNT(*), COUNT(CASE WHEN b.ATIVO IS NOT FALSE THEN 1 END), "
+            + "COALESCE(SUM(" + SALDO + "), 0) FROM BENEFICIO b";
+
+    private static final String TOP_SQL = "SELECT b.ID, " + SALDO + " AS SALDO FROM BENEFICIO b "
+            + "ORDER BY SALDO DESC, b.ID LIMIT ?";
+
+    // Do maior saldo para o menor; no empate, o menor ID primeiro.
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::cents).reversed()
+            .thenComparingLong(Entry::id);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readOnly;
+
+    private final int capacity;
+
+    private final long refreshDelay;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    // Uma carga ou reconciliação por vez.
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // --- guardados por 'lock' ---
+
+    private long saldoTotal;
+
+    private long ativos;
+
+    private long inativos;
+
+    private final TreeSet<Entry> top = new TreeSet<>(RANKING);
+
+    private final Map<Long, Entry> topById = new HashMap<>();
+
+    // O ranking tem todas as contas: qualquer saldo novo entra nele.
+    private boolean complete;
+
+    private boolean topStale;
+
+    // Criações, alterações e remoções aplicadas (transferências não mudam os totais).
+    private long totalChanges;
+
+    // Não nulo durante uma reconciliação.
+    private List<BeneficioChange> pending;
+
+    private boolean pendingOverflow;
+
+    private Instant reconciledAt;
+
+    public BeneficioStats(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                          BeneficioStatsProperties properties) {
+        if (properties.getTopCapacity() < 2 * MAX_TOP) {
+            throw new IllegalArgumentException("top-capacity deve ser pelo menos " + 2 * MAX_TOP);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnly.setReadOnly(true);
+        this.capacity = properties.getTopCapacity();
+        this.refreshDelay = properties.getTopRefreshDelay().toMillis();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "beneficio-stats");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = properties.getReconcileInterval().toMillis();
+        if (interval > 0) {
+            scheduler.scheduleWithFixedDelay(() -> safeReconcile(true), interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Carga inicial, depois que o schema e os dados iniciais existem e antes de a aplicação
+     * receber requisições.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        seed();
+    }
+
+    /**
+     * Os totais atuais e as 'n' contas de maior saldo.
+     *
+     * @throws IllegalArgumentException se 'n' não estiver entre 1 e MAX_TOP.
+     */
+    public BeneficioStatsResponse snapshot(int n) {
+        if (n < 1 || n > MAX_TOP) {
+            throw new IllegalArgumentException("top deve estar entre 1 e " + MAX_TOP);
+        }
+        lock.lock();
+        try {
+            List<BeneficioStatsResponse.Saldo> maiores = new ArrayList<>(Math.min(n, top.size()));
+            Iterator<Entry> it = top.iterator();
+            while (it.hasNext() && maiores.size() < n) {
+                Entry e = it.next();
+                maiores.add(new BeneficioStatsResponse.Saldo(e.id(), Money.ofCents(e.cents())));
+            }
+            return new BeneficioStatsResponse(Money.ofCents(saldoTotal), ativos + inativos, ativos, inativos,
+                    maiores, reconciledAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onCommit(List<BeneficioChange> changes) {
+        boolean refresh;
+        lock.lock();
+        try {
+            for (BeneficioChange c : changes) {
+                applyTotals(c);
+                applyTop(c);
+            }
+            if (pending != null) {
+                if (pending.size() + changes.size() > MAX_PENDING) {
+                    pendingOverflow = true;
+                } else {
+                    pending.addAll(changes);
+                }
+            }
+            refresh = topStale;
+        } finally {
+            lock.unlock();
+        }
+        if (refresh) {
+            scheduleRefresh();
+        }
+    }
+
+    /**
+     * Confere os totais e o ranking com o banco, corrigindo o que tiver divergido.
+     *
+     * Os totais só são substituídos se nenhuma criação, alteração ou remoção tiver sido aplicada
+     * durante a consulta (senão, não há como saber se o SQL já a viu); as transferências não
+     * mudam os totais. O ranking é sempre substituído, e as mudanças com saldo conhecido
+     * recebidas durante a consulta são reaplicadas sobre ele.
+     */
+    public void reconcile() {
+        reconcile(true);
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void seed() {
+        reconcileLock.lock();
+        try {
+            load();
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void reconcile(boolean totals) {
+        reconcileLock.lock();
+        try {
+            compare(totals);
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void load() {
+        Scan scan = new Scan();
+        begin();
+        try {
+            readOnly.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SCAN_SQL, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(FETCH_SIZE);
+                return ps;
+            }, scan));
+        } catch (RuntimeException ex) {
+            abort();
+            throw ex;
+        }
+        boolean refresh;
+        lock.lock();
+        try {
+            saldoTotal = scan.saldoTotal;
+            ativos = scan.ativos;
+            inativos = scan.inativos;
+            refresh = install(scan.top);
+            log.info("Beneficio stats loaded: accounts={} total={}", ativos + inativos, Money.ofCents(saldoTotal));
+        } finally {
+            lock.unlock();
+        }
+        if (refresh) {
+            scheduleRefresh();
+        }
+    }
+
+    private void compare(boolean totals) {
+        long changesBefore = begin();
+        Totals sql;
+        List<Entry> ranking;
+        try {
+            sql = totals ? jdbcTemplate.queryForObject(TOTALS_SQL,
+                    (rs, n) -> new Totals(rs.getLong(1), rs.getLong(2), cents(rs.getBigDecimal(3)))) : null;
+            ranking = jdbcTemplate.query(TOP_SQL, (rs, n) -> new Entry(rs.getLong(1), cents(rs.getBigDecimal(2))),
+                    capacity);
+        } catch (RuntimeException ex) {
+            abort();
+            throw ex;
+        }
+        boolean refresh;
+        lock.lock();
+        try {
+            if (sql != null && totalChanges == changesBefore) {
+                if (sql.saldoTotal() != saldoTotal || sql.ativos() != ativos || sql.quantidade() != ativos + inativos) {
+                    log.info("Beneficio stats drift corrected: total {} -> {}, active {} -> {}, accounts {} -> {}",
+                            Money.ofCents(saldoTotal), Money.ofCents(sql.saldoTotal()), ativos, sql.ativos(),
+                            ativos + inativos, sql.quantidade());
+                }
+                saldoTotal = sql.saldoTotal();
+                ativos = sql.ativos();
+                inativos = sql.quantidade() - sql.ativos();
+            } else if (sql != null) {
+                log.debug("Beneficio stats totals not reconciled: concurrent changes");
+            }
+            refresh = install(ranking);
+        } finally {
+            lock.unlock();
+        }
+        if (refresh) {
+            scheduleRefresh();
+        }
+    }
+
+    // Passa a guardar as mudanças recebidas até 'install' ou 'abort'.
+    private long begin() {
+        lock.lock();
+        try {
+            pending = new ArrayList<>();
+            pendingOverflow = false;
+            return totalChanges;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void abort() {
+        lock.lock();
+        try {
+            pending = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Troca o ranking pelo lido do banco e reaplica as mudanças guardadas. Chamado com 'lock'.
+     *
+     * @return true se o ranking ainda precisa ser recarregado.
+     */
+    private boolean install(Iterable<Entry> ranking) {
+        top.clear();
+        topById.clear();
+        for (Entry e : ranking) {
+            top.add(e);
+            topById.put(e.id(), e);
+        }
+        // O banco devolveu menos linhas do que o limite: não há nenhuma conta fora do ranking.
+        complete = top.size() < capacity;
+        topStale = pendingOverflow;
+        for (BeneficioChange c : pending) {
+            if (c.saldo() != null || c.kind() == BeneficioChange.Kind.DELETED) {
+                applyTop(c);
+            } else if (topById.containsKey(c.id()) || c.delta().signum() > 0) {
+                // Só a diferença é conhecida: não dá para saber se o SQL já a incluiu.
+                topStale = true;
+            }
+        }
+        pending = null;
+        reconciledAt = Instant.now();
+        return topStale;
+    }
+
+    private void applyTotals(BeneficioChange c) {
+        saldoTotal += c.delta().cents();
+        switch (c.kind()) {
+            case CREATED -> count(c.ativo(), 1);
+            case DELETED -> count(c.ativoAnterior(), -1);
+            case UPDATED -> {
+                count(c.ativoAnterior(), -1);
+                count(c.ativo(), 1);
+            }
+            case TRANSFER -> {
+                return;
+            }
+        }
+        totalChanges++;
+    }
+
+    // Sem situação definida conta como ativa, como nas transferências ('ATIVO IS NOT FALSE').
+    private void count(Boolean ativo, int delta) {
+        if (Boolean.FALSE.equals(ativo)) {
+            inativos += delta;
+        } else {
+            ativos += delta;
+        }
+    }
+
+    private void applyTop(BeneficioChange c) {
+        Entry old = topById.remove(c.id());
+        if (old != null) {
+            top.remove(old);
+        }
+        if (c.kind() != BeneficioChange.Kind.DELETED) {
+            long cents;
+            if (c.saldo() != null) {
+                cents = c.saldo().cents();
+            } else if (old != null) {
+                cents = old.cents() + c.delta().cents();
+            } else {
+                // Conta fora do ranking, saldo desconhecido: um crédito pode colocá-la nele.
+                if (complete || c.delta().signum() > 0) {
+                    topStale = true;
+                }
+                return;
+            }
+            offer(new Entry(c.id(), cents));
+        }
+        if (!complete && top.size() < capacity / 2) {
+            topStale = true;
+        }
+    }
+
+    private void offer(Entry e) {
+        // Abaixo do último (ou ranking vazio) sem ter todas as contas: pode haver saldos maiores fora.
+        if (!complete && (top.isEmpty() || RANKING.compare(e, top.last()) > 0)) {
+            return;
+        }
+        top.add(e);
+        topById.put(e.id(), e);
+        if (top.size() > capacity) {
+            topById.remove(top.pollLast().id());
+            complete = false;
+        }
+    }
+
+    private void scheduleRefresh() {
+        if (!scheduler.isShutdown() && refreshScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(() -> {
+                refreshScheduled.set(false);
+                safeReconcile(false);
+            }, refreshDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void safeReconcile(boolean totals) {
+        try {
+            reconcile(totals);
+        } catch (RuntimeException ex) {
+            log.warn("Beneficio stats reconciliation failed", ex);
+        }
+    }
+
+    private static long cents(BigDecimal value) {
+        return value == null ? 0 : Money.of(value).cents();
+    }
+
+    private record Entry(long id, long cents) {
+    }
+
+    private record Totals(long quantidade, long ativos, long saldoTotal) {
+    }
+
+    // Uma passada pela tabela: totais e as 'capacity' maiores contas.
+    private final class Scan implements RowCallbackHandler {
+
+        private final TreeSet<Entry> top = new TreeSet<>(RANKING);
+
+        private long saldoTotal;
+
+        private long ativos;
+
+        private long inativos;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long cents = cents(rs.getBigDecimal(3));
+            saldoTotal += cents;
+            boolean ativo = rs.getBoolean(2) || rs.wasNull();
+            if (ativo) {
+                ativos++;
+            } else {
+                inativos++;
+            }
+            Entry e = new Entry(rs.getLong(1), cents);
+            if (top.size() < capacity || RANKING.compare(e, top.last()) < 0) {
+                top.add(e);
+                if (top.size() > capacity) {
+                    top.pollLast();
+                }
+            }
+        }
+
+    }
+
+}
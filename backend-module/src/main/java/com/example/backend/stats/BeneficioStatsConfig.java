@@ -0,0 +1,9 @@
+package com.example.backend.stats;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BeneficioStatsProperties.class)
+public class BeneficioStatsConfig {
+}
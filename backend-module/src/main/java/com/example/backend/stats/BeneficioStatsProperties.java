@@ -0,0 +1,54 @@
+package com.example.backend.stats;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Estatísticas em memória dos benefícios (GET /api/v1/beneficios/stats).
+ */
+@ConfigurationProperties(prefix = "beneficio.stats")
+public class BeneficioStatsProperties {
+
+    /**
+     * Maiores saldos mantidos em memória. Quando remoções e débitos deixam o ranking com menos
+     * da metade, ele é recarregado do banco; deve ser pelo menos 2 x BeneficioStats.MAX_TOP.
+     */
+    private int topCapacity = 1000;
+
+    /**
+     * Intervalo da reconciliação com o banco (totais, contagens e ranking). 0 desliga.
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(5);
+
+    /**
+     * Espera antes de recarregar o ranking quando ele deixa de ser confiável (ex: crédito de
+     * saldo desconhecido em uma conta fora dele). Limita a uma consulta por intervalo.
+     */
+    private Duration topRefreshDelay = Duration.ofSeconds(1);
+
+    public int getTopCapacity() {
+        return topCapacity;
+    }
+
+    public void setTopCapacity(int topCapacity) {
+        this.topCapacity = topCapacity;
+    }
+
+    public Duration getReconcileInterval() {
+        return reconcileInterval;
+    }
+
+    public void setReconcileInterval(Duration reconcileInterval) {
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    public Duration getTopRefreshDelay() {
+        return topRefreshDelay;
+    }
+
+    public void setTopRefreshDelay(Duration topRefreshDelay) {
+        this.topRefreshDelay = topRefreshDelay;
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.example.backend.cache;
+
+import com.example.backend.entity.Beneficio;
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.service.BeneficioSpringService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BeneficioCacheTest {
+
+    @Autowired
+    private BeneficioSpringService service;
+
+    @Autowired
+    private BeneficioTransferPort port;
+
+    @Autowired
+    private BeneficioCache cache;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void repeatedReadsShouldBeServedFromCache() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(service.getResponse(1L).getValor().toBigDecimal()).isEqualByComparingTo("1000.00");
+        }
+
+        CacheStats stats = cache.getNativeCache().stats();
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(9);
+        assertThat(registry.get("cache.gets").tag("cache", "beneficios").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(9);
+    }
+
+    @Test
+    void writesShouldInvalidateCachedEntries() {
+        service.getResponse(1L);
+        service.getResponse(2L);
+
+        // Pelo port (como um chamador que não passa pelo serviço) e pelo serviço.
+        port.transfer(1L, 2L, new BigDecimal("100.00"));
+        assertThat(service.getResponse(1L).getValor().toBigDecimal()).isEqualByComparingTo("900.00");
+        assertThat(service.getResponse(2L).getValor().toBigDecimal()).isEqualByComparingTo("600.00");
+
+        service.transfer(2L, 1L, new BigDecimal("50.00"));
+        assertThat(service.getResponse(1L).getValor().toBigDecimal()).isEqualByComparingTo("950.00");
+
+        Beneficio changes = service.getById(1L);
+        changes.setNome("Beneficio A2");
+        service.update(1L, changes);
+        assertThat(service.getResponse(1L).getNome()).isEqualTo("Beneficio A2");
+
+        service.delete(2L);
+        assertThrows(NoSuchElementException.class, () -> service.getResponse(2L));
+    }
+
+    @Test
+    void failedTransferShouldLeaveCachedValueCorrect() {
+        service.getResponse(2L);
+
+        assertThrows(IllegalStateException.class, () -> port.transfer(2L, 1L, new BigDecimal("5000.00")));
+
+        assertThat(service.getResponse(2L).getValor().toBigDecimal()).isEqualByComparingTo("500.00");
+    }
+
+    @Test
+    void valueReadBeforeACommittedWriteShouldNotBeCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        // A leitura vê o saldo antigo; antes de ela terminar, outra transação confirma
+        // uma escrita e invalida o ID.
+        BeneficioCache.Snapshot stale = cache.get(1L, id -> {
+            loads.incrementAndGet();
+            Beneficio old = service.getById(id);
+            jdbcTemplate.update("UPDATE BENEFICIO SET VALOR = 1.00, VERSION = VERSION + 1 WHERE ID = 1");
+            cache.invalidate(List.of(id));
+            return BeneficioCache.Snapshot.of(old);
+        });
+        assertThat(stale.valor().toBigDecimal()).isEqualByComparingTo("1000.00");
+
+        assertThat(service.getResponse(1L).getValor().toBigDecimal()).isEqualByComparingTo("1.00");
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getNativeCache().stats().missCount()).isEqualTo(2);
+    }
+
+}
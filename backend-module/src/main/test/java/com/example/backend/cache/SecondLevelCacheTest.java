@@ -0,0 +1,189 @@
+package com.example.backend.cache;
+
+import com.example.backend.dto.BeneficioFilter;
+import com.example.backend.dto.BeneficioResponse;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.BeneficioTransferProperties;
+import com.example.backend.integration.TransferLockingStrategy;
+import com.example.backend.money.Money;
+import com.example.backend.service.BeneficioSpringService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "beneficio.cache.second-level.entity-maximum-size=8")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SecondLevelCacheTest {
+
+    private static final List<TransferLockingStrategy> STRATEGIES = List.of(TransferLockingStrategy.values());
+
+    @Autowired
+    private BeneficioSpringService service;
+
+    @Autowired
+    private BeneficioTransferPort port;
+
+    @Autowired
+    private BeneficioTransferProperties properties;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void readsByIdShouldComeFromTheRegionAndFollowEveryStrategy() {
+        service.getById(1L);
+        assertThat(emf.getCache().contains(Beneficio.class, 1L)).isTrue();
+        double hits = gets(BeneficioCacheRegions.ENTITY, "hit");
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("1000.00");
+        assertThat(gets(BeneficioCacheRegions.ENTITY, "hit")).isGreaterThan(hits);
+
+        BigDecimal expected = new BigDecimal("1000.00");
+        for (TransferLockingStrategy strategy : STRATEGIES) {
+            properties.setLocking(strategy);
+            port.transfer(2L, 1L, BigDecimal.TEN);
+            expected = expected.add(BigDecimal.TEN);
+            assertThat(service.getById(1L).getSaldo().toBigDecimal()).as(strategy.name()).isEqualByComparingTo(expected);
+        }
+
+        // Créditos nas faixas não tocam a linha de BENEFICIO: a entrada também é invalidada.
+        service.configureSubsaldos(1L, 4);
+        service.getById(1L);
+        port.transfer(2L, 1L, BigDecimal.TEN);
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo(expected.add(BigDecimal.TEN));
+    }
+
+    @Test
+    void cachedReadsShouldNeverBeOlderThanTheLastCommittedTransfer() throws Exception {
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<Future<?>> readers = new ArrayList<>();
+        BigDecimal expected = new BigDecimal("1000.00");
+        try {
+            // Leituras concorrentes com as transferências: carregam o benefício do banco no meio
+            // das escritas e tentam gravar no cache o que leram.
+            for (int r = 0; r < 2; r++) {
+                readers.add(pool.submit(() -> {
+                    while (!done.get()) {
+                        service.getById(1L);
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < 90; i++) {
+                properties.setLocking(STRATEGIES.get(i % STRATEGIES.size()));
+                port.transfer(2L, 1L, BigDecimal.ONE);
+                expected = expected.add(BigDecimal.ONE);
+                // Sem escrita em andamento, uma leitura depois do commit tem que ver o novo saldo.
+                assertThat(service.getById(1L).getSaldo().toBigDecimal())
+                        .as("transferência %d (%s)", i + 1, properties.getLocking())
+                        .isEqualByComparingTo(expected);
+            }
+        } finally {
+            done.set(true);
+            pool.shutdown();
+        }
+        for (Future<?> reader : readers) {
+            reader.get(1, TimeUnit.MINUTES);
+        }
+        assertThat(gets(BeneficioCacheRegions.ENTITY, "hit")).isPositive();
+    }
+
+    @Test
+    void readerStartedBeforeATransferShouldNotCacheWhatItRead() {
+        service.getById(1L);
+        // Deixa na região a trava de uma escrita por entidade, com a VERSION de antes dela.
+        properties.setLocking(TransferLockingStrategy.OPTIMISTIC);
+        port.transfer(2L, 1L, BigDecimal.TEN);
+
+        // Leitor em REPEATABLE READ: a foto do banco é tirada na primeira consulta, antes da
+        // transferência seguinte, e o benefício só é carregado (e posto no cache) depois dela.
+        TransactionTemplate reader = new TransactionTemplate(transactionManager);
+        reader.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        reader.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT VALOR FROM BENEFICIO WHERE ID = 1", BigDecimal.class);
+
+            properties.setLocking(TransferLockingStrategy.ATOMIC_SQL);
+            new TransactionTemplate(transactionManager, new DefaultTransactionDefinition(
+                    TransactionDefinition.PROPAGATION_REQUIRES_NEW)).executeWithoutResult(
+                    inner -> port.transfer(2L, 1L, BigDecimal.TEN));
+
+            assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("1010.00");
+        });
+
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("1020.00");
+    }
+
+    @Test
+    void listingShouldBeCachedUntilTheNextCommittedWrite() {
+        BeneficioFilter ricos = new BeneficioFilter(true, null, new BigDecimal("600.00"), null);
+        assertThat(ids(service.listPage(ricos, null, 10).items())).containsExactly(1L);
+        double hits = gets(BeneficioCacheRegions.LISTAGEM, "hit");
+        assertThat(ids(service.listPage(ricos, null, 10).items())).containsExactly(1L);
+        assertThat(gets(BeneficioCacheRegions.LISTAGEM, "hit")).isGreaterThan(hits);
+
+        // UPDATE nativo (ATOMIC_SQL): a página guardada não pode sobreviver ao commit.
+        properties.setLocking(TransferLockingStrategy.ATOMIC_SQL);
+        port.transfer(1L, 2L, new BigDecimal("500.00"));
+        List<BeneficioResponse> page = service.listPage(ricos, null, 10).items();
+        assertThat(ids(page)).containsExactly(2L);
+        assertThat(page.get(0).getValor()).isEqualTo(Money.parse("1000.00"));
+    }
+
+    @Test
+    void entityRegionShouldBeBoundedAndReportEvictions() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            Beneficio b = new Beneficio();
+            b.setNome("Beneficio " + i);
+            b.setValor(Money.parse("10.00"));
+            service.getById(service.create(b).getId());
+        }
+
+        // O Caffeine aplica o limite de forma assíncrona.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (registry.get("cache.evictions").tag("cache", BeneficioCacheRegions.ENTITY).functionCounter().count() == 0
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(registry.get("cache.evictions").tag("cache", BeneficioCacheRegions.ENTITY)
+                .functionCounter().count()).isPositive();
+    }
+
+    private double gets(String region, String result) {
+        return registry.get("cache.gets").tag("cache", region).tag("result", result).functionCounter().count();
+    }
+
+    private static List<Long> ids(List<BeneficioResponse> items) {
+        return items.stream().map(BeneficioResponse::getId).toList();
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.example.backend.codec;
+
+import com.example.backend.dto.BeneficioResponse;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.money.Money;
+import com.example.backend.service.BeneficioSpringService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class PayloadFormatTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BeneficioSpringService service;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void listShouldBeServedAsCborWhenAccepted() throws Exception {
+        HttpResponse<byte[]> response = get("/api/v1/beneficios", "application/cbor", null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/cbor");
+        assertThat(response.headers().allValues("Vary")).anySatisfy(v -> assertThat(v).containsIgnoringCase("accept"));
+        List<BeneficioResponse> rows = PayloadFormatConfig.cbor(objectMapper)
+                .readValue(response.body(), new TypeReference<List<BeneficioResponse>>() { });
+        assertThat(rows).extracting(BeneficioResponse::getNome).containsExactly("Beneficio A", "Beneficio B");
+        assertThat(rows.get(0).getValor()).isEqualTo(Money.parse("1000.00"));
+        assertThat(rows.get(0).getVersion()).isZero();
+
+        // O valor vai como número decimal CBOR, não como o texto "1000.00".
+        try (JsonParser parser = new CBORFactory().createParser(response.body())) {
+            while (parser.nextToken() != null && !"valor".equals(parser.currentName())) {
+                // avança até o primeiro 'valor'
+            }
+            assertThat(parser.nextToken()).isEqualTo(JsonToken.VALUE_NUMBER_FLOAT);
+            assertThat(parser.getDecimalValue()).isEqualByComparingTo("1000.00");
+        }
+    }
+
+    @Test
+    void listShouldBeServedAsFixedSizeRecordsWhenAccepted() throws Exception {
+        HttpResponse<byte[]> response = get("/api/v1/beneficios", "application/x-beneficio-saldo", null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).hasSize(2 * BeneficioBinaryCodec.RECORD_SIZE);
+        ByteBuffer records = ByteBuffer.wrap(response.body());
+        assertThat(records.getLong()).isEqualTo(1L);
+        assertThat(records.getLong()).isEqualTo(100_000L);
+        assertThat(records.getLong()).isZero();
+        assertThat(records.getLong()).isEqualTo(2L);
+        assertThat(records.getLong()).isEqualTo(50_000L);
+        assertThat(records.getLong()).isZero();
+    }
+
+    @Test
+    void listShouldStayJsonForWildcardAccept() throws Exception {
+        HttpResponse<byte[]> response = get("/api/v1/beneficios", "*/*", null);
+
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/json");
+        assertThat(new String(response.body())).contains("\"version\":0");
+    }
+
+    @Test
+    void exportShouldNegotiateBinaryFormats() throws Exception {
+        HttpResponse<byte[]> binary = get("/api/v1/beneficios/export?format=binary", null, null);
+        assertThat(binary.headers().firstValue("Content-Type")).hasValue("application/x-beneficio-saldo");
+        assertThat(binary.body()).hasSize(2 * BeneficioBinaryCodec.RECORD_SIZE);
+
+        HttpResponse<byte[]> cbor = get("/api/v1/beneficios/export", "application/cbor-seq", null);
+        assertThat(cbor.headers().firstValue("Content-Type")).hasValue("application/cbor-seq");
+        try (MappingIterator<BeneficioResponse> it = PayloadFormatConfig.cbor(objectMapper)
+                .readerFor(BeneficioResponse.class).readValues(cbor.body())) {
+            assertThat(it.readAll()).extracting(BeneficioResponse::getId).containsExactly(1L, 2L);
+        }
+    }
+
+    @Test
+    void largeResponsesShouldBeGzippedAndSmallOnesNot() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            Beneficio b = new Beneficio();
+            b.setNome("Beneficio gerado " + i);
+            b.setDescricao("Descrição gerada " + i);
+            b.setValor(Money.parse("10.00"));
+            service.create(b);
+        }
+
+        HttpResponse<byte[]> list = get("/api/v1/beneficios?limit=1000", "application/json", "gzip");
+        assertThat(list.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        List<BeneficioResponse> rows = objectMapper.readValue(gunzip(list.body()),
+                new TypeReference<List<BeneficioResponse>>() { });
+        assertThat(rows).hasSize(102);
+
+        HttpResponse<byte[]> one = get("/api/v1/beneficios/1", "application/json", "gzip");
+        assertThat(one.headers().firstValue("Content-Encoding")).isEmpty();
+    }
+
+    private HttpResponse<byte[]> get(String path, String accept, String acceptEncoding)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (accept != null) {
+            request.header("Accept", accept);
+        }
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+}
@@ -1,20 +1,33 @@
 package java.com.example.backend.controller;
 
 import com.example.backend.dto.BeneficioRequest;
+import com.example.backend.money.Money;
+import com.example.backend.service.BeneficioSpringService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -26,6 +39,7 @@ class BeneficioControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
     private ObjectMapper objectMapper;
 
     @Test
@@ -36,12 +50,60 @@ class BeneficioControllerTest {
                 .andExpect(jsonPath("$[*].nome", containsInAnyOrder("Beneficio A", "Beneficio B")));
     }
 
+    @Test
+    void listShouldPaginateByCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/beneficios").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "1"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nome", is("Beneficio A")));
+
+        mockMvc.perform(get("/api/v1/beneficios").param("after", "1").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$[0].nome", is("Beneficio B")));
+    }
+
+    @Test
+    void listWithoutCursorNorLimitShouldReturnEveryRow() throws Exception {
+        for (int i = 0; i < 120; i++) {
+            BeneficioRequest request = new BeneficioRequest();
+            request.setNome("Beneficio " + i);
+            request.setValor(Money.parse("1.00"));
+            mockMvc.perform(post("/api/v1/beneficios")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/v1/beneficios"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(122)));
+
+        // Só com o cursor, a página tem o tamanho padrão.
+        mockMvc.perform(get("/api/v1/beneficios").param("after", "0"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(100)));
+    }
+
+    @Test
+    void listShouldApplyFilters() throws Exception {
+        mockMvc.perform(get("/api/v1/beneficios")
+                        .param("nome", "Beneficio")
+                        .param("valorMax", "600.00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nome", is("Beneficio B")));
+    }
+
     @Test
     void createShouldPersistBeneficio() throws Exception {
         BeneficioRequest request = new BeneficioRequest();
         request.setNome("Beneficio C");
         request.setDescricao("Descrição C");
-        request.setValor(new BigDecimal("250.00"));
+        request.setValor(Money.parse("250.00"));
         request.setAtivo(true);
 
         mockMvc.perform(post("/api/v1/beneficios")
@@ -84,5 +146,367 @@ class BeneficioControllerTest {
                 .andExpect(status().isUnprocessableEntity())
                 .andExpect(jsonPath("$.error").exists());
     }
-}
 
+    @Test
+    void transferMetricsShouldCountOutcomes() throws Exception {
+        mockMvc.perform(post("/api/v1/beneficios/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromId\":1,\"toId\":2,\"amount\":10.00}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/v1/beneficios/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromId\":2,\"toId\":1,\"amount\":5000.00}"))
+                .andExpect(status().isUnprocessableEntity());
+
+        mockMvc.perform(get("/actuator/transfers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.local.outcomes.OK", is(1)))
+                .andExpect(jsonPath("$.local.outcomes.INSUFFICIENT_FUNDS", is(1)))
+                .andExpect(jsonPath("$.local.inFlight", is(0)))
+                .andExpect(jsonPath("$.local.latency.count", is(2)))
+                .andExpect(jsonPath("$.local.hotAccounts", hasSize(2)));
+    }
+
+    @Test
+    void transferBatchShouldRejectWholeBatchWhenAllOrNothing() throws Exception {
+        String payload = "{" +
+                "\"mode\":\"ALL_OR_NOTHING\"," +
+                "\"transfers\":[" +
+                "{\"fromId\":1,\"toId\":2,\"amount\":100.00}," +
+                "{\"fromId\":2,\"toId\":1,\"amount\":5000.00}" +
+                "]}";
+
+        mockMvc.perform(post("/api/v1/beneficios/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", is(0)))
+                .andExpect(jsonPath("$.rejected", is(2)))
+                .andExpect(jsonPath("$.results[1].reason", is("Saldo insuficiente")));
+
+        mockMvc.perform(get("/api/v1/beneficios/1"))
+                .andExpect(jsonPath("$.valor", is(1000.00)));
+    }
+
+    @Test
+    void transferBatchShouldApplyValidItemsWhenBestEffort() throws Exception {
+        String payload = "{" +
+                "\"mode\":\"BEST_EFFORT\"," +
+                "\"transfers\":[" +
+                "{\"fromId\":1,\"toId\":2,\"amount\":100.00}," +
+                "{\"fromId\":2,\"toId\":99,\"amount\":10.00}," +
+                "{\"fromId\":2,\"toId\":1,\"amount\":600.00}" +
+                "]}";
+
+        mockMvc.perform(post("/api/v1/beneficios/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", is(2)))
+                .andExpect(jsonPath("$.results[1].status", is("REJECTED")));
+
+        mockMvc.perform(get("/api/v1/beneficios/1"))
+                .andExpect(jsonPath("$.valor", is(1500.00)));
+        mockMvc.perform(get("/api/v1/beneficios/2"))
+                .andExpect(jsonPath("$.valor", is(0.00)));
+    }
+
+    @Test
+    void transferBatchShouldRejectMissingEmptyOrOversizedListUpFront() throws Exception {
+        StringBuilder oversized = new StringBuilder("{\"transfers\":[");
+        for (int i = 0; i <= BeneficioSpringService.MAX_TRANSFER_BATCH_SIZE; i++) {
+            oversized.append(i == 0 ? "" : ",").append("{\"fromId\":1,\"toId\":2,\"amount\":1.00}");
+        }
+        oversized.append("]}");
+
+        for (String payload : List.of("{\"mode\":\"BEST_EFFORT\"}", "{\"transfers\":null}",
+                "{\"transfers\":[]}", oversized.toString())) {
+            mockMvc.perform(post("/api/v1/beneficios/transfer/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(payload))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error", startsWith("transfers: ")));
+        }
+
+        mockMvc.perform(get("/api/v1/beneficios/1"))
+                .andExpect(jsonPath("$.valor", is(1000.00)));
+    }
+
+    @Test
+    void stripedAccountShouldExposeTotalBalance() throws Exception {
+        mockMvc.perform(put("/api/v1/beneficios/1/subsaldos").param("quantidade", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valor", is(1000.00)));
+
+        mockMvc.perform(post("/api/v1/beneficios/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromId\":2,\"toId\":1,\"amount\":200.00}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/beneficios/1"))
+                .andExpect(jsonPath("$.valor", is(1200.00)));
+        mockMvc.perform(get("/api/v1/beneficios").param("valorMin", "1100.00"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].valor", is(1200.00)));
+
+        mockMvc.perform(put("/api/v1/beneficios/1/subsaldos").param("quantidade", "1000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getShouldAnswerNotModifiedUntilTheBeneficioChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/beneficios/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/beneficios/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(post("/api/v1/beneficios/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromId\":1,\"toId\":2,\"amount\":10.00}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/beneficios/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.valor", is(990.00)));
+    }
+
+    @Test
+    void stripedAccountEtagShouldChangeOnCredit() throws Exception {
+        mockMvc.perform(put("/api/v1/beneficios/1/subsaldos").param("quantidade", "4"))
+                .andExpect(status().isOk());
+        String etag = mockMvc.perform(get("/api/v1/beneficios/1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Crédito em uma faixa: a VERSION da conta não muda, o ETag sim.
+        mockMvc.perform(post("/api/v1/beneficios/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromId\":2,\"toId\":1,\"amount\":10.00}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/beneficios/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valor", is(1010.00)));
+    }
+
+    @Test
+    void listShouldAnswerNotModifiedUntilTheTableChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/beneficios"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/beneficios").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        BeneficioRequest request = new BeneficioRequest();
+        request.setNome("Beneficio C");
+        request.setValor(Money.parse("250.00"));
+        mockMvc.perform(post("/api/v1/beneficios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/beneficios").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+    }
+
+    @Test
+    void updateShouldRequireCurrentIfMatch() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/beneficios/2"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        BeneficioRequest request = new BeneficioRequest();
+        request.setNome("Beneficio B2");
+        request.setDescricao("Descrição B");
+        request.setValor(Money.parse("500.00"));
+        request.setAtivo(true);
+        String payload = objectMapper.writeValueAsString(request);
+
+        String newEtag = mockMvc.perform(put("/api/v1/beneficios/2")
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome", is("Beneficio B2")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // A mesma versão de antes agora é antiga: 412 e nada muda.
+        request.setNome("Beneficio B3");
+        mockMvc.perform(put("/api/v1/beneficios/2")
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/v1/beneficios/2"))
+                .andExpect(header().string(HttpHeaders.ETAG, newEtag))
+                .andExpect(jsonPath("$.nome", is("Beneficio B2")));
+    }
+
+    @Test
+    void asyncTransferShouldBeAcceptedAndPolledByTicket() throws Exception {
+        String location = mockMvc.perform(post("/api/v1/beneficios/transfer/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromId\":1,\"toId\":2,\"amount\":100.00}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.ticket").exists())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        String status = "";
+        for (int i = 0; i < 100 && !status.equals("APPLIED"); i++) {
+            Thread.sleep(50);
+            status = JsonPath.read(
+                    mockMvc.perform(get(location)).andReturn().getResponse().getContentAsString(), "$.status");
+        }
+        assertEquals("APPLIED", status);
+
+        mockMvc.perform(get("/api/v1/beneficios/1"))
+                .andExpect(jsonPath("$.valor", is(900.00)));
+        mockMvc.perform(get("/api/v1/beneficios/transfer/desconhecido"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/v1/beneficios/transfer/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromId\":1,\"toId\":1,\"amount\":100.00}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void ledgerShouldPaginateByCursorAndRebuildPastBalances() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/v1/beneficios/transfer")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"fromId\":1,\"toId\":2,\"amount\":10.00}"))
+                    .andExpect(status().isNoContent());
+        }
+
+        String cursor = mockMvc.perform(get("/api/v1/beneficios/1/ledger").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].valor", is(-10.00)))
+                .andExpect(jsonPath("$[0].contraparteId", is(2)))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/v1/beneficios/1/ledger").param("before", cursor).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get("/api/v1/beneficios/1/saldo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saldo", is(970.00)));
+        mockMvc.perform(get("/api/v1/beneficios/1/saldo").param("em", "2001-01-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saldo", is(1000.00)))
+                .andExpect(jsonPath("$.lancamentosAplicados", is(0)));
+    }
+
+    @Test
+    void concurrentBulkUpdatesInOppositeOrderShouldNotDeadlock() throws Exception {
+        StringBuilder create = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            create.append(i == 0 ? "" : ",").append("{\"nome\":\"Massa ").append(i).append("\",\"valor\":1}");
+        }
+        String created = mockMvc.perform(post("/api/v1/beneficios/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(create.append("]").toString()))
+                .andExpect(jsonPath("$.applied", is(1000)))
+                .andReturn().getResponse().getContentAsString();
+        List<Integer> ids = JsonPath.read(created, "$.results[*].id");
+
+        // Dois blocos de 500 em sentidos opostos: travando bloco a bloco, cada PUT prenderia
+        // o primeiro bloco e esperaria o do outro.
+        List<Integer> reversed = new ArrayList<>(ids.subList(500, 1000));
+        reversed.addAll(ids.subList(0, 500));
+        String ascending = bulkUpdate(ids);
+        String descending = bulkUpdate(reversed);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 3; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<String>> futures = new ArrayList<>();
+                for (String body : List.of(ascending, descending)) {
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        return mockMvc.perform(put("/api/v1/beneficios/bulk")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(body))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                    }));
+                }
+                start.countDown();
+                for (Future<String> f : futures) {
+                    assertEquals(Integer.valueOf(1000), JsonPath.read(f.get(1, TimeUnit.MINUTES), "$.applied"));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static String bulkUpdate(List<Integer> ids) {
+        StringBuilder body = new StringBuilder("[");
+        for (Integer id : ids) {
+            body.append(body.length() == 1 ? "" : ",")
+                    .append("{\"id\":").append(id).append(",\"nome\":\"Massa ").append(id).append("\",\"valor\":2}");
+        }
+        return body.append("]").toString();
+    }
+
+    @Test
+    void bulkShouldWriteValidRowsAndReportEachRejectedRow() throws Exception {
+        String created = mockMvc.perform(post("/api/v1/beneficios/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"nome\":\"Lote 1\",\"valor\":10.00},"
+                                + "{\"nome\":\"\",\"valor\":5},"
+                                + "{\"nome\":\"Lote 2\",\"valor\":\"abc\"},"
+                                + "{\"nome\":\"Lote 3\",\"valor\":20.50,\"ativo\":false}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", is(2)))
+                .andExpect(jsonPath("$.rejected", is(2)))
+                .andExpect(jsonPath("$.results[0].status", is("CREATED")))
+                .andExpect(jsonPath("$.results[1].errors[0]", startsWith("nome: ")))
+                .andExpect(jsonPath("$.results[2].errors[0]", startsWith("valor: ")))
+                .andExpect(jsonPath("$.results[3].status", is("CREATED")))
+                .andReturn().getResponse().getContentAsString();
+
+        // IDs do mesmo bloco da sequence: consecutivos, sem uma chamada ao banco por linha.
+        int first = JsonPath.read(created, "$.results[0].id");
+        int last = JsonPath.read(created, "$.results[3].id");
+        assertEquals(first + 1, last);
+        mockMvc.perform(get("/api/v1/beneficios/" + last))
+                .andExpect(jsonPath("$.valor", is(20.50)))
+                .andExpect(jsonPath("$.ativo", is(false)));
+        mockMvc.perform(get("/api/v1/beneficios/" + first + "/saldo"))
+                .andExpect(jsonPath("$.saldo", is(10.00)));
+
+        mockMvc.perform(put("/api/v1/beneficios/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":1,\"nome\":\"Beneficio A2\",\"valor\":900.00,\"ativo\":true},"
+                                + "{\"id\":999999,\"nome\":\"X\",\"valor\":1},"
+                                + "{\"id\":2,\"nome\":\"Beneficio B2\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", is(1)))
+                .andExpect(jsonPath("$.results[0].status", is("UPDATED")))
+                .andExpect(jsonPath("$.results[1].errors[0]", is("id: Beneficio não encontrado")))
+                .andExpect(jsonPath("$.results[2].id", is(2)))
+                .andExpect(jsonPath("$.results[2].errors[0]", startsWith("valor: ")));
+        mockMvc.perform(get("/api/v1/beneficios/1"))
+                .andExpect(jsonPath("$.nome", is("Beneficio A2")))
+                .andExpect(jsonPath("$.valor", is(900.00)));
+        mockMvc.perform(get("/api/v1/beneficios/1/saldo"))
+                .andExpect(jsonPath("$.saldo", is(900.00)));
+
+        mockMvc.perform(post("/api/v1/beneficios/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"nome\":\"Lote 4\",\"valor\":1}, {\"nome\":"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/beneficios").param("nome", "Lote 4"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
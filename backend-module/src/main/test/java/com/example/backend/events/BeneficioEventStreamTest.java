@@ -0,0 +1,232 @@
+package com.example.backend.events;
+
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BeneficioEventStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeneficioTransferPort port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private BeneficioEventStream stream;
+
+    @AfterEach
+    void close() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    @Test
+    void committedTransferShouldBePushedToTheStream() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/beneficios/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andReturn().getResponse();
+
+        BigDecimal saldo1 = valor(1L);
+        BigDecimal saldo2 = valor(2L);
+        port.transfer(2L, 1L, BigDecimal.TEN);
+
+        String body = await(() -> contentOf(response), s -> s.contains("\"id\":2"));
+        assertThat(body).startsWith("retry: 3000\n\n");
+        assertThat(body).contains("event: change\ndata: {\"id\":1,\"valor\":" + saldo1.add(BigDecimal.TEN) + ",\"version\":");
+        assertThat(body).contains("event: change\ndata: {\"id\":2,\"valor\":" + saldo2.subtract(BigDecimal.TEN) + ",\"version\":");
+        assertThat(body).contains("\"reason\":\"TRANSFER\"}\n\n");
+    }
+
+    @Test
+    void slowSubscriberShouldGetAResyncInsteadOfAnUnboundedBuffer() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        stream = new BeneficioEventStream(jdbcTemplate, objectMapper, properties(8, 10), registry);
+        CountDownLatch release = new CountDownLatch(1);
+        Recording slow = new Recording(release);
+        Recording fast = new Recording(null);
+        stream.register(slow, null);
+        stream.register(fast, null);
+        assertThat(slow.blocked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // O lento fica preso na primeira escrita; cada commit guarda mais dois eventos na fila dele.
+        for (int i = 1; i <= 5; i++) {
+            stream.onCommit(List.of(BeneficioChange.transfer(1L, null, Money.parse("-1.00")),
+                    BeneficioChange.transfer(2L, null, Money.parse("1.00"))));
+            int expected = i;
+            await(fast::text, s -> s.contains("id: " + 2 * expected + "\n"));
+        }
+        release.countDown();
+
+        String text = await(slow::text, s -> s.contains("event: resync"));
+        assertThat(text).contains("id: 10\nevent: resync\ndata: {}\n\n");
+        assertThat(text).doesNotContain("event: change");
+        assertThat(fast.text()).doesNotContain("resync")
+                .contains("id: 9\nevent: change\ndata: {\"id\":1,");
+        assertThat(registry.get("beneficio.events.resyncs").counter().count()).isEqualTo(1);
+
+        // Depois do resync, o lento volta a receber os eventos.
+        stream.onCommit(List.of(BeneficioChange.transfer(1L, null, Money.parse("1.00"))));
+        await(slow::text, s -> s.contains("id: 11\nevent: change"));
+    }
+
+    @Test
+    void tenThousandSubscribersShouldShareTheWriterThreads() throws Exception {
+        int threadsBefore = Thread.activeCount();
+        stream = new BeneficioEventStream(jdbcTemplate, objectMapper, properties(8, 10_000), new SimpleMeterRegistry());
+        List<Recording> subscribers = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Recording r = new Recording(null);
+            stream.register(r, null);
+            subscribers.add(r);
+        }
+
+        stream.onCommit(List.of(BeneficioChange.transfer(1L, null, Money.parse("1.00"))));
+        for (Recording r : subscribers) {
+            await(r::text, s -> s.contains("id: 1\nevent: change\ndata: {\"id\":1,"));
+        }
+        // Leitura + 2 writers, qualquer que seja a quantidade de conexões.
+        assertThat(Thread.activeCount() - threadsBefore).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void subscriptionsShouldBeLimitedAndReconnectionsResynced() throws Exception {
+        stream = new BeneficioEventStream(jdbcTemplate, objectMapper, properties(8, 2), new SimpleMeterRegistry());
+        Recording current = new Recording(null);
+        Recording behind = new Recording(null);
+        stream.register(current, "0");
+        stream.register(behind, "42");
+
+        assertThrows(TooManySubscribersException.class, () -> stream.register(new Recording(null), null));
+        await(behind::text, s -> s.contains("event: resync"));
+        assertThat(await(current::text, s -> s.startsWith("retry:"))).doesNotContain("resync");
+
+        // Uma conexão encerrada libera a vaga.
+        current.complete();
+        assertThat(stream.getSubscribers()).isEqualTo(1);
+        stream.register(new Recording(null), null);
+    }
+
+    private BigDecimal valor(long id) {
+        return jdbcTemplate.queryForObject("SELECT VALOR FROM BENEFICIO WHERE ID = ?", BigDecimal.class, id);
+    }
+
+    private static BeneficioEventProperties properties(int bufferSize, int maxSubscribers) {
+        BeneficioEventProperties properties = new BeneficioEventProperties();
+        properties.setBufferSize(bufferSize);
+        properties.setMaxSubscribers(maxSubscribers);
+        properties.setWriters(2);
+        properties.setHeartbeatInterval(Duration.ZERO);
+        return properties;
+    }
+
+    private static String contentOf(MockHttpServletResponse response) {
+        try {
+            return response.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String await(Supplier<String> text, Predicate<String> condition)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String value = text.get();
+        while (!condition.test(value) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            value = text.get();
+        }
+        assertThat(value).matches(condition);
+        return value;
+    }
+
+    // Guarda o que seria escrito na conexão; com 'release', a primeira escrita espera por ele.
+    private static final class Recording extends ResponseBodyEmitter {
+
+        private final CountDownLatch release;
+
+        private final CountDownLatch blocked = new CountDownLatch(1);
+
+        private final List<String> writes = new ArrayList<>();
+
+        private final List<Runnable> completion = new ArrayList<>();
+
+        Recording(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Object object, MediaType mediaType) throws IOException {
+            if (release != null) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(ex);
+                }
+            }
+            synchronized (writes) {
+                writes.add(new String((byte[]) object, StandardCharsets.UTF_8));
+            }
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completion.add(callback);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completion.forEach(Runnable::run);
+        }
+
+        String text() {
+            synchronized (writes) {
+                return String.join("", writes);
+            }
+        }
+
+    }
+
+}
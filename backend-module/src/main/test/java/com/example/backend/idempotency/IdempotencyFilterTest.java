@@ -0,0 +1,253 @@
+package com.example.backend.idempotency;
+
+import com.example.backend.service.BeneficioSpringService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class IdempotencyFilterTest {
+
+    private static final String TRANSFER = "{\"fromId\":1,\"toId\":2,\"amount\":100.00}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeneficioSpringService service;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void repeatedKeyShouldTransferOnceAndReplayTheResponse() throws Exception {
+        mockMvc.perform(transfer("k-1", TRANSFER))
+                .andExpect(status().isNoContent())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        mockMvc.perform(transfer("k-1", TRANSFER))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("900.00");
+        assertThat(service.getById(2L).getSaldo().toBigDecimal()).isEqualByComparingTo("600.00");
+
+        // Sem a entrada em memória (outra instância ou restart), a resposta vem da tabela.
+        store.getNativeCache().invalidateAll();
+        mockMvc.perform(transfer("k-1", TRANSFER))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("900.00");
+
+        // Uma chave nova é uma transferência nova.
+        mockMvc.perform(transfer("k-2", TRANSFER)).andExpect(status().isNoContent());
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("800.00");
+    }
+
+    @Test
+    void asyncReplayShouldReturnTheSameTicket() throws Exception {
+        MvcResult first = mockMvc.perform(post("/api/v1/beneficios/transfer/async")
+                        .header(IdempotencyFilter.HEADER, "k-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TRANSFER))
+                .andExpect(status().isAccepted())
+                .andReturn();
+
+        MvcResult second = mockMvc.perform(post("/api/v1/beneficios/transfer/async")
+                        .header(IdempotencyFilter.HEADER, "k-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TRANSFER))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn();
+
+        assertThat(second.getResponse().getHeader("Location")).isEqualTo(first.getResponse().getHeader("Location"));
+        assertThat(second.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+    }
+
+    @Test
+    void sameKeyWithAnotherBodyShouldBeRejected() throws Exception {
+        mockMvc.perform(transfer("k-1", TRANSFER)).andExpect(status().isNoContent());
+
+        mockMvc.perform(transfer("k-1", "{\"fromId\":1,\"toId\":2,\"amount\":200.00}"))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("900.00");
+    }
+
+    @Test
+    void businessRejectionShouldBeReplayedWithoutRunningAgain() throws Exception {
+        String tooMuch = "{\"fromId\":2,\"toId\":1,\"amount\":600.00}";
+        mockMvc.perform(transfer("k-1", tooMuch)).andExpect(status().isUnprocessableEntity());
+
+        // Mesmo com saldo suficiente agora, a repetição recebe a resposta original.
+        jdbcTemplate.update("UPDATE BENEFICIO SET VALOR = 5000 WHERE ID = 2");
+        mockMvc.perform(transfer("k-1", tooMuch))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("1000.00");
+    }
+
+    @Test
+    void invalidKeyShouldBeRejected() throws Exception {
+        mockMvc.perform(transfer("x".repeat(129), TRANSFER)).andExpect(status().isBadRequest());
+
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("1000.00");
+    }
+
+    @Test
+    void concurrentDuplicatesShouldRunOnce() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(transfer("k-1", TRANSFER)).andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> f : futures) {
+                assertThat(f.get(1, TimeUnit.MINUTES)).isEqualTo(204);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("900.00");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM TRANSFER_IDEMPOTENCIA", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void clientDisconnectAfterTheTransferShouldKeepTheKey() throws Exception {
+        IdempotencyFilter filter = new IdempotencyFilter(store, objectMapper, Duration.ofSeconds(5));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/beneficios/transfer");
+        request.addHeader(IdempotencyFilter.HEADER, "k-1");
+        request.setContent(TRANSFER.getBytes(StandardCharsets.UTF_8));
+        // O cliente foi embora: a escrita do corpo falha depois da transferência gravada.
+        MockHttpServletResponse disconnected = new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                    }
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        throw new IOException("Broken pipe");
+                    }
+                };
+            }
+        };
+        FilterChain chain = (req, res) -> {
+            service.transfer(1L, 2L, new BigDecimal("100.00"));
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write("{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+        };
+
+        assertThatThrownBy(() -> filter.doFilter(request, disconnected, chain)).isInstanceOf(IOException.class);
+
+        // A repetição do cliente recebe a resposta guardada; o débito não acontece de novo.
+        mockMvc.perform(transfer("k-1", TRANSFER))
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("900.00");
+    }
+
+    @Test
+    void nonBlockingReadersShouldReceiveTheCachedBody() throws Exception {
+        IdempotencyFilter filter = new IdempotencyFilter(store, objectMapper, Duration.ofSeconds(5));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/beneficios/transfer");
+        request.addHeader(IdempotencyFilter.HEADER, "k-1");
+        request.setContent(TRANSFER.getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+        FilterChain chain = (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    events.add("data");
+                    while (in.isReady() && !in.isFinished()) {
+                        read.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    events.add("end");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    events.add("error");
+                }
+            });
+            ((HttpServletResponse) res).setStatus(204);
+        };
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(events).containsExactly("data", "end");
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(TRANSFER);
+    }
+
+    private static RequestBuilder transfer(String key, String body) {
+        return post("/api/v1/beneficios/transfer")
+                .header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+
+}
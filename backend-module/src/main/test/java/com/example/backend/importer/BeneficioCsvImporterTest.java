@@ -0,0 +1,155 @@
+package com.example.backend.importer;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Blocos de 2 linhas e fila de 1 bloco: a leitura espera pela gravação já neste arquivo pequeno.
+@SpringBootTest(properties = {
+        "beneficio.import.chunk-size=2",
+        "beneficio.import.queue-capacity=1",
+        "beneficio.import.max-rejects=3"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BeneficioCsvImporterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importShouldWriteValidLinesInChunksAndReportRejects() throws Exception {
+        String csv = "\uFEFFnome,descricao,valor,ativo\n"
+                + "Parceiro 1,,10.00,\n"                          // linha 2
+                + "\"Parceiro, 2\",\"linha 1\nlinha 2\",20.5,false\n" // linhas 3-4
+                + ",sem nome,5,\n"                                // linha 5: nome em branco
+                + "Parceiro 4,,1.001,\n"                          // linha 6: três casas decimais
+                + "Parceiro 5,,3,talvez\n"                        // linha 7: ativo inválido
+                + "Parceiro 6,,4\n"                               // linha 8: coluna faltando
+                + "Parceiro 7,\"aspas \"\"duplas\"\"\",7.00,TRUE\r\n" // linha 9
+                + "X".repeat(101) + ",,1,\n"                      // linha 10: maior que a coluna NOME
+                + "\n"
+                + "Parceiro 9,,9.99,true";                        // linha 12, sem quebra final
+
+        String accepted = mockMvc.perform(multipart("/api/v1/beneficios/import")
+                        .file(new MockMultipartFile("file", "parceiros.csv", "text/csv",
+                                csv.getBytes(StandardCharsets.UTF_8))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", startsWith("/api/v1/beneficios/import/")))
+                .andExpect(jsonPath("$.fileName", is("parceiros.csv")))
+                .andReturn().getResponse().getContentAsString();
+        String job = JsonPath.read(accepted, "$.id");
+
+        awaitDone(job);
+        mockMvc.perform(get("/api/v1/beneficios/import/" + job))
+                .andExpect(jsonPath("$.status", is("COMPLETED")))
+                .andExpect(jsonPath("$.linesRead", is(9)))
+                .andExpect(jsonPath("$.written", is(4)))
+                .andExpect(jsonPath("$.rejected", is(5)));
+        // Só as três primeiras rejeições ficam guardadas ('max-rejects').
+        mockMvc.perform(get("/api/v1/beneficios/import/" + job + "/rejects"))
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[*].line", contains(5, 6, 7)))
+                .andExpect(jsonPath("$[0].errors[0]", startsWith("nome: ")))
+                .andExpect(jsonPath("$[1].errors[0]", startsWith("valor: ")))
+                .andExpect(jsonPath("$[2].errors[0]", is("ativo: deve ser true ou false")));
+
+        assertThat(jdbcTemplate.queryForList("SELECT NOME FROM BENEFICIO WHERE ID > 2 ORDER BY ID", String.class))
+                .containsExactly("Parceiro 1", "Parceiro, 2", "Parceiro 7", "Parceiro 9");
+        assertThat(jdbcTemplate.queryForObject("SELECT DESCRICAO FROM BENEFICIO WHERE NOME = 'Parceiro, 2'", String.class))
+                .isEqualTo("linha 1\nlinha 2");
+        assertThat(jdbcTemplate.queryForObject("SELECT DESCRICAO FROM BENEFICIO WHERE NOME = 'Parceiro 7'", String.class))
+                .isEqualTo("aspas \"duplas\"");
+        assertThat(jdbcTemplate.queryForObject("SELECT ATIVO FROM BENEFICIO WHERE NOME = 'Parceiro 1'", Boolean.class))
+                .isTrue();
+        // O saldo inicial de cada linha gravada entra no ledger, como no POST simples.
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(VALOR) FROM TRANSFER_LEDGER WHERE BENEFICIO_ID > 2",
+                BigDecimal.class)).isEqualByComparingTo("47.49");
+    }
+
+    @Test
+    void aRejectedRowAloneInTheLastChunkShouldNotFailTheImport() throws Exception {
+        String csv = "nome,descricao,valor,ativo\n"
+                + "Parceiro 1,,10.00,\n"
+                + "Parceiro 2,,20.00,\n"
+                + "X".repeat(101) + ",,1,\n";                    // linha 4: sozinha no último bloco
+
+        String accepted = mockMvc.perform(post("/api/v1/beneficios/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String job = JsonPath.read(accepted, "$.id");
+
+        awaitDone(job);
+        mockMvc.perform(get("/api/v1/beneficios/import/" + job))
+                .andExpect(jsonPath("$.status", is("COMPLETED")))
+                .andExpect(jsonPath("$.written", is(2)))
+                .andExpect(jsonPath("$.rejected", is(1)));
+        mockMvc.perform(get("/api/v1/beneficios/import/" + job + "/rejects"))
+                .andExpect(jsonPath("$[*].line", contains(4)))
+                .andExpect(jsonPath("$[0].errors[0]", startsWith("linha: ")));
+    }
+
+    @Test
+    void importShouldRejectAnInvalidHeaderUpFront() throws Exception {
+        mockMvc.perform(post("/api/v1/beneficios/import")
+                        .contentType("text/csv")
+                        .content("nome,saldo\nParceiro,10\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", startsWith("Coluna desconhecida no cabeçalho: 'saldo'")));
+
+        // O arquivo da exportação (com 'id') pode ser reimportado; o ID do arquivo é ignorado.
+        String accepted = mockMvc.perform(post("/api/v1/beneficios/import")
+                        .contentType("text/csv")
+                        .content("id,nome,descricao,valor,ativo\n1,Copia A,,1.00,true\n"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String job = JsonPath.read(accepted, "$.id");
+
+        awaitDone(job);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BENEFICIO", Integer.class)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT NOME FROM BENEFICIO WHERE ID = 1", String.class))
+                .isEqualTo("Beneficio A");
+        mockMvc.perform(get("/api/v1/beneficios/import/desconhecido"))
+                .andExpect(status().isNotFound());
+    }
+
+    private void awaitDone(String job) throws Exception {
+        for (int i = 0; i < 200; i++) {
+            String body = mockMvc.perform(get("/api/v1/beneficios/import/" + job))
+                    .andReturn().getResponse().getContentAsString();
+            String jobStatus = JsonPath.read(body, "$.status");
+            if (jobStatus.equals("COMPLETED") || jobStatus.equals("FAILED")) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Importação não terminou: " + job);
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.example.backend.integration;
+
+import com.example.backend.dto.TransferRequestDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.money.Money;
+import com.example.backend.service.BeneficioExportService;
+import com.example.backend.service.BeneficioSpringService;
+import com.example.backend.service.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BeneficioSubsaldoStoreTest {
+
+    @Autowired
+    private BeneficioSpringService service;
+
+    @Autowired
+    private BeneficioExportService exportService;
+
+    @Autowired
+    private BeneficioTransferPort port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Serviço local sem métricas nem retentativas: cada conflito aparece como falha.
+    private BeneficioTransferPort local;
+
+    @BeforeEach
+    void unwrap() {
+        local = port;
+        while (local instanceof BeneficioTransferPortDecorator decorator) {
+            local = decorator.getDelegate();
+        }
+    }
+
+    @Test
+    void configureShouldKeepTotalAndReadsShouldReportTheSum() throws Exception {
+        Beneficio b = service.configureSubsaldos(2L, 4);
+
+        assertThat(b.getSaldo().toBigDecimal()).isEqualByComparingTo("500.00");
+        assertThat(base(2L)).isEqualByComparingTo("0.00");
+        assertThat(jdbcTemplate.queryForList("SELECT VALOR FROM BENEFICIO_SUBSALDO WHERE BENEFICIO_ID = 2", BigDecimal.class))
+                .hasSize(4)
+                .allSatisfy(v -> assertThat(v).isEqualByComparingTo("125.00"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(ExportFormat.CSV, out);
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("2,Beneficio B,Descrição B,500.00,true");
+
+        b = service.configureSubsaldos(2L, 0);
+
+        assertThat(b.getSaldo().toBigDecimal()).isEqualByComparingTo("500.00");
+        assertThat(base(2L)).isEqualByComparingTo("500.00");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BENEFICIO_SUBSALDO", Integer.class)).isZero();
+    }
+
+    @Test
+    void concurrentCreditsShouldNotTouchTheStripedRow() throws Exception {
+        service.configureSubsaldos(1L, 8);
+        long version = jdbcTemplate.queryForObject("SELECT VERSION FROM BENEFICIO WHERE ID = 1", Long.class);
+
+        int threads = 8;
+        int perThread = 20;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        local.transfer(2L, 1L, BigDecimal.ONE);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(2, TimeUnit.MINUTES); // nenhuma transferência pode falhar
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("1160.00");
+        assertThat(service.getById(2L).getSaldo().toBigDecimal()).isEqualByComparingTo("340.00");
+        assertThat(jdbcTemplate.queryForObject("SELECT VERSION FROM BENEFICIO WHERE ID = 1", Long.class)).isEqualTo(version);
+    }
+
+    @Test
+    void debitShouldConsolidateWhenNoStripeCoversTheAmount() {
+        service.configureSubsaldos(1L, 4);
+
+        local.transfer(1L, 2L, new BigDecimal("900.00"));
+
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("100.00");
+        assertThat(service.getById(2L).getSaldo().toBigDecimal()).isEqualByComparingTo("1400.00");
+        assertThat(jdbcTemplate.queryForList("SELECT VALOR FROM BENEFICIO_SUBSALDO WHERE BENEFICIO_ID = 1", BigDecimal.class))
+                .allSatisfy(v -> assertThat(v).isEqualByComparingTo("25.00"));
+
+        TransferRejectedException ex = assertThrows(TransferRejectedException.class,
+                () -> local.transfer(1L, 2L, new BigDecimal("100.01")));
+        assertThat(ex.getReason()).isEqualTo(TransferRejectedException.Reason.INSUFFICIENT_FUNDS);
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void batchAndUpdateShouldUseTheTotalBalance() {
+        service.configureSubsaldos(1L, 4);
+
+        List<TransferItemResult> results = service.transferBatch(List.of(
+                new TransferRequestDTO(1L, 2L, new BigDecimal("600.00")),
+                new TransferRequestDTO(2L, 1L, new BigDecimal("50.00"))), TransferBatchMode.ALL_OR_NOTHING);
+
+        assertThat(results).allMatch(TransferItemResult::isApplied);
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("450.00");
+        assertThat(service.getById(2L).getSaldo().toBigDecimal()).isEqualByComparingTo("1050.00");
+
+        Beneficio changes = service.getById(1L);
+        changes.setValor(Money.parse("800.00"));
+        Beneficio updated = service.update(1L, changes);
+
+        assertThat(updated.getSaldo().toBigDecimal()).isEqualByComparingTo("800.00");
+        assertThat(service.getById(1L).getSaldo().toBigDecimal()).isEqualByComparingTo("800.00");
+        assertThat(base(1L)).isEqualByComparingTo("0.00");
+    }
+
+    private BigDecimal base(long id) {
+        return jdbcTemplate.queryForObject("SELECT VALOR FROM BENEFICIO WHERE ID = ?", BigDecimal.class, id);
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.example.backend.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class LocalBeneficioTransferServiceLockingTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BeneficioTransferPort port;
+
+    @Autowired
+    private BeneficioTransferProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long inactiveId;
+
+    // Serviço local sem métricas nem retentativas: cada conflito aparece como falha.
+    private BeneficioTransferPort service;
+
+    @BeforeEach
+    void resetAccounts() {
+        service = port;
+        while (service instanceof BeneficioTransferPortDecorator decorator) {
+            service = decorator.getDelegate();
+        }
+
+        jdbcTemplate.update("DELETE FROM BENEFICIO WHERE ID > 2");
+        jdbcTemplate.update("UPDATE BENEFICIO SET VALOR = CASE ID WHEN 1 THEN 1000.00 ELSE 500.00 END, ATIVO = TRUE");
+        jdbcTemplate.update("INSERT INTO BENEFICIO (NOME, DESCRICAO, VALOR, ATIVO) VALUES ('Inativo', 'Conta inativa', 100.00, FALSE)");
+        inactiveId = jdbcTemplate.queryForObject("SELECT MAX(ID) FROM BENEFICIO", Long.class);
+    }
+
+    @AfterEach
+    void restoreStrategy() {
+        properties.setLocking(TransferLockingStrategy.OPTIMISTIC);
+    }
+
+    @ParameterizedTest
+    @EnumSource(TransferLockingStrategy.class)
+    void concurrentDebitsShouldNeverOverdraw(TransferLockingStrategy strategy) throws Exception {
+        properties.setLocking(strategy);
+
+        // 16 débitos de 100 disputando os 500 da conta 2.
+        int ok = runConcurrently(2, i -> service.transfer(2L, 1L, new BigDecimal("100.00")));
+
+        BigDecimal saldo2 = valor(2L);
+        assertThat(saldo2).isEqualByComparingTo(new BigDecimal(500 - 100 * ok));
+        assertThat(saldo2.signum()).isGreaterThanOrEqualTo(0);
+        assertThat(valor(1L).add(saldo2)).isEqualByComparingTo("1500.00");
+        if (strategy != TransferLockingStrategy.OPTIMISTIC) {
+            // Sem conflitos de versão: exatamente os débitos com saldo passam.
+            assertThat(ok).isEqualTo(5);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = TransferLockingStrategy.class, names = {"PESSIMISTIC", "ATOMIC_SQL"})
+    void opposingTransfersShouldNotDeadlock(TransferLockingStrategy strategy) throws Exception {
+        properties.setLocking(strategy);
+
+        int ok = runConcurrently(20, i -> {
+            boolean forward = i % 2 == 0;
+            service.transfer(forward ? 1L : 2L, forward ? 2L : 1L, BigDecimal.ONE);
+        });
+
+        assertThat(ok).isEqualTo(THREADS * 20);
+        assertThat(valor(1L).add(valor(2L))).isEqualByComparingTo("1500.00");
+    }
+
+    @ParameterizedTest
+    @EnumSource(TransferLockingStrategy.class)
+    void businessRulesShouldMatchAcrossStrategies(TransferLockingStrategy strategy) {
+        properties.setLocking(strategy);
+        long version = jdbcTemplate.queryForObject("SELECT VERSION FROM BENEFICIO WHERE ID = 1", Long.class);
+
+        TransferRejectedException insufficient = assertThrows(TransferRejectedException.class,
+                () -> service.transfer(2L, 1L, new BigDecimal("500.01")));
+        assertThat(insufficient.getReason()).isEqualTo(TransferRejectedException.Reason.INSUFFICIENT_FUNDS);
+
+        TransferRejectedException inactive = assertThrows(TransferRejectedException.class,
+                () -> service.transfer(1L, inactiveId, BigDecimal.ONE));
+        assertThat(inactive.getReason()).isEqualTo(TransferRejectedException.Reason.INACTIVE);
+        assertThrows(TransferRejectedException.class, () -> service.transfer(inactiveId, 1L, BigDecimal.ONE));
+
+        assertThrows(NoSuchElementException.class, () -> service.transfer(1L, 999L, BigDecimal.ONE));
+        assertThrows(NoSuchElementException.class, () -> service.transfer(999L, 1L, BigDecimal.ONE));
+
+        // Nenhuma falha alterou saldo algum.
+        assertThat(valor(1L)).isEqualByComparingTo("1000.00");
+        assertThat(valor(2L)).isEqualByComparingTo("500.00");
+        assertThat(valor(inactiveId)).isEqualByComparingTo("100.00");
+
+        service.transfer(1L, 2L, new BigDecimal("250.00"));
+
+        assertThat(valor(1L)).isEqualByComparingTo("750.00");
+        assertThat(valor(2L)).isEqualByComparingTo("750.00");
+        assertThat(jdbcTemplate.queryForObject("SELECT VERSION FROM BENEFICIO WHERE ID = 1", Long.class))
+                .isGreaterThan(version);
+    }
+
+    private BigDecimal valor(long id) {
+        return jdbcTemplate.queryForObject("SELECT VALOR FROM BENEFICIO WHERE ID = ?", BigDecimal.class, id);
+    }
+
+    /**
+     * Executa 'perThread' chamadas em cada uma das THREADS threads, todas liberadas juntas.
+     *
+     * @return Quantidade de chamadas que terminaram sem exceção.
+     */
+    private static int runConcurrently(int perThread, Call call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger ok = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        try {
+                            call.run(thread + i);
+                            ok.incrementAndGet();
+                        } catch (RuntimeException ignored) {
+                            // saldo insuficiente ou conflito
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return ok.get();
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        void run(int i);
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.example.backend.integration.async;
+
+import com.example.backend.dto.TransferRequestDTO;
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.BeneficioTransferProperties;
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.integration.TransferItemResult;
+import com.example.backend.integration.TransferRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AsyncTransferExecutorTest {
+
+    private AsyncTransferExecutor executor;
+
+    @AfterEach
+    void close() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    @Test
+    void fullLaneShouldRejectSubmission() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor = new AsyncTransferExecutor(port((from, to, amount) -> {
+            started.countDown();
+            await(release);
+        }), properties(1, 2, 1), new SimpleMeterRegistry());
+
+        TransferTicket running = executor.submit(1L, 2L, BigDecimal.ONE);
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        TransferTicket second = executor.submit(1L, 2L, BigDecimal.ONE);
+        TransferTicket third = executor.submit(3L, 4L, BigDecimal.ONE);
+
+        assertThrows(TransferQueueFullException.class, () -> executor.submit(5L, 6L, BigDecimal.ONE));
+        assertThat(running.getStatus()).isEqualTo(TransferTicket.Status.RUNNING);
+        assertThat(second.getStatus()).isEqualTo(TransferTicket.Status.QUEUED);
+        assertThat(executor.getQueued()).isEqualTo(2);
+
+        release.countDown();
+        executor.close();
+
+        assertThat(List.of(running, second, third))
+                .allMatch(t -> t.getStatus() == TransferTicket.Status.APPLIED);
+        assertThat(executor.find(second.getId())).containsSame(second);
+    }
+
+    @Test
+    void transfersSharingAnAccountShouldNeverOverlap() throws Exception {
+        Map<Long, AtomicInteger> active = new ConcurrentHashMap<>();
+        AtomicInteger overlaps = new AtomicInteger();
+        executor = new AsyncTransferExecutor(port((from, to, amount) -> {
+            for (Long id : List.of(from, to)) {
+                if (active.computeIfAbsent(id, k -> new AtomicInteger()).incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+            }
+            Thread.yield();
+            active.get(from).decrementAndGet();
+            active.get(to).decrementAndGet();
+        }), properties(4, 1000, 4), new SimpleMeterRegistry());
+
+        Random random = new Random(42);
+        List<TransferTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long from = 1 + random.nextInt(6);
+            long to = 1 + (from + random.nextInt(5)) % 6;
+            tickets.add(executor.submit(from, to, BigDecimal.ONE));
+        }
+        executor.close();
+
+        assertThat(tickets).allMatch(t -> t.getStatus() == TransferTicket.Status.APPLIED);
+        assertThat(overlaps.get()).isZero();
+    }
+
+    @Test
+    void businessRuleFailuresShouldRejectTheTicket() throws Exception {
+        executor = new AsyncTransferExecutor(port((from, to, amount) -> {
+            throw new TransferRejectedException(TransferRejectedException.Reason.INSUFFICIENT_FUNDS, "Saldo insuficiente");
+        }), properties(2, 10, 1), new SimpleMeterRegistry());
+
+        TransferTicket ticket = executor.submit(1L, 2L, BigDecimal.ONE);
+        assertThrows(IllegalArgumentException.class, () -> executor.submit(1L, 1L, BigDecimal.ONE));
+        executor.close();
+
+        assertThat(ticket.getStatus()).isEqualTo(TransferTicket.Status.REJECTED);
+        assertThat(ticket.getReason()).isEqualTo("Saldo insuficiente");
+        assertThat(ticket.getCompletedAt()).isNotNull();
+    }
+
+    private static BeneficioTransferProperties.Async properties(int lanes, int capacity, int workers) {
+        BeneficioTransferProperties.Async properties = new BeneficioTransferProperties.Async();
+        properties.setLanes(lanes);
+        properties.setLaneCapacity(capacity);
+        properties.setWorkers(workers);
+        return properties;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private interface Transfer {
+        void apply(Long fromId, Long toId, BigDecimal amount);
+    }
+
+    private static BeneficioTransferPort port(Transfer transfer) {
+        return new BeneficioTransferPort() {
+            @Override
+            public void transfer(Long fromId, Long toId, BigDecimal amount) {
+                transfer.apply(fromId, toId, amount);
+            }
+
+            @Override
+            public List<TransferItemResult> transferBatch(List<TransferRequestDTO> transfers, TransferBatchMode mode) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.example.backend.integration.audit;
+
+import com.example.backend.dto.TransferRequestDTO;
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.BeneficioTransferProperties;
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.integration.TransferItemResult;
+import com.example.backend.integration.TransferRejectedException;
+import com.example.backend.integration.metrics.TransferOutcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransferAuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void concurrentEventsShouldBeWrittenOnceInOrderAcrossRotatedSegments() throws Exception {
+        // 10 registros por segmento: 1000 eventos passam por 100 segmentos.
+        TransferAuditLog audit = new TransferAuditLog(properties(10, 1000, 256));
+        int threads = 4;
+        int perThread = 250;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                long from = t + 1;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        // Buffer pequeno: espera a gravação em vez de descartar.
+                        while (!audit.record(from, 100 + i, i, TransferOutcome.OK, TransferAuditLog.TRANSFER, 1_500)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        audit.close();
+
+        List<TransferAuditRecord> records = readAll();
+        assertThat(records).hasSize(threads * perThread);
+        assertThat(records).extracting(TransferAuditRecord::sequence)
+                .isSorted()
+                .doesNotHaveDuplicates()
+                .startsWith(1L);
+        assertThat(records).allSatisfy(r -> {
+            assertThat(r.toId()).isEqualTo(100 + r.amount().cents());
+            assertThat(r.elapsedMicros()).isEqualTo(1);
+            assertThat(r.outcome()).isEqualTo(TransferOutcome.OK);
+        });
+        // Cada conta de origem aparece com os seus eventos em ordem.
+        for (long from = 1; from <= threads; from++) {
+            long account = from;
+            assertThat(records.stream().filter(r -> r.fromId() == account).map(r -> r.amount().cents()).toList())
+                    .hasSize(perThread)
+                    .isSorted();
+        }
+    }
+
+    @Test
+    void oldSegmentsShouldBePurgedAndDecoratorShouldRecordOutcomes() throws Exception {
+        TransferAuditLog audit = new TransferAuditLog(properties(2, 3, 1024));
+        AuditingBeneficioTransferPort port = new AuditingBeneficioTransferPort(new ScriptedPort(), audit);
+
+        port.transfer(1L, 2L, BigDecimal.ONE);
+        assertThrows(TransferRejectedException.class, () -> port.transfer(1L, 2L, new BigDecimal("100")));
+        port.transferBatch(List.of(
+                new TransferRequestDTO(1L, 2L, BigDecimal.ONE),
+                new TransferRequestDTO(2L, 1L, BigDecimal.ONE),
+                new TransferRequestDTO(2L, 1L, BigDecimal.ONE)), TransferBatchMode.BEST_EFFORT);
+        for (int i = 0; i < 5; i++) {
+            port.transfer(3L, 4L, BigDecimal.ONE);
+        }
+        audit.close();
+
+        // 10 eventos em segmentos de 2: só os 3 últimos segmentos continuam no diretório.
+        assertThat(TransferAuditReader.segments(directory)).hasSize(3);
+        assertThat(readAll()).extracting(TransferAuditRecord::sequence).containsExactly(5L, 6L, 7L, 8L, 9L, 10L);
+
+        // Um segmento só: o novo processo apaga os anteriores.
+        TransferAuditLog next = new TransferAuditLog(properties(100, 1, 1024));
+        AuditingBeneficioTransferPort nextPort = new AuditingBeneficioTransferPort(new ScriptedPort(), next);
+        nextPort.transfer(1L, 2L, new BigDecimal("10.50"));
+        assertThrows(TransferRejectedException.class, () -> nextPort.transfer(1L, 2L, new BigDecimal("100")));
+        assertThrows(IllegalArgumentException.class, () -> nextPort.transfer(null, 2L, BigDecimal.ONE));
+        nextPort.transferBatch(List.of(
+                new TransferRequestDTO(1L, 2L, BigDecimal.ONE),
+                new TransferRequestDTO(2L, 1L, new BigDecimal("100"))), TransferBatchMode.BEST_EFFORT);
+        next.close();
+
+        List<TransferAuditRecord> records = readAll();
+        assertThat(records).hasSize(5);
+        assertThat(records.get(0).toCsv()).contains(",transfer,1,2,10.50,ok,");
+        assertThat(records.get(1).outcome()).isEqualTo(TransferOutcome.INSUFFICIENT_FUNDS);
+        assertThat(records.get(2).outcome()).isEqualTo(TransferOutcome.INVALID);
+        assertThat(records.get(2).fromId()).isZero();
+        assertThat(records.get(3).kind()).isEqualTo(TransferAuditLog.BATCH_ITEM);
+        assertThat(records.get(3).outcome()).isEqualTo(TransferOutcome.OK);
+        assertThat(records.get(4).outcome()).isEqualTo(TransferOutcome.INSUFFICIENT_FUNDS);
+    }
+
+    private BeneficioTransferProperties.Audit properties(int recordsPerSegment, int maxSegments, int bufferSize) {
+        BeneficioTransferProperties.Audit properties = new BeneficioTransferProperties.Audit();
+        properties.setDirectory(directory);
+        properties.setSegmentSize(DataSize.ofBytes(TransferAuditLog.HEADER_SIZE
+                + (long) recordsPerSegment * TransferAuditLog.RECORD_SIZE));
+        properties.setMaxSegments(maxSegments);
+        properties.setBufferSize(bufferSize);
+        return properties;
+    }
+
+    private List<TransferAuditRecord> readAll() throws Exception {
+        List<TransferAuditRecord> records = new ArrayList<>();
+        for (Path segment : TransferAuditReader.segments(directory)) {
+            TransferAuditReader.read(segment, records::add);
+        }
+        return records;
+    }
+
+    // Acima de 50 reais, saldo insuficiente; IDs nulos, argumento inválido.
+    private static final class ScriptedPort implements BeneficioTransferPort {
+
+        @Override
+        public void transfer(Long fromId, Long toId, BigDecimal amount) {
+            if (fromId == null) {
+                throw new IllegalArgumentException("IDs devem ser fornecidos");
+            }
+            if (amount.compareTo(new BigDecimal("50")) > 0) {
+                throw new TransferRejectedException(TransferRejectedException.Reason.INSUFFICIENT_FUNDS,
+                        "Saldo insuficiente");
+            }
+        }
+
+        @Override
+        public List<TransferItemResult> transferBatch(List<TransferRequestDTO> transfers, TransferBatchMode mode) {
+            List<TransferItemResult> results = new ArrayList<>();
+            for (int i = 0; i < transfers.size(); i++) {
+                TransferRequestDTO t = transfers.get(i);
+                results.add(t.amount().compareTo(new BigDecimal("50")) > 0
+                        ? TransferItemResult.rejected(i, t.fromId(), t.toId(), t.amount(), "Saldo insuficiente")
+                        : TransferItemResult.applied(i, t.fromId(), t.toId(), t.amount()));
+            }
+            return results;
+        }
+
+    }
+
+}
@@ -0,0 +1,245 @@
+package com.example.backend.integration.ejb;
+
+import com.example.backend.dto.TransferRequestDTO;
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.integration.TransferItemResult;
+import com.example.backend.integration.TransferRejectedException;
+import com.example.ejb.BeneficioTransferRemote;
+import com.example.ejb.TransferOrder;
+import com.example.ejb.TransferOrderResult;
+import jakarta.ejb.NoSuchEJBException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.naming.Context;
+import javax.naming.NameNotFoundException;
+import javax.naming.spi.InitialContextFactory;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EjbBeneficioTransferClientTest {
+
+    private EjbBeneficioTransferClient client;
+
+    @BeforeEach
+    void resetStub() {
+        StubContextFactory.lookups.set(0);
+        StubContextFactory.transfers.set(0);
+        StubContextFactory.batches.set(0);
+        StubContextFactory.lookupFails.set(false);
+        StubContextFactory.remoteDrops.set(false);
+    }
+
+    @AfterEach
+    void closeClient() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void transferShouldReuseResolvedProxy() {
+        client = new EjbBeneficioTransferClient(properties(1));
+
+        for (int i = 0; i < 100; i++) {
+            client.transfer(1L, 2L, BigDecimal.ONE);
+        }
+
+        assertThat(StubContextFactory.transfers.get()).isEqualTo(100);
+        assertThat(StubContextFactory.lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    void poolShouldResolveOneProxyPerSlot() {
+        client = new EjbBeneficioTransferClient(properties(3));
+
+        for (int i = 0; i < 100; i++) {
+            client.transfer(1L, 2L, BigDecimal.ONE);
+        }
+
+        assertThat(StubContextFactory.lookups.get()).isEqualTo(3);
+    }
+
+    @Test
+    void droppedRemoteShouldTriggerNewLookup() {
+        client = new EjbBeneficioTransferClient(properties(1));
+        client.transfer(1L, 2L, BigDecimal.ONE);
+
+        StubContextFactory.remoteDrops.set(true);
+        assertThrows(IllegalStateException.class, () -> client.transfer(1L, 2L, BigDecimal.ONE));
+        StubContextFactory.remoteDrops.set(false);
+
+        client.transfer(1L, 2L, BigDecimal.ONE);
+
+        assertThat(StubContextFactory.lookups.get()).isEqualTo(2);
+        assertThat(StubContextFactory.transfers.get()).isEqualTo(2);
+    }
+
+    @Test
+    void failedLookupShouldBackOffBeforeRetrying() {
+        BeneficioEjbProperties properties = properties(1);
+        properties.setLookupBackoffInitial(Duration.ofMinutes(1));
+        client = new EjbBeneficioTransferClient(properties);
+
+        StubContextFactory.lookupFails.set(true);
+        assertThrows(IllegalStateException.class, () -> client.transfer(1L, 2L, BigDecimal.ONE));
+        IllegalStateException backingOff = assertThrows(IllegalStateException.class,
+                () -> client.transfer(1L, 2L, BigDecimal.ONE));
+
+        assertThat(backingOff.getMessage()).contains("indisponível");
+        assertThat(StubContextFactory.lookups.get()).isEqualTo(1);
+        assertThat(client.isHealthy()).isFalse();
+    }
+
+    @Test
+    void concurrentTransfersShouldBeCoalescedWithOneResultPerCaller() throws Exception {
+        BeneficioEjbProperties properties = properties(1);
+        properties.setBatchWindow(Duration.ofMillis(20));
+        properties.setBatchConcurrency(1);
+        client = new EjbBeneficioTransferClient(properties);
+
+        int callers = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                // O stub recusa valores acima de 100 por saldo insuficiente.
+                BigDecimal amount = i == 7 ? new BigDecimal("500") : BigDecimal.ONE;
+                calls.add(pool.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 20; j++) {
+                        client.transfer(1L, 2L, amount);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < callers; i++) {
+                if (i == 7) {
+                    Future<?> rejected = calls.get(i);
+                    ExecutionException ex = assertThrows(ExecutionException.class, () -> rejected.get(10, TimeUnit.SECONDS));
+                    assertThat(ex.getCause()).isInstanceOf(TransferRejectedException.class).hasMessage("Saldo insuficiente");
+                } else {
+                    calls.get(i).get(10, TimeUnit.SECONDS);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // 31 chamadores x 20 transferências aplicadas, em bem menos chamadas remotas.
+        assertThat(StubContextFactory.transfers.get()).isEqualTo(31 * 20);
+        assertThat(StubContextFactory.batches.get()).isLessThan(31 * 20 / 4);
+    }
+
+    @Test
+    void batchShouldBeSentInOneRemoteCallInEitherMode() {
+        client = new EjbBeneficioTransferClient(properties(1));
+        List<TransferRequestDTO> batch = List.of(
+                new TransferRequestDTO(1L, 2L, BigDecimal.ONE),
+                new TransferRequestDTO(2L, 1L, new BigDecimal("500")));
+
+        List<TransferItemResult> allOrNothing = client.transferBatch(batch, TransferBatchMode.ALL_OR_NOTHING);
+        List<TransferItemResult> bestEffort = client.transferBatch(batch, TransferBatchMode.BEST_EFFORT);
+
+        assertThat(allOrNothing).extracting(TransferItemResult::isApplied).containsExactly(false, false);
+        assertThat(bestEffort).extracting(TransferItemResult::isApplied).containsExactly(true, false);
+        assertThat(bestEffort.get(1).reason()).isEqualTo("Saldo insuficiente");
+        assertThat(StubContextFactory.batches.get()).isEqualTo(2);
+        assertThat(StubContextFactory.transfers.get()).isEqualTo(1);
+    }
+
+    private static BeneficioEjbProperties properties(int poolSize) {
+        BeneficioEjbProperties properties = new BeneficioEjbProperties();
+        properties.setEnabled(true);
+        properties.setPoolSize(poolSize);
+        properties.setHealthCheckInterval(Duration.ZERO);
+        properties.getJndi().put(Context.INITIAL_CONTEXT_FACTORY, StubContextFactory.class.getName());
+        return properties;
+    }
+
+    /**
+     * JNDI em processo: cada 'lookup' é contado e devolve um BeneficioTransferRemote falso.
+     */
+    public static class StubContextFactory implements InitialContextFactory {
+
+        static final AtomicInteger lookups = new AtomicInteger();
+        static final AtomicInteger transfers = new AtomicInteger();
+        static final AtomicInteger batches = new AtomicInteger();
+        static final AtomicBoolean lookupFails = new AtomicBoolean();
+        static final AtomicBoolean remoteDrops = new AtomicBoolean();
+
+        @Override
+        public Context getInitialContext(Hashtable<?, ?> environment) {
+            return (Context) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Context.class},
+                    (proxy, method, args) -> {
+                        if (!method.getName().equals("lookup")) {
+                            return null;
+                        }
+                        lookups.incrementAndGet();
+                        if (lookupFails.get()) {
+                            throw new NameNotFoundException(String.valueOf(args[0]));
+                        }
+                        return remote();
+                    });
+        }
+
+        private static BeneficioTransferRemote remote() {
+            return new BeneficioTransferRemote() {
+                @Override
+                public void transfer(Long fromId, Long toId, BigDecimal amount) {
+                    if (remoteDrops.get()) {
+                        throw new NoSuchEJBException("conexão perdida");
+                    }
+                    transfers.incrementAndGet();
+                }
+
+                // Recusa valores acima de 100, como se a origem não tivesse saldo.
+                @Override
+                public List<TransferOrderResult> transferBatch(List<TransferOrder> orders, boolean allOrNothing) {
+                    if (remoteDrops.get()) {
+                        throw new NoSuchEJBException("conexão perdida");
+                    }
+                    batches.incrementAndGet();
+                    List<TransferOrderResult> results = new ArrayList<>(orders.size());
+                    boolean rejected = false;
+                    for (TransferOrder order : orders) {
+                        boolean ok = order.getAmount().compareTo(new BigDecimal("100")) <= 0;
+                        rejected |= !ok;
+                        results.add(ok ? TransferOrderResult.applied()
+                                : TransferOrderResult.rejected(TransferOrderResult.Status.INSUFFICIENT_FUNDS, "Saldo insuficiente"));
+                    }
+                    if (allOrNothing && rejected) {
+                        results.replaceAll(r -> r.isApplied()
+                                ? TransferOrderResult.rejected(TransferOrderResult.Status.ABORTED, "Lote não aplicado") : r);
+                    } else {
+                        results.forEach(r -> {
+                            if (r.isApplied()) transfers.incrementAndGet();
+                        });
+                    }
+                    return results;
+                }
+            };
+        }
+
+    }
+
+}
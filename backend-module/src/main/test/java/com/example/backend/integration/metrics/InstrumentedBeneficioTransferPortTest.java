@@ -0,0 +1,200 @@
+package com.example.backend.integration.metrics;
+
+import com.example.backend.dto.TransferRequestDTO;
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.BeneficioTransferProperties;
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.integration.TransferItemResult;
+import com.example.backend.integration.TransferRejectedException;
+import com.example.backend.integration.retry.RetryingBeneficioTransferPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InstrumentedBeneficioTransferPortTest {
+
+    private SimpleMeterRegistry registry;
+
+    private InstrumentedBeneficioTransferPort port;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        BeneficioTransferProperties.Metrics properties = new BeneficioTransferProperties.Metrics();
+        properties.setTopK(3);
+        properties.setTrackedAccounts(8);
+        port = new InstrumentedBeneficioTransferPort(new ScriptedPort(), "local", registry, properties);
+    }
+
+    @Test
+    void shouldCountEachOutcomeAndRethrow() {
+        port.transfer(1L, 2L, BigDecimal.ONE);
+        assertThrows(TransferRejectedException.class, () -> port.transfer(1L, 2L, new BigDecimal("100")));
+        assertThrows(NoSuchElementException.class, () -> port.transfer(1L, 404L, BigDecimal.ONE));
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> port.transfer(1L, 409L, BigDecimal.ONE));
+        assertThrows(IllegalArgumentException.class, () -> port.transfer(1L, 1L, BigDecimal.ONE));
+
+        TransferMetricsSnapshot snapshot = port.snapshot();
+
+        assertThat(snapshot.outcomes())
+                .containsEntry(TransferOutcome.OK, 1L)
+                .containsEntry(TransferOutcome.INSUFFICIENT_FUNDS, 1L)
+                .containsEntry(TransferOutcome.NOT_FOUND, 1L)
+                .containsEntry(TransferOutcome.OPTIMISTIC_CONFLICT, 1L)
+                .containsEntry(TransferOutcome.INVALID, 1L);
+        assertThat(snapshot.inFlight()).isZero();
+        assertThat(snapshot.latency().count()).isEqualTo(5);
+        assertThat(snapshot.latency().p99Ms()).isNotNaN();
+        assertThat(registry.get("beneficio.transfer.outcome")
+                .tag("implementation", "local")
+                .tag("outcome", "optimistic_conflict")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(snapshot.contendedAccounts())
+                .extracting(HotAccountTracker.AccountCount::id)
+                .containsExactlyInAnyOrder(1L, 409L);
+    }
+
+    @Test
+    void hotAccountsShouldRankMostFrequentIdsEvenWithManyColdOnes() {
+        for (int i = 0; i < 1000; i++) {
+            port.transfer(1L, 2L, BigDecimal.ONE);       // conta 1 e 2 sempre
+            port.transfer(3L, 1000L + i, BigDecimal.ONE); // conta 3 sempre, destino frio
+        }
+
+        List<HotAccountTracker.AccountCount> top = port.snapshot().hotAccounts();
+
+        assertThat(top).extracting(HotAccountTracker.AccountCount::id).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(top.get(0).count() - top.get(0).maxOverestimate()).isGreaterThanOrEqualTo(1000);
+    }
+
+    @Test
+    void batchItemsShouldBeClassifiedByReason() {
+        List<TransferRequestDTO> batch = List.of(
+                new TransferRequestDTO(1L, 2L, BigDecimal.ONE),
+                new TransferRequestDTO(1L, 2L, new BigDecimal("100")),
+                new TransferRequestDTO(1L, 1L, BigDecimal.ONE));
+
+        port.transferBatch(batch, TransferBatchMode.BEST_EFFORT);
+
+        TransferMetricsSnapshot snapshot = port.snapshot();
+        assertThat(snapshot.batchItems())
+                .containsEntry(TransferOutcome.OK, 1L)
+                .containsEntry(TransferOutcome.INSUFFICIENT_FUNDS, 1L)
+                .containsEntry(TransferOutcome.INVALID, 1L);
+        assertThat(snapshot.batchLatency().count()).isEqualTo(1);
+        assertThat(snapshot.batchInFlight()).isZero();
+    }
+
+    @Test
+    void conflictsRecoveredByRetryShouldStillRankContendedAccounts() throws Exception {
+        BeneficioTransferProperties.Retry retry = new BeneficioTransferProperties.Retry();
+        retry.setMaxAttempts(3);
+        retry.setInitialBackoff(Duration.ZERO);
+        RetryingBeneficioTransferPort retrying =
+                new RetryingBeneficioTransferPort(new FirstAttemptConflictPort(), "local", registry, retry);
+        BeneficioTransferProperties.Metrics properties = new BeneficioTransferProperties.Metrics();
+        properties.setTopK(3);
+        properties.setTrackedAccounts(8);
+        InstrumentedBeneficioTransferPort instrumented =
+                new InstrumentedBeneficioTransferPort(retrying, "local", registry, properties);
+
+        // Todas as threads disputam a conta 1; cada transferência conflita uma vez e passa na segunda.
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long other = 10L + t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        instrumented.transfer(1L, other, BigDecimal.ONE);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        TransferMetricsSnapshot snapshot = instrumented.snapshot();
+        assertThat(snapshot.outcomes()).containsEntry(TransferOutcome.OK, 100L)
+                .containsEntry(TransferOutcome.OPTIMISTIC_CONFLICT, 0L);
+        assertThat(snapshot.contendedAccounts()).isNotEmpty();
+        assertThat(snapshot.contendedAccounts().get(0).id()).isEqualTo(1L);
+        assertThat(snapshot.contendedAccounts().get(0).count()).isGreaterThanOrEqualTo(100);
+    }
+
+    /**
+     * Cada transferência falha por conflito otimista na primeira tentativa e passa na seguinte
+     * (o estado é da thread, então o resultado não depende do escalonamento).
+     */
+    private static final class FirstAttemptConflictPort implements BeneficioTransferPort {
+
+        private final ThreadLocal<Boolean> conflicted = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+        @Override
+        public void transfer(Long fromId, Long toId, BigDecimal amount) {
+            if (!conflicted.get()) {
+                conflicted.set(Boolean.TRUE);
+                throw new ObjectOptimisticLockingFailureException("Beneficio", fromId);
+            }
+            conflicted.set(Boolean.FALSE);
+        }
+
+        @Override
+        public List<TransferItemResult> transferBatch(List<TransferRequestDTO> transfers, TransferBatchMode mode) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+    /**
+     * Falha de acordo com os argumentos: valor 100 = saldo insuficiente, destino 404 = não
+     * encontrado, destino 409 = conflito otimista, origem igual ao destino = inválido.
+     */
+    private static final class ScriptedPort implements BeneficioTransferPort {
+
+        @Override
+        public void transfer(Long fromId, Long toId, BigDecimal amount) {
+            if (fromId.equals(toId)) throw new IllegalArgumentException("fromId and toId devem ser diferentes");
+            if (toId == 404L) throw new NoSuchElementException("Beneficio não encontrado");
+            if (toId == 409L) throw new ObjectOptimisticLockingFailureException("Beneficio", toId);
+            if (amount.compareTo(new BigDecimal("100")) == 0) {
+                throw new TransferRejectedException(TransferRejectedException.Reason.INSUFFICIENT_FUNDS, "Saldo insuficiente");
+            }
+        }
+
+        @Override
+        public List<TransferItemResult> transferBatch(List<TransferRequestDTO> transfers, TransferBatchMode mode) {
+            List<TransferItemResult> results = new ArrayList<>();
+            for (int i = 0; i < transfers.size(); i++) {
+                TransferRequestDTO t = transfers.get(i);
+                try {
+                    transfer(t.fromId(), t.toId(), t.amount());
+                    results.add(TransferItemResult.applied(i, t.fromId(), t.toId(), t.amount()));
+                } catch (RuntimeException ex) {
+                    results.add(TransferItemResult.rejected(i, t.fromId(), t.toId(), t.amount(), ex.getMessage()));
+                }
+            }
+            return results;
+        }
+
+    }
+
+}
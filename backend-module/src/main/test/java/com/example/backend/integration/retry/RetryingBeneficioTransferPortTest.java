@@ -0,0 +1,125 @@
+package com.example.backend.integration.retry;
+
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.BeneficioTransferPortDecorator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "beneficio.transfer.retry.max-attempts=10",
+        "beneficio.transfer.retry.budget.capacity=10000"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class RetryingBeneficioTransferPortTest {
+
+    private static final int THREADS = 8;
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private BeneficioTransferPort port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void retriesShouldImproveGoodputOnHotSpot() throws Exception {
+        // O port otimista real, sem a retentativa, contra a cadeia completa.
+        BeneficioTransferPort withoutRetry = find(port, RetryingBeneficioTransferPort.class).getDelegate();
+        double retriedBefore = retriedCount();
+
+        int baseline = runHotSpot(withoutRetry);
+        int retried = runHotSpot(port);
+
+        assertThat(baseline).isLessThan(THREADS * ROUNDS);
+        assertThat(retried).isGreaterThan(baseline);
+        assertThat(retriedCount()).isGreaterThan(retriedBefore);
+
+        // Nenhum conflito pode criar ou destruir saldo.
+        BigDecimal sum = jdbcTemplate.queryForObject("SELECT SUM(VALOR) FROM BENEFICIO", BigDecimal.class);
+        assertThat(sum).isEqualByComparingTo("1500.00");
+    }
+
+    @Test
+    void businessFailuresShouldNotBeRetried() {
+        double before = registry.get("beneficio.transfer.retry").tag("result", "retried").counter().count();
+
+        assertThrows(IllegalStateException.class,
+                () -> port.transfer(2L, 1L, new BigDecimal("5000.00")));
+
+        assertThat(registry.get("beneficio.transfer.retry").tag("result", "retried").counter().count())
+                .isEqualTo(before);
+    }
+
+    private double retriedCount() {
+        return registry.get("beneficio.transfer.retry").tag("result", "retried").counter().count();
+    }
+
+    /**
+     * Em cada rodada, todas as threads partem juntas (barreira) e fazem uma transferência entre
+     * as contas 1 e 2, metade em cada sentido: as leituras da mesma versão disputam o commit.
+     *
+     * @return Quantidade de transferências concluídas.
+     */
+    private static int runHotSpot(BeneficioTransferPort target) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CyclicBarrier round = new CyclicBarrier(THREADS);
+        AtomicInteger ok = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                boolean forward = t % 2 == 0;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < ROUNDS; i++) {
+                        round.await(1, TimeUnit.MINUTES);
+                        try {
+                            target.transfer(forward ? 1L : 2L, forward ? 2L : 1L, BigDecimal.ONE);
+                            ok.incrementAndGet();
+                        } catch (RuntimeException ignored) {
+                            // conflito: conta como transferência perdida
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return ok.get();
+    }
+
+    private static <T extends BeneficioTransferPortDecorator> T find(BeneficioTransferPort port, Class<T> type) {
+        BeneficioTransferPort current = port;
+        while (current instanceof BeneficioTransferPortDecorator decorator) {
+            if (type.isInstance(decorator)) {
+                return type.cast(decorator);
+            }
+            current = decorator.getDelegate();
+        }
+        throw new AssertionError(type.getSimpleName() + " não encontrado na cadeia do port");
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.example.backend.ledger;
+
+import com.example.backend.dto.LedgerBalanceResponse;
+import com.example.backend.dto.LedgerEntryResponse;
+import com.example.backend.dto.LedgerPage;
+import com.example.backend.dto.TransferRequestDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.entity.LedgerEntry;
+import com.example.backend.integration.BeneficioTransferPort;
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.money.Money;
+import com.example.backend.service.BeneficioSpringService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class TransferLedgerTest {
+
+    @Autowired
+    private BeneficioSpringService service;
+
+    @Autowired
+    private BeneficioTransferPort port;
+
+    @Autowired
+    private TransferLedger ledger;
+
+    @Autowired
+    private LedgerSnapshotScheduler snapshots;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void transfersShouldAppendOneEntryPerAccount() {
+        port.transfer(1L, 2L, new BigDecimal("100.00"));
+        port.transferBatch(List.of(
+                new TransferRequestDTO(2L, 1L, new BigDecimal("30.00")),
+                new TransferRequestDTO(2L, 1L, new BigDecimal("9999.00"))), TransferBatchMode.BEST_EFFORT);
+        assertThrows(IllegalStateException.class, () -> port.transfer(2L, 1L, new BigDecimal("9999.00")));
+
+        List<LedgerEntryResponse> conta1 = service.ledgerPage(1L, null, 10).items();
+        assertThat(conta1).extracting(LedgerEntryResponse::valor)
+                .containsExactly(Money.parse("30.00"), Money.parse("-100.00"));
+        assertThat(conta1).allMatch(e -> e.tipo() == LedgerEntry.Tipo.TRANSFERENCIA && e.contraparteId() == 2L);
+        assertThat(service.ledgerPage(2L, null, 10).items()).hasSize(2);
+
+        // Os IDs vêm da sequence pooled: quatro lançamentos, uma única reserva de IDs.
+        List<Long> ids = jdbcTemplate.queryForList("SELECT ID FROM TRANSFER_LEDGER ORDER BY ID", Long.class);
+        assertThat(ids.get(ids.size() - 1) - ids.get(0)).isEqualTo(ids.size() - 1);
+
+        assertThat(service.balanceAt(1L, Instant.now()).saldo()).isEqualTo(service.getById(1L).getSaldo());
+        assertThat(service.balanceAt(2L, Instant.now()).saldo()).isEqualTo(service.getById(2L).getSaldo());
+    }
+
+    @Test
+    void balanceAtShouldReplayFromTheNearestSnapshot() throws Exception {
+        port.transfer(1L, 2L, new BigDecimal("100.00"));
+        Instant depoisDaPrimeira = pause();
+        assertThat(snapshots.run()).isZero(); // poucos lançamentos para o mínimo padrão
+
+        assertThat(ledger.snapshot(1L)).isTrue();
+        port.transfer(1L, 2L, new BigDecimal("50.00"));
+        port.transfer(2L, 1L, new BigDecimal("5.00"));
+
+        LedgerBalanceResponse antes = service.balanceAt(1L, depoisDaPrimeira);
+        assertThat(antes.saldo().toBigDecimal()).isEqualByComparingTo("900.00");
+        assertThat(antes.lancamentosAplicados()).isEqualTo(1);
+
+        LedgerBalanceResponse agora = service.balanceAt(1L, Instant.now());
+        assertThat(agora.saldo().toBigDecimal()).isEqualByComparingTo("855.00");
+        assertThat(agora.snapshotEm()).isAfter(depoisDaPrimeira);
+        assertThat(agora.lancamentosAplicados()).isEqualTo(2);
+
+        assertThrows(NoSuchElementException.class, () -> service.balanceAt(99L, Instant.now()));
+    }
+
+    @Test
+    void replayShouldNotDependOnTheClock() {
+        port.transfer(1L, 2L, new BigDecimal("10.00"));
+        assertThat(ledger.snapshot(1L)).isTrue();
+        port.transfer(1L, 2L, new BigDecimal("100.00"));
+        port.transfer(2L, 1L, new BigDecimal("30.00"));
+
+        // Um lançamento no mesmo microssegundo do snapshot e outro com o relógio voltando.
+        Timestamp snapshotEm = jdbcTemplate.queryForObject(
+                "SELECT MAX(CRIADO_EM) FROM BENEFICIO_SALDO_SNAPSHOT WHERE BENEFICIO_ID = 1", Timestamp.class);
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT ID FROM TRANSFER_LEDGER WHERE BENEFICIO_ID = 1 ORDER BY ID", Long.class);
+        jdbcTemplate.update("UPDATE TRANSFER_LEDGER SET CRIADO_EM = ? WHERE ID = ?", snapshotEm, ids.get(1));
+        jdbcTemplate.update("UPDATE TRANSFER_LEDGER SET CRIADO_EM = ? WHERE ID = ?",
+                Timestamp.from(snapshotEm.toInstant().minusSeconds(1)), ids.get(2));
+
+        LedgerBalanceResponse agora = service.balanceAt(1L, Instant.now());
+        assertThat(agora.saldo().toBigDecimal()).isEqualByComparingTo("920.00");
+        assertThat(agora.lancamentosAplicados()).isEqualTo(2);
+
+        // Snapshots seguidos: o segundo não tem lançamento novo e não grava nada.
+        assertThat(ledger.snapshot(1L)).isTrue();
+        assertThat(ledger.snapshot(1L)).isTrue();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM BENEFICIO_SALDO_SNAPSHOT WHERE BENEFICIO_ID = 1", Integer.class)).isEqualTo(3);
+        assertThat(service.balanceAt(1L, Instant.now()).saldo().toBigDecimal()).isEqualByComparingTo("920.00");
+    }
+
+    @Test
+    void createAndUpdateShouldBeAdjustments() {
+        Beneficio novo = new Beneficio();
+        novo.setNome("Beneficio C");
+        novo.setValor(Money.parse("250.00"));
+        Long id = service.create(novo).getId();
+
+        Beneficio changes = service.getById(id);
+        changes.setValor(Money.parse("200.00"));
+        service.update(id, changes);
+        changes.setNome("Beneficio C2");
+        service.update(id, changes);
+
+        LedgerPage page = service.ledgerPage(id, null, 10);
+        assertThat(page.items()).extracting(LedgerEntryResponse::valor)
+                .containsExactly(Money.parse("-50.00"), Money.parse("250.00"));
+        assertThat(page.items()).allMatch(e -> e.tipo() == LedgerEntry.Tipo.AJUSTE);
+        assertThat(service.balanceAt(id, Instant.now()).saldo().toBigDecimal()).isEqualByComparingTo("200.00");
+    }
+
+    @Test
+    void snapshotsDuringConcurrentTransfersShouldMatchTheBalance() throws Exception {
+        service.configureSubsaldos(1L, 4);
+        service.configureSubsaldos(2L, 4);
+
+        int threads = 4;
+        int perThread = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                boolean paraConta1 = t % 2 == 0;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        if (paraConta1) {
+                            port.transfer(2L, 1L, BigDecimal.ONE);
+                        } else {
+                            port.transfer(1L, 2L, BigDecimal.ONE);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Future<?> snapshotter = pool.submit(() -> {
+                start.await();
+                while (!done.get()) {
+                    ledger.snapshot(1L);
+                    ledger.snapshot(2L);
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(2, TimeUnit.MINUTES);
+            }
+            done.set(true);
+            snapshotter.get(1, TimeUnit.MINUTES);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BENEFICIO_SALDO_SNAPSHOT", Integer.class))
+                .isGreaterThan(2);
+        assertThat(service.balanceAt(1L, Instant.now()).saldo()).isEqualTo(service.getById(1L).getSaldo());
+        assertThat(service.balanceAt(2L, Instant.now()).saldo()).isEqualTo(service.getById(2L).getSaldo());
+    }
+
+    // Garante que o próximo lançamento tenha um horário estritamente posterior ao devolvido.
+    private static Instant pause() throws InterruptedException {
+        Thread.sleep(5);
+        Instant at = Instant.now();
+        Thread.sleep(5);
+        return at;
+    }
+
+}
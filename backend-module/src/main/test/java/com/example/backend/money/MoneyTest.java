@@ -0,0 +1,66 @@
+package com.example.backend.money;
+
+import com.example.backend.dto.TransferRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void parseShouldAcceptUpToTwoSignificantDecimals() {
+        assertThat(Money.parse("12").cents()).isEqualTo(1200);
+        assertThat(Money.parse("12.5").cents()).isEqualTo(1250);
+        assertThat(Money.parse("-0.07").cents()).isEqualTo(-7);
+        assertThat(Money.parse("+3.10000").cents()).isEqualTo(310);
+        assertThat(Money.parse(".25").cents()).isEqualTo(25);
+
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("1.001"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("1,00"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("-"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("."));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("99999999999999999999"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("0.005")));
+    }
+
+    @Test
+    void formatShouldAlwaysWriteTwoDecimals() {
+        assertThat(Money.ofCents(0)).hasToString("0.00");
+        assertThat(Money.ofCents(5)).hasToString("0.05");
+        assertThat(Money.ofCents(-123405)).hasToString("-1234.05");
+        assertThat(Money.ofCents(Long.MAX_VALUE)).hasToString("92233720368547758.07");
+        assertThat(Money.ofCents(Long.MIN_VALUE)).hasToString("-92233720368547758.08");
+        assertThat(Money.of(new BigDecimal("7.1")).toBigDecimal()).isEqualTo(new BigDecimal("7.10"));
+    }
+
+    @Test
+    void arithmeticShouldFailOnOverflow() {
+        Money max = Money.ofCents(Long.MAX_VALUE);
+
+        assertThat(Money.parse("10.00").minus(Money.parse("0.01"))).isEqualTo(Money.parse("9.99"));
+        assertThat(Money.parse("0.01").isLessThan(Money.parse("0.02"))).isTrue();
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MIN_VALUE).negate());
+    }
+
+    @Test
+    void jacksonShouldRoundTripAsANumber() throws Exception {
+        TransferRequest req = mapper.readValue("{\"fromId\":1,\"toId\":2,\"amount\":150.5}", TransferRequest.class);
+        assertThat(req.getAmount()).isEqualTo(Money.ofCents(15050));
+
+        assertThat(mapper.readValue("42", Money.class)).isEqualTo(Money.ofCents(4200));
+        assertThat(mapper.readValue("\"0.10\"", Money.class)).isEqualTo(Money.ofCents(10));
+        assertThat(mapper.readValue("1.5e2", Money.class)).isEqualTo(Money.ofCents(15000));
+        assertThat(mapper.writeValueAsString(Money.ofCents(15050))).isEqualTo("150.50");
+
+        assertThrows(InvalidFormatException.class, () -> mapper.readValue("0.001", Money.class));
+    }
+
+}
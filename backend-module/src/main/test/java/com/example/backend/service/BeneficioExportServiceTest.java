@@ -0,0 +1,120 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BeneficioExportServiceTest {
+
+    private static final int ROWS = 300_000;
+
+    // Materializar 300 mil entidades gerenciadas passa com folga de 100 MB de heap.
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    @Autowired
+    private BeneficioExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void csvExportShouldWriteHeaderAndSeededRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.export(ExportFormat.CSV, out);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,nome,descricao,valor,ativo\n" +
+                "1,Beneficio A,Descrição A,1000.00,true\n" +
+                "2,Beneficio B,Descrição B,500.00,true\n");
+    }
+
+    @Test
+    void csvExportShouldWriteNullAtivoAsAnEmptyField() throws Exception {
+        jdbcTemplate.update("INSERT INTO BENEFICIO (NOME, DESCRICAO, VALOR, ATIVO) VALUES ('Beneficio C', NULL, 1.00, NULL)");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith(",Beneficio C,,1.00,\n");
+    }
+
+    @Test
+    void ndjsonExportShouldKeepHeapFlatRegardlessOfTableSize() throws Exception {
+        jdbcTemplate.update("INSERT INTO BENEFICIO (NOME, DESCRICAO, VALOR, ATIVO) " +
+                "SELECT 'Beneficio ' || X, 'Descrição gerada ' || X, 100.00, TRUE FROM SYSTEM_RANGE(1, ?)", ROWS);
+
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream(4 * 1024 * 1024);
+        long count = exportService.export(ExportFormat.NDJSON, out);
+
+        assertThat(count).isEqualTo(ROWS + 2);
+        assertThat(out.lines).isEqualTo(ROWS + 2);
+        assertThat(out.samples).isGreaterThan(5);
+        assertThat(out.maxUsed - out.baseline).isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    /**
+     * Descarta os bytes e, a cada 'sampleEvery' bytes escritos, mede o heap usado após um GC.
+     */
+    private static final class HeapSamplingOutputStream extends OutputStream {
+
+        private final long sampleEvery;
+        private long written;
+        private long nextSample;
+        private long lines;
+        private int samples;
+        private long baseline = -1;
+        private long maxUsed;
+
+        private HeapSamplingOutputStream(long sampleEvery) {
+            this.sampleEvery = sampleEvery;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+            advance(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+            advance(len);
+        }
+
+        private void advance(int len) {
+            written += len;
+            if (written < nextSample) {
+                return;
+            }
+            nextSample = written + sampleEvery;
+            System.gc();
+            Runtime rt = Runtime.getRuntime();
+            long used = rt.totalMemory() - rt.freeMemory();
+            if (baseline < 0) {
+                baseline = used;
+            }
+            maxUsed = Math.max(maxUsed, used);
+            samples++;
+        }
+
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.BeneficioCache;
+import com.example.backend.dto.BeneficioResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BeneficioReadPathTest {
+
+    @Autowired
+    private BeneficioSpringService service;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Test
+    void readsShouldNotLoadManagedEntities() {
+        service.configureSubsaldos(1L, 4);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(service.listAll()).extracting(BeneficioResponse::getId).containsExactly(1L, 2L);
+            assertThat(service.listPage(null, null, 10).items()).hasSize(2);
+
+            BeneficioCache.Snapshot snapshot = service.getSnapshot(1L);
+            assertThat(snapshot.valor().toBigDecimal()).isEqualByComparingTo("1000.00");
+            assertThat(snapshot.fracionado()).isTrue();
+            assertThat(snapshot.version()).isNotNull();
+
+            // Nada ficou no contexto de persistência da transação: nenhuma cópia para o dirty checking.
+            assertThat(em.unwrap(SharedSessionContractImplementor.class).getPersistenceContextInternal()
+                    .getNumberOfManagedEntities()).isZero();
+        });
+    }
+
+}
@@ -30,8 +30,8 @@ class BeneficioServiceTest {
         Beneficio from = repository.findById(1L).orElseThrow();
         Beneficio to = repository.findById(2L).orElseThrow();
 
-        assertThat(from.getValor()).isEqualByComparingTo("850.00");
-        assertThat(to.getValor()).isEqualByComparingTo("650.00");
+        assertThat(from.getValor().toBigDecimal()).isEqualByComparingTo("850.00");
+        assertThat(to.getValor().toBigDecimal()).isEqualByComparingTo("650.00");
     }
 
     @Test
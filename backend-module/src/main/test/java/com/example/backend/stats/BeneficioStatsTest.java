@@ -0,0 +1,121 @@
+package com.example.backend.stats;
+
+import com.example.backend.dto.BeneficioStatsResponse;
+import com.example.backend.dto.TransferRequestDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.integration.BeneficioTransferProperties;
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.integration.TransferLockingStrategy;
+import com.example.backend.integration.TransferRejectedException;
+import com.example.backend.money.Money;
+import com.example.backend.service.BeneficioSpringService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BeneficioStatsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeneficioStats stats;
+
+    @Autowired
+    private BeneficioSpringService service;
+
+    @Autowired
+    private BeneficioTransferProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void committedChangesShouldUpdateTheAggregates() throws Exception {
+        assertStats("1500.00", 2, 0, 1L, 2L);
+
+        Beneficio novo = new Beneficio();
+        novo.setNome("Conta grande");
+        novo.setValor(Money.parse("2000.00"));
+        long id = service.create(novo).getId();
+        assertStats("3500.00", 3, 0, id, 1L, 2L);
+
+        service.transfer(1L, 2L, new BigDecimal("300.00"));
+        assertStats("3500.00", 3, 0, id, 2L, 1L);
+        assertThat(stats.snapshot(3).maiores().get(1).saldo()).isEqualTo(Money.parse("800.00"));
+
+        // Transferência recusada: nada foi confirmado, nada muda.
+        assertThrows(TransferRejectedException.class, () -> service.transfer(1L, 2L, new BigDecimal("5000.00")));
+        assertStats("3500.00", 3, 0, id, 2L, 1L);
+
+        Beneficio changes = service.getById(1L);
+        changes.setValor(Money.parse("100.00"));
+        changes.setAtivo(false);
+        service.update(1L, changes);
+        assertStats("2900.00", 2, 1, id, 2L, 1L);
+
+        // ATOMIC_SQL não lê o saldo novo: o ranking aplica só a diferença.
+        properties.setLocking(TransferLockingStrategy.ATOMIC_SQL);
+        service.transfer(2L, id, new BigDecimal("50.00"));
+        assertThat(stats.snapshot(2).maiores()).containsExactly(
+                new BeneficioStatsResponse.Saldo(id, Money.parse("2050.00")),
+                new BeneficioStatsResponse.Saldo(2L, Money.parse("750.00")));
+
+        service.transferBatch(List.of(new TransferRequestDTO(id, 2L, new BigDecimal("1500.00"))),
+                TransferBatchMode.ALL_OR_NOTHING);
+        assertStats("2900.00", 2, 1, 2L, id, 1L);
+
+        service.delete(1L);
+        assertStats("2800.00", 2, 0, 2L, id);
+
+        mockMvc.perform(get("/api/v1/beneficios/stats").param("top", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saldoTotal", is(2800.00)))
+                .andExpect(jsonPath("$.quantidade", is(2)))
+                .andExpect(jsonPath("$.maiores", hasSize(1)))
+                .andExpect(jsonPath("$.maiores[0].id", is(2)))
+                .andExpect(jsonPath("$.maiores[0].saldo", is(2250.00)));
+        mockMvc.perform(get("/api/v1/beneficios/stats").param("top", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void reconcileShouldCorrectChangesMadeOutsideTheService() {
+        jdbcTemplate.update("UPDATE BENEFICIO SET VALOR = 5000.00 WHERE ID = 2");
+        jdbcTemplate.update("INSERT INTO BENEFICIO (NOME, VALOR, ATIVO) VALUES ('Direto no banco', 10.00, FALSE)");
+        assertStats("1500.00", 2, 0, 1L, 2L);
+
+        stats.reconcile();
+
+        Long inserted = jdbcTemplate.queryForObject("SELECT MAX(ID) FROM BENEFICIO", Long.class);
+        assertStats("6010.00", 2, 1, 2L, 1L, inserted);
+    }
+
+    private void assertStats(String saldoTotal, long ativos, long inativos, Long... ranking) {
+        BeneficioStatsResponse s = stats.snapshot(BeneficioStats.MAX_TOP);
+        assertThat(s.saldoTotal()).isEqualTo(Money.parse(saldoTotal));
+        assertThat(s.ativos()).isEqualTo(ativos);
+        assertThat(s.inativos()).isEqualTo(inativos);
+        assertThat(s.quantidade()).isEqualTo(ativos + inativos);
+        assertThat(s.maiores()).extracting(BeneficioStatsResponse.Saldo::id).containsExactly(ranking);
+    }
+
+}
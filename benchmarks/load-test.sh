@@ -0,0 +1,87 @@
+#!/usr/bin/env bash
+# Teste de carga comparativo: threads de plataforma x threads virtuais (perfil 'virtual-threads').
+#
+#   JAVA_HOME=/caminho/jdk-21 ./benchmarks/load-test.sh
+#   CLIENTS="1000 10000" DURATION=60s ./benchmarks/load-test.sh
+#
+# Para cada modo, sobe o backend (jar executável, mesma JVM, mesmas opções; só o modelo de
+# threads muda), roda o HttpLoadTest com cada quantidade de clientes e derruba o backend.
+# Os resultados vão para benchmarks/target/load-results.csv e os logs do backend para
+# benchmarks/target/load-backend-<modo>.log (no modo virtual, com -Djdk.tracePinnedThreads=short).
+#
+# Com um JDK anterior ao 21 roda só o modo de plataforma.
+set -euo pipefail
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+CLIENTS=${CLIENTS:-"1000 10000"}
+ACCOUNTS=${ACCOUNTS:-1000}
+TRANSFER_RATIO=${TRANSFER_RATIO:-0.5}
+WARMUP=${WARMUP:-10s}
+DURATION=${DURATION:-30s}
+PORT=${PORT:-18080}
+HEAP=${HEAP:-2g}
+OUT="$ROOT/benchmarks/target"
+
+JAVA_MAJOR=$("$JAVA" -XshowSettings:properties -version 2>&1 | awk -F' = ' '/java.specification.version/ {print $2}')
+MODES="platform"
+BUILD_PROFILE=""
+if [ "$JAVA_MAJOR" -ge 21 ]; then
+    MODES="platform virtual"
+    BUILD_PROFILE="-Pjava21"
+else
+    echo "Java $JAVA_MAJOR: threads virtuais exigem Java 21; rodando só o modo 'platform'." >&2
+fi
+
+MAX_CLIENTS=$(echo "$CLIENTS" | tr ' ' '\n' | sort -n | tail -1)
+if [ "$(ulimit -n)" != "unlimited" ] && [ "$(ulimit -n)" -lt $((MAX_CLIENTS * 2 + 1024)) ]; then
+    echo "ulimit -n = $(ulimit -n) é pouco para $MAX_CLIENTS clientes (cliente e servidor na mesma máquina)." >&2
+    echo "Aumente com: ulimit -n $((MAX_CLIENTS * 2 + 1024))" >&2
+    exit 1
+fi
+
+mvn -B -q -f "$ROOT/pom.xml" install -DskipTests $BUILD_PROFILE
+JAR="$ROOT/backend-module/target/backend-module-0.0.1-SNAPSHOT-exec.jar"
+mkdir -p "$OUT"
+
+for MODE in $MODES; do
+    JVM_ARGS="-Xms$HEAP -Xmx$HEAP"
+    PROFILES="default"
+    if [ "$MODE" = "virtual" ]; then
+        JVM_ARGS="$JVM_ARGS -Djdk.tracePinnedThreads=short"
+        PROFILES="virtual-threads"
+    fi
+
+    for N in $CLIENTS; do
+        # Um backend novo por rodada: a base H2 em memória e o cache começam vazios.
+        LOG="$OUT/load-backend-$MODE-$N.log"
+        "$JAVA" $JVM_ARGS -jar "$JAR" \
+            --server.port="$PORT" \
+            --spring.profiles.active="$PROFILES" \
+            --spring.jpa.show-sql=false \
+            --logging.level.root=WARN \
+            --server.tomcat.max-connections=20000 \
+            --server.tomcat.accept-count=2000 \
+            > "$LOG" 2>&1 &
+        PID=$!
+        trap 'kill $PID 2>/dev/null || true' EXIT
+
+        for _ in $(seq 1 120); do
+            curl -fs "http://localhost:$PORT/actuator/health" > /dev/null && break
+            sleep 1
+        done
+
+        "$JAVA" -cp "$ROOT/benchmarks/target/classes" com.example.benchmarks.load.HttpLoadTest \
+            --url "http://localhost:$PORT" --clients "$N" --accounts "$ACCOUNTS" \
+            --transfer-ratio "$TRANSFER_RATIO" --warmup "$WARMUP" --duration "$DURATION" \
+            --label "$MODE" --csv "$OUT/load-results.csv"
+
+        kill "$PID" && wait "$PID" 2>/dev/null || true
+        if [ "$MODE" = "virtual" ]; then
+            echo "pinning: $(grep -c '<== monitors' "$LOG" || true) eventos em $LOG"
+        fi
+    done
+done
+
+echo
+column -s, -t < "$OUT/load-results.csv" 2>/dev/null || cat "$OUT/load-results.csv"
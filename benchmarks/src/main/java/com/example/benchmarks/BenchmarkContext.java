@@ -0,0 +1,54 @@
+package com.example.benchmarks;
+
+import com.example.backend.BackendApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+
+/**
+ * Sobe o backend sem servidor web, com H2 em memória e sem o log de SQL do application.yml,
+ * para que o benchmark meça a transação e não a escrita de log no console.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        String[] base = {
+                "spring.main.banner-mode=off",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "logging.level.root=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.orm.jdbc.bind=WARN",
+                // Conflitos de versão são esperados sob disputa; o Hibernate loga cada um como ERROR.
+                "logging.level.org.hibernate.orm.jdbc.batch=OFF",
+                "logging.level.com.example=WARN",
+        };
+        // Como argumentos de linha de comando, para prevalecer sobre o application.yml.
+        String[] args = new String[base.length + extraProperties.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = "--" + (i < base.length ? base[i] : extraProperties[i - base.length]);
+        }
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+
+    /**
+     * Recria a tabela com 'accounts' benefícios de IDs 1..accounts, todos com o mesmo saldo.
+     */
+    static void seedAccounts(ConfigurableApplicationContext context, int accounts, BigDecimal balance) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("DELETE FROM BENEFICIO");
+        jdbc.update("ALTER TABLE BENEFICIO ALTER COLUMN ID RESTART WITH 1");
+        jdbc.update("INSERT INTO BENEFICIO (NOME, DESCRICAO, VALOR, ATIVO) " +
+                "SELECT 'Beneficio ' || X, 'Conta de benchmark ' || X, ?, TRUE FROM SYSTEM_RANGE(1, ?)",
+                balance, accounts);
+    }
+
+}
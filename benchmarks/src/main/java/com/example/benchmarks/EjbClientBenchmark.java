@@ -0,0 +1,121 @@
+package com.example.benchmarks;
+
+import com.example.backend.dto.TransferRequestDTO;
+import com.example.backend.integration.TransferBatchMode;
+import com.example.backend.integration.TransferItemResult;
+import com.example.backend.integration.ejb.BeneficioEjbProperties;
+import com.example.backend.integration.ejb.EjbBeneficioTransferClient;
+import com.example.ejb.BeneficioTransferRemote;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EjbBeneficioTransferClient contra um JNDI local (StubInitialContextFactory).
+ *
+ * 'lookupPerCall' reproduz o cliente antigo (InitialContext + lookup a cada chamada)
+ * como linha de base para o pool de proxies.
+ *
+ * 'coalesce' é o 'batch-size' do cliente: com 1, cada 'pooledTransfer' é uma chamada remota;
+ * com 64, as 16 threads têm as transferências agrupadas em 'transferBatch'. Com 'roundTripMicros'
+ * acima de zero, cada chamada remota custa esse tempo, como a rede e a transação do servidor, e o
+ * servidor atende 4 chamadas por vez (StubInitialContextFactory).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class EjbClientBenchmark {
+
+    private static final BigDecimal AMOUNT = BigDecimal.ONE;
+
+    @Param({"1", "4"})
+    public int poolSize;
+
+    @Param({"10"})
+    public int batchSize;
+
+    @Param({"1", "64"})
+    public int coalesce;
+
+    @Param({"0", "200"})
+    public int roundTripMicros;
+
+    private BeneficioEjbProperties properties;
+
+    private EjbBeneficioTransferClient client;
+
+    private List<TransferRequestDTO> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        properties = new BeneficioEjbProperties();
+        properties.setEnabled(true);
+        properties.setPoolSize(poolSize);
+        properties.setHealthCheckInterval(Duration.ZERO);
+        properties.setBatchSize(coalesce);
+        properties.setBatchWindow(Duration.ofMillis(1));
+        properties.setBatchConcurrency(4);
+        StubInitialContextFactory.roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        properties.getJndi().put(Context.INITIAL_CONTEXT_FACTORY, StubInitialContextFactory.class.getName());
+        client = new EjbBeneficioTransferClient(properties);
+
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(new TransferRequestDTO(1L, 2L, AMOUNT));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public void pooledTransfer() {
+        client.transfer(1L, 2L, AMOUNT);
+    }
+
+    @Benchmark
+    public List<TransferItemResult> pooledBatch() {
+        return client.transferBatch(batch, TransferBatchMode.BEST_EFFORT);
+    }
+
+    @Benchmark
+    public void lookupPerCall() throws NamingException {
+        Hashtable<String, Object> env = new Hashtable<>();
+        env.putAll(properties.getJndi());
+        Context ctx = new InitialContext(env);
+        try {
+            BeneficioTransferRemote remote = (BeneficioTransferRemote) ctx.lookup(properties.getJndiName());
+            remote.transfer(1L, 2L, AMOUNT);
+        } finally {
+            ctx.close();
+        }
+    }
+
+}
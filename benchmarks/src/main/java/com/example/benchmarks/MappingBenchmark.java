@@ -0,0 +1,103 @@
+package com.example.benchmarks;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.BeneficioResponse;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.money.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de leitura sem banco: conversão de entidades para BeneficioResponse/BeneficioDTO
+ * e serialização Jackson das listas que o GET /api/v1/beneficios devolve.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int size;
+
+    private List<Beneficio> entities;
+
+    private List<BeneficioResponse> responses;
+
+    private ObjectWriter listWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        entities = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Beneficio b = new Beneficio();
+            b.setId((long) i);
+            b.setNome("Beneficio " + i);
+            b.setDescricao("Descrição do benefício " + i);
+            b.setValor(Money.ofCents(10_000L + i * 10L));
+            b.setAtivo(i % 7 != 0);
+            entities.add(b);
+        }
+        responses = entities.stream().map(BeneficioResponse::from).toList();
+        // Mesma configuração padrão do ObjectMapper que o Spring Boot registra.
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, BeneficioResponse.class));
+    }
+
+    @Benchmark
+    public List<BeneficioResponse> responseFrom() {
+        List<BeneficioResponse> out = new ArrayList<>(entities.size());
+        for (Beneficio b : entities) {
+            out.add(BeneficioResponse.from(b));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<BeneficioDTO> dtoFrom() {
+        List<BeneficioDTO> out = new ArrayList<>(entities.size());
+        for (Beneficio b : entities) {
+            out.add(new BeneficioDTO(b));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public void dtoRoundTrip(Blackhole bh) {
+        for (Beneficio b : entities) {
+            bh.consume(new BeneficioDTO(b).toEntity());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeList() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(responseFrom());
+    }
+
+}
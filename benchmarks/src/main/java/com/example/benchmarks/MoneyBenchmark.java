@@ -0,0 +1,120 @@
+package com.example.benchmarks;
+
+import com.example.backend.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Money (centavos em 'long') contra BigDecimal nas operações do caminho das transferências:
+ * checagem de saldo + débito + crédito, e leitura/escrita Jackson do valor.
+ *
+ * Rodar com '-prof gc' para comparar as alocações por operação ('gc.alloc.rate.norm'):
+ *
+ *   mvn -pl benchmarks -am verify -Pjmh -Djmh.args="MoneyBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private BigDecimal fromDecimal;
+
+    private BigDecimal toDecimal;
+
+    private BigDecimal amountDecimal;
+
+    private Money fromMoney;
+
+    private Money toMoney;
+
+    private Money amountMoney;
+
+    private ObjectWriter decimalWriter;
+
+    private ObjectWriter moneyWriter;
+
+    private ObjectReader decimalReader;
+
+    private ObjectReader moneyReader;
+
+    private String json;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        fromDecimal = new BigDecimal("1000000.00");
+        toDecimal = new BigDecimal("250.00");
+        amountDecimal = new BigDecimal("0.01");
+        fromMoney = Money.parse("1000000.00");
+        toMoney = Money.parse("250.00");
+        amountMoney = Money.parse("0.01");
+
+        // Mesma configuração padrão do ObjectMapper que o Spring Boot registra.
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        decimalWriter = mapper.writerFor(BigDecimal.class);
+        moneyWriter = mapper.writerFor(Money.class);
+        decimalReader = mapper.readerFor(BigDecimal.class);
+        moneyReader = mapper.readerFor(Money.class);
+        json = "1234567.89";
+    }
+
+    @Benchmark
+    public boolean debitCreditBigDecimal() {
+        if (fromDecimal.compareTo(amountDecimal) < 0) {
+            return false;
+        }
+        fromDecimal = fromDecimal.subtract(amountDecimal);
+        toDecimal = toDecimal.add(amountDecimal);
+        return true;
+    }
+
+    @Benchmark
+    public boolean debitCreditMoney() {
+        if (fromMoney.isLessThan(amountMoney)) {
+            return false;
+        }
+        fromMoney = fromMoney.minus(amountMoney);
+        toMoney = toMoney.plus(amountMoney);
+        return true;
+    }
+
+    @Benchmark
+    public String writeBigDecimal() throws IOException {
+        return decimalWriter.writeValueAsString(toDecimal);
+    }
+
+    @Benchmark
+    public String writeMoney() throws IOException {
+        return moneyWriter.writeValueAsString(toMoney);
+    }
+
+    @Benchmark
+    public BigDecimal readBigDecimal() throws IOException {
+        return decimalReader.readValue(json);
+    }
+
+    @Benchmark
+    public Money readMoney() throws IOException {
+        return moneyReader.readValue(json);
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.example.benchmarks;
+
+import com.example.backend.codec.BeneficioBinaryCodec;
+import com.example.backend.codec.PayloadFormatConfig;
+import com.example.backend.dto.BeneficioResponse;
+import com.example.backend.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Corpo do GET /api/v1/beneficios em cada formato negociável pelo Accept (JSON, CBOR e os
+ * registros binários de BeneficioBinaryCodec), com e sem gzip, como o Tomcat comprimiria.
+ *
+ * Além do tempo, o contador 'payloadBytes' traz o tamanho do corpo gerado (já comprimido,
+ * quando 'gzip' é true), para comparar o que cada formato coloca na rede.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    public enum Format { JSON, CBOR, BINARY }
+
+    @Param({"JSON", "CBOR", "BINARY"})
+    public Format format;
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private List<BeneficioResponse> responses;
+
+    private ObjectWriter jsonWriter;
+
+    private ObjectWriter cborWriter;
+
+    private BeneficioBinaryCodec binaryCodec;
+
+    // Reaproveitado entre as operações, como o buffer de resposta do Tomcat.
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(256 * 1024);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        responses = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            responses.add(new BeneficioResponse((long) i, "Beneficio " + i, "Descrição do benefício " + i,
+                    Money.ofCents(10_000L + i * 10L), i % 7 != 0, (long) i % 5));
+        }
+        // Mesma configuração padrão do ObjectMapper que o Spring Boot registra.
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper cbor = PayloadFormatConfig.cbor(json);
+        jsonWriter = json.writerFor(json.getTypeFactory().constructCollectionType(List.class, BeneficioResponse.class));
+        cborWriter = cbor.writerFor(cbor.getTypeFactory().constructCollectionType(List.class, BeneficioResponse.class));
+        binaryCodec = new BeneficioBinaryCodec();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+
+        // Tamanho do último corpo gerado (não acumula: é o mesmo em toda operação).
+        public long payloadBytes;
+
+    }
+
+    @Benchmark
+    public int write(Payload payload) throws IOException {
+        body.reset();
+        OutputStream out = gzip ? new GZIPOutputStream(body, 8192) : body;
+        switch (format) {
+            case JSON -> jsonWriter.writeValue(out, responses);
+            case CBOR -> cborWriter.writeValue(out, responses);
+            case BINARY -> binaryCodec.write(responses.iterator(), out, 0);
+        }
+        out.close();
+        payload.payloadBytes = body.size();
+        return body.size();
+    }
+
+}
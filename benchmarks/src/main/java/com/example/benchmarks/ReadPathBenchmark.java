@@ -0,0 +1,116 @@
+package com.example.benchmarks;
+
+import com.example.backend.cache.BeneficioCache;
+import com.example.backend.dto.BeneficioPage;
+import com.example.backend.dto.BeneficioResponse;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.service.BeneficioSpringService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de leitura contra o H2 embarcado: entidades gerenciadas copiadas para DTO (como
+ * era antes) contra as projeções JPQL em transação somente leitura. Com '-prof gc', a
+ * diferença aparece em 'gc.alloc.rate.norm' (bytes por operação): a entidade, a cópia do
+ * estado para o dirty checking e a entrada no contexto de persistência deixam de existir.
+ *
+ * - entityPage / projectionPage: uma página de 'size' linhas da listagem.
+ * - entityById / projectionById: a leitura de um ID com o cache desligado (toda chamada vai
+ *   ao banco), como na falta do BeneficioCache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+
+    static final int ACCOUNTS = 1000;
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+
+    private BeneficioSpringService service;
+
+    private EntityManager em;
+
+    private TransactionTemplate transaction;
+
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("beneficio.cache.enabled=false");
+        BenchmarkContext.seedAccounts(context, ACCOUNTS, new BigDecimal("100.00"));
+        service = context.getBean(BeneficioSpringService.class);
+        em = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        transaction = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BeneficioResponse> entityPage() {
+        return transaction.execute(status -> {
+            List<Beneficio> rows = em.createQuery("SELECT b FROM Beneficio b WHERE b.id > :after ORDER BY b.id",
+                            Beneficio.class)
+                    .setParameter("after", 0L)
+                    .setMaxResults(size)
+                    .getResultList();
+            List<BeneficioResponse> out = new ArrayList<>(rows.size());
+            for (Beneficio b : rows) {
+                out.add(BeneficioResponse.from(b));
+            }
+            return out;
+        });
+    }
+
+    @Benchmark
+    public BeneficioPage projectionPage() {
+        return service.listPage(null, null, size);
+    }
+
+    @Benchmark
+    public BeneficioCache.Snapshot entityById() {
+        long id = next();
+        return transaction.execute(status -> BeneficioCache.Snapshot.of(service.getById(id)));
+    }
+
+    @Benchmark
+    public BeneficioCache.Snapshot projectionById() {
+        return service.getSnapshot(next());
+    }
+
+    private long next() {
+        nextId = nextId % ACCOUNTS + 1;
+        return nextId;
+    }
+
+}
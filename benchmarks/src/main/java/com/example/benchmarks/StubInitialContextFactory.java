@@ -0,0 +1,84 @@
+package com.example.benchmarks;
+
+import com.example.ejb.BeneficioTransferRemote;
+import com.example.ejb.TransferOrder;
+import com.example.ejb.TransferOrderResult;
+
+import javax.naming.Context;
+import javax.naming.spi.InitialContextFactory;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * JNDI em processo para o benchmark do cliente EJB: todo 'lookup' devolve um
+ * BeneficioTransferRemote local que só conta as chamadas. Assim o benchmark mede
+ * o custo do cliente (pool, consulta, tratamento de erros), não o da rede.
+ *
+ * 'roundTripNanos' simula o custo fixo de cada chamada remota (rede + transação no
+ * servidor), pago uma vez por 'transfer' e uma vez por lote em 'transferBatch'. O servidor
+ * atende SERVER_SLOTS chamadas ao mesmo tempo, como o pool de EJBs e de conexões do banco.
+ */
+public class StubInitialContextFactory implements InitialContextFactory {
+
+    static final LongAdder lookups = new LongAdder();
+
+    static final LongAdder transfers = new LongAdder();
+
+    static final LongAdder remoteCalls = new LongAdder();
+
+    static volatile long roundTripNanos;
+
+    private static final int SERVER_SLOTS = 4;
+
+    private static final Semaphore SERVER = new Semaphore(SERVER_SLOTS);
+
+    private static final BeneficioTransferRemote REMOTE = new BeneficioTransferRemote() {
+        @Override
+        public void transfer(Long fromId, Long toId, BigDecimal amount) {
+            roundTrip();
+            transfers.increment();
+        }
+
+        @Override
+        public List<TransferOrderResult> transferBatch(List<TransferOrder> orders, boolean allOrNothing) {
+            roundTrip();
+            transfers.add(orders.size());
+            List<TransferOrderResult> results = new ArrayList<>(orders.size());
+            for (int i = 0; i < orders.size(); i++) {
+                results.add(TransferOrderResult.applied());
+            }
+            return results;
+        }
+    };
+
+    private static void roundTrip() {
+        remoteCalls.increment();
+        if (roundTripNanos > 0) {
+            SERVER.acquireUninterruptibly();
+            try {
+                LockSupport.parkNanos(roundTripNanos);
+            } finally {
+                SERVER.release();
+            }
+        }
+    }
+
+    @Override
+    public Context getInitialContext(Hashtable<?, ?> environment) {
+        return (Context) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Context.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("lookup")) {
+                        lookups.increment();
+                        return REMOTE;
+                    }
+                    return null;
+                });
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.example.benchmarks;
+
+import com.example.backend.integration.BeneficioTransferProperties;
+import com.example.backend.integration.audit.TransferAuditLog;
+import com.example.backend.integration.metrics.TransferOutcome;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.helpers.MessageFormatter;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Custo, na thread da transferência, de registrar um evento na trilha de auditoria
+ * (TransferAuditLog.record) contra só formatar a linha de log INFO que era escrita antes
+ * ("Transfer requested: from={} to={} amount={}"), sem contar a escrita do appender.
+ *
+ * Rodar com '-prof gc': o registro no ring buffer não aloca ('gc.alloc.rate.norm' ~0 B/op).
+ *
+ *   mvn -pl benchmarks -am verify -Pjmh -Djmh.args="TransferAuditBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferAuditBenchmark {
+
+    private Path directory;
+
+    private TransferAuditLog audit;
+
+    private Long fromId;
+
+    private Long toId;
+
+    private BigDecimal amount;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("transfer-audit-bench-");
+        BeneficioTransferProperties.Audit properties = new BeneficioTransferProperties.Audit();
+        properties.setDirectory(directory);
+        properties.setSegmentSize(DataSize.ofMegabytes(256));
+        properties.setMaxSegments(2);
+        properties.setBufferSize(1 << 20);
+        audit = new TransferAuditLog(properties);
+        fromId = 1_000L;
+        toId = 2_000L;
+        amount = new BigDecimal("150.25");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        audit.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    /**
+     * Eventos descartados por buffer cheio (a gravação não acompanhou a thread do benchmark).
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Drops {
+        public long dropped;
+    }
+
+    @Benchmark
+    public boolean auditRecord(Drops drops) {
+        boolean written = audit.record(fromId, toId, 15025L, TransferOutcome.OK, TransferAuditLog.TRANSFER, 1_000L);
+        if (!written) {
+            drops.dropped++;
+        }
+        return written;
+    }
+
+    @Benchmark
+    public String infoLogFormat() {
+        return MessageFormatter.arrayFormat("Transfer requested: from={} to={} amount={}",
+                new Object[]{fromId, toId, amount}).getMessage();
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.example.benchmarks;
+
+import com.example.backend.integration.BeneficioSubsaldoStore;
+import com.example.backend.integration.BeneficioTransferPort;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LocalBeneficioTransferService.transfer contra o H2 embarcado, em três perfis de contenção:
+ *
+ * - UNCONTENDED: cada thread transfere entre o seu próprio par de contas.
+ * - HOT_SPOT: todas as threads disputam as contas 1 e 2.
+ * - ZIPF: origem e destino sorteados com distribuição de Zipf entre ACCOUNTS contas.
+ * - FAN_IN: origens sorteadas, todas creditando a conta 1 (a conta "central").
+ *
+ * Além da vazão, os contadores 'applied' e 'failed' mostram quantas transferências
+ * terminaram com sucesso e quantas falharam (ex: conflito de lock otimista).
+ *
+ * O port é obtido do contexto como em produção (com o decorator de métricas);
+ * '-p metrics=false' mede o custo da instrumentação, e '-p stripes=8' fraciona o saldo
+ * da conta 1 em 8 faixas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TransferBenchmark {
+
+    static final int ACCOUNTS = 1000;
+
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    // Saldo alto o bastante para nenhuma transferência falhar por saldo insuficiente.
+    private static final BigDecimal BALANCE = new BigDecimal("1000000000.00");
+
+    public enum Contention { UNCONTENDED, HOT_SPOT, ZIPF, FAN_IN }
+
+    @Param({"UNCONTENDED", "HOT_SPOT", "ZIPF", "FAN_IN"})
+    public Contention contention;
+
+    @Param({"1.1"})
+    public double zipfExponent;
+
+    @Param({"true"})
+    public boolean metrics;
+
+    // Valores de 'beneficio.transfer.locking'; o modo SampleTime mostra a cauda de cada um.
+    @Param({"optimistic", "pessimistic", "atomic-sql"})
+    public String locking;
+
+    // Faixas do saldo da conta 1 (0 = saldo inteiro na linha).
+    @Param({"0"})
+    public int stripes;
+
+    private ConfigurableApplicationContext context;
+
+    private BeneficioTransferPort port;
+
+    private ZipfSampler zipf;
+
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "beneficio.transfer.metrics.enabled=" + metrics,
+                "beneficio.transfer.locking=" + locking);
+        BenchmarkContext.seedAccounts(context, ACCOUNTS, BALANCE);
+        if (stripes > 0) {
+            context.getBean(BeneficioSubsaldoStore.class).configure(1L, stripes);
+        }
+        port = context.getBean(BeneficioTransferPort.class);
+        zipf = new ZipfSampler(ACCOUNTS, zipfExponent);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        long ownFrom;
+        long ownTo;
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(TransferBenchmark benchmark) {
+            int id = benchmark.threadIds.getAndIncrement();
+            // Pares disjuntos (1,2), (3,4), ... para o cenário sem contenção.
+            ownFrom = 2L * (id % (ACCOUNTS / 2)) + 1;
+            ownTo = ownFrom + 1;
+            random = new SplittableRandom(id);
+        }
+
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+
+        public long applied;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            applied = 0;
+            failed = 0;
+        }
+
+    }
+
+    @Benchmark
+    public void transfer(Caller caller, Outcomes outcomes) {
+        long from;
+        long to;
+        switch (contention) {
+            case UNCONTENDED -> {
+                boolean forward = caller.random.nextBoolean();
+                from = forward ? caller.ownFrom : caller.ownTo;
+                to = forward ? caller.ownTo : caller.ownFrom;
+            }
+            case HOT_SPOT -> {
+                boolean forward = caller.random.nextBoolean();
+                from = forward ? 1L : 2L;
+                to = forward ? 2L : 1L;
+            }
+            case FAN_IN -> {
+                from = 2 + caller.random.nextInt(ACCOUNTS - 1);
+                to = 1L;
+            }
+            default -> {
+                from = zipf.next(caller.random);
+                do {
+                    to = zipf.next(caller.random);
+                } while (to == from);
+            }
+        }
+        try {
+            port.transfer(from, to, AMOUNT);
+            outcomes.applied++;
+        } catch (RuntimeException ex) {
+            outcomes.failed++;
+        }
+    }
+
+}
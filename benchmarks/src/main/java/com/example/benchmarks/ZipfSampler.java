@@ -0,0 +1,40 @@
+package com.example.benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * Sorteia IDs em [1, n] com distribuição de Zipf: o ID k aparece com peso 1/k^s.
+ * Com s ~ 1, poucas contas concentram a maior parte das transferências.
+ */
+final class ZipfSampler {
+
+    private final double[] cdf;
+
+    ZipfSampler(int n, double exponent) {
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, exponent);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    long next(SplittableRandom random) {
+        double u = random.nextDouble();
+        int lo = 0;
+        int hi = cdf.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cdf[mid] < u) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo + 1L;
+    }
+
+}
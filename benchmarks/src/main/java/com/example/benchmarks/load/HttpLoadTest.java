@@ -0,0 +1,274 @@
+package com.example.benchmarks.load;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Teste de carga HTTP em laço fechado contra o backend rodando em outro processo.
+ *
+ * 'clients' clientes simultâneos: cada um envia uma requisição, espera a resposta e envia a
+ * próxima, sem pausa. Cada requisição é um GET /{id} ou, com probabilidade 'transfer-ratio',
+ * um POST /transfer entre duas contas sorteadas. Antes de medir, cria 'accounts' benefícios
+ * com saldo alto (nenhuma transferência é recusada por saldo) e aquece o servidor.
+ *
+ * Os clientes não ocupam threads (HttpClient assíncrono), então 10k clientes cabem numa JVM
+ * comum; cada um mantém a sua conexão HTTP/1.1 aberta.
+ *
+ *   java -cp benchmarks/target/classes com.example.benchmarks.load.HttpLoadTest \
+ *        --url http://localhost:8080 --clients 1000 --duration 30s --label platform
+ *
+ * Imprime uma linha com vazão, p50/p99/p999 e erros; com '--csv', acrescenta a linha ao arquivo.
+ * O roteiro benchmarks/load-test.sh sobe o backend e roda as combinações de modo e clientes.
+ */
+public final class HttpLoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient http;
+
+    private final String url;
+
+    private final int clients;
+
+    private final double transferRatio;
+
+    private long[] accounts;
+
+    private final Histogram latencies = new Histogram();
+
+    private final LongAdder errors = new LongAdder();
+
+    private volatile boolean measuring;
+
+    private volatile boolean stopped;
+
+    private HttpLoadTest(String url, int clients, double transferRatio) {
+        this.url = url;
+        this.clients = clients;
+        this.transferRatio = transferRatio;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        int accounts = Integer.parseInt(options.getOrDefault("accounts", "1000"));
+        double transferRatio = Double.parseDouble(options.getOrDefault("transfer-ratio", "0.5"));
+        Duration warmup = duration(options.getOrDefault("warmup", "10s"));
+        Duration duration = duration(options.getOrDefault("duration", "30s"));
+        String label = options.getOrDefault("label", "-");
+
+        HttpLoadTest test = new HttpLoadTest(url, clients, transferRatio);
+        test.createAccounts(accounts);
+        Result result = test.run(warmup, duration);
+
+        String line = String.format(Locale.ROOT,
+                "mode=%s clients=%d requests=%d throughput=%.0f req/s p50=%.2f ms p99=%.2f ms p999=%.2f ms errors=%d",
+                label, clients, result.requests(), result.throughput(), result.p50Millis(), result.p99Millis(),
+                result.p999Millis(), result.errors());
+        System.out.println(line);
+
+        String csv = options.get("csv");
+        if (csv != null) {
+            Path path = Path.of(csv);
+            boolean header = !Files.exists(path);
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+                if (header) {
+                    out.println("mode,clients,requests,throughput_rps,p50_ms,p99_ms,p999_ms,errors");
+                }
+                out.printf(Locale.ROOT, "%s,%d,%d,%.0f,%.2f,%.2f,%.2f,%d%n", label, clients, result.requests(),
+                        result.throughput(), result.p50Millis(), result.p99Millis(), result.p999Millis(), result.errors());
+            }
+        }
+        System.exit(0);
+    }
+
+    private void createAccounts(int count) throws IOException, InterruptedException {
+        accounts = new long[count];
+        for (int i = 0; i < count; i++) {
+            String body = "{\"nome\":\"Carga " + i + "\",\"descricao\":\"Teste de carga\",\"valor\":1000000000.00,\"ativo\":true}";
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url + "/api/v1/beneficios"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = ID.matcher(response.body());
+            if (response.statusCode() != 201 || !matcher.find()) {
+                throw new IllegalStateException("Falha ao criar conta: " + response.statusCode() + " " + response.body());
+            }
+            accounts[i] = Long.parseLong(matcher.group(1));
+        }
+    }
+
+    private Result run(Duration warmup, Duration duration) throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            next(finished);
+        }
+
+        Thread.sleep(warmup.toMillis());
+        latencies.reset();
+        errors.reset();
+        measuring = true;
+        long start = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        measuring = false;
+        long elapsed = System.nanoTime() - start;
+        stopped = true;
+        finished.await(1, TimeUnit.MINUTES);
+
+        long ok = latencies.count();
+        long failed = errors.sum();
+        return new Result(ok + failed, (ok + failed) / (elapsed / 1e9),
+                latencies.percentile(0.50) / 1000.0, latencies.percentile(0.99) / 1000.0,
+                latencies.percentile(0.999) / 1000.0, failed);
+    }
+
+    private void next(CountDownLatch finished) {
+        if (stopped) {
+            finished.countDown();
+            return;
+        }
+        HttpRequest request = nextRequest();
+        long start = System.nanoTime();
+        http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            long micros = (System.nanoTime() - start) / 1000;
+            if (measuring) {
+                if (error == null && response.statusCode() < 400) {
+                    latencies.record(micros);
+                } else {
+                    errors.increment();
+                }
+            }
+            next(finished);
+        });
+    }
+
+    private HttpRequest nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long from = accounts[random.nextInt(accounts.length)];
+        if (random.nextDouble() >= transferRatio) {
+            return HttpRequest.newBuilder(URI.create(url + "/api/v1/beneficios/" + from)).GET().build();
+        }
+        long to = from;
+        while (to == from) {
+            to = accounts[random.nextInt(accounts.length)];
+        }
+        String body = "{\"fromId\":" + from + ",\"toId\":" + to + ",\"amount\":0.01}";
+        return HttpRequest.newBuilder(URI.create(url + "/api/v1/beneficios/transfer"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Opção inválida: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    // "30s", "2m" ou "500ms".
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return value.endsWith("m") ? Duration.ofMinutes(amount) : Duration.ofSeconds(amount);
+    }
+
+    private record Result(long requests, double throughput, double p50Millis, double p99Millis,
+                          double p999Millis, long errors) {
+    }
+
+    /**
+     * Histograma de latências em microssegundos, com baldes logarítmicos (erro relativo < 2%)
+     * e memória constante, sem guardar as amostras.
+     */
+    static final class Histogram {
+
+        // Baldes por potência de 2; abaixo de 2 * SUB, um balde por microssegundo.
+        private static final int SUB = 64;
+
+        private final AtomicLongArray counts = new AtomicLongArray(64 * SUB);
+
+        void record(long micros) {
+            counts.incrementAndGet(index(Math.max(0, micros)));
+        }
+
+        long count() {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                total += counts.get(i);
+            }
+            return total;
+        }
+
+        long percentile(double quantile) {
+            long total = count();
+            if (total == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= target) {
+                    return value(i);
+                }
+            }
+            return value(counts.length() - 1);
+        }
+
+        void reset() {
+            for (int i = 0; i < counts.length(); i++) {
+                counts.set(i, 0);
+            }
+        }
+
+        static int index(long micros) {
+            if (micros < 2 * SUB) {
+                return (int) micros;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(micros) - 6;
+            return shift * SUB + (int) (micros >>> shift);
+        }
+
+        // Limite inferior do balde.
+        static long value(int index) {
+            if (index < 2 * SUB) {
+                return index;
+            }
+            int shift = index / SUB - 1;
+            return (long) (index % SUB + SUB) << shift;
+        }
+
+    }
+
+}
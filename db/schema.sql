@@ -1,8 +1,61 @@
+-- IDs 1 a 50 ficam para as contas de exemplo (seed.sql). A sequence anda de 50 em 50: cada
+-- chamada reserva 50 IDs para o Hibernate (otimizador pooled); INSERTs por SQL usam o DEFAULT.
+CREATE SEQUENCE BENEFICIO_SEQ START WITH 51 INCREMENT BY 50;
+
 CREATE TABLE BENEFICIO (
-  ID BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  ID BIGINT DEFAULT nextval('BENEFICIO_SEQ') PRIMARY KEY,
   NOME VARCHAR(100) NOT NULL,
   DESCRICAO VARCHAR(255),
   VALOR DECIMAL(15,2) NOT NULL,
   ATIVO BOOLEAN DEFAULT TRUE,
-  VERSION BIGINT DEFAULT 0
+  VERSION BIGINT DEFAULT 0,
+  SUBSALDOS INT DEFAULT 0 NOT NULL
 );
+
+-- Índices de apoio à listagem por cursor (keyset) e aos filtros.
+CREATE INDEX IDX_BENEFICIO_ATIVO_ID ON BENEFICIO (ATIVO, ID);
+CREATE INDEX IDX_BENEFICIO_NOME ON BENEFICIO (NOME);
+CREATE INDEX IDX_BENEFICIO_VALOR ON BENEFICIO (VALOR, ID);
+
+-- Saldo fracionado das contas quentes: o saldo total é VALOR + a soma das faixas.
+CREATE TABLE BENEFICIO_SUBSALDO (
+  BENEFICIO_ID BIGINT NOT NULL REFERENCES BENEFICIO (ID) ON DELETE CASCADE,
+  FAIXA INT NOT NULL,
+  VALOR DECIMAL(15,2) NOT NULL,
+  PRIMARY KEY (BENEFICIO_ID, FAIXA)
+);
+
+-- Respostas das transferências com Idempotency-Key. STATUS nulo: requisição em andamento.
+CREATE TABLE TRANSFER_IDEMPOTENCIA (
+  CHAVE VARCHAR(128) PRIMARY KEY,
+  IMPRESSAO BIGINT NOT NULL,
+  STATUS INT,
+  CONTENT_TYPE VARCHAR(100),
+  LOCATION VARCHAR(255),
+  CORPO BYTEA,
+  CRIADO_EM TIMESTAMP NOT NULL
+);
+CREATE INDEX IDX_TRANSFER_IDEMPOTENCIA_CRIADO_EM ON TRANSFER_IDEMPOTENCIA (CRIADO_EM);
+
+-- Lançamentos das movimentações de saldo (só INSERT). INCREMENT BY 50 = 'allocationSize' da entidade.
+CREATE SEQUENCE TRANSFER_LEDGER_SEQ START WITH 1 INCREMENT BY 50;
+CREATE TABLE TRANSFER_LEDGER (
+  ID BIGINT PRIMARY KEY,
+  BENEFICIO_ID BIGINT NOT NULL,
+  CONTRAPARTE_ID BIGINT,
+  VALOR DECIMAL(15,2) NOT NULL,
+  TIPO VARCHAR(20) NOT NULL,
+  CRIADO_EM TIMESTAMP NOT NULL
+);
+CREATE INDEX IDX_TRANSFER_LEDGER_CONTA_ID ON TRANSFER_LEDGER (BENEFICIO_ID, ID);
+CREATE INDEX IDX_TRANSFER_LEDGER_CONTA_CRIADO_EM ON TRANSFER_LEDGER (BENEFICIO_ID, CRIADO_EM);
+
+-- Saldos de referência para reconstruir o saldo de uma conta em qualquer instante.
+CREATE TABLE BENEFICIO_SALDO_SNAPSHOT (
+  BENEFICIO_ID BIGINT NOT NULL,
+  ULTIMO_LANCAMENTO_ID BIGINT NOT NULL,
+  CRIADO_EM TIMESTAMP NOT NULL,
+  SALDO DECIMAL(15,2) NOT NULL,
+  PRIMARY KEY (BENEFICIO_ID, ULTIMO_LANCAMENTO_ID)
+);
+CREATE INDEX IDX_BENEFICIO_SALDO_SNAPSHOT_CRIADO_EM ON BENEFICIO_SALDO_SNAPSHOT (BENEFICIO_ID, CRIADO_EM);
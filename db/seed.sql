@@ -1,3 +1,6 @@
-INSERT INTO BENEFICIO (NOME, DESCRICAO, VALOR, ATIVO) VALUES
-('Beneficio A', 'Descrição A', 1000.00, TRUE),
-('Beneficio B', 'Descrição B', 500.00, TRUE);
+INSERT INTO BENEFICIO (ID, NOME, DESCRICAO, VALOR, ATIVO) VALUES
+(1, 'Beneficio A', 'Descrição A', 1000.00, TRUE),
+(2, 'Beneficio B', 'Descrição B', 500.00, TRUE);
+-- Saldo inicial das contas de exemplo, como snapshot.
+INSERT INTO BENEFICIO_SALDO_SNAPSHOT (BENEFICIO_ID, ULTIMO_LANCAMENTO_ID, CRIADO_EM, SALDO)
+SELECT ID, 0, TIMESTAMP '2000-01-01 00:00:00', VALOR FROM BENEFICIO;
@@ -7,10 +7,16 @@ import jakarta.ejb.TransactionAttribute;
 import jakarta.ejb.TransactionAttributeType;
 // Importa as classes do JPA (Jakarta Persistence API) para interação com o BD.
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
 
 /**
  * @Stateless: Define esta classe como um EJB "Stateless Session Bean".
@@ -30,10 +36,10 @@ public class BeneficioEjbService implements BeneficioTransferRemote {
      * É o equivalente a injetar o 'BeneficioRepository' no Spring, mas aqui
      * estamos injetando o "motor" do JPA diretamente, em vez de uma abstração (Repository).
      *
-     * O 'unitName = "default"' refere-se à unidade de persistência configurada
+     * O 'unitName = "beneficioPU"' refere-se à unidade de persistência configurada
      * no arquivo 'persistence.xml' do projeto.
      */
-    @PersistenceContext(unitName = "default")
+    @PersistenceContext(unitName = "beneficioPU")
     private EntityManager em; // 'em' (EntityManager) é o objeto usado para todas as operações de BD.
 
     /**
@@ -47,8 +53,156 @@ public class BeneficioEjbService implements BeneficioTransferRemote {
      */
     @TransactionAttribute(TransactionAttributeType.REQUIRED)
     public void transfer(Long fromId, Long toId, BigDecimal amount) {
-        // A lógica de transferência (buscar, debitar, creditar) seria implementada aqui
-        // e estaria protegida pela transação gerenciada pelo container.
+        // Uma transferência é um lote de um item: mesmas regras e mesmo lock ordenado.
+        TransferOrderResult result = applyBatch(List.of(new TransferOrder(fromId, toId, amount)), true).get(0);
+        switch (result.getStatus()) {
+            case APPLIED:
+                return;
+            // Exceção de aplicação: chega ao cliente como está, e o container faz o rollback.
+            case INSUFFICIENT_FUNDS:
+                throw new SaldoInsuficienteException(result.getMessage());
+            case NOT_FOUND:
+                throw new NoSuchElementException(result.getMessage());
+            case INACTIVE:
+                throw new IllegalStateException(result.getMessage());
+            default:
+                throw new IllegalArgumentException(result.getMessage());
+        }
+    }
+
+    /**
+     * REQUIRED: o lote inteiro roda em uma única transação, aberta pelo container.
+     *
+     * Os itens recusados não lançam exceção (viram resultados), então a transação só é
+     * desfeita se algo inesperado falhar, como o banco.
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRED)
+    public List<TransferOrderResult> transferBatch(List<TransferOrder> transfers, boolean allOrNothing) {
+        if (transfers == null || transfers.isEmpty()) {
+            throw new IllegalArgumentException("O lote deve conter ao menos uma transferência");
+        }
+        return applyBatch(transfers, allOrNothing);
+    }
+
+    /**
+     * Quantidade máxima de IDs por cláusula IN ao travar as contas do lote.
+     */
+    private static final int LOCK_CHUNK_SIZE = 1000;
+
+    /**
+     * Lock pessimista (SELECT ... FOR UPDATE) de todas as contas do lote, uma vez cada e
+     * sempre em ordem crescente de ID: dois lotes concorrentes nunca esperam um pelo outro
+     * em ciclo (sem deadlock). Os débitos e créditos são calculados em memória, na ordem
+     * dos itens; as entidades gerenciadas recebem só o saldo final, e o JPA grava um UPDATE
+     * por conta alterada no commit.
+     */
+    private List<TransferOrderResult> applyBatch(List<TransferOrder> transfers, boolean allOrNothing) {
+        Map<Long, Beneficio> contas = lockInAscendingOrder(transfers);
+
+        Map<Long, BigDecimal> saldos = new HashMap<>(contas.size() * 2);
+        contas.forEach((id, conta) -> saldos.put(id, conta.getValor()));
+
+        List<TransferOrderResult> results = new ArrayList<>(transfers.size());
+        boolean rejected = false;
+        for (TransferOrder t : transfers) {
+            TransferOrderResult result = validate(t, contas, saldos);
+            if (result == null) {
+                saldos.merge(t.getFromId(), t.getAmount(), BigDecimal::subtract);
+                saldos.merge(t.getToId(), t.getAmount(), BigDecimal::add);
+                result = TransferOrderResult.applied();
+            } else {
+                rejected = true;
+            }
+            results.add(result);
+        }
+
+        if (allOrNothing && rejected) {
+            // Nada foi escrito ainda: basta não passar os saldos para as entidades.
+            List<TransferOrderResult> aborted = new ArrayList<>(results.size());
+            for (TransferOrderResult r : results) {
+                aborted.add(r.isApplied()
+                        ? TransferOrderResult.rejected(TransferOrderResult.Status.ABORTED, "Lote não aplicado: outro item foi rejeitado")
+                        : r);
+            }
+            return aborted;
+        }
+
+        contas.forEach((id, conta) -> {
+            BigDecimal saldo = saldos.get(id);
+            if (saldo.compareTo(conta.getValor()) != 0) {
+                conta.setValor(saldo);
+            }
+        });
+        return results;
+    }
+
+    private Map<Long, Beneficio> lockInAscendingOrder(List<TransferOrder> transfers) {
+        TreeSet<Long> ids = new TreeSet<>();
+        for (TransferOrder t : transfers) {
+            if (t == null) continue;
+            if (t.getFromId() != null) ids.add(t.getFromId());
+            if (t.getToId() != null) ids.add(t.getToId());
+        }
+
+        Map<Long, Beneficio> contas = new HashMap<>(ids.size() * 2);
+        List<Long> chunk = new ArrayList<>(Math.min(ids.size(), LOCK_CHUNK_SIZE));
+        for (Long id : ids) {
+            chunk.add(id);
+            if (chunk.size() == LOCK_CHUNK_SIZE) {
+                lockChunk(chunk, contas);
+                chunk.clear();
+            }
+        }
+        lockChunk(chunk, contas);
+        return contas;
+    }
+
+    private void lockChunk(List<Long> ids, Map<Long, Beneficio> contas) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        // ORDER BY garante que as linhas sejam travadas na ordem crescente de ID.
+        em.createQuery("SELECT b FROM Beneficio b WHERE b.id IN :ids ORDER BY b.id", Beneficio.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList()
+                .forEach(b -> contas.put(b.getId(), b));
+    }
+
+    /**
+     * As regras de negócio de uma transferência, contra os saldos de trabalho do lote.
+     *
+     * @return O motivo da recusa, ou null se o item pode ser aplicado.
+     */
+    private static TransferOrderResult validate(TransferOrder t, Map<Long, Beneficio> contas,
+                                                Map<Long, BigDecimal> saldos) {
+        if (t == null) {
+            return TransferOrderResult.rejected(TransferOrderResult.Status.INVALID, "Transferência inválida");
+        }
+        if (t.getFromId() == null || t.getToId() == null) {
+            return TransferOrderResult.rejected(TransferOrderResult.Status.INVALID, "IDs devem ser fornecidos");
+        }
+        if (t.getFromId().equals(t.getToId())) {
+            return TransferOrderResult.rejected(TransferOrderResult.Status.INVALID, "fromId and toId devem ser diferentes");
+        }
+        if (t.getAmount() == null || t.getAmount().signum() <= 0) {
+            return TransferOrderResult.rejected(TransferOrderResult.Status.INVALID, "O valor deve ser positivo");
+        }
+        if (t.getAmount().stripTrailingZeros().scale() > 2) {
+            return TransferOrderResult.rejected(TransferOrderResult.Status.INVALID, "O valor deve ter no máximo 2 casas decimais");
+        }
+        Beneficio from = contas.get(t.getFromId());
+        Beneficio to = contas.get(t.getToId());
+        if (from == null || to == null) {
+            return TransferOrderResult.rejected(TransferOrderResult.Status.NOT_FOUND, "Beneficio não encontrado");
+        }
+        if (Boolean.FALSE.equals(from.getAtivo()) || Boolean.FALSE.equals(to.getAtivo())) {
+            return TransferOrderResult.rejected(TransferOrderResult.Status.INACTIVE, "Ambos os Benefícios devem estar ativos");
+        }
+        if (saldos.get(t.getFromId()).compareTo(t.getAmount()) < 0) {
+            return TransferOrderResult.rejected(TransferOrderResult.Status.INSUFFICIENT_FUNDS, "Saldo insuficiente");
+        }
+        return null;
     }
 
     /**
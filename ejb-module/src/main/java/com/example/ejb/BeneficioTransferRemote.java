@@ -9,6 +9,7 @@ import jakarta.ejb.Remote;
 // valores monetários e cálculos financeiros de precisão,
 // garantindo que não haja erros de arredondamento.
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * @Remote: Esta é a anotação principal deste arquivo. Ela "marca" esta
@@ -57,4 +58,18 @@ public interface BeneficioTransferRemote {
      */
     void transfer(Long fromId, Long toId, BigDecimal amount);
 
+    /**
+     * Aplica várias transferências em uma única chamada remota e uma única transação,
+     * pagando a rede e a abertura da transação uma vez por lote, e não por item.
+     *
+     * Os itens são aplicados na ordem recebida. Um item recusado (saldo insuficiente, conta
+     * inexistente ou inativa) não lança exceção: vira um resultado na mesma posição.
+     *
+     * @param transfers    Os itens do lote (a lista e os itens são serializáveis).
+     * @param allOrNothing Se true, basta um item recusado para nenhum ser aplicado (os demais
+     *                     voltam como ABORTED); se false, os itens válidos são aplicados.
+     * @return Um resultado por item, na mesma ordem.
+     */
+    List<TransferOrderResult> transferBatch(List<TransferOrder> transfers, boolean allOrNothing);
+
 } // Fim da interface
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.example.ejb;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Um item de 'BeneficioTransferRemote.transferBatch'.
+ *
+ * Classe simples (e não um record) para ser serializada por qualquer cliente EJB remoto.
+ */
+public class TransferOrder implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long fromId;
+
+    private final Long toId;
+
+    private final BigDecimal amount;
+
+    public TransferOrder(Long fromId, Long toId, BigDecimal amount) {
+        this.fromId = fromId;
+        this.toId = toId;
+        this.amount = amount;
+    }
+
+    public Long getFromId() { return fromId; }
+    public Long getToId() { return toId; }
+    public BigDecimal getAmount() { return amount; }
+
+}
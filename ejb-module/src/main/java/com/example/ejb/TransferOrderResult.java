@@ -0,0 +1,51 @@
+package com.example.ejb;
+
+import java.io.Serializable;
+
+/**
+ * Resultado de um item de 'BeneficioTransferRemote.transferBatch', na mesma posição do item.
+ *
+ * O 'status' diz por que o item foi recusado, para o cliente reproduzir o erro que a
+ * transferência individual teria dado; 'message' é o texto para o usuário.
+ */
+public class TransferOrderResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        APPLIED,
+        INVALID,
+        NOT_FOUND,
+        INACTIVE,
+        INSUFFICIENT_FUNDS,
+        // Item válido, mas não aplicado porque outro item de um lote 'allOrNothing' foi recusado.
+        ABORTED
+    }
+
+    private static final TransferOrderResult APPLIED = new TransferOrderResult(Status.APPLIED, null);
+
+    private final Status status;
+
+    private final String message;
+
+    public TransferOrderResult(Status status, String message) {
+        this.status = status;
+        this.message = message;
+    }
+
+    public static TransferOrderResult applied() {
+        return APPLIED;
+    }
+
+    public static TransferOrderResult rejected(Status status, String message) {
+        return new TransferOrderResult(status, message);
+    }
+
+    public Status getStatus() { return status; }
+    public String getMessage() { return message; }
+
+    public boolean isApplied() {
+        return status == Status.APPLIED;
+    }
+
+}